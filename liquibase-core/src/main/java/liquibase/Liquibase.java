@@ -15,6 +15,7 @@ import java.util.Set;
 import javax.xml.parsers.ParserConfigurationException;
 
 import liquibase.change.CheckSum;
+import liquibase.changelog.ChangeLogFingerprint;
 import liquibase.changelog.ChangeLogHistoryService;
 import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeLogIterator;
@@ -26,6 +27,7 @@ import liquibase.changelog.ChangeSetStatus;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.DatabaseChangeLogImpl;
 import liquibase.changelog.ExecutableChangeSet;
+import liquibase.changelog.GroupCommitService;
 import liquibase.changelog.RanChangeSet;
 import liquibase.changelog.filter.AfterTagChangeSetFilter;
 import liquibase.changelog.filter.AlreadyRanChangeSetFilter;
@@ -39,14 +41,17 @@ import liquibase.changelog.filter.LabelChangeSetFilter;
 import liquibase.changelog.filter.NotRanChangeSetFilter;
 import liquibase.changelog.filter.ShouldRunChangeSetFilter;
 import liquibase.changelog.visitor.ChangeExecListener;
+import liquibase.changelog.visitor.ChangeLogSyncConfiguration;
 import liquibase.changelog.visitor.ChangeLogSyncListener;
 import liquibase.changelog.visitor.ChangeLogSyncVisitor;
 import liquibase.changelog.visitor.DBDocVisitor;
 import liquibase.changelog.visitor.ExpectedChangesVisitor;
+import liquibase.changelog.visitor.GroupCommitConfiguration;
 import liquibase.changelog.visitor.ListVisitor;
 import liquibase.changelog.visitor.RollbackVisitor;
 import liquibase.changelog.visitor.StatusVisitor;
 import liquibase.changelog.visitor.UpdateVisitor;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.DatabaseConnection;
 import liquibase.database.DatabaseFactory;
@@ -70,6 +75,7 @@ import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.precondition.core.PreconditionMetadataCache;
 import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.ChangeLogSerializer;
 import liquibase.snapshot.DatabaseSnapshot;
@@ -218,6 +224,13 @@ public class Liquibase {
     }
 
     public void update(Contexts contexts, LabelExpression labelExpression) throws LiquibaseException {
+        ChangeLogFingerprint fingerprint = new ChangeLogFingerprint(database, resourceAccessor);
+        if (fingerprint.isUpToDate(changeLogFile, contexts, labelExpression)) {
+            log.info("Changelog files and " + database.getDatabaseChangeLogTableName() + " unchanged since the last update, database is up to date");
+            resetServices();
+            return;
+        }
+
         LockService lockService = LockServiceFactory.getInstance().getLockService(database);
         lockService.waitForLock();
 
@@ -233,8 +246,18 @@ public class Liquibase {
 
             ChangeLogIterator changeLogIterator = getStandardChangelogIterator(contexts, labelExpression, changeLog);
 
-            changeLogIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
+            PreconditionMetadataCache.getInstance().open(database);
+            UpdateVisitor updateVisitor = createUpdateVisitor();
+            changeLogIterator.run(updateVisitor, new RuntimeEnvironment(database, contexts, labelExpression));
+            updateVisitor.commitGroup();
+
+            if (ChangeLogFingerprint.isEnabled()) {
+                ListVisitor pending = new ListVisitor();
+                getStandardChangelogIterator(contexts, labelExpression, changeLog).run(pending, new RuntimeEnvironment(database, contexts, labelExpression));
+                fingerprint.save(changeLogFile, changeLog, contexts, labelExpression, pending.getSeenChangeSets().isEmpty());
+            }
         } finally {
+            PreconditionMetadataCache.getInstance().close(database);
             database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
             try {
                 lockService.releaseLock();
@@ -256,7 +279,8 @@ public class Liquibase {
 
 
     protected UpdateVisitor createUpdateVisitor() {
-        return new UpdateVisitor(database, changeExecListener);
+        GroupCommitConfiguration groupCommit = LiquibaseConfiguration.getInstance().getConfiguration(GroupCommitConfiguration.class);
+        return new UpdateVisitor(database, changeExecListener).setGroupCommit(groupCommit.getGroupSize(), groupCommit.getGroupMillis());
     }
 
 
@@ -329,8 +353,12 @@ public class Liquibase {
                     new DbmsChangeSetFilter(database),
                     new CountChangeSetFilter(changesToApply));
 
-            logIterator.run(createUpdateVisitor(), new RuntimeEnvironment(database, contexts, labelExpression));
+            PreconditionMetadataCache.getInstance().open(database);
+            UpdateVisitor updateVisitor = createUpdateVisitor();
+            logIterator.run(updateVisitor, new RuntimeEnvironment(database, contexts, labelExpression));
+            updateVisitor.commitGroup();
         } finally {
+            PreconditionMetadataCache.getInstance().close(database);
             lockService.releaseLock();
             resetServices();
         }
@@ -621,7 +649,10 @@ public class Liquibase {
                     new LabelChangeSetFilter(labelExpression),
                     new DbmsChangeSetFilter(database));
 
-            logIterator.run(new ChangeLogSyncVisitor(database, changeLogSyncListener), new RuntimeEnvironment(database, contexts, labelExpression));
+            int batchSize = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogSyncConfiguration.class).getBatchSize();
+            ChangeLogSyncVisitor visitor = new ChangeLogSyncVisitor(database, changeLogSyncListener).setBatchSize(batchSize);
+            logIterator.run(visitor, new RuntimeEnvironment(database, contexts, labelExpression));
+            visitor.flush();
         } finally {
             lockService.releaseLock();
             resetServices();
@@ -760,6 +791,8 @@ public class Liquibase {
         LockServiceFactory.getInstance().resetAll();
         ChangeLogHistoryServiceFactory.getInstance().resetAll();
         ExecutorService.getInstance().reset();
+        PreconditionMetadataCache.getInstance().close(database);
+        GroupCommitService.getInstance().close(database);
     }
 
     /**
@@ -1080,6 +1113,14 @@ public class Liquibase {
     }
 
     public void generateDocumentation(String outputDirectory, Contexts contexts, LabelExpression labelExpression) throws LiquibaseException {
+        generateDocumentation(outputDirectory, contexts, labelExpression, false);
+    }
+
+    /**
+     * Writes the documentation. If incremental, only pages whose content changed since the documentation was last written to the
+     * output directory are written again, see {@link DBDocVisitor#setIncremental(boolean)}.
+     */
+    public void generateDocumentation(String outputDirectory, Contexts contexts, LabelExpression labelExpression, boolean incremental) throws LiquibaseException {
         log.info("Generating Database Documentation");
         changeLogParameters.setContexts(contexts);
         changeLogParameters.setLabels(labelExpression);
@@ -1095,7 +1136,7 @@ public class Liquibase {
             ChangeLogIterator logIterator = new ChangeLogIterator(changeLog,
                     new DbmsChangeSetFilter(database));
 
-            DBDocVisitor visitor = new DBDocVisitor(database);
+            DBDocVisitor visitor = new DBDocVisitor(database).setIncremental(incremental);
             logIterator.run(visitor, new RuntimeEnvironment(database, contexts, labelExpression));
 
             visitor.writeHTML(new File(outputDirectory), resourceAccessor);
@@ -0,0 +1,224 @@
+package liquibase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
+import liquibase.changelog.ChangeLogParametersImpl;
+import liquibase.changelog.DatabaseChangeLogImpl;
+import liquibase.changelog.GroupCommitService;
+import liquibase.changelog.visitor.ChangeExecListener;
+import liquibase.database.Database;
+import liquibase.exception.LiquibaseException;
+import liquibase.executor.ExecutorService;
+import liquibase.lockservice.LockServiceFactory;
+import liquibase.logging.LogFactory;
+import liquibase.logging.Logger;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserFactory;
+import liquibase.precondition.core.PreconditionMetadataCache;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * Applies one changelog to many databases or schemas, e.g. one per tenant, on a bounded pool of worker threads.
+ * <p>
+ * The changelog is parsed once and shared by all targets, so changelog parameters which depend on the target database are evaluated
+ * with the parameters passed to {@link #MultiTargetUpdate(String, ResourceAccessor, ChangeLogParametersImpl)} rather than per target.
+ * Every target needs its own {@link Database} instance with its own connection. Executors, lock services and history services are kept
+ * per Database, and only the services of a target are reset when its update finishes.
+ * <p>
+ * The shared {@link DatabaseChangeLogImpl} and its change sets are only read by the targets and must not be modified once the update
+ * started. Each target wraps the change sets in its own executable change sets, and the checksums remembered by the shared change sets
+ * are safely published between threads.
+ * <p>
+ * A failing target does not stop the other targets. The outcome of each target is returned as a {@link Result}.
+ */
+public class MultiTargetUpdate {
+
+    private final DatabaseChangeLogImpl databaseChangeLog;
+    private final ResourceAccessor resourceAccessor;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private ChangeExecListener changeExecListener;
+
+    private Logger log = LogFactory.getLogger();
+
+    public MultiTargetUpdate(DatabaseChangeLogImpl databaseChangeLog, ResourceAccessor resourceAccessor) {
+        this.databaseChangeLog = databaseChangeLog;
+        this.resourceAccessor = resourceAccessor;
+    }
+
+    /**
+     * Parses the given changelog file once with the given parameters. Pass null to use a {@link ChangeLogParametersImpl} without database specific values.
+     */
+    public MultiTargetUpdate(String changeLogFile, ResourceAccessor resourceAccessor, ChangeLogParametersImpl changeLogParameters) throws LiquibaseException {
+        this(parse(changeLogFile.replace('\\', '/'), resourceAccessor, changeLogParameters == null ? new ChangeLogParametersImpl() : changeLogParameters), resourceAccessor);
+    }
+
+    private static DatabaseChangeLogImpl parse(String changeLogFile, ResourceAccessor resourceAccessor, ChangeLogParametersImpl changeLogParameters) throws LiquibaseException {
+        ChangeLogParser parser = ChangeLogParserFactory.getInstance().getParser(changeLogFile, resourceAccessor);
+        return (DatabaseChangeLogImpl) parser.parse(changeLogFile, changeLogParameters, resourceAccessor);
+    }
+
+    public DatabaseChangeLogImpl getDatabaseChangeLog() {
+        return databaseChangeLog;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Maximum number of targets updated at the same time. Defaults to the number of available processors.
+     */
+    public MultiTargetUpdate setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Listener notified for the changes of all targets. It is called from several threads at once and must be thread safe.
+     */
+    public MultiTargetUpdate setChangeExecListener(ChangeExecListener changeExecListener) {
+        this.changeExecListener = changeExecListener;
+        return this;
+    }
+
+    /**
+     * Updates all given databases and waits until all of them are finished. The results are in the order of the targets.
+     */
+    public List<Result> update(Collection<Database> targets, final Contexts contexts, final LabelExpression labelExpression) {
+        if (targets.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        java.util.concurrent.ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, targets.size()), new WorkerThreadFactory());
+        try {
+            List<Future<Result>> futures = new ArrayList<Future<Result>>();
+            for (final Database target : targets) {
+                futures.add(pool.submit(new Callable<Result>() {
+                    @Override
+                    public Result call() {
+                        return update(target, contexts, labelExpression);
+                    }
+                }));
+            }
+
+            List<Result> results = new ArrayList<Result>();
+            int failed = 0;
+            for (Future<Result> future : futures) {
+                Result result;
+                try {
+                    result = future.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while waiting for targets to update", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause());
+                }
+                if (!result.isSuccessful()) {
+                    failed++;
+                }
+                results.add(result);
+            }
+            log.info("Updated " + (results.size() - failed) + " of " + results.size() + " targets" + (failed > 0 ? ", " + failed + " failed" : ""));
+            return results;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    protected Result update(Database target, Contexts contexts, LabelExpression labelExpression) {
+        long start = System.currentTimeMillis();
+        try {
+            Liquibase liquibase = createLiquibase(target);
+            liquibase.update(contexts, labelExpression);
+            return new Result(target, null, System.currentTimeMillis() - start);
+        } catch (Throwable e) {
+            log.severe("Update of " + target.getConnection() + " failed: " + e.getMessage(), e);
+            return new Result(target, e, System.currentTimeMillis() - start);
+        }
+    }
+
+    protected Liquibase createLiquibase(Database target) {
+        Liquibase liquibase = new TargetLiquibase(databaseChangeLog, resourceAccessor, target);
+        liquibase.setChangeExecListener(changeExecListener);
+        return liquibase;
+    }
+
+    /**
+     * Liquibase instance which only resets the services of its own database, so it does not disturb the targets running in parallel.
+     */
+    private static class TargetLiquibase extends Liquibase {
+        private TargetLiquibase(DatabaseChangeLogImpl changeLog, ResourceAccessor resourceAccessor, Database database) {
+            super(changeLog, resourceAccessor, database);
+        }
+
+        @Override
+        protected void resetServices() {
+            LockServiceFactory.getInstance().resetLockService(database);
+            ChangeLogHistoryServiceFactory.getInstance().resetChangeLogService(database);
+            ExecutorService.getInstance().clearExecutor(database);
+            PreconditionMetadataCache.getInstance().close(database);
+            GroupCommitService.getInstance().close(database);
+        }
+    }
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "liquibase-update-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Outcome of the update of one target.
+     */
+    public static class Result {
+        private final Database database;
+        private final Throwable error;
+        private final long duration;
+
+        public Result(Database database, Throwable error, long duration) {
+            this.database = database;
+            this.error = error;
+            this.duration = duration;
+        }
+
+        public Database getDatabase() {
+            return database;
+        }
+
+        public boolean isSuccessful() {
+            return error == null;
+        }
+
+        /**
+         * The exception which stopped the update of this target, or null if it was successful.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        /**
+         * Time taken by the update of this target in milliseconds.
+         */
+        public long getDuration() {
+            return duration;
+        }
+    }
+}
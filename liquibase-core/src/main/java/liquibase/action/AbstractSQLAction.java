@@ -1,17 +1,23 @@
 package liquibase.action;
 
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import liquibase.change.BaseSQLChange;
 import liquibase.change.ChangeStatus;
 import liquibase.database.Database;
 import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
 import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.ValidationErrors;
 import liquibase.exception.Warnings;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.SqlStatementSplitter;
 import liquibase.util.StringUtils;
 
 public abstract class AbstractSQLAction<T extends BaseSQLChange> extends AbstractAction<T> {
@@ -63,8 +69,7 @@ public abstract class AbstractSQLAction<T extends BaseSQLChange> extends Abstrac
             return new SqlStatement[0];
         }
         String processedSQL = normalizeLineEndings(sql);
-        for (String statement : StringUtils.processMutliLineSQL(processedSQL, change.isStripComments(),
-            change.isSplitStatements(), change.getEndDelimiter())) {
+        for (String statement : splitStatements(processedSQL, database)) {
             if (database instanceof MSSQLDatabase) {
                 statement = statement.replaceAll("\\n", "\r\n");
             }
@@ -82,6 +87,30 @@ public abstract class AbstractSQLAction<T extends BaseSQLChange> extends Abstrac
         return returnStatements.toArray(new SqlStatement[returnStatements.size()]);
     }
 
+    /**
+     * Splits the SQL with a {@link SqlStatementSplitter}. Dollar quoted text, escape strings and nested comments are only recognized for
+     * PostgreSQL, backslash escapes in quoted text only for MySQL.
+     * <p>
+     * The splitter reads the SQL one statement at a time, but the statements are collected here since changes return all of their
+     * statements at once, so the complete SQL and its statements are held in memory while the change runs.
+     */
+    protected List<String> splitStatements(String sql, Database database) {
+        if (!change.isSplitStatements()) {
+            return Arrays.asList(StringUtils.processMutliLineSQL(sql, change.isStripComments(), false, change.getEndDelimiter()));
+        }
+        boolean postgres = database instanceof PostgresDatabase;
+        try {
+            return new SqlStatementSplitter(sql, change.isStripComments(), true, change.getEndDelimiter())
+                    .setBackslashEscapes(database instanceof MySQLDatabase)
+                    .setEscapeStrings(postgres)
+                    .setDollarQuoting(postgres)
+                    .setNestedComments(postgres)
+                    .readAll();
+        } catch (IOException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
     @Override
     public boolean generateStatementsVolatile(Database database) {
         return false;
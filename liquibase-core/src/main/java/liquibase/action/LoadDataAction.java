@@ -13,13 +13,19 @@ import liquibase.change.DatabaseChangeProperty;
 import liquibase.change.ExecutableChange;
 import liquibase.change.core.LoadDataChange;
 import liquibase.change.core.LoadDataColumnConfig;
+import liquibase.changelog.ChangeSet;
 import liquibase.changelog.ExecutableChangeSet;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.AbstractJdbcDatabase;
 import liquibase.database.Database;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.Warnings;
+import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.statement.LoadDataExecutablePreparedStatement;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.InsertStatement;
 import liquibase.structure.core.Column;
@@ -150,8 +156,50 @@ public class LoadDataAction extends AbstractAction<LoadDataChange> implements Ch
         change.setColumns(columns);
     }
 
+    /**
+     * If {@link LoadDataConfiguration#getBatchSize()} is set and the statements are executed directly against a JDBC connection,
+     * returns a single {@link LoadDataExecutablePreparedStatement} which streams the CSV file in JDBC batches.
+     * Otherwise returns one statement per row as created by {@link #generateRowStatements(liquibase.database.Database)}.
+     */
     @Override
     public SqlStatement[] generateStatements(Database database) {
+        if (isStreaming(database)) {
+            LoadDataConfiguration configuration = LiquibaseConfiguration.getInstance().getConfiguration(LoadDataConfiguration.class);
+            return new SqlStatement[] {
+                    new LoadDataExecutablePreparedStatement(database, this, configuration.getBatchSize(), configuration.getCommitInterval())
+            };
+        }
+        return generateRowStatements(database);
+    }
+
+    /**
+     * Rows are only streamed when a batch size is configured and they would otherwise be executed one by one by a {@link JdbcExecutor}.
+     * Output to updateSql, change sets with sql visitors and change sets with failOnError=false keep using one statement per row.
+     */
+    protected boolean isStreaming(Database database) {
+        if (LiquibaseConfiguration.getInstance().getConfiguration(LoadDataConfiguration.class).getBatchSize() <= 0) {
+            return false;
+        }
+        if (!(database.getConnection() instanceof JdbcConnection)
+                || !(ExecutorService.getInstance().getExecutor(database) instanceof JdbcExecutor)) {
+            return false;
+        }
+        ChangeSet changeSet = getChangeSet();
+        if (changeSet != null) {
+            if (changeSet.getFailOnError() != null && !changeSet.getFailOnError()) {
+                return false;
+            }
+            if (changeSet.getSqlVisitors() != null && !changeSet.getSqlVisitors().isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the whole CSV file and returns one statement per row.
+     */
+    public SqlStatement[] generateRowStatements(Database database) {
         CSVReader reader = null;
         try {
             reader = change.getCSVReader();
@@ -172,60 +220,10 @@ public class LoadDataAction extends AbstractAction<LoadDataChange> implements Ch
             while ((line = reader.readNext()) != null) {
                 lineNumber++;
 
-                if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)) {
-                    continue; //nothing on this line
-                }
-                InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
-                for (int i=0; i<headers.length; i++) {
-                    String columnName = null;
-                    if( i >= line.length ) {
-                      throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
-                    }
-
-                    Object value = line[i];
-
-                    ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
-                    if (columnConfig != null) {
-                        columnName = columnConfig.getName();
-
-                        if ("skip".equalsIgnoreCase(columnConfig.getType())) {
-                            continue;
-                        }
-
-                        if (value.toString().equalsIgnoreCase("NULL")) {
-                            value = "NULL";
-                        } else if (columnConfig.getType() != null) {
-                            ColumnConfig valueConfig = new ColumnConfig();
-                            if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
-                                valueConfig.setValueBoolean(BooleanParser.parseBoolean(value.toString().toLowerCase()));
-                            } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
-                                valueConfig.setValueNumeric(value.toString());
-                            } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
-                                valueConfig.setValueDate(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
-                                valueConfig.setValue(value.toString());
-                            } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
-                                liquibase.statement.DatabaseFunction function = new liquibase.statement.DatabaseFunction(value.toString());
-                                valueConfig.setValueComputed(function);
-                            } else {
-                                throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
-                            }
-                            value = valueConfig.getValueObject();
-                        }
-                    }
-
-                    if (columnName == null) {
-                        columnName = headers[i];
-                    }
-
-                    if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
-                        columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
-                    }
-
-
-                    insertStatement.addColumnValue(columnName, value);
+                InsertStatement insertStatement = createRowStatement(headers, line, lineNumber, database);
+                if (insertStatement != null) {
+                    statements.add(insertStatement);
                 }
-                statements.add(insertStatement);
             }
 
             return statements.toArray(new SqlStatement[statements.size()]);
@@ -251,6 +249,66 @@ public class LoadDataAction extends AbstractAction<LoadDataChange> implements Ch
 		}
     }
 
+    /**
+     * Creates the statement for one line of the CSV file, or returns null if the line is empty.
+     */
+    public InsertStatement createRowStatement(String[] headers, String[] line, int lineNumber, Database database) {
+        if (line.length == 0 || (line.length == 1 && StringUtils.trimToNull(line[0]) == null)) {
+            return null; //nothing on this line
+        }
+        InsertStatement insertStatement = this.createStatement(getCatalogName(), getSchemaName(), getTableName());
+        for (int i=0; i<headers.length; i++) {
+            String columnName = null;
+            if( i >= line.length ) {
+              throw new UnexpectedLiquibaseException("CSV Line " + lineNumber + " has only " + (i-1) + " columns, the header has " + headers.length);
+            }
+
+            Object value = line[i];
+
+            ColumnConfig columnConfig = getColumnConfig(i, headers[i].trim());
+            if (columnConfig != null) {
+                columnName = columnConfig.getName();
+
+                if ("skip".equalsIgnoreCase(columnConfig.getType())) {
+                    continue;
+                }
+
+                if (value.toString().equalsIgnoreCase("NULL")) {
+                    value = "NULL";
+                } else if (columnConfig.getType() != null) {
+                    ColumnConfig valueConfig = new ColumnConfig();
+                    if (columnConfig.getType().equalsIgnoreCase("BOOLEAN")) {
+                        valueConfig.setValueBoolean(BooleanParser.parseBoolean(value.toString().toLowerCase()));
+                    } else if (columnConfig.getType().equalsIgnoreCase("NUMERIC")) {
+                        valueConfig.setValueNumeric(value.toString());
+                    } else if (columnConfig.getType().toLowerCase().contains("date") ||columnConfig.getType().toLowerCase().contains("time")) {
+                        valueConfig.setValueDate(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("STRING")) {
+                        valueConfig.setValue(value.toString());
+                    } else if (columnConfig.getType().equalsIgnoreCase("COMPUTED")) {
+                        liquibase.statement.DatabaseFunction function = new liquibase.statement.DatabaseFunction(value.toString());
+                        valueConfig.setValueComputed(function);
+                    } else {
+                        throw new UnexpectedLiquibaseException("loadData type of "+columnConfig.getType()+" is not supported.  Please use BOOLEAN, NUMERIC, DATE, STRING, COMPUTED or SKIP");
+                    }
+                    value = valueConfig.getValueObject();
+                }
+            }
+
+            if (columnName == null) {
+                columnName = headers[i];
+            }
+
+            if (columnName.contains("(") || columnName.contains(")") && database instanceof AbstractJdbcDatabase) {
+                columnName = ((AbstractJdbcDatabase) database).quoteObject(columnName, Column.class);
+            }
+
+
+            insertStatement.addColumnValue(columnName, value);
+        }
+        return insertStatement;
+    }
+
     @Override
     public boolean generateStatementsVolatile(Database database) {
         return true;
@@ -0,0 +1,51 @@
+package liquibase.action;
+
+import liquibase.configuration.AbstractConfigurationContainer;
+
+/**
+ * Configuration container for the streaming execution of {@link LoadDataAction} and {@link LoadUpdateDataAction}.
+ */
+public class LoadDataConfiguration extends AbstractConfigurationContainer {
+
+    public static final String BATCH_SIZE = "loadDataBatchSize";
+    public static final String COMMIT_INTERVAL = "loadDataCommitInterval";
+
+    public LoadDataConfiguration() {
+        super("liquibase");
+
+        getContainer().addProperty(BATCH_SIZE, Integer.class)
+                .setDescription("Number of CSV rows sent to the database in one JDBC batch by loadData and loadUpdateData. If 0, every row is executed as a separate statement")
+                .setDefaultValue(0);
+
+        getContainer().addProperty(COMMIT_INTERVAL, Integer.class)
+                .setDescription("Number of CSV rows after which a batched loadData or loadUpdateData commits. If 0, rows are committed with the change set")
+                .setDefaultValue(0);
+    }
+
+    /**
+     * Number of rows per JDBC batch, or 0 if loadData should not stream its rows.
+     */
+    public int getBatchSize() {
+        Integer value = getContainer().getValue(BATCH_SIZE, Integer.class);
+        return value == null ? 0 : value;
+    }
+
+    public LoadDataConfiguration setBatchSize(int batchSize) {
+        getContainer().setValue(BATCH_SIZE, batchSize);
+        return this;
+    }
+
+    /**
+     * Number of rows between commits, or 0 if the rows are only committed with the change set.
+     * Committing within a change set means a failed load cannot be rolled back completely.
+     */
+    public int getCommitInterval() {
+        Integer value = getContainer().getValue(COMMIT_INTERVAL, Integer.class);
+        return value == null ? 0 : value;
+    }
+
+    public LoadDataConfiguration setCommitInterval(int commitInterval) {
+        getContainer().setValue(COMMIT_INTERVAL, commitInterval);
+        return this;
+    }
+}
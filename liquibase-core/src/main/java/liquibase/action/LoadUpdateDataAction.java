@@ -77,7 +77,7 @@ public class LoadUpdateDataAction extends LoadDataAction {
     @Override
     public SqlStatement[] generateRollbackStatements(Database database) throws RollbackImpossibleException {
         List<SqlStatement> statements = new ArrayList<SqlStatement>();
-        SqlStatement[] forward = this.generateStatements(database);
+        SqlStatement[] forward = this.generateRowStatements(database);
 
         for(SqlStatement thisForward: forward){
             InsertOrUpdateStatement thisInsert = (InsertOrUpdateStatement)thisForward;
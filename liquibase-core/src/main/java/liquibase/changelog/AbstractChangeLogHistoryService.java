@@ -1,6 +1,7 @@
 package liquibase.changelog;
 
 import java.util.Date;
+import java.util.List;
 
 import liquibase.Contexts;
 import liquibase.LabelExpression;
@@ -74,14 +75,18 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
         }
     }
 
+    /**
+     * Default implementation indexes the list returned by {@link #getRanChangeSets()}. If that list is the view of an existing
+     * {@link RanChangeSetIndex} the index is reused rather than rebuilt.
+     */
+    @Override
+    public RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException {
+        return RanChangeSetIndex.forList(getRanChangeSets());
+    }
+
     @Override
     public RanChangeSet getRanChangeSet(final ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException {
-        for (RanChangeSet ranChange : getRanChangeSets()) {
-            if (ranChange.isSameAs(changeSet)) {
-                return ranChange;
-            }
-        }
-        return null;
+        return getRanChangeSetIndex().find(changeSet);
     }
 
     @Override
@@ -96,5 +101,10 @@ public abstract class AbstractChangeLogHistoryService implements ChangeLogHistor
 
     protected abstract void replaceChecksum(ChangeSet changeSet) throws DatabaseException;
 
-
+    @Override
+    public void setExecTypes(List<? extends ChangeSet> changeSets, ChangeSetImpl.ExecType execType) throws DatabaseException {
+        for (ChangeSet changeSet : changeSets) {
+            setExecType(changeSet, execType);
+        }
+    }
 }
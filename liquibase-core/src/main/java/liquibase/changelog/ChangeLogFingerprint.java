@@ -0,0 +1,249 @@
+package liquibase.changelog;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.database.Database;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.executor.Executor;
+import liquibase.executor.ExecutorService;
+import liquibase.logging.LogFactory;
+import liquibase.precondition.Precondition;
+import liquibase.precondition.PreconditionLogic;
+import liquibase.resource.ResourceAccessor;
+import liquibase.statement.NotNullConstraint;
+import liquibase.statement.core.CreateTableStatement;
+import liquibase.statement.core.DeleteStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.RawSqlStatement;
+import liquibase.util.MD5Util;
+import liquibase.util.file.StreamUtil;
+import liquibase.util.StringUtils;
+
+/**
+ * Remembers that a changelog left nothing to run, so the next update can tell that the database is still up to date without taking the
+ * lock or parsing the changelog. The fingerprint consists of the checksums of the changelog files, the listings of the includeAll
+ * directories and the number of rows and highest ORDEREXECUTED of DATABASECHANGELOG. It is kept in a table per changelog file, contexts
+ * and labels, see {@link ChangeLogFingerprintConfiguration}.
+ */
+public class ChangeLogFingerprint {
+
+    private static final String HISTORY = "#history";
+    private static final String INCLUDE_ALL = "includeAll:";
+
+    private final Database database;
+    private final ResourceAccessor resourceAccessor;
+
+    public ChangeLogFingerprint(Database database, ResourceAccessor resourceAccessor) {
+        this.database = database;
+        this.resourceAccessor = resourceAccessor;
+    }
+
+    public static boolean isEnabled() {
+        return LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogFingerprintConfiguration.class).getEnabled();
+    }
+
+    /**
+     * Returns true if a fingerprint was saved for the changelog, contexts and labels, and neither the changelog files nor
+     * DATABASECHANGELOG changed since.
+     */
+    public boolean isUpToDate(String changeLogFile, Contexts contexts, LabelExpression labelExpression) {
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        if (!isEnabled() || !executor.updatesDatabase()) {
+            return false;
+        }
+        try {
+            List<Map<String, ?>> rows = executor.queryForList(new RawSqlStatement("SELECT FILENAME, MD5SUM FROM " + getTableName()
+                    + " WHERE ID = '" + getKey(changeLogFile, contexts, labelExpression) + "'"));
+            if (rows.isEmpty()) {
+                return false;
+            }
+            for (Map<String, ?> row : rows) {
+                List<?> values = new ArrayList<Object>(row.values());
+                String fileName = (String) values.get(0);
+                String checksum = (String) values.get(1);
+                if (!checksum.equals(computeChecksum(fileName))) {
+                    LogFactory.getLogger().debug(fileName + " changed since the last update");
+                    return false;
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            LogFactory.getLogger().debug("Cannot check whether the database is up to date: " + e.getMessage());
+            try {
+                database.rollback();
+            } catch (DatabaseException e1) {
+                ;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Saves the fingerprint of the changelog if it is up to date, or removes an older fingerprint otherwise. Changelogs with runAlways or
+     * runOnChange change sets or with changelog preconditions are never considered up to date, since they may have something to run
+     * although their files did not change. Nor are changelogs with files which cannot be read.
+     * <p>
+     * Failures are logged and rolled back rather than thrown, since the update itself succeeded.
+     */
+    public void save(String changeLogFile, DatabaseChangeLogImpl changeLog, Contexts contexts, LabelExpression labelExpression, boolean upToDate) {
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        if (!isEnabled() || !executor.updatesDatabase()) {
+            return;
+        }
+        try {
+            String key = getKey(changeLogFile, contexts, labelExpression);
+            boolean hasTable = hasTable(executor);
+            if (hasTable) {
+                executor.execute(new DeleteStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableNameConfiguration())
+                        .setWhere("ID = '" + key + "'"));
+            }
+            Map<String, String> fingerprint = null;
+            if (upToDate && canBeUpToDate(changeLog)) {
+                fingerprint = getFingerprint(changeLog);
+            }
+            if (fingerprint != null) {
+                if (!hasTable) {
+                    executor.execute(new CreateTableStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableNameConfiguration())
+                            .addColumn("ID", DataTypeFactory.getInstance().fromDescription("VARCHAR(32)", database), new NotNullConstraint())
+                            .addColumn("FILENAME", DataTypeFactory.getInstance().fromDescription("VARCHAR(1000)", database), new NotNullConstraint())
+                            .addColumn("MD5SUM", DataTypeFactory.getInstance().fromDescription("VARCHAR(35)", database), new NotNullConstraint()));
+                }
+                for (Map.Entry<String, String> entry : fingerprint.entrySet()) {
+                    executor.execute(new InsertStatement(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableNameConfiguration())
+                            .addColumnValue("ID", key)
+                            .addColumnValue("FILENAME", entry.getKey())
+                            .addColumnValue("MD5SUM", entry.getValue()));
+                }
+            }
+            database.commit();
+        } catch (Exception e) {
+            LogFactory.getLogger().warning("Cannot save the fingerprint of " + changeLogFile + ", the next update will parse it again: " + e.getMessage());
+            try {
+                database.rollback();
+            } catch (DatabaseException e1) {
+                ;
+            }
+        }
+    }
+
+    private boolean canBeUpToDate(DatabaseChangeLogImpl changeLog) {
+        if (hasPreconditions(changeLog.getPreconditions())) {
+            return false;
+        }
+        for (ChangeSet changeSet : changeLog.getChangeSets()) {
+            if (changeSet.isAlwaysRun() || changeSet.isRunOnChange()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasPreconditions(Precondition precondition) {
+        if (precondition == null) {
+            return false;
+        }
+        if (!(precondition instanceof PreconditionLogic)) {
+            return true;
+        }
+        for (Precondition nested : ((PreconditionLogic) precondition).getNestedPreconditions()) {
+            if (hasPreconditions(nested)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the checksums of the history and of all changelog files, or null if a changelog file cannot be read. Without its
+     * checksum, changes of the file could not be detected.
+     */
+    private Map<String, String> getFingerprint(DatabaseChangeLogImpl changeLog) throws DatabaseException, IOException {
+        Map<String, String> fingerprint = new LinkedHashMap<String, String>();
+        fingerprint.put(HISTORY, computeChecksum(HISTORY));
+        List<String> files = new ArrayList<String>();
+        files.add(changeLog.getPhysicalFilePath());
+        files.addAll(changeLog.getIncludedFilePaths());
+        for (String file : files) {
+            String checksum = computeChecksum(file);
+            if (checksum == null) {
+                LogFactory.getLogger().info("Cannot read " + file + ", not saving the fingerprint of the changelog");
+                return null;
+            }
+            fingerprint.put(file, checksum);
+        }
+        for (DatabaseChangeLogImpl.IncludedDirectory directory : changeLog.getIncludedDirectories()) {
+            String name = INCLUDE_ALL + StringUtils.trimToEmpty(directory.getRelativeTo()) + "|" + directory.getPath();
+            fingerprint.put(name, computeChecksum(name));
+        }
+        return fingerprint;
+    }
+
+    /**
+     * Returns the checksum of the history, an includeAll directory listing or a changelog file, or null if the file cannot be read.
+     */
+    private String computeChecksum(String name) throws DatabaseException, IOException {
+        if (name.equals(HISTORY)) {
+            String table = database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogTableName());
+            Executor executor = ExecutorService.getInstance().getExecutor(database);
+            return MD5Util.computeMD5(executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM " + table))
+                    + ":" + executor.queryForInt(new RawSqlStatement("SELECT MAX(ORDEREXECUTED) FROM " + table)));
+        }
+
+        if (name.startsWith(INCLUDE_ALL)) {
+            String[] directory = name.substring(INCLUDE_ALL.length()).split("\\|", 2);
+            Set<String> resources = resourceAccessor.list(StringUtils.trimToNull(directory[0]), directory[1], true, false, true);
+            return MD5Util.computeMD5(resources == null ? "" : StringUtils.join(new TreeSet<String>(resources), "\n"));
+        }
+
+        Set<InputStream> streams = resourceAccessor.getResourcesAsStream(name);
+        if (streams == null || streams.isEmpty()) {
+            return null;
+        }
+        StringBuilder checksums = new StringBuilder();
+        for (InputStream stream : streams) {
+            try {
+                checksums.append(MD5Util.computeMD5(stream));
+            } finally {
+                StreamUtil.closeQuietly(stream);
+            }
+        }
+        return streams.size() == 1 ? checksums.toString() : MD5Util.computeMD5(checksums.toString());
+    }
+
+    private boolean hasTable(Executor executor) {
+        try {
+            executor.queryForInt(new RawSqlStatement("SELECT COUNT(*) FROM " + getTableName()));
+            return true;
+        } catch (DatabaseException e) {
+            try {
+                database.rollback();
+            } catch (DatabaseException e1) {
+                ;
+            }
+            return false;
+        }
+    }
+
+    private String getKey(String changeLogFile, Contexts contexts, LabelExpression labelExpression) {
+        return MD5Util.computeMD5(changeLogFile + "|" + (contexts == null ? "" : contexts.toString()) + "|" + (labelExpression == null ? "" : labelExpression.toString()));
+    }
+
+    private String getTableNameConfiguration() {
+        return LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogFingerprintConfiguration.class).getTableName();
+    }
+
+    private String getTableName() {
+        return database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), getTableNameConfiguration());
+    }
+}
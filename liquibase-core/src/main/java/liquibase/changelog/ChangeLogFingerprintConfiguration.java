@@ -0,0 +1,42 @@
+package liquibase.changelog;
+
+import liquibase.configuration.AbstractConfigurationContainer;
+
+/**
+ * Configuration container for {@link ChangeLogFingerprint}.
+ */
+public class ChangeLogFingerprintConfiguration extends AbstractConfigurationContainer {
+
+    public static final String ENABLED = "upToDateFastPath";
+    public static final String TABLE_NAME = "changeLogStateTableName";
+
+    public ChangeLogFingerprintConfiguration() {
+        super("liquibase");
+
+        getContainer().addProperty(ENABLED, Boolean.class)
+                .setDescription("Skip update without taking the lock or parsing the changelog if the changelog files and DATABASECHANGELOG did not change since an update left nothing to run. Changes of changelog parameters and of files referenced by change sets, like sqlFile, are not detected")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(TABLE_NAME, String.class)
+                .setDescription("Name of table to use for the fingerprints of up to date changelogs")
+                .setDefaultValue("DATABASECHANGELOGSTATE");
+    }
+
+    public boolean getEnabled() {
+        return getContainer().getValue(ENABLED, Boolean.class);
+    }
+
+    public ChangeLogFingerprintConfiguration setEnabled(boolean enabled) {
+        getContainer().setValue(ENABLED, enabled);
+        return this;
+    }
+
+    public String getTableName() {
+        return getContainer().getValue(TABLE_NAME, String.class);
+    }
+
+    public ChangeLogFingerprintConfiguration setTableName(String tableName) {
+        getContainer().setValue(TABLE_NAME, tableName);
+        return this;
+    }
+}
@@ -31,6 +31,11 @@ public interface ChangeLogHistoryService extends PrioritizedService {
 
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException;
 
+    /**
+     * Returns an index over {@link #getRanChangeSets()} for matching changeSets without scanning the full history.
+     */
+    RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException;
+
     RanChangeSet getRanChangeSet(ChangeSet changeSet) throws DatabaseException, DatabaseHistoryException;
 
     ExecutableChangeSet.RunStatus getRunStatus(ExecutableChangeSet changeSet) throws DatabaseException, DatabaseHistoryException;
@@ -42,6 +47,11 @@ public interface ChangeLogHistoryService extends PrioritizedService {
 
     void setExecType(ChangeSet changeSet, ChangeSetImpl.ExecType execType) throws DatabaseException;
 
+    /**
+     * Like {@link #setExecType(ChangeSet, ChangeSetImpl.ExecType)} for each changeSet, but may write them with fewer round trips and commits.
+     */
+    void setExecTypes(List<? extends ChangeSet> changeSets, ChangeSetImpl.ExecType execType) throws DatabaseException;
+
     void removeFromHistory(ChangeSet changeSet) throws DatabaseException;
 
     int getNextSequenceValue() throws LiquibaseException;
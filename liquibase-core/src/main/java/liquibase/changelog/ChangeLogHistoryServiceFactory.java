@@ -93,6 +93,16 @@ public class ChangeLogHistoryServiceFactory {
             }
     }
 
+    /**
+     * Resets and forgets the ChangeLogHistoryService of the given database only, leaving the services of other databases untouched.
+     */
+    public void resetChangeLogService(Database database) {
+        ChangeLogHistoryService service = services.remove(database);
+        if (service != null) {
+            service.reset();
+        }
+    }
+
     public void resetAll() {
         for (ChangeLogHistoryService changeLogHistoryService : registry) {
             changeLogHistoryService.reset();
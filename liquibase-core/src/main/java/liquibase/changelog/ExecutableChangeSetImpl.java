@@ -27,6 +27,7 @@ import liquibase.exception.SetupException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 import liquibase.parser.core.ParsedNode;
@@ -35,6 +36,7 @@ import liquibase.precondition.Conditional;
 import liquibase.precondition.ErrorPrecondition;
 import liquibase.precondition.FailedPrecondition;
 import liquibase.precondition.core.PreconditionContainer;
+import liquibase.precondition.core.PreconditionMetadataCache;
 import liquibase.precondition.core.PreconditionService;
 import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.LiquibaseSerializable;
@@ -70,6 +72,10 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
 
     private ChangeSetImpl delegate;
 
+    private volatile CheckSum checkSum;
+    private int checkSumChangeCount;
+    private int checkSumSqlVisitorCount;
+
     /* (non-Javadoc)
      * @see liquibase.changelog.IChangeSet#shouldAlwaysRun()
      */
@@ -131,6 +137,16 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
      */
     @Override
     public CheckSum generateCheckSum() {
+        if (sqlVisitors.isEmpty() && delegate.getSqlVisitors().isEmpty()) {
+            //same value either way, but the delegate remembers it across the ExecutableChangeSets created for each ChangeLogIterator run
+            return delegate.generateCheckSum();
+        }
+
+        CheckSum checkSum = this.checkSum;
+        if (checkSum != null && checkSumChangeCount == getChanges().size() && checkSumSqlVisitorCount == sqlVisitors.size()) {
+            return checkSum;
+        }
+
         StringBuffer stringToMD5 = new StringBuffer();
         for (Change change : getChanges()) {
             stringToMD5.append(change.generateCheckSum()).append(":");
@@ -140,8 +156,11 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
             stringToMD5.append(visitor.generateCheckSum()).append(";");
         }
 
-
-        return CheckSum.compute(stringToMD5.toString());
+        checkSum = CheckSum.compute(stringToMD5.toString());
+        this.checkSumChangeCount = getChanges().size();
+        this.checkSumSqlVisitorCount = sqlVisitors.size();
+        this.checkSum = checkSum;
+        return checkSum;
     }
 
     /* (non-Javadoc)
@@ -150,6 +169,7 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
     @Override
     public void load(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException {
         delegate.load(node, resourceAccessor);
+        checkSum = null;
     }
 
     protected ExecutableChange toChange(ParsedNode value, ResourceAccessor resourceAccessor) throws ParsedNodeException {
@@ -281,9 +301,9 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
                     throw new UnexpectedLiquibaseException("Unexpected precondition onError attribute: " + preconditions.getOnError(), e);
                 }
 
-                database.rollback();
+                rollbackUnlessGrouped(database);
             } finally {
-                database.rollback();
+                rollbackUnlessGrouped(database);
             }
 
             if (!skipChange) {
@@ -296,23 +316,38 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
                 }
 
                 log.debug("Reading ChangeSet: " + toString());
-                for (Change c : getChanges()) {
-                    ExecutableChange change = (ExecutableChange) c;
-                    if ((!(change instanceof DbmsTargetedChange)) || DatabaseList.definitionMatches(((DbmsTargetedChange) change).getDbms(), database, true)) {
-                        if (listener != null) {
-                            listener.willRun(change, this, getChangeLog(), database);
-                        }
-                        database.executeStatements(change, databaseChangeLog, sqlVisitors);
-                        log.info(change.getConfirmationMessage());
-                        if (listener != null) {
-                            listener.ran(change, this, getChangeLog(), database);
+                //inserts and updates of consecutive changes are sent in one batch if the executor prepares them
+                JdbcExecutor batchingExecutor = executor instanceof JdbcExecutor ? (JdbcExecutor) executor : null;
+                if (batchingExecutor != null) {
+                    batchingExecutor.startBatch();
+                }
+                try {
+                    for (Change c : getChanges()) {
+                        ExecutableChange change = (ExecutableChange) c;
+                        if ((!(change instanceof DbmsTargetedChange)) || DatabaseList.definitionMatches(((DbmsTargetedChange) change).getDbms(), database, true)) {
+                            if (listener != null) {
+                                listener.willRun(change, this, getChangeLog(), database);
+                            }
+                            database.executeStatements(change, databaseChangeLog, sqlVisitors);
+                            PreconditionMetadataCache.getInstance().changed(change, database);
+                            log.info(change.getConfirmationMessage());
+                            if (listener != null) {
+                                listener.ran(change, this, getChangeLog(), database);
+                            }
+                        } else {
+                            log.debug("Change " + change.getSerializedObjectName() + " not included for database " + database.getShortName());
                         }
-                    } else {
-                        log.debug("Change " + change.getSerializedObjectName() + " not included for database " + database.getShortName());
+                    }
+                    if (batchingExecutor != null) {
+                        batchingExecutor.endBatch();
+                    }
+                } finally {
+                    if (batchingExecutor != null) {
+                        batchingExecutor.discardBatch();
                     }
                 }
 
-                if (delegate.isRunInTransaction()) {
+                if (delegate.isRunInTransaction() && !GroupCommitService.getInstance().isOpen(database)) {
                     database.commit();
                 }
                 log.info("ChangeSet " + toString(false) + " ran successfully in " + (new Date().getTime() - startTime + "ms"));
@@ -355,6 +390,16 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
         return execType;
     }
 
+    /**
+     * Ends the transaction of the precondition checks, unless this changeSet runs in the transaction of a group, see
+     * {@link GroupCommitService}.
+     */
+    private void rollbackUnlessGrouped(Database database) throws DatabaseException {
+        if (!GroupCommitService.getInstance().isOpen(database)) {
+            database.rollback();
+        }
+    }
+
     /* (non-Javadoc)
      * @see liquibase.changelog.IChangeSet#rollback(liquibase.database.Database)
      */
@@ -386,12 +431,16 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
                 if (!statements.isEmpty()) {
                     database.executeRollbackStatements(statements.toArray(new SqlStatement[]{}), sqlVisitors);
                 }
+                for (Change change : getRollBackChanges()) {
+                    PreconditionMetadataCache.getInstance().changed(change, database);
+                }
 
             } else {
                 List<Change> changes = getChanges();
                 for (int i = changes.size() - 1; i >= 0; i--) {
                     ExecutableChange change = (ExecutableChange) changes.get(i);
                     database.executeRollbackStatements(change, sqlVisitors);
+                    PreconditionMetadataCache.getInstance().changed(change, database);
                 }
             }
 
@@ -441,6 +490,7 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
     @Override
     public void addChange(Change change) {
         delegate.addChange(change);
+        checkSum = null;
     }
 
     /* (non-Javadoc)
@@ -713,6 +763,7 @@ public class ExecutableChangeSetImpl implements Conditional, LiquibaseSerializab
     @Override
     public void addSqlVisitor(SqlVisitor sqlVisitor) {
         sqlVisitors.add(sqlVisitor);
+        checkSum = null;
     }
 
     /* (non-Javadoc)
@@ -0,0 +1,66 @@
+package liquibase.changelog;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+
+/**
+ * Keeps track of the databases for which consecutive changeSets are run in one transaction, see
+ * {@link liquibase.changelog.visitor.UpdateVisitor#setGroupCommit(int, long)}. While a group is open for a database, changeSets and the
+ * {@link ChangeLogHistoryService} leave committing and rolling back to the group.
+ */
+public class GroupCommitService {
+
+    private static GroupCommitService instance = new GroupCommitService();
+
+    private Set<Database> openGroups = Collections.newSetFromMap(new ConcurrentHashMap<Database, Boolean>());
+
+    private GroupCommitService() {
+    }
+
+    public static GroupCommitService getInstance() {
+        return instance;
+    }
+
+    /**
+     * Defers commits of changeSets and DATABASECHANGELOG rows for the database until {@link #commit(Database)} or
+     * {@link #rollback(Database)} is called.
+     */
+    public void open(Database database) {
+        openGroups.add(database);
+    }
+
+    public boolean isOpen(Database database) {
+        return openGroups.contains(database);
+    }
+
+    /**
+     * Commits all work done since the group was opened and closes the group.
+     */
+    public void commit(Database database) throws DatabaseException {
+        openGroups.remove(database);
+        database.commit();
+    }
+
+    /**
+     * Rolls back all work done since the group was opened and closes the group.
+     */
+    public void rollback(Database database) throws DatabaseException {
+        openGroups.remove(database);
+        database.rollback();
+    }
+
+    /**
+     * Forgets the group of the database without committing or rolling back.
+     */
+    public void close(Database database) {
+        openGroups.remove(database);
+    }
+
+    public void reset() {
+        openGroups.clear();
+    }
+}
@@ -0,0 +1,173 @@
+package liquibase.changelog;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Index of {@link RanChangeSet}s keyed on normalized changelog path, id and author so a changeSet can be matched against the
+ * history with a single lookup rather than a scan of every row.
+ * <p>
+ * The key is deliberately the loosest of the matching rules used by the history service and the filters: the path has
+ * backslashes converted to slashes and any "classpath:" prefix removed, and all three parts are compared case-insensitively.
+ * {@link #getCandidates(ChangeSet)} therefore returns every RanChangeSet that could match under any of those rules and callers
+ * apply their own, possibly stricter, comparison to the (normally single) candidate.
+ * <p>
+ * The list returned by {@link #getRanChangeSets()} is a live, read-only view that remembers this index, so filters created from it
+ * via {@link #forList(java.util.List)} share the index instead of building their own.
+ */
+public class RanChangeSetIndex {
+
+    private static final String CLASSPATH_PREFIX = "classpath:";
+
+    private final List<RanChangeSet> ranChangeSets = new ArrayList<RanChangeSet>();
+    private final Map<String, List<RanChangeSet>> index = new HashMap<String, List<RanChangeSet>>();
+    private final List<RanChangeSet> view = new IndexedList();
+
+    public RanChangeSetIndex() {
+    }
+
+    public RanChangeSetIndex(Collection<RanChangeSet> ranChangeSets) {
+        for (RanChangeSet ranChangeSet : ranChangeSets) {
+            add(ranChangeSet);
+        }
+    }
+
+    /**
+     * Returns the index backing the given list if it was created by {@link #getRanChangeSets()}, otherwise builds a new index over it.
+     */
+    public static RanChangeSetIndex forList(List<RanChangeSet> ranChangeSets) {
+        if (ranChangeSets instanceof IndexedList) {
+            return ((IndexedList) ranChangeSets).getIndex();
+        }
+        if (ranChangeSets == null) {
+            return new RanChangeSetIndex();
+        }
+        return new RanChangeSetIndex(ranChangeSets);
+    }
+
+    /**
+     * Returns a read-only view of the indexed RanChangeSets in the order they were added.
+     */
+    public List<RanChangeSet> getRanChangeSets() {
+        return view;
+    }
+
+    public void add(RanChangeSet ranChangeSet) {
+        ranChangeSets.add(ranChangeSet);
+        String key = createKey(ranChangeSet.getChangeLog(), ranChangeSet.getId(), ranChangeSet.getAuthor());
+        List<RanChangeSet> candidates = index.get(key);
+        if (candidates == null) {
+            candidates = new ArrayList<RanChangeSet>(1);
+            index.put(key, candidates);
+        }
+        candidates.add(ranChangeSet);
+    }
+
+    /**
+     * Removes all RanChangeSets with exactly the same changelog, id and author as the given changeSet.
+     */
+    public void remove(ChangeSet changeSet) {
+        String key = createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor());
+        List<RanChangeSet> candidates = index.get(key);
+        if (candidates == null) {
+            return;
+        }
+        Iterator<RanChangeSet> iterator = candidates.iterator();
+        while (iterator.hasNext()) {
+            RanChangeSet ranChangeSet = iterator.next();
+            if (ranChangeSet.getChangeLog().equals(changeSet.getFilePath())
+                    && ranChangeSet.getId().equals(changeSet.getId())
+                    && ranChangeSet.getAuthor().equals(changeSet.getAuthor())) {
+                iterator.remove();
+                ranChangeSets.remove(ranChangeSet);
+            }
+        }
+        if (candidates.isEmpty()) {
+            index.remove(key);
+        }
+    }
+
+    public void clear() {
+        ranChangeSets.clear();
+        index.clear();
+    }
+
+    /**
+     * Returns all RanChangeSets that could match the given changeSet. Callers must still apply their own comparison.
+     */
+    public List<RanChangeSet> getCandidates(ChangeSet changeSet) {
+        List<RanChangeSet> candidates = index.get(createKey(changeSet.getFilePath(), changeSet.getId(), changeSet.getAuthor()));
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the first RanChangeSet where {@link RanChangeSet#isSameAs(ChangeSet)} is true, or null if there is none.
+     */
+    public RanChangeSet find(ChangeSet changeSet) {
+        for (RanChangeSet ranChangeSet : getCandidates(changeSet)) {
+            if (ranChangeSet.isSameAs(changeSet)) {
+                return ranChangeSet;
+            }
+        }
+        return null;
+    }
+
+    public int size() {
+        return ranChangeSets.size();
+    }
+
+    /**
+     * Removes a leading "classpath:" from the given path without going through a regular expression.
+     */
+    public static String stripClasspathPrefix(String filePath) {
+        if (filePath != null && filePath.startsWith(CLASSPATH_PREFIX)) {
+            return filePath.substring(CLASSPATH_PREFIX.length());
+        }
+        return filePath;
+    }
+
+    protected String createKey(String filePath, String id, String author) {
+        String path = stripClasspathPrefix(filePath);
+        if (path != null) {
+            path = path.replace('\\', '/');
+        }
+        return foldCase(path + "::" + id + "::" + author);
+    }
+
+    /**
+     * Folds case the same way {@link String#equalsIgnoreCase(String)} compares characters, independent of the default locale.
+     */
+    private String foldCase(String value) {
+        char[] chars = value.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+        }
+        return new String(chars);
+    }
+
+    private class IndexedList extends AbstractList<RanChangeSet> {
+
+        @Override
+        public RanChangeSet get(int index) {
+            return ranChangeSets.get(index);
+        }
+
+        @Override
+        public int size() {
+            return ranChangeSets.size();
+        }
+
+        public RanChangeSetIndex getIndex() {
+            return RanChangeSetIndex.this;
+        }
+    }
+}
@@ -4,7 +4,6 @@ import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
@@ -15,17 +14,20 @@ import liquibase.change.CheckSum;
 import liquibase.change.ColumnConfig;
 import liquibase.database.Database;
 import liquibase.database.core.SQLiteDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.snapshot.SnapshotControl;
 import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.statement.SqlBatchStatement;
 import liquibase.statement.SqlStatement;
 import liquibase.statement.core.AddColumnStatement;
 import liquibase.statement.core.CreateDatabaseChangeLogTableStatement;
@@ -48,7 +50,7 @@ import org.kohsuke.MetaInfServices;
 @MetaInfServices(ChangeLogHistoryService.class)
 public class StandardChangeLogHistoryService extends AbstractChangeLogHistoryService {
 
-    private List<RanChangeSet> ranChangeSetList;
+    private RanChangeSetIndex ranChangeSetIndex;
     private boolean serviceInitialized = false;
     private boolean hasDatabaseChangeLogTable = false;
     private Integer lastChangeSetSequenceValue;
@@ -81,7 +83,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
 
     @Override
     public void reset() {
-        this.ranChangeSetList = null;
+        this.ranChangeSetIndex = null;
         this.serviceInitialized = false;
     }
 
@@ -216,10 +218,19 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
      */
     @Override
     public List<RanChangeSet> getRanChangeSets() throws DatabaseException {
-        if (this.ranChangeSetList == null) {
+        return getRanChangeSetIndex().getRanChangeSets();
+    }
+
+    /**
+     * Returns the index over the ChangeSets that have been run against the current getDatabase(). The index is built once when the
+     * table is first read and kept current by {@link #setExecType(ChangeSet, ChangeSet.ExecType)} and {@link #removeFromHistory(ChangeSet)}.
+     */
+    @Override
+    public RanChangeSetIndex getRanChangeSetIndex() throws DatabaseException {
+        if (this.ranChangeSetIndex == null) {
             Database database = getDatabase();
             String databaseChangeLogTableName = getDatabase().escapeTableName(getLiquibaseCatalogName(), getLiquibaseSchemaName(), getDatabaseChangeLogTableName());
-            List<RanChangeSet> ranChangeSetList = new ArrayList<RanChangeSet>();
+            RanChangeSetIndex ranChangeSetIndex = new RanChangeSetIndex();
             if (hasDatabaseChangeLogTable()) {
                 LogFactory.getLogger().info("Reading from " + databaseChangeLogTableName);
                 List<Map<String, ?>> results = queryDatabaseChangeLogTable(database);
@@ -245,7 +256,7 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
                     String execType = rs.get("EXECTYPE") == null ? null : rs.get("EXECTYPE").toString();
                     try {
                         RanChangeSet ranChangeSet = new RanChangeSet(fileName, id, author, CheckSum.parse(md5sum), dateExecuted, tag, ExecutableChangeSet.ExecType.valueOf(execType), description, comments);
-                        ranChangeSetList.add(ranChangeSet);
+                        ranChangeSetIndex.add(ranChangeSet);
                     } catch (IllegalArgumentException e) {
                         LogFactory.getLogger().severe("Unknown EXECTYPE from database: " + execType);
                         throw e;
@@ -253,9 +264,9 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
                 }
             }
 
-            this.ranChangeSetList = ranChangeSetList;
+            this.ranChangeSetIndex = ranChangeSetIndex;
         }
-        return Collections.unmodifiableList(ranChangeSetList);
+        return ranChangeSetIndex;
     }
 
     public List<Map<String, ?>> queryDatabaseChangeLogTable(Database database) throws DatabaseException {
@@ -285,11 +296,38 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         Database database = getDatabase();
 
         ExecutorService.getInstance().getExecutor(database).execute(new MarkChangeSetRanStatement(changeSet, execType));
-        getDatabase().commit();
-        if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.add(new RanChangeSet(changeSet, execType));
+        if (!GroupCommitService.getInstance().isOpen(database)) {
+            getDatabase().commit();
+        }
+        if (this.ranChangeSetIndex != null) {
+            this.ranChangeSetIndex.add(new RanChangeSet(changeSet, execType));
+        }
+
+    }
+
+    /**
+     * Marks the changeSets with one JDBC batch and one commit when running against a JDBC connection.
+     */
+    @Override
+    public void setExecTypes(List<? extends ChangeSet> changeSets, ChangeSetImpl.ExecType execType) throws DatabaseException {
+        Database database = getDatabase();
+        Executor executor = ExecutorService.getInstance().getExecutor(database);
+        if (changeSets.size() < 2 || !(executor instanceof JdbcExecutor) || !(database.getConnection() instanceof JdbcConnection)) {
+            super.setExecTypes(changeSets, execType);
+            return;
         }
 
+        List<MarkChangeSetRanStatement> statements = new ArrayList<MarkChangeSetRanStatement>(changeSets.size());
+        for (ChangeSet changeSet : changeSets) {
+            statements.add(new MarkChangeSetRanStatement(changeSet, execType));
+        }
+        executor.execute(new SqlBatchStatement(database, statements));
+        database.commit();
+        if (this.ranChangeSetIndex != null) {
+            for (ChangeSet changeSet : changeSets) {
+                this.ranChangeSetIndex.add(new RanChangeSet(changeSet, execType));
+            }
+        }
     }
 
     @Override
@@ -298,8 +336,8 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
         ExecutorService.getInstance().getExecutor(database).execute(new RemoveChangeSetRanStatusStatement(changeSet));
         getDatabase().commit();
 
-        if (this.ranChangeSetList != null) {
-            this.ranChangeSetList.remove(new RanChangeSet(changeSet));
+        if (this.ranChangeSetIndex != null) {
+            this.ranChangeSetIndex.remove(changeSet);
         }
     }
 
@@ -334,8 +372,9 @@ public class StandardChangeLogHistoryService extends AbstractChangeLogHistorySer
             executor.execute(new TagDatabaseStatement(tagString));
             getDatabase().commit();
 
-            if (this.ranChangeSetList != null) {
-                ranChangeSetList.get(ranChangeSetList.size() - 1).setTag(tagString);
+            if (this.ranChangeSetIndex != null) {
+                List<RanChangeSet> ranChangeSets = ranChangeSetIndex.getRanChangeSets();
+                ranChangeSets.get(ranChangeSets.size() - 1).setTag(tagString);
             }
         } catch (Exception e) {
             throw new DatabaseException(e);
@@ -5,17 +5,20 @@ import java.util.List;
 import liquibase.changelog.ExecutableChangeSet;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.RanChangeSet;
+import liquibase.changelog.RanChangeSetIndex;
 import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 
 public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
     private final List<RanChangeSet> ranChangeSets;
+    private final RanChangeSetIndex ranChangeSetIndex;
     private final boolean ignoreClasspathPrefix;
 
     public ShouldRunChangeSetFilter(Database database, boolean ignoreClasspathPrefix) throws DatabaseException {
         this.ignoreClasspathPrefix = ignoreClasspathPrefix;
         this.ranChangeSets = database.getRanChangeSetList();
+        this.ranChangeSetIndex = RanChangeSetIndex.forList(ranChangeSets);
     }
 
     public ShouldRunChangeSetFilter(Database database) throws DatabaseException {
@@ -25,7 +28,7 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
     @Override
     @SuppressWarnings({"RedundantIfStatement"})
     public ChangeSetFilterResult accepts(ExecutableChangeSet changeSet) {
-        for (RanChangeSet ranChangeSet : ranChangeSets) {
+        for (RanChangeSet ranChangeSet : ranChangeSetIndex.getCandidates(changeSet)) {
             if (changeSetsMatch(changeSet, ranChangeSet)) {
                 if (changeSet.shouldAlwaysRun()) {
                     return new ChangeSetFilterResult(true, "Change set always runs", this.getClass());
@@ -39,6 +42,10 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
         return new ChangeSetFilterResult(true, "Change set has not ran yet", this.getClass());
     }
 
+    /**
+     * Only called for the candidates returned by {@link RanChangeSetIndex#getCandidates(ChangeSet)}, so overrides can be stricter
+     * but not looser than a case-insensitive comparison of path, id and author.
+     */
     protected boolean changeSetsMatch(ChangeSet changeSet, RanChangeSet ranChangeSet) {
         return idsAreEqual(changeSet, ranChangeSet)
             && authorsAreEqual(changeSet, ranChangeSet)
@@ -72,7 +79,7 @@ public class ShouldRunChangeSetFilter implements ChangeSetFilter {
 
     protected String normalizePath(String filePath) {
         if (ignoreClasspathPrefix) {
-            return filePath.replaceFirst("^classpath:", "");
+            return RanChangeSetIndex.stripClasspathPrefix(filePath);
         }
         return filePath;
     }
@@ -0,0 +1,32 @@
+package liquibase.changelog.visitor;
+
+import liquibase.configuration.AbstractConfigurationContainer;
+
+/**
+ * Configuration container for {@link ChangeLogSyncVisitor}.
+ */
+public class ChangeLogSyncConfiguration extends AbstractConfigurationContainer {
+
+    public static final String BATCH_SIZE = "changeLogSyncBatchSize";
+
+    public ChangeLogSyncConfiguration() {
+        super("liquibase");
+
+        getContainer().addProperty(BATCH_SIZE, Integer.class)
+                .setDescription("Number of change sets changeLogSync marks as ran with one JDBC batch and one commit. If 1, every change set is inserted and committed separately")
+                .setDefaultValue(1000);
+    }
+
+    /**
+     * Number of change sets marked as ran per batch and commit.
+     */
+    public int getBatchSize() {
+        Integer value = getContainer().getValue(BATCH_SIZE, Integer.class);
+        return value == null || value < 1 ? 1 : value;
+    }
+
+    public ChangeLogSyncConfiguration setBatchSize(int batchSize) {
+        getContainer().setValue(BATCH_SIZE, batchSize);
+        return this;
+    }
+}
@@ -1,17 +1,29 @@
 package liquibase.changelog.visitor;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Set;
 
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ExecutableChangeSet;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.filter.ChangeSetFilterResult;
 import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 
+/**
+ * Marks the visited changeSets as ran. With a batch size above one, changeSets are marked in batches, and {@link #flush()} has to be
+ * called after the last changeSet was visited.
+ */
 public class ChangeLogSyncVisitor implements ChangeSetVisitor {
 
     private Database database;
     private ChangeLogSyncListener listener;
+    private int batchSize = 1;
+
+    private List<ExecutableChangeSet> pendingChangeSets = new ArrayList<ExecutableChangeSet>();
+    private List<DatabaseChangeLog> pendingChangeLogs = new ArrayList<DatabaseChangeLog>();
 
     public ChangeLogSyncVisitor(Database database) {
         this.database = database;
@@ -22,6 +34,21 @@ public class ChangeLogSyncVisitor implements ChangeSetVisitor {
         this.listener = listener;
     }
 
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Sets the number of changeSets marked as ran with one batch and one commit, see {@link ChangeLogSyncConfiguration}.
+     */
+    public ChangeLogSyncVisitor setBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
     @Override
     public Direction getDirection() {
         return ChangeSetVisitor.Direction.FORWARD;
@@ -29,9 +56,35 @@ public class ChangeLogSyncVisitor implements ChangeSetVisitor {
 
     @Override
     public void visit(ExecutableChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) throws LiquibaseException {
-        this.database.markChangeSetExecStatus(changeSet, ExecutableChangeSet.ExecType.EXECUTED);
-        if(listener != null) {
-            listener.markedRan(changeSet, databaseChangeLog, database);
+        if (batchSize == 1) {
+            this.database.markChangeSetExecStatus(changeSet, ExecutableChangeSet.ExecType.EXECUTED);
+            if(listener != null) {
+                listener.markedRan(changeSet, databaseChangeLog, database);
+            }
+            return;
+        }
+
+        pendingChangeSets.add(changeSet);
+        pendingChangeLogs.add(databaseChangeLog);
+        if (pendingChangeSets.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    /**
+     * Marks the changeSets which were visited but not marked yet.
+     */
+    public void flush() throws DatabaseException {
+        if (pendingChangeSets.isEmpty()) {
+            return;
+        }
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).setExecTypes(pendingChangeSets, ExecutableChangeSet.ExecType.EXECUTED);
+        if (listener != null) {
+            for (int i = 0; i < pendingChangeSets.size(); i++) {
+                listener.markedRan(pendingChangeSets.get(i), pendingChangeLogs.get(i), database);
+            }
         }
+        pendingChangeSets.clear();
+        pendingChangeLogs.clear();
     }
 }
@@ -11,6 +11,13 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import liquibase.change.Change;
 import liquibase.change.ExecutableChange;
@@ -24,6 +31,7 @@ import liquibase.dbdoc.ChangeLogListWriter;
 import liquibase.dbdoc.ChangeLogWriter;
 import liquibase.dbdoc.ColumnWriter;
 import liquibase.dbdoc.HTMLWriter;
+import liquibase.dbdoc.PageChecksums;
 import liquibase.dbdoc.PendingChangesWriter;
 import liquibase.dbdoc.PendingSQLWriter;
 import liquibase.dbdoc.RecentChangesWriter;
@@ -31,6 +39,8 @@ import liquibase.dbdoc.TableListWriter;
 import liquibase.dbdoc.TableWriter;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.exception.LiquibaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
 import liquibase.resource.ResourceAccessor;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.SnapshotControl;
@@ -58,6 +68,9 @@ public class DBDocVisitor implements ChangeSetVisitor {
 
     private static final int MAX_RECENT_CHANGE = 50;
 
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private boolean incremental;
+
     public DBDocVisitor(Database database) {
         this.database = database;
 
@@ -71,6 +84,34 @@ public class DBDocVisitor implements ChangeSetVisitor {
         recentChanges = new ArrayList<ExecutableChange>();
     }
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets the number of threads writing the pages of tables, columns and authors.
+     */
+    public DBDocVisitor setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be positive: " + threads);
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * If true, the pages of tables, columns and authors are only written if their content changed since the documentation was last
+     * written to the same directory, and pages of objects which no longer exist are deleted.
+     */
+    public DBDocVisitor setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
     @Override
     public ChangeSetVisitor.Direction getDirection() {
         return ChangeSetVisitor.Direction.FORWARD;
@@ -153,16 +194,29 @@ public class DBDocVisitor implements ChangeSetVisitor {
         new TableListWriter(rootOutputDir).writeHTML(new TreeSet<Object>(snapshot.get(Table.class)));
         new AuthorListWriter(rootOutputDir).writeHTML(new TreeSet<Object>(changesByAuthor.keySet()));
 
-        for (String author : changesByAuthor.keySet()) {
-            authorWriter.writeHTML(author, changesByAuthor.get(author), changesToRunByAuthor.get(author), rootChangeLogName);
+        PageChecksums pageChecksums = null;
+        if (incremental) {
+            pageChecksums = new PageChecksums(rootOutputDir);
+            pageChecksums.load();
+            authorWriter.setPageChecksums(pageChecksums);
+            tableWriter.setPageChecksums(pageChecksums);
+            columnWriter.setPageChecksums(pageChecksums);
         }
 
+        List<PageTask> tasks = new ArrayList<PageTask>();
+        for (String author : changesByAuthor.keySet()) {
+            tasks.add(new PageTask(authorWriter, author, changesByAuthor.get(author), changesToRunByAuthor.get(author)));
+        }
         for (Table table : snapshot.get(Table.class)) {
-            tableWriter.writeHTML(table, changesByObject.get(table), changesToRunByObject.get(table), rootChangeLogName);
+            tasks.add(new PageTask(tableWriter, table, changesByObject.get(table), changesToRunByObject.get(table)));
         }
-
         for (Column column : snapshot.get(Column.class)) {
-            columnWriter.writeHTML(column, changesByObject.get(column), changesToRunByObject.get(column), rootChangeLogName);
+            tasks.add(new PageTask(columnWriter, column, changesByObject.get(column), changesToRunByObject.get(column)));
+        }
+        writePages(tasks);
+
+        if (pageChecksums != null) {
+            pageChecksums.save();
         }
 
         for (ChangeLogInfo changeLog : changeLogs) {
@@ -179,6 +233,43 @@ public class DBDocVisitor implements ChangeSetVisitor {
 
     }
 
+    /**
+     * Writes the pages on {@link #getThreads()} threads. The writers only read the collected changes and the snapshot.
+     */
+    protected void writePages(List<PageTask> tasks) throws IOException, LiquibaseException {
+        if (threads == 1 || tasks.size() < 2) {
+            for (PageTask task : tasks) {
+                task.call();
+            }
+            return;
+        }
+
+        //read the history before the threads ask for the run status of the changesets
+        database.getRanChangeSetList();
+
+        long start = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new DBDocThreadFactory());
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedLiquibaseException("Interrupted while writing documentation", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof LiquibaseException) {
+                throw (LiquibaseException) e.getCause();
+            }
+            throw new UnexpectedLiquibaseException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        LogFactory.getLogger().debug("Wrote " + tasks.size() + " pages on " + threads + " threads in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
     private void copyFile(String fileToCopy, File rootOutputDir) throws IOException {
         InputStream inputStream = getClass().getClassLoader().getResourceAsStream(fileToCopy);
         FileOutputStream outputStream = null;
@@ -195,6 +286,40 @@ public class DBDocVisitor implements ChangeSetVisitor {
         }
     }
 
+    /**
+     * Writes the page of one object.
+     */
+    protected class PageTask implements Callable<Void> {
+        private final HTMLWriter writer;
+        private final Object object;
+        private final List<ExecutableChange> ranChanges;
+        private final List<ExecutableChange> changesToRun;
+
+        protected PageTask(HTMLWriter writer, Object object, List<ExecutableChange> ranChanges, List<ExecutableChange> changesToRun) {
+            this.writer = writer;
+            this.object = object;
+            this.ranChanges = ranChanges;
+            this.changesToRun = changesToRun;
+        }
+
+        @Override
+        public Void call() throws IOException, LiquibaseException {
+            writer.writeHTML(object, ranChanges, changesToRun, rootChangeLogName);
+            return null;
+        }
+    }
+
+    private static class DBDocThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "liquibase-dbdoc-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     private static class ChangeLogInfo implements Comparable<ChangeLogInfo> {
         public String logicalPath;
         public String physicalPath;
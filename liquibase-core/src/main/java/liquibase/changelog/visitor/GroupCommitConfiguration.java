@@ -0,0 +1,51 @@
+package liquibase.changelog.visitor;
+
+import liquibase.configuration.AbstractConfigurationContainer;
+
+/**
+ * Configuration container for running consecutive data changeSets of an update in one transaction, see
+ * {@link UpdateVisitor#setGroupCommit(int, long)}.
+ */
+public class GroupCommitConfiguration extends AbstractConfigurationContainer {
+
+    public static final String GROUP_SIZE = "groupCommitSize";
+    public static final String GROUP_MILLIS = "groupCommitMillis";
+
+    public GroupCommitConfiguration() {
+        super("liquibase");
+
+        getContainer().addProperty(GROUP_SIZE, Integer.class)
+                .setDescription("Maximum number of consecutive data change sets update runs and marks as ran in one transaction. If 1, every change set is committed separately")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(GROUP_MILLIS, Long.class)
+                .setDescription("Milliseconds after which a group of change sets is committed even if it has fewer than groupCommitSize change sets")
+                .setDefaultValue(1000L);
+    }
+
+    /**
+     * Maximum number of change sets per transaction, 1 disables group commit.
+     */
+    public int getGroupSize() {
+        Integer value = getContainer().getValue(GROUP_SIZE, Integer.class);
+        return value == null || value < 1 ? 1 : value;
+    }
+
+    public GroupCommitConfiguration setGroupSize(int groupSize) {
+        getContainer().setValue(GROUP_SIZE, groupSize);
+        return this;
+    }
+
+    /**
+     * Time budget of a group in milliseconds.
+     */
+    public long getGroupMillis() {
+        Long value = getContainer().getValue(GROUP_MILLIS, Long.class);
+        return value == null ? 0 : value;
+    }
+
+    public GroupCommitConfiguration setGroupMillis(long groupMillis) {
+        getContainer().setValue(GROUP_MILLIS, groupMillis);
+        return this;
+    }
+}
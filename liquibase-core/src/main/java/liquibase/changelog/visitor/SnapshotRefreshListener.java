@@ -0,0 +1,131 @@
+package liquibase.changelog.visitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import liquibase.change.Change;
+import liquibase.change.ExecutableChange;
+import liquibase.changelog.ChangeSet;
+import liquibase.changelog.DatabaseChangeLog;
+import liquibase.changelog.ExecutableChangeSet;
+import liquibase.database.Database;
+import liquibase.exception.PreconditionErrorException;
+import liquibase.exception.PreconditionFailedException;
+import liquibase.precondition.core.PreconditionContainer;
+import liquibase.snapshot.RefreshableDatabaseSnapshot;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Schema;
+
+/**
+ * Invalidates the objects affected by each change which is run or rolled back in a {@link RefreshableDatabaseSnapshot}, so the snapshot
+ * reads them again on its next access rather than being taken again after the update.
+ * Changes which only report their schema, like custom SQL, invalidate the whole snapshot. All calls are passed on to the delegate, if any.
+ */
+public class SnapshotRefreshListener implements ChangeExecListener {
+
+    private final RefreshableDatabaseSnapshot snapshot;
+    private final ChangeExecListener delegate;
+
+    public SnapshotRefreshListener(RefreshableDatabaseSnapshot snapshot) {
+        this(snapshot, null);
+    }
+
+    public SnapshotRefreshListener(RefreshableDatabaseSnapshot snapshot, ChangeExecListener delegate) {
+        this.snapshot = snapshot;
+        this.delegate = delegate;
+    }
+
+    public RefreshableDatabaseSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    @Override
+    public void willRun(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, ExecutableChangeSet.RunStatus runStatus) {
+        if (delegate != null) {
+            delegate.willRun(changeSet, databaseChangeLog, database, runStatus);
+        }
+    }
+
+    @Override
+    public void ran(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, ExecutableChangeSet.ExecType execType) {
+        if (delegate != null) {
+            delegate.ran(changeSet, databaseChangeLog, database, execType);
+        }
+    }
+
+    @Override
+    public void rolledBack(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) {
+        //a rollback undoes the changes, so it affects the same objects
+        for (Change change : changeSet.getChanges()) {
+            invalidate(change, database);
+        }
+        if (delegate != null) {
+            delegate.rolledBack(changeSet, databaseChangeLog, database);
+        }
+    }
+
+    @Override
+    public void preconditionFailed(PreconditionFailedException error, PreconditionContainer.FailOption onFail) {
+        if (delegate != null) {
+            delegate.preconditionFailed(error, onFail);
+        }
+    }
+
+    @Override
+    public void preconditionErrored(PreconditionErrorException error, PreconditionContainer.ErrorOption onError) {
+        if (delegate != null) {
+            delegate.preconditionErrored(error, onError);
+        }
+    }
+
+    @Override
+    public void willRun(Change change, ExecutableChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+        if (delegate != null) {
+            delegate.willRun(change, changeSet, changeLog, database);
+        }
+    }
+
+    @Override
+    public void ran(Change change, ExecutableChangeSet changeSet, DatabaseChangeLog changeLog, Database database) {
+        invalidate(change, database);
+        if (delegate != null) {
+            delegate.ran(change, changeSet, changeLog, database);
+        }
+    }
+
+    protected void invalidate(Change change, Database database) {
+        if (database != snapshot.getDatabase()) {
+            return;
+        }
+        List<DatabaseObject> objects = getAffectedObjects(change, database);
+        if (objects == null) {
+            snapshot.invalidateAll();
+        } else {
+            snapshot.invalidate(objects);
+        }
+    }
+
+    /**
+     * Returns the objects below their schema which the change affects, or null if the change does not know which objects it affects.
+     */
+    public static List<DatabaseObject> getAffectedObjects(Change change, Database database) {
+        if (!(change instanceof ExecutableChange)) {
+            return null;
+        }
+        Set<DatabaseObject> affected = ((ExecutableChange) change).getAffectedDatabaseObjects(database);
+        List<DatabaseObject> objects = new ArrayList<DatabaseObject>();
+        if (affected != null) {
+            for (DatabaseObject object : affected) {
+                if (!(object instanceof Schema) && !(object instanceof Catalog)) {
+                    objects.add(object);
+                }
+            }
+        }
+        if (objects.isEmpty()) {
+            return null;
+        }
+        return objects;
+    }
+}
@@ -2,18 +2,30 @@ package liquibase.changelog.visitor;
 
 import java.util.Set;
 
+import liquibase.action.AbstractModifyDataAction;
+import liquibase.action.InsertDataAction;
+import liquibase.action.LoadDataAction;
+import liquibase.change.Change;
+import liquibase.changelog.ChangeLogHistoryServiceFactory;
 import liquibase.changelog.ChangeSet;
 import liquibase.changelog.ChangeSetImpl;
 import liquibase.changelog.DatabaseChangeLog;
 import liquibase.changelog.ExecutableChangeSet;
 import liquibase.changelog.ExecutableChangeSet.RunStatus;
+import liquibase.changelog.GroupCommitService;
 import liquibase.changelog.filter.ChangeSetFilterResult;
 import liquibase.database.Database;
 import liquibase.database.ObjectQuotingStrategy;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
 
+/**
+ * Runs the visited changeSets and marks them as ran. By default every changeSet is committed separately. With
+ * {@link #setGroupCommit(int, long)}, consecutive changeSets which only modify data run in one transaction together with their
+ * DATABASECHANGELOG rows, and {@link #commitGroup()} has to be called after the last changeSet was visited.
+ */
 public class UpdateVisitor implements ChangeSetVisitor {
 
     private Database database;
@@ -22,6 +34,11 @@ public class UpdateVisitor implements ChangeSetVisitor {
 
     private ChangeExecListener execListener;
 
+    private int groupSize = 1;
+    private long groupMillis;
+    private int groupCount;
+    private long groupStarted;
+
     public UpdateVisitor(Database database) {
         this.database = database;
     }
@@ -31,6 +48,21 @@ public class UpdateVisitor implements ChangeSetVisitor {
       this.execListener = execListener;
     }
 
+    /**
+     * Runs up to groupSize consecutive changeSets in one transaction, committing earlier if the group was started more than groupMillis
+     * ago. Only changeSets which run in a transaction, do not ignore errors and consist of data changes are grouped, other changeSets
+     * commit the current group and run on their own. If a changeSet of a group fails, the whole group is rolled back.
+     * See {@link GroupCommitConfiguration}.
+     */
+    public UpdateVisitor setGroupCommit(int groupSize, long groupMillis) {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("groupSize must be positive: " + groupSize);
+        }
+        this.groupSize = groupSize;
+        this.groupMillis = groupMillis;
+        return this;
+    }
+
     @Override
     public Direction getDirection() {
         return ChangeSetVisitor.Direction.FORWARD;
@@ -38,6 +70,66 @@ public class UpdateVisitor implements ChangeSetVisitor {
 
     @Override
     public void visit(ExecutableChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database, Set<ChangeSetFilterResult> filterResults) throws LiquibaseException {
+        if (!canGroup(changeSet)) {
+            commitGroup();
+            run(changeSet, databaseChangeLog, database);
+            this.database.commit();
+            return;
+        }
+
+        if (groupCount == 0) {
+            GroupCommitService.getInstance().open(this.database);
+            groupStarted = System.currentTimeMillis();
+        }
+        try {
+            run(changeSet, databaseChangeLog, database);
+        } catch (LiquibaseException e) {
+            rollbackGroup();
+            throw e;
+        } catch (RuntimeException e) {
+            rollbackGroup();
+            throw e;
+        }
+        groupCount++;
+        if (groupCount >= groupSize || System.currentTimeMillis() - groupStarted >= groupMillis) {
+            commitGroup();
+        }
+    }
+
+    /**
+     * Commits the changeSets of the current group, if any.
+     */
+    public void commitGroup() throws DatabaseException {
+        if (!GroupCommitService.getInstance().isOpen(database)) {
+            return;
+        }
+        GroupCommitService.getInstance().commit(database);
+        log.debug("Committed group of " + groupCount + " change sets");
+        groupCount = 0;
+    }
+
+    private void rollbackGroup() throws DatabaseException {
+        GroupCommitService.getInstance().rollback(database);
+        if (groupCount > 0) {
+            log.warning("Rolled back " + groupCount + " change sets which ran in the same transaction as the failed change set");
+        }
+        groupCount = 0;
+        ChangeLogHistoryServiceFactory.getInstance().resetChangeLogService(database);
+    }
+
+    private boolean canGroup(ChangeSet changeSet) {
+        if (groupSize < 2 || !changeSet.isRunInTransaction() || Boolean.FALSE.equals(changeSet.getFailOnError())) {
+            return false;
+        }
+        for (Change change : changeSet.getChanges()) {
+            if (!(change instanceof AbstractModifyDataAction || change instanceof InsertDataAction || change instanceof LoadDataAction)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void run(ExecutableChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database) throws LiquibaseException {
         ExecutableChangeSet.RunStatus runStatus = this.database.getRunStatus(changeSet);
         log.debug("Running Changeset:" + changeSet);
         fireWillRun(changeSet, databaseChangeLog, database, runStatus);
@@ -49,8 +141,6 @@ public class UpdateVisitor implements ChangeSetVisitor {
         // reset object quoting strategy after running changeset
         this.database.setObjectQuotingStrategy(ObjectQuotingStrategy.LEGACY);
         this.database.markChangeSetExecStatus(changeSet, execType);
-
-        this.database.commit();
     }
 
     private void fireWillRun(ChangeSet changeSet, DatabaseChangeLog databaseChangeLog, Database database2, ExecutableChangeSet.RunStatus runStatus) {
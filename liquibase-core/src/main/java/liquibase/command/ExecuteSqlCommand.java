@@ -1,14 +1,21 @@
 package liquibase.command;
 
 import liquibase.database.Database;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
 import liquibase.statement.core.RawSqlStatement;
-import liquibase.util.FileUtil;
+import liquibase.util.SqlStatementSplitter;
 import liquibase.util.StringUtils;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileReader;
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
@@ -58,46 +65,59 @@ public class ExecuteSqlCommand extends AbstractCommand {
     @Override
     protected Object run() throws Exception {
         Executor executor = ExecutorService.getInstance().getExecutor(database);
-        String sqlText;
+        Reader reader;
         if (sqlFile == null) {
-            sqlText = sql;
+            reader = new StringReader(this.sql);
         } else {
             File file = new File(sqlFile);
             if (! file.exists()){
               throw new LiquibaseException(String.format("The file '%s' does not exist", file.getCanonicalPath()));
             }
-            sqlText = FileUtil.getContents(file);
+            reader = new BufferedReader(new FileReader(file));
         }
 
-        String out = "";
-        String[] sqlStrings = StringUtils.processMutliLineSQL(sqlText, true, true, ";");
-        for (String sql : sqlStrings) {
-            if (sql.toLowerCase().matches("\\s*select .*")) {
-                List<Map<String, ?>> rows = executor.queryForList(new RawSqlStatement(sql));
-                out += "Output of "+sql+":\n";
-                if (rows.size() == 0) {
-                    out += "-- Empty Resultset --\n";
-                } else {
-                    SortedSet<String> keys = new TreeSet<String>();
-                    for (Map<String, ?> row : rows) {
-                        keys.addAll(row.keySet());
-                    }
-                    out += StringUtils.join(keys, " | ")+" |\n";
+        StringBuilder out = new StringBuilder();
+        try {
+            SqlStatementSplitter splitter = new SqlStatementSplitter(reader, true, true, ";")
+                    .setBackslashEscapes(database instanceof MySQLDatabase)
+                    .setEscapeStrings(database instanceof PostgresDatabase)
+                    .setDollarQuoting(database instanceof PostgresDatabase)
+                    .setNestedComments(database instanceof PostgresDatabase);
+            String sql;
+            while ((sql = splitter.nextStatement()) != null) {
+                execute(executor, sql, out);
+            }
+        } finally {
+            reader.close();
+        }
+        database.commit();
+        return out.toString().trim();
+    }
 
-                    for (Map<String, ?> row : rows) {
-                        for (String key : keys) {
-                            out += row.get(key)+" | ";
-                        }
-                        out += "\n";
+    private void execute(Executor executor, String sql, StringBuilder out) throws DatabaseException {
+        if (sql.toLowerCase().matches("\\s*select .*")) {
+            List<Map<String, ?>> rows = executor.queryForList(new RawSqlStatement(sql));
+            out.append("Output of ").append(sql).append(":\n");
+            if (rows.size() == 0) {
+                out.append("-- Empty Resultset --\n");
+            } else {
+                SortedSet<String> keys = new TreeSet<String>();
+                for (Map<String, ?> row : rows) {
+                    keys.addAll(row.keySet());
+                }
+                out.append(StringUtils.join(keys, " | ")).append(" |\n");
+
+                for (Map<String, ?> row : rows) {
+                    for (String key : keys) {
+                        out.append(row.get(key)).append(" | ");
                     }
+                    out.append("\n");
                 }
-            } else {
-                executor.execute(new RawSqlStatement(sql));
-                out += "Successfully Executed: "+ sql+"\n";
             }
-            out += "\n";
+        } else {
+            executor.execute(new RawSqlStatement(sql));
+            out.append("Successfully Executed: ").append(sql).append("\n");
         }
-        database.commit();
-        return out.trim();
+        out.append("\n");
     }
 }
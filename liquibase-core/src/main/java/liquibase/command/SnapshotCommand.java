@@ -15,6 +15,7 @@ public class SnapshotCommand extends AbstractCommand {
     private CatalogAndSchema[] schemas;
     private String serializerFormat = "txt";
     private SnapshotListener snapshotListener;
+    private SnapshotControl snapshotControl;
 
     @Override
     public String getName() {
@@ -71,10 +72,27 @@ public class SnapshotCommand extends AbstractCommand {
         this.snapshotListener = snapshotListener;
     }
 
+    public SnapshotControl getSnapshotControl() {
+        return snapshotControl;
+    }
+
+    /**
+     * Control used for the snapshot, e.g. to fetch metadata in parallel. Defaults to a control including all standard types.
+     */
+    public SnapshotCommand setSnapshotControl(SnapshotControl snapshotControl) {
+        this.snapshotControl = snapshotControl;
+        return this;
+    }
+
     @Override
     protected Object run() throws Exception {
-        SnapshotControl snapshotControl = new SnapshotControl(database);
-        snapshotControl.setSnapshotListener(snapshotListener);
+        SnapshotControl snapshotControl = this.snapshotControl;
+        if (snapshotControl == null) {
+            snapshotControl = new SnapshotControl(database);
+        }
+        if (snapshotListener != null) {
+            snapshotControl.setSnapshotListener(snapshotListener);
+        }
 
         CatalogAndSchema[] schemas = this.schemas;
         if (schemas == null) {
@@ -47,7 +47,9 @@ import liquibase.exception.LiquibaseException;
 import liquibase.exception.RollbackImpossibleException;
 import liquibase.exception.StatementNotSupportedOnDatabaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.Executor;
 import liquibase.executor.ExecutorService;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.lockservice.LockServiceFactory;
 import liquibase.logging.LogFactory;
 import liquibase.snapshot.DatabaseSnapshot;
@@ -1254,12 +1256,21 @@ public abstract class AbstractJdbcDatabase implements Database {
      */
     @Override
     public void execute(final SqlStatement[] statements, final List<SqlVisitor> sqlVisitors) throws LiquibaseException {
+        Executor executor = ExecutorService.getInstance().getExecutor(this);
+        List<SqlStatement> supported = new ArrayList<SqlStatement>(statements.length);
         for (SqlStatement statement : statements) {
             if (statement.skipOnUnsupported() && !SqlGeneratorFactory.getInstance().supports(statement, this)) {
                 continue;
             }
             LogFactory.getLogger().debug("Executing Statement: " + statement);
-            ExecutorService.getInstance().getExecutor(this).execute(statement, sqlVisitors);
+            if (executor instanceof JdbcExecutor) {
+                supported.add(statement);
+            } else {
+                executor.execute(statement, sqlVisitors);
+            }
+        }
+        if (!supported.isEmpty()) {
+            ((JdbcExecutor) executor).execute(supported, sqlVisitors);
         }
     }
 
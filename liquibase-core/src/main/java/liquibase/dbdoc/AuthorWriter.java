@@ -4,8 +4,8 @@ import liquibase.change.ExecutableChange;
 import liquibase.database.Database;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 public class AuthorWriter extends HTMLWriter {
@@ -20,6 +20,6 @@ public class AuthorWriter extends HTMLWriter {
     }
 
     @Override
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<ExecutableChange> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<ExecutableChange> changes, Database database) throws IOException {
     }
 }
@@ -1,10 +1,28 @@
 package liquibase.dbdoc;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.charset.Charset;
+
 public class DBDocUtil {
 
+    private static final int BUFFER_SIZE = 64 * 1024;
 
     public static String toFileName(String string) {
         return string.replaceAll("[^\\w\\.\\\\/-]", "_");
     }
 
+    /**
+     * Returns a buffered writer replacing the file, in the default encoding like {@link java.io.FileWriter}. Pages are written with few
+     * large writes to the file channel rather than one write per appended string.
+     */
+    public static Writer createWriter(File file) throws IOException {
+        FileOutputStream outputStream = new FileOutputStream(file, false);
+        return new BufferedWriter(Channels.newWriter(outputStream.getChannel(), Charset.defaultCharset().newEncoder(), BUFFER_SIZE), BUFFER_SIZE);
+    }
+
 }
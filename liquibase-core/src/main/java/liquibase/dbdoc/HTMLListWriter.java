@@ -3,8 +3,8 @@ package liquibase.dbdoc;
 import liquibase.util.StringUtils;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.SortedSet;
 
 public class HTMLListWriter {
@@ -24,7 +24,7 @@ public class HTMLListWriter {
     }
 
     public void writeHTML(SortedSet objects) throws IOException {
-        FileWriter fileWriter = new FileWriter(new File(outputDir, filename));
+        Writer fileWriter = DBDocUtil.createWriter(new File(outputDir, filename));
 
         try {
             fileWriter.append("<HTML>\n" + "<HEAD>\n" + "<TITLE>\n");
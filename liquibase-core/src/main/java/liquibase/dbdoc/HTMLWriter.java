@@ -1,8 +1,9 @@
 package liquibase.dbdoc;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.text.DateFormat;
 import java.util.Date;
 import java.util.List;
@@ -15,11 +16,13 @@ import liquibase.database.Database;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.DatabaseHistoryException;
 import liquibase.util.LiquibaseUtil;
+import liquibase.util.MD5Util;
 import liquibase.util.StringUtils;
 
 public abstract class HTMLWriter {
     protected File outputDir;
     protected Database database;
+    private PageChecksums pageChecksums;
 
     public HTMLWriter(File outputDir, Database database) {
         this.outputDir = outputDir;
@@ -29,24 +32,38 @@ public abstract class HTMLWriter {
         }
     }
 
-    protected abstract void writeCustomHTML(FileWriter fileWriter, Object object, List<ExecutableChange> changes, Database database) throws IOException;
+    protected abstract void writeCustomHTML(Writer fileWriter, Object object, List<ExecutableChange> changes, Database database) throws IOException;
 
-    private FileWriter createFileWriter(Object object) throws IOException {
-        return new FileWriter(new File(outputDir, DBDocUtil.toFileName(object.toString().toLowerCase()) + ".html"));
+    /**
+     * Sets the checksums of the pages of an earlier run, so pages with the same content are not written again.
+     */
+    public void setPageChecksums(PageChecksums pageChecksums) {
+        this.pageChecksums = pageChecksums;
+    }
+
+    protected File getFile(Object object) {
+        return new File(outputDir, DBDocUtil.toFileName(object.toString().toLowerCase()) + ".html");
     }
 
     public void writeHTML(Object object, List<ExecutableChange> ranChanges, List<ExecutableChange> changesToRun, String changeLog) throws IOException, DatabaseHistoryException, DatabaseException {
-        FileWriter fileWriter = createFileWriter(object);
+        String title = createTitle(object);
+        StringWriter body = new StringWriter();
+        writeBody(body, object, ranChanges, changesToRun);
 
+        File file = getFile(object);
+        if (pageChecksums != null && !pageChecksums.update(file, MD5Util.computeMD5(title + body))) {
+            return;
+        }
 
+        Writer fileWriter = DBDocUtil.createWriter(file);
         try {
             fileWriter.append("<html>");
             writeHeader(object, fileWriter);
             fileWriter.append("<body BGCOLOR=\"white\" onload=\"windowTitle();\">");
 
-            fileWriter.append("<H2>").append(createTitle(object)).append("</H2>\n");
+            fileWriter.append("<H2>").append(title).append("</H2>\n");
 
-            writeBody(fileWriter, object, ranChanges, changesToRun);
+            fileWriter.append(body.getBuffer());
 
             writeFooter(fileWriter, changeLog);
 
@@ -58,7 +75,7 @@ public abstract class HTMLWriter {
 
     }
 
-    private void writeFooter(FileWriter fileWriter, String changeLog) throws IOException {
+    private void writeFooter(Writer fileWriter, String changeLog) throws IOException {
         fileWriter.append("<hr>Generated: ");
         fileWriter.append(DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(new Date()));
         fileWriter.append("<BR>Against: ");
@@ -69,13 +86,13 @@ public abstract class HTMLWriter {
         fileWriter.append("<a href='http://www.liquibase.org' target='_TOP'>Liquibase ").append(LiquibaseUtil.getBuildVersion()).append("</a>");
     }
 
-    protected void writeBody(FileWriter fileWriter, Object object, List<ExecutableChange> ranChanges, List<ExecutableChange> changesToRun) throws IOException, DatabaseHistoryException, DatabaseException {
+    protected void writeBody(Writer fileWriter, Object object, List<ExecutableChange> ranChanges, List<ExecutableChange> changesToRun) throws IOException, DatabaseHistoryException, DatabaseException {
         writeCustomHTML(fileWriter, object, ranChanges, database);
         writeChanges("Pending Changes", fileWriter, changesToRun);
         writeChanges("Past Changes", fileWriter, ranChanges);
     }
 
-    protected void writeTable(String title, List<List<String>> cells, FileWriter fileWriter) throws IOException {
+    protected void writeTable(String title, List<List<String>> cells, Writer fileWriter) throws IOException {
         fileWriter.append("<P>");
         int colspan = 0;
         if (cells.size() == 0) {
@@ -97,13 +114,13 @@ public abstract class HTMLWriter {
         fileWriter.append("</TABLE>\n");
     }
 
-    private void writeTD(FileWriter fileWriter, String filePath) throws IOException {
+    private void writeTD(Writer fileWriter, String filePath) throws IOException {
         fileWriter.append("<TD VALIGN=\"top\">\n");
         fileWriter.append(filePath);
         fileWriter.append("</TD>\n");
     }
 
-    private void writeHeader(Object object, FileWriter fileWriter) throws IOException {
+    private void writeHeader(Object object, Writer fileWriter) throws IOException {
         String title = createTitle(object);
         fileWriter.append("<head>")
                 .append("<title>").append(title).append("</title>")
@@ -118,7 +135,7 @@ public abstract class HTMLWriter {
 
     protected abstract String createTitle(Object object);
 
-    protected void writeChanges(String title, FileWriter fileWriter, List<ExecutableChange> changes) throws IOException, DatabaseHistoryException, DatabaseException {
+    protected void writeChanges(String title, Writer fileWriter, List<ExecutableChange> changes) throws IOException, DatabaseHistoryException, DatabaseException {
         fileWriter.append("<p><TABLE BORDER=\"1\" WIDTH=\"100%\" CELLPADDING=\"3\" CELLSPACING=\"0\" SUMMARY=\"\">\n");
         fileWriter.append("<TR BGCOLOR=\"#CCCCFF\" CLASS=\"TableHeadingColor\">\n");
         fileWriter.append("<TD COLSPAN='4'><FONT SIZE=\"+2\">\n");
@@ -0,0 +1,102 @@
+package liquibase.dbdoc;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The checksums of the content of the pages written by an earlier run, so pages whose objects and changesets did not change are not
+ * written again. The checksums are kept in a file in the root output directory.
+ */
+public class PageChecksums {
+
+    public static final String FILE_NAME = "dbdoc-checksums.properties";
+
+    private final File rootOutputDir;
+    private final Map<String, String> previous = new ConcurrentHashMap<String, String>();
+    private final Map<String, String> current = new ConcurrentHashMap<String, String>();
+
+    public PageChecksums(File rootOutputDir) {
+        this.rootOutputDir = rootOutputDir;
+    }
+
+    /**
+     * Reads the checksums of the previous run, if any.
+     */
+    public void load() throws IOException {
+        File file = new File(rootOutputDir, FILE_NAME);
+        if (!file.exists()) {
+            return;
+        }
+        Properties properties = new Properties();
+        Reader reader = new InputStreamReader(new FileInputStream(file));
+        try {
+            properties.load(reader);
+        } finally {
+            reader.close();
+        }
+        for (String page : properties.stringPropertyNames()) {
+            previous.put(page, properties.getProperty(page));
+        }
+    }
+
+    /**
+     * Records the checksum of the page and returns true if the page has to be written, because it did not exist or its content changed.
+     */
+    public boolean update(File page, String checksum) {
+        String path = getPath(page);
+        current.put(path, checksum);
+        return !checksum.equals(previous.get(path)) || !page.exists();
+    }
+
+    /**
+     * Deletes the pages of the previous run which were not written or kept by this run, like the pages of dropped tables, and writes
+     * the checksums of this run.
+     */
+    public void save() throws IOException {
+        Set<String> obsolete = new HashSet<String>(previous.keySet());
+        obsolete.removeAll(current.keySet());
+        for (String page : obsolete) {
+            File file = new File(rootOutputDir, page);
+            if (file.exists() && !file.delete()) {
+                throw new IOException("Cannot delete " + file.getAbsolutePath());
+            }
+        }
+
+        SortedMap<String, String> sorted = new TreeMap<String, String>(current);
+        Writer writer = DBDocUtil.createWriter(new File(rootOutputDir, FILE_NAME));
+        try {
+            for (Map.Entry<String, String> entry : sorted.entrySet()) {
+                writer.write(escape(entry.getKey()));
+                writer.write("=");
+                writer.write(entry.getValue());
+                writer.write("\n");
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String getPath(File page) {
+        String root = rootOutputDir.getAbsolutePath();
+        String path = page.getAbsolutePath();
+        if (path.startsWith(root)) {
+            path = path.substring(root.length() + 1);
+        }
+        return path.replace(File.separatorChar, '/');
+    }
+
+    private String escape(String key) {
+        return key.replace("\\", "\\\\").replace("=", "\\=").replace(":", "\\:").replace(" ", "\\ ");
+    }
+}
@@ -6,8 +6,8 @@ import liquibase.exception.DatabaseException;
 import liquibase.exception.DatabaseHistoryException;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.List;
 
 public class PendingChangesWriter extends HTMLWriter {
@@ -22,12 +22,12 @@ public class PendingChangesWriter extends HTMLWriter {
     }
 
     @Override
-    protected void writeBody(FileWriter fileWriter, Object object, List<ExecutableChange> ranChanges, List<ExecutableChange> changesToRun) throws IOException, DatabaseHistoryException, DatabaseException {
+    protected void writeBody(Writer fileWriter, Object object, List<ExecutableChange> ranChanges, List<ExecutableChange> changesToRun) throws IOException, DatabaseHistoryException, DatabaseException {
         writeCustomHTML(fileWriter, object, ranChanges, database);
         writeChanges("Pending Changes", fileWriter, changesToRun);
     }
 
     @Override
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<ExecutableChange> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<ExecutableChange> changes, Database database) throws IOException {
     }
 }
\ No newline at end of file
@@ -7,8 +7,8 @@ import liquibase.structure.core.Column;
 import liquibase.structure.core.Table;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -25,13 +25,13 @@ public class TableWriter extends HTMLWriter {
     }
 
     @Override
-    protected void writeCustomHTML(FileWriter fileWriter, Object object, List<ExecutableChange> changes, Database database) throws IOException {
+    protected void writeCustomHTML(Writer fileWriter, Object object, List<ExecutableChange> changes, Database database) throws IOException {
     	final Table table = (Table) object;
     	writeTableRemarks(fileWriter, table, database);
 		writeColumns(fileWriter, table, database);
     }
 
-    private void writeColumns(FileWriter fileWriter, Table table, Database database) throws IOException {
+    private void writeColumns(Writer fileWriter, Table table, Database database) throws IOException {
         List<List<String>> cells = new ArrayList<List<String>>();
 
         for (Column column : table.getColumns()) {
@@ -46,7 +46,7 @@ public class TableWriter extends HTMLWriter {
         writeTable("Current Columns", cells, fileWriter);
     }
     
-    private void writeTableRemarks(FileWriter fileWriter, Table table, Database database) throws IOException {
+    private void writeTableRemarks(Writer fileWriter, Table table, Database database) throws IOException {
         final String tableRemarks = table.getRemarks();
         if (tableRemarks != null && tableRemarks.length() > 0) {
         	final List<List<String>> cells = new ArrayList<List<String>>();
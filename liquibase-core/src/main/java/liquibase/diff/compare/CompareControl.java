@@ -20,6 +20,7 @@ public class CompareControl {
     private CompareControl.SchemaComparison[] schemaComparisons;
     private Set<Class<? extends DatabaseObject>> compareTypes = new HashSet<Class<? extends DatabaseObject>>();
     private Map<Class<? extends DatabaseObject>, Set<String>> suppressedFields = new HashMap<Class<? extends DatabaseObject>, Set<String>>();
+    private int threads = 1;
 
     public static CompareControl STANDARD = new CompareControl();
 
@@ -86,6 +87,22 @@ public class CompareControl {
     }
 
 
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Number of threads comparing the objects of the snapshots at the same time. The objects are compared in parts by type and schema,
+     * and the results are added to the {@link liquibase.diff.DiffResult} in the same order regardless of the number of threads. Defaults to 1.
+     */
+    public CompareControl setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.threads = threads;
+        return this;
+    }
+
     public CompareControl addSuppressedField(Class<? extends DatabaseObject> type, String field) {
         if (!suppressedFields.containsKey(type)) {
             suppressedFields.put(type, new HashSet<String>());
@@ -11,6 +11,7 @@ import liquibase.structure.core.Schema;
 import liquibase.util.StringUtils;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class DatabaseObjectComparatorFactory {
 
@@ -18,8 +19,9 @@ public class DatabaseObjectComparatorFactory {
 
     private List<DatabaseObjectComparator> comparators = new ArrayList<DatabaseObjectComparator>();
 
-    private Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new HashMap<String, List<DatabaseObjectComparator>>();
-    private Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new HashMap<String, DatabaseObjectComparatorChain>();
+    //concurrent because objects may be compared on several threads, see CompareControl.setThreads()
+    private Map<String, List<DatabaseObjectComparator>> validComparatorsByClassAndDatabase = new ConcurrentHashMap<String, List<DatabaseObjectComparator>>();
+    private Map<String, DatabaseObjectComparatorChain> comparatorChainsByClassAndDatabase = new ConcurrentHashMap<String, DatabaseObjectComparatorChain>();
 
     private DatabaseObjectComparatorFactory() {
         Class[] classes;
@@ -175,8 +177,9 @@ public class DatabaseObjectComparatorFactory {
     private DatabaseObjectComparatorChain createComparatorChain(Class<? extends DatabaseObject> databaseObjectType, Database database) {
         String key = databaseObjectType.getName()+":"+database.getShortName();
 
-        if (comparatorChainsByClassAndDatabase.containsKey(key)) {
-            return comparatorChainsByClassAndDatabase.get(key).copy();
+        DatabaseObjectComparatorChain cached = comparatorChainsByClassAndDatabase.get(key);
+        if (cached != null) {
+            return cached.copy();
         }
 
         List<DatabaseObjectComparator> comparators = DatabaseObjectComparatorFactory.getInstance().getComparators(databaseObjectType, database);
@@ -0,0 +1,59 @@
+package liquibase.diff.compare.core;
+
+import java.util.Set;
+
+import liquibase.database.Database;
+import liquibase.diff.ObjectDifferences;
+import liquibase.diff.compare.CompareControl;
+import liquibase.diff.compare.DatabaseObjectComparator;
+import liquibase.diff.compare.DatabaseObjectComparatorChain;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Data;
+
+import org.kohsuke.MetaInfServices;
+
+/**
+ * Snapshots do not contain rows, so the data of tables which exist on both sides is never reported as changed by a diff.
+ * The rows are compared by {@link liquibase.diff.output.changelog.core.ChangedDataChangeGenerator} when changes are generated,
+ * which {@link liquibase.diff.output.changelog.DiffToChangeLog} calls with the differences from {@link #rowDifferences(Data, Data, CompareControl)}.
+ */
+@MetaInfServices
+public class DataComparator implements DatabaseObjectComparator {
+
+    public static final String ROWS = "rows";
+
+    @Override
+    public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
+        if (Data.class.isAssignableFrom(objectType)) {
+            return PRIORITY_TYPE;
+        }
+        return PRIORITY_NONE;
+    }
+
+    @Override
+    public String[] hash(DatabaseObject databaseObject, Database accordingTo, DatabaseObjectComparatorChain chain) {
+        return chain.hash(databaseObject, accordingTo);
+    }
+
+    @Override
+    public boolean isSameObject(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, DatabaseObjectComparatorChain chain) {
+        return chain.isSameObject(databaseObject1, databaseObject2, accordingTo);
+    }
+
+    @Override
+    public ObjectDifferences findDifferences(DatabaseObject databaseObject1, DatabaseObject databaseObject2, Database accordingTo, CompareControl compareControl, DatabaseObjectComparatorChain chain, Set<String> exclude) {
+        return new ObjectDifferences(compareControl);
+    }
+
+    /**
+     * Returns the differences to pass to the change generators for the data of a table which exists in both databases, with the tables
+     * whose rows have to be compared as values. Returns no differences if the rows are not to be compared.
+     */
+    public static ObjectDifferences rowDifferences(Data reference, Data comparison, CompareControl compareControl) {
+        ObjectDifferences differences = new ObjectDifferences(compareControl);
+        if (!compareControl.isSuppressedField(Data.class, ROWS)) {
+            differences.addDifference("Rows are compared when changes are generated", ROWS, reference.getTable(), comparison.getTable());
+        }
+        return differences;
+    }
+}
@@ -1,6 +1,21 @@
 package liquibase.diff.core;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import liquibase.database.Database;
 import liquibase.diff.DiffGenerator;
@@ -11,10 +26,12 @@ import liquibase.diff.compare.CompareControl;
 import liquibase.diff.compare.DatabaseObjectComparatorFactory;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
 import liquibase.snapshot.DatabaseSnapshot;
 import liquibase.snapshot.EmptyDatabaseSnapshot;
 import liquibase.snapshot.InvalidExampleException;
 import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Schema;
 
 import org.kohsuke.MetaInfServices;
 
@@ -45,12 +62,17 @@ public class StandardDiffGenerator implements DiffGenerator {
         DiffResult diffResult = new DiffResult(referenceSnapshot, comparisonSnapshot, compareControl);
         checkVersionInfo(referenceSnapshot, comparisonSnapshot, diffResult);
 
-        Set<Class<? extends DatabaseObject>> typesToCompare = compareControl.getComparedTypes();
+        //copied, as the compared types may be the shared standard types
+        Set<Class<? extends DatabaseObject>> typesToCompare = new HashSet<Class<? extends DatabaseObject>>(compareControl.getComparedTypes());
         typesToCompare.retainAll(referenceSnapshot.getSnapshotControl().getTypesToInclude());
         typesToCompare.retainAll(comparisonSnapshot.getSnapshotControl().getTypesToInclude());
 
-        for (Class<? extends DatabaseObject> typeToCompare : typesToCompare) {
-            compareObjectType(typeToCompare, referenceSnapshot, comparisonSnapshot, diffResult);
+        if (compareControl.getThreads() > 1) {
+            compareInParallel(typesToCompare, referenceSnapshot, comparisonSnapshot, diffResult);
+        } else {
+            for (Class<? extends DatabaseObject> typeToCompare : typesToCompare) {
+                compareObjectType(typeToCompare, referenceSnapshot, comparisonSnapshot, diffResult);
+            }
         }
 
 //        // Hack:  Sometimes Indexes or Unique Constraints with multiple columns get added twice (1 for each column),
@@ -193,4 +215,133 @@ public class StandardDiffGenerator implements DiffGenerator {
 //        uniqueConstraints.removeAll( constraintsToRemove );
 //    }
     }
+
+    /**
+     * Compares the objects like {@link #compareObjectType} does, with the objects of each type and schema compared on the threads of
+     * {@link CompareControl#getThreads()}. The results are added to the diff result in order of type and schema name.
+     */
+    protected void compareInParallel(Set<Class<? extends DatabaseObject>> typesToCompare, DatabaseSnapshot referenceSnapshot, DatabaseSnapshot comparisonSnapshot, DiffResult diffResult) {
+        CompareControl.SchemaComparison[] schemaComparisons = diffResult.getCompareControl().getSchemaComparisons();
+        if (schemaComparisons == null || schemaComparisons.length == 0) {
+            return;
+        }
+
+        //initialize state which is created on first use, so the threads only read it
+        DatabaseObjectComparatorFactory.getInstance();
+        for (Database database : new Database[] {referenceSnapshot.getDatabase(), comparisonSnapshot.getDatabase()}) {
+            database.isCaseSensitive();
+            database.getDefaultCatalogName();
+            database.getDefaultSchemaName();
+        }
+
+        SortedMap<String, Class<? extends DatabaseObject>> types = new TreeMap<String, Class<? extends DatabaseObject>>();
+        for (Class<? extends DatabaseObject> type : typesToCompare) {
+            types.put(type.getName(), type);
+        }
+
+        List<ComparisonTask> tasks = new ArrayList<ComparisonTask>();
+        for (Class<? extends DatabaseObject> type : types.values()) {
+            for (List<DatabaseObject> objects : partitionBySchema(referenceSnapshot.get(type))) {
+                tasks.add(new ComparisonTask(objects, comparisonSnapshot, diffResult.getCompareControl(), true));
+            }
+            for (List<DatabaseObject> objects : partitionBySchema(comparisonSnapshot.get(type))) {
+                tasks.add(new ComparisonTask(objects, referenceSnapshot, diffResult.getCompareControl(), false));
+            }
+        }
+
+        long start = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(diffResult.getCompareControl().getThreads(), new DiffThreadFactory());
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedLiquibaseException("Interrupted while comparing snapshots", e);
+        } catch (ExecutionException e) {
+            throw new UnexpectedLiquibaseException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (ComparisonTask task : tasks) {
+            for (DatabaseObject object : task.notFound) {
+                if (task.reference) {
+                    diffResult.addMissingObject(object);
+                } else {
+                    diffResult.addUnexpectedObject(object);
+                }
+            }
+            for (Map.Entry<DatabaseObject, ObjectDifferences> changed : task.changed.entrySet()) {
+                diffResult.addChangedObject(changed.getKey(), changed.getValue());
+            }
+        }
+        LogFactory.getLogger().debug("Compared " + tasks.size() + " parts of the snapshots on " + diffResult.getCompareControl().getThreads() + " threads in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Splits the objects by the name of their schema, in order of the schema name.
+     */
+    private Collection<List<DatabaseObject>> partitionBySchema(Set<? extends DatabaseObject> objects) {
+        SortedMap<String, List<DatabaseObject>> partitions = new TreeMap<String, List<DatabaseObject>>();
+        for (DatabaseObject object : objects) {
+            Schema schema = object.getSchema();
+            String key = schema == null ? "" : schema.getCatalogName() + "." + schema.getName();
+            List<DatabaseObject> partition = partitions.get(key);
+            if (partition == null) {
+                partition = new ArrayList<DatabaseObject>();
+                partitions.put(key, partition);
+            }
+            partition.add(object);
+        }
+        return partitions.values();
+    }
+
+    /**
+     * Looks up objects of one snapshot in the other snapshot. Objects of the reference snapshot which are not found are missing and are
+     * checked for differences otherwise, objects of the comparison snapshot which are not found are unexpected.
+     */
+    private static class ComparisonTask implements Callable<Void> {
+        private final List<DatabaseObject> objects;
+        private final DatabaseSnapshot otherSnapshot;
+        private final CompareControl compareControl;
+        private final boolean reference;
+
+        private final List<DatabaseObject> notFound = new ArrayList<DatabaseObject>();
+        private final Map<DatabaseObject, ObjectDifferences> changed = new LinkedHashMap<DatabaseObject, ObjectDifferences>();
+
+        private ComparisonTask(List<DatabaseObject> objects, DatabaseSnapshot otherSnapshot, CompareControl compareControl, boolean reference) {
+            this.objects = objects;
+            this.otherSnapshot = otherSnapshot;
+            this.compareControl = compareControl;
+            this.reference = reference;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            for (DatabaseObject object : objects) {
+                DatabaseObject otherObject = otherSnapshot.get(object);
+                if (otherObject == null) {
+                    notFound.add(object);
+                } else if (reference) {
+                    ObjectDifferences differences = DatabaseObjectComparatorFactory.getInstance().findDifferences(object, otherObject, otherSnapshot.getDatabase(), compareControl);
+                    if (differences.hasDifferences()) {
+                        changed.put(object, differences);
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class DiffThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "liquibase-diff-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -29,6 +29,7 @@ import liquibase.database.Database;
 import liquibase.database.ObjectQuotingStrategy;
 import liquibase.diff.DiffResult;
 import liquibase.diff.ObjectDifferences;
+import liquibase.diff.compare.core.DataComparator;
 import liquibase.diff.output.DiffOutputControl;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.UnexpectedLiquibaseException;
@@ -38,6 +39,7 @@ import liquibase.serializer.ChangeLogSerializerFactory;
 import liquibase.serializer.core.xml.XMLChangeLogSerializer;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.DatabaseObjectComparator;
+import liquibase.structure.core.Data;
 import liquibase.util.StringUtils;
 
 public class DiffToChangeLog {
@@ -180,10 +182,34 @@ public class DiffToChangeLog {
                     addToChangeSets(changes, changeSets, quotingStrategy);
                 }
             }
+            if (Data.class.equals(type)) {
+                addChangedData(changeSets, quotingStrategy);
+            }
         }
         return changeSets;
     }
 
+    /**
+     * Rows are not part of snapshots, so the data of every table in both databases is passed to the change generators, which compare the rows.
+     */
+    private void addChangedData(List<ChangeSet> changeSets, ObjectQuotingStrategy quotingStrategy) {
+        if (!diffResult.getCompareControl().getComparedTypes().contains(Data.class)) {
+            return;
+        }
+        Database referenceDatabase = diffResult.getReferenceSnapshot().getDatabase();
+        for (Data data : diffResult.getReferenceSnapshot().get(Data.class)) {
+            Data comparisonData = diffResult.getComparisonSnapshot().get(data);
+            if (comparisonData == null || referenceDatabase.isLiquibaseObject(data) || referenceDatabase.isSystemObject(data)) {
+                continue;
+            }
+            ObjectDifferences differences = DataComparator.rowDifferences(data, comparisonData, diffResult.getCompareControl());
+            if (differences.hasDifferences()) {
+                ExecutableChange[] changes = ChangeGeneratorFactory.getInstance().fixChanged(data, differences, diffOutputControl, referenceDatabase, diffResult.getComparisonSnapshot().getDatabase());
+                addToChangeSets(changes, changeSets, quotingStrategy);
+            }
+        }
+    }
+
     protected List<Class<? extends DatabaseObject>> getOrderedOutputTypes(Class<? extends ChangeGenerator> generatorType) {
 
         Database comparisonDatabase = diffResult.getComparisonSnapshot().getDatabase();
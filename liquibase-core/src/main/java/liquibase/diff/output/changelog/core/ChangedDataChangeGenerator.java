@@ -0,0 +1,483 @@
+package liquibase.diff.output.changelog.core;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import liquibase.action.AbstractModifyDataAction;
+import liquibase.action.DeleteDataAction;
+import liquibase.action.InsertDataAction;
+import liquibase.action.UpdateDataAction;
+import liquibase.change.ColumnConfig;
+import liquibase.change.ExecutableChange;
+import liquibase.database.Database;
+import liquibase.database.core.H2Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.diff.Difference;
+import liquibase.diff.ObjectDifferences;
+import liquibase.diff.compare.core.DataComparator;
+import liquibase.diff.output.DiffOutputControl;
+import liquibase.diff.output.changelog.ChangeGenerator;
+import liquibase.diff.output.changelog.ChangeGeneratorChain;
+import liquibase.diff.output.changelog.ChangedObjectChangeGenerator;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.Data;
+import liquibase.structure.core.DataType;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Table;
+import liquibase.util.JdbcUtils;
+
+import org.kohsuke.MetaInfServices;
+
+/**
+ * Compares the rows of a table which exists in both databases and creates inserts, updates and deletes for the rows which differ.
+ * <p>
+ * Both tables are read ordered by the primary key of the reference table and merged like a sorted merge join, so only the current row of
+ * each side is held in memory, however large the tables are. Rows are matched by their primary key values. Tables without a primary key
+ * cannot be matched row by row and are skipped.
+ * <p>
+ * The merge needs the rows in the order {@link #compareKeys(Object[], Object[])} compares them. Databases sort character keys by their
+ * collation, which may be case insensitive or linguistic, so character key columns are ordered by a binary expression where the database
+ * has one, see {@link #getKeyOrderExpression(Database, Table, String)}. If a database still returns its rows in another order, the
+ * comparison fails rather than producing wrong changes.
+ */
+@MetaInfServices(ChangeGenerator.class)
+public class ChangedDataChangeGenerator implements ChangedObjectChangeGenerator {
+
+    private static final int FETCH_SIZE = 1000;
+
+    @Override
+    public int getPriority(Class<? extends DatabaseObject> objectType, Database database) {
+        if (Data.class.isAssignableFrom(objectType)) {
+            return PRIORITY_DEFAULT;
+        }
+        return PRIORITY_NONE;
+    }
+
+    @Override
+    public Class<? extends DatabaseObject>[] runAfterTypes() {
+        return new Class[]{
+                Table.class, Column.class
+        };
+    }
+
+    @Override
+    public Class<? extends DatabaseObject>[] runBeforeTypes() {
+        return new Class[]{
+                PrimaryKey.class
+        };
+    }
+
+    @Override
+    public ExecutableChange[] fixChanged(DatabaseObject changedObject, ObjectDifferences differences, DiffOutputControl control, Database referenceDatabase, Database comparisonDatabase, ChangeGeneratorChain chain) {
+        Difference rows = differences.getDifference(DataComparator.ROWS);
+        if (rows == null || !(rows.getComparedValue() instanceof Table)) {
+            return null;
+        }
+        Table table = ((Data) changedObject).getTable();
+        Table comparisonTable = (Table) rows.getComparedValue();
+        if (referenceDatabase.isLiquibaseObject(table)) {
+            return null;
+        }
+        if (!(referenceDatabase.getConnection() instanceof JdbcConnection) || !(comparisonDatabase.getConnection() instanceof JdbcConnection)) {
+            LogFactory.getLogger().warning("Cannot compare the rows of " + table.getName() + " without connections to both databases");
+            return null;
+        }
+        PrimaryKey primaryKey = table.getPrimaryKey();
+        if (primaryKey == null || primaryKey.getColumnNamesAsList().isEmpty()) {
+            LogFactory.getLogger().warning("Cannot compare the rows of " + table.getName() + " without a primary key");
+            return null;
+        }
+        List<String> keyColumns = primaryKey.getColumnNamesAsList();
+
+        RowCursor reference = null;
+        RowCursor comparison = null;
+        try {
+            reference = createRowCursor(referenceDatabase, table, keyColumns);
+            comparison = createRowCursor(comparisonDatabase, comparisonTable, keyColumns);
+
+            List<ExecutableChange> changes = new ArrayList<ExecutableChange>();
+            boolean hasReference = reference.next();
+            boolean hasComparison = comparison.next();
+            while (hasReference || hasComparison) {
+                int order;
+                if (!hasReference) {
+                    order = 1;
+                } else if (!hasComparison) {
+                    order = -1;
+                } else {
+                    order = compareKeys(reference.getKey(), comparison.getKey());
+                }
+
+                if (order < 0) {
+                    changes.add(createInsert(table, reference, control, referenceDatabase));
+                    hasReference = reference.next();
+                } else if (order > 0) {
+                    changes.add(createDelete(table, comparison, keyColumns, control, referenceDatabase));
+                    hasComparison = comparison.next();
+                } else {
+                    UpdateDataAction update = createUpdate(table, reference, comparison, keyColumns, control, referenceDatabase);
+                    if (update != null) {
+                        changes.add(update);
+                    }
+                    hasReference = reference.next();
+                    hasComparison = comparison.next();
+                }
+            }
+
+            if (changes.isEmpty()) {
+                return null;
+            }
+            return changes.toArray(new ExecutableChange[changes.size()]);
+        } catch (DatabaseException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } catch (SQLException e) {
+            throw new UnexpectedLiquibaseException(e);
+        } finally {
+            if (reference != null) {
+                reference.close();
+            }
+            if (comparison != null) {
+                comparison.close();
+            }
+        }
+    }
+
+    protected RowCursor createRowCursor(Database database, Table table, List<String> keyColumns) throws DatabaseException, SQLException {
+        List<String> orderBy = new ArrayList<String>();
+        for (String keyColumn : keyColumns) {
+            orderBy.add(getKeyOrderExpression(database, table, keyColumn));
+        }
+        return new RowCursor(database, table, keyColumns, orderBy);
+    }
+
+    /**
+     * Returns the expression the rows are ordered by for the given key column. Character columns are ordered by their binary value where
+     * the database allows it, so the order does not depend on the collation and matches {@link #compareKeys(Object[], Object[])}.
+     */
+    protected String getKeyOrderExpression(Database database, Table table, String keyColumn) {
+        String column = database.escapeColumnName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName(), keyColumn);
+        if (!isCharacterColumn(table.getColumn(keyColumn))) {
+            return column;
+        }
+        if (database instanceof MySQLDatabase) {
+            return "BINARY " + column;
+        } else if (database instanceof MSSQLDatabase) {
+            return column + " COLLATE Latin1_General_BIN2";
+        } else if (database instanceof PostgresDatabase) {
+            return column + " COLLATE \"C\"";
+        } else if (database instanceof OracleDatabase) {
+            return "NLSSORT(" + column + ", 'NLS_SORT=BINARY')";
+        } else if (database instanceof H2Database) {
+            return "CAST(" + column + " AS VARCHAR)";
+        }
+        return column;
+    }
+
+    private boolean isCharacterColumn(Column column) {
+        if (column == null || column.getType() == null) {
+            return false;
+        }
+        DataType type = column.getType();
+        Integer typeId = type.getDataTypeId();
+        if (typeId != null) {
+            switch (typeId) {
+                case Types.CHAR:
+                case Types.VARCHAR:
+                case Types.LONGVARCHAR:
+                case Types.NCHAR:
+                case Types.NVARCHAR:
+                case Types.LONGNVARCHAR:
+                    return true;
+            }
+        }
+        return type.getTypeName() != null && type.getTypeName().toUpperCase().contains("CHAR");
+    }
+
+    protected InsertDataAction createInsert(Table table, RowCursor reference, DiffOutputControl control, Database referenceDatabase) {
+        InsertDataAction action = new InsertDataAction();
+        if (control.getIncludeCatalog()) {
+            action.setCatalogName(table.getSchema().getCatalogName());
+        }
+        if (control.getIncludeSchema()) {
+            action.setSchemaName(table.getSchema().getName());
+        }
+        action.setTableName(table.getName());
+
+        for (int i = 0; i < reference.getColumnNames().size(); i++) {
+            ColumnConfig column = new ColumnConfig();
+            column.setName(reference.getColumnNames().get(i));
+            MissingDataChangeGenerator.setColumnValue(column, reference.getValue(i), referenceDatabase);
+            action.addColumn(column);
+        }
+        return action;
+    }
+
+    /**
+     * Returns an update of the columns whose values differ, or null if the rows are equal.
+     */
+    protected UpdateDataAction createUpdate(Table table, RowCursor reference, RowCursor comparison, List<String> keyColumns, DiffOutputControl control, Database referenceDatabase) {
+        UpdateDataAction action = null;
+        for (int i = 0; i < reference.getColumnNames().size(); i++) {
+            String columnName = reference.getColumnNames().get(i);
+            if (isKeyColumn(columnName, keyColumns)) {
+                continue;
+            }
+            Object value = reference.getValue(i);
+            int comparisonIndex = comparison.indexOf(columnName);
+            if (comparisonIndex >= 0 && valuesEqual(value, comparison.getValue(comparisonIndex))) {
+                continue;
+            }
+            if (action == null) {
+                action = new UpdateDataAction();
+                setTable(action, table, control);
+            }
+            ColumnConfig column = new ColumnConfig();
+            column.setName(columnName);
+            MissingDataChangeGenerator.setColumnValue(column, value, referenceDatabase);
+            action.addColumn(column);
+        }
+        if (action != null) {
+            setKeyCondition(action, comparison, keyColumns, referenceDatabase);
+        }
+        return action;
+    }
+
+    protected DeleteDataAction createDelete(Table table, RowCursor comparison, List<String> keyColumns, DiffOutputControl control, Database referenceDatabase) {
+        DeleteDataAction action = new DeleteDataAction();
+        setTable(action, table, control);
+        setKeyCondition(action, comparison, keyColumns, referenceDatabase);
+        return action;
+    }
+
+    private void setTable(AbstractModifyDataAction action, Table table, DiffOutputControl control) {
+        if (control.getIncludeCatalog()) {
+            action.setCatalogName(table.getSchema().getCatalogName());
+        }
+        if (control.getIncludeSchema()) {
+            action.setSchemaName(table.getSchema().getName());
+        }
+        action.setTableName(table.getName());
+    }
+
+    private void setKeyCondition(AbstractModifyDataAction action, RowCursor row, List<String> keyColumns, Database referenceDatabase) {
+        StringBuilder where = new StringBuilder();
+        Object[] key = row.getKey();
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                where.append(" AND ");
+            }
+            where.append(":name = :value");
+
+            ColumnConfig param = new ColumnConfig();
+            param.setName(keyColumns.get(i));
+            MissingDataChangeGenerator.setColumnValue(param, key[i], referenceDatabase, false);
+            action.addWhereParam(param);
+        }
+        action.setWhere(where.toString());
+    }
+
+    private boolean isKeyColumn(String columnName, List<String> keyColumns) {
+        for (String keyColumn : keyColumns) {
+            if (keyColumn.equalsIgnoreCase(columnName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compares primary key values in the order the databases sort them in, as far as it is known without the collation.
+     */
+    protected static int compareKeys(Object[] key1, Object[] key2) {
+        for (int i = 0; i < key1.length; i++) {
+            int order = compareValues(key1[i], key2[i]);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return 0;
+    }
+
+    private static int compareValues(Object value1, Object value2) {
+        if (value1 == null || value2 == null) {
+            return value1 == null ? (value2 == null ? 0 : -1) : 1;
+        }
+        if (value1 instanceof Number && value2 instanceof Number) {
+            if (isFinite((Number) value1) && isFinite((Number) value2)) {
+                return new BigDecimal(value1.toString()).compareTo(new BigDecimal(value2.toString()));
+            }
+            return Double.compare(((Number) value1).doubleValue(), ((Number) value2).doubleValue());
+        }
+        if (value1 instanceof Date && value2 instanceof Date) {
+            long time1 = ((Date) value1).getTime();
+            long time2 = ((Date) value2).getTime();
+            return time1 < time2 ? -1 : (time1 == time2 ? 0 : 1);
+        }
+        if (value1 instanceof Comparable && value1.getClass().equals(value2.getClass())) {
+            return ((Comparable) value1).compareTo(value2);
+        }
+        return value1.toString().compareTo(value2.toString());
+    }
+
+    /**
+     * False for NaN and infinite floating point values, which have no BigDecimal representation.
+     */
+    private static boolean isFinite(Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            double doubleValue = value.doubleValue();
+            return !Double.isNaN(doubleValue) && !Double.isInfinite(doubleValue);
+        }
+        return true;
+    }
+
+    protected static boolean valuesEqual(Object value1, Object value2) {
+        if (value1 == null || value2 == null) {
+            return value1 == value2;
+        }
+        if (value1 instanceof byte[] && value2 instanceof byte[]) {
+            return Arrays.equals((byte[]) value1, (byte[]) value2);
+        }
+        if ((value1 instanceof Number && value2 instanceof Number) || (value1 instanceof Date && value2 instanceof Date)) {
+            return compareValues(value1, value2) == 0;
+        }
+        return value1.equals(value2) || value1.toString().equals(value2.toString());
+    }
+
+    /**
+     * Thrown if a database returns the rows of a table in another order than {@link #compareKeys(Object[], Object[])}.
+     */
+    protected static class RowOrderException extends UnexpectedLiquibaseException {
+        public RowOrderException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Reads the rows of a table ordered by primary key, one row at a time.
+     */
+    protected static class RowCursor {
+        private final Table table;
+        private final Statement statement;
+        private final ResultSet resultSet;
+        private final List<String> columnNames = new ArrayList<String>();
+        private final Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+        private final int[] keyIndexes;
+
+        private Object[] values;
+        private Object[] key;
+
+        /**
+         * The rows are ordered by the given expressions, which must sort the rows like their key values are compared.
+         */
+        public RowCursor(Database database, Table table, List<String> keyColumns, List<String> orderBy) throws DatabaseException, SQLException {
+            this.table = table;
+            StringBuilder sql = new StringBuilder("SELECT * FROM ")
+                    .append(database.escapeTableName(table.getSchema().getCatalogName(), table.getSchema().getName(), table.getName()))
+                    .append(" ORDER BY ");
+            for (int i = 0; i < orderBy.size(); i++) {
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append(orderBy.get(i));
+            }
+
+            statement = ((JdbcConnection) database.getConnection()).createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            try {
+                statement.setFetchSize(FETCH_SIZE);
+                resultSet = statement.executeQuery(sql.toString());
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                for (int i = 0; i < metaData.getColumnCount(); i++) {
+                    String columnName = metaData.getColumnName(i + 1);
+                    columnNames.add(columnName);
+                    columnIndexes.put(columnName.toUpperCase(), i);
+                }
+            } catch (SQLException e) {
+                JdbcUtils.closeStatement(statement);
+                throw e;
+            }
+
+            keyIndexes = new int[keyColumns.size()];
+            for (int i = 0; i < keyColumns.size(); i++) {
+                keyIndexes[i] = indexOf(keyColumns.get(i));
+                if (keyIndexes[i] < 0) {
+                    close();
+                    throw new UnexpectedLiquibaseException("Primary key column " + keyColumns.get(i) + " not found in " + table.getName());
+                }
+            }
+        }
+
+        /**
+         * Moves to the next row. Throws a {@link RowOrderException} if the database returns the rows in another order than
+         * {@link #compareKeys(Object[], Object[])}, as the rows could not be merged correctly.
+         */
+        public boolean next() throws SQLException {
+            if (!resultSet.next()) {
+                values = null;
+                return false;
+            }
+            Object[] previousKey = key;
+            values = readValues();
+            key = getKey(values);
+            if (previousKey != null && compareKeys(previousKey, key) > 0) {
+                throw new RowOrderException("Cannot compare the rows of " + table.getName() + ": the database does not return them in the order "
+                        + "their primary key values are compared in, possibly because of the collation of a character key column");
+            }
+            return true;
+        }
+
+        private Object[] readValues() throws SQLException {
+            Object[] row = new Object[columnNames.size()];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = JdbcUtils.getResultSetValue(resultSet, i + 1);
+            }
+            return row;
+        }
+
+        private Object[] getKey(Object[] row) {
+            Object[] rowKey = new Object[keyIndexes.length];
+            for (int i = 0; i < keyIndexes.length; i++) {
+                rowKey[i] = row[keyIndexes[i]];
+            }
+            return rowKey;
+        }
+
+        public List<String> getColumnNames() {
+            return columnNames;
+        }
+
+        public int indexOf(String columnName) {
+            Integer index = columnIndexes.get(columnName.toUpperCase());
+            return index == null ? -1 : index;
+        }
+
+        public Object getValue(int index) {
+            return values[index];
+        }
+
+        public Object[] getKey() {
+            return key;
+        }
+
+        public void close() {
+            JdbcUtils.close(resultSet, statement);
+        }
+    }
+}
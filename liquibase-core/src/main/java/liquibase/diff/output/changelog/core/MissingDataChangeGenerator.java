@@ -92,25 +92,7 @@ public class MissingDataChangeGenerator implements MissingObjectChangeGenerator
                     ColumnConfig column = new ColumnConfig();
                     column.setName(columnNames.get(i));
 
-                    Object value = JdbcUtils.getResultSetValue(rs, i + 1);
-                    if (value == null) {
-                        column.setValue(null);
-                    } else if (value instanceof Number) {
-                        column.setValueNumeric((Number) value);
-                    } else if (value instanceof Boolean) {
-                        column.setValueBoolean((Boolean) value);
-                    } else if (value instanceof Date) {
-                        column.setValueDate((Date) value);
-                    } else { // string
-                        if (referenceDatabase instanceof InformixDatabase) {
-                            if (value instanceof byte[]) {
-                                byte[] bytes = (byte[]) value;
-                                value = new String(bytes);
-                            }
-                        }
-
-                        column.setValue(value.toString().replace("\\", "\\\\"));
-                    }
+                    setColumnValue(column, JdbcUtils.getResultSetValue(rs, i + 1), referenceDatabase);
 
                     action.addColumn(column);
 
@@ -137,4 +119,36 @@ public class MissingDataChangeGenerator implements MissingObjectChangeGenerator
             }
         }
     }
+
+    /**
+     * Sets a value read from the reference database on the column, with the value type matching the value.
+     */
+    static void setColumnValue(ColumnConfig column, Object value, Database referenceDatabase) {
+        setColumnValue(column, value, referenceDatabase, true);
+    }
+
+    /**
+     * Like {@link #setColumnValue(ColumnConfig, Object, Database)}, but backslashes in strings are only doubled if escapeBackslashes is true.
+     * Values compared in where clauses must be kept as they are.
+     */
+    static void setColumnValue(ColumnConfig column, Object value, Database referenceDatabase, boolean escapeBackslashes) {
+        if (value == null) {
+            column.setValue(null);
+        } else if (value instanceof Number) {
+            column.setValueNumeric((Number) value);
+        } else if (value instanceof Boolean) {
+            column.setValueBoolean((Boolean) value);
+        } else if (value instanceof Date) {
+            column.setValueDate((Date) value);
+        } else { // string
+            if (referenceDatabase instanceof InformixDatabase) {
+                if (value instanceof byte[]) {
+                    byte[] bytes = (byte[]) value;
+                    value = new String(bytes);
+                }
+            }
+
+            column.setValue(escapeBackslashes ? value.toString().replace("\\", "\\\\") : value.toString());
+        }
+    }
 }
@@ -2,16 +2,16 @@ package liquibase.executor;
 
 import liquibase.database.Database;
 import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.executor.jvm.JdbcExecutor;
 import liquibase.servicelocator.ServiceLocator;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 public class ExecutorService {
 
     private static ExecutorService instance = new ExecutorService();
 
-    private Map<Database, Executor> executors = new ConcurrentHashMap<Database, Executor>();
+    private ConcurrentHashMap<Database, Executor> executors = new ConcurrentHashMap<Database, Executor>();
 
 
     private ExecutorService() {
@@ -22,16 +22,20 @@ public class ExecutorService {
     }
 
     public Executor getExecutor(Database database) {
-        if (!executors.containsKey(database)) {
+        Executor executor = executors.get(database);
+        if (executor == null) {
             try {
-                Executor executor = (Executor) ServiceLocator.getInstance().newInstance(Executor.class);
+                executor = (Executor) ServiceLocator.getInstance().newInstance(Executor.class);
                 executor.setDatabase(database);
-                executors.put(database, executor);
             } catch (Exception e) {
                 throw new UnexpectedLiquibaseException(e);
             }
+            Executor existing = executors.putIfAbsent(database, executor);
+            if (existing != null) {
+                executor = existing;
+            }
         }
-        return executors.get(database);
+        return executor;
     }
 
     public void setExecutor(Database database, Executor executor) {
@@ -39,10 +43,19 @@ public class ExecutorService {
     }
 
     public void clearExecutor(Database database) {
-        executors.remove(database);
+        close(executors.remove(database));
     }
 
     public void reset() {
+        for (Executor executor : executors.values()) {
+            close(executor);
+        }
         executors.clear();
     }
+
+    private void close(Executor executor) {
+        if (executor instanceof JdbcExecutor) {
+            ((JdbcExecutor) executor).clearStatementCache();
+        }
+    }
 }
@@ -1,14 +1,17 @@
 package liquibase.executor.jvm;
 
 import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
 import liquibase.change.ExecutableChange;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.DatabaseConnection;
 import liquibase.database.OfflineConnection;
 import liquibase.database.PreparedStatementFactory;
@@ -39,12 +42,21 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
 
     private Logger log = LogFactory.getLogger();
 
+    private PreparedStatementCache statementCache;
+
+    /**
+     * Prepared inserts or updates with the same SQL which were not sent yet.
+     */
+    private final List<ParameterizedSql> pendingRun = new ArrayList<ParameterizedSql>();
+    private boolean batching;
+
     @Override
     public boolean updatesDatabase() {
         return true;
     }
 
     public Object execute(StatementCallback action, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        flushBatch();
         DatabaseConnection con = database.getConnection();
         Statement stmt = null;
         try {
@@ -84,6 +96,7 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
     }
 
     public Object execute(CallableStatementCallback action, List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        flushBatch();
         DatabaseConnection con = database.getConnection();
 
         if (con instanceof OfflineConnection) {
@@ -116,12 +129,136 @@ public class JdbcExecutor extends AbstractExecutor implements Executor {
 
     @Override
     public void execute(final SqlStatement sql, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
-        if(sql instanceof ExecutablePreparedStatement) {
-            ((ExecutablePreparedStatement) sql).execute(new PreparedStatementFactory((JdbcConnection)database.getConnection()));
+        execute(Collections.singletonList(sql), sqlVisitors);
+    }
+
+    /**
+     * Executes the statements in order. If {@link JdbcExecutorConfiguration#getUsePreparedStatements()} is set, runs of inserts or
+     * updates which differ only in their values are sent as JDBC batches of one cached prepared statement. Between
+     * {@link #startBatch()} and {@link #endBatch()}, such a run is continued by the statements of the following calls.
+     */
+    public void execute(final List<? extends SqlStatement> statements, final List<SqlVisitor> sqlVisitors) throws DatabaseException {
+        for (SqlStatement statement : statements) {
+            ParameterizedSql parameterized = statement instanceof ExecutablePreparedStatement ? null : parameterize(statement, sqlVisitors);
+            if (parameterized != null) {
+                addToBatch(parameterized);
+                continue;
+            }
+
+            flushBatch();
+            if (statement instanceof ExecutablePreparedStatement) {
+                ((ExecutablePreparedStatement) statement).execute(new PreparedStatementFactory((JdbcConnection) database.getConnection()));
+            } else {
+                // other statements may change the tables the cached statements were prepared for
+                clearStatementCache();
+                execute(new ExecuteStatementCallback(statement, sqlVisitors), sqlVisitors);
+            }
+        }
+        if (!batching) {
+            flushBatch();
+        }
+    }
+
+    /**
+     * Keeps runs of prepared inserts and updates open across calls to {@link #execute(List, List)}, so the statements of consecutive
+     * changes are sent in one JDBC batch. The run is sent before any other statement or query is executed, and by {@link #endBatch()},
+     * which must be called before the transaction is committed. Errors of the statements in a run are only reported when it is sent.
+     */
+    public void startBatch() {
+        batching = true;
+    }
+
+    /**
+     * Sends the statements of the current run, if any, and ends batching started by {@link #startBatch()}.
+     */
+    public void endBatch() throws DatabaseException {
+        batching = false;
+        flushBatch();
+    }
+
+    private void flushBatch() throws DatabaseException {
+        if (pendingRun.isEmpty()) {
             return;
         }
+        try {
+            executePrepared(pendingRun);
+        } finally {
+            pendingRun.clear();
+        }
+    }
 
-        execute(new ExecuteStatementCallback(sql, sqlVisitors), sqlVisitors);
+    /**
+     * Drops the statements of the current run without sending them and ends batching, e.g. because the transaction is rolled back.
+     */
+    public void discardBatch() {
+        pendingRun.clear();
+        batching = false;
+    }
+
+    /**
+     * Closes the prepared statements kept for reuse, if any, and drops statements which were not sent yet.
+     */
+    public void clearStatementCache() {
+        pendingRun.clear();
+        if (statementCache != null) {
+            statementCache.clear();
+        }
+    }
+
+    private void addToBatch(ParameterizedSql parameterized) throws DatabaseException {
+        if (!pendingRun.isEmpty() && !pendingRun.get(0).getSql().equals(parameterized.getSql())) {
+            flushBatch();
+        }
+        pendingRun.add(parameterized);
+        if (pendingRun.size() >= LiquibaseConfiguration.getInstance().getConfiguration(JdbcExecutorConfiguration.class).getBatchSize()) {
+            flushBatch();
+        }
+    }
+
+    private ParameterizedSql parameterize(SqlStatement sql, List<SqlVisitor> sqlVisitors) {
+        if ((sqlVisitors != null && !sqlVisitors.isEmpty()) || !(database.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+        if (!LiquibaseConfiguration.getInstance().getConfiguration(JdbcExecutorConfiguration.class).getUsePreparedStatements()) {
+            return null;
+        }
+        return ParameterizedSql.create(sql, database);
+    }
+
+    private void executePrepared(List<ParameterizedSql> run) throws DatabaseException {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (statementCache == null) {
+            statementCache = new PreparedStatementCache(LiquibaseConfiguration.getInstance().getConfiguration(JdbcExecutorConfiguration.class).getStatementCacheSize());
+        }
+        String sql = run.get(0).getSql();
+        try {
+            PreparedStatement stmt = statementCache.get(((JdbcConnection) database.getConnection()).getUnderlyingConnection(), sql);
+            if (run.size() == 1) {
+                log.debug("Executing PREPARED database command: " + sql);
+                bind(stmt, run.get(0));
+                stmt.executeUpdate();
+            } else {
+                log.debug("Executing PREPARED database command " + run.size() + " times in one batch: " + sql);
+                for (ParameterizedSql parameterized : run) {
+                    bind(stmt, parameterized);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+            }
+        } catch (SQLException ex) {
+            statementCache.remove(sql);
+            SQLException cause = ex.getNextException() == null ? ex : ex.getNextException();
+            throw new DatabaseException("Error executing SQL " + sql + " on " + database.getConnection().getURL() + ": " + cause.getMessage(), ex);
+        }
+    }
+
+    private void bind(PreparedStatement stmt, ParameterizedSql parameterized) throws SQLException {
+        int i = 1;
+        for (Object parameter : parameterized.getParameters()) {
+            stmt.setObject(i++, parameter);
+        }
     }
 
 
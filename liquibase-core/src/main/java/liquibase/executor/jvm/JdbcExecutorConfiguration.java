@@ -0,0 +1,58 @@
+package liquibase.executor.jvm;
+
+import liquibase.configuration.AbstractConfigurationContainer;
+
+/**
+ * Configuration container for {@link JdbcExecutor}.
+ */
+public class JdbcExecutorConfiguration extends AbstractConfigurationContainer {
+
+    public static final String USE_PREPARED_STATEMENTS = "usePreparedStatements";
+    public static final String STATEMENT_CACHE_SIZE = "preparedStatementCacheSize";
+    public static final String BATCH_SIZE = "jdbcBatchSize";
+
+    public JdbcExecutorConfiguration() {
+        super("liquibase");
+
+        getContainer().addProperty(USE_PREPARED_STATEMENTS, Boolean.class)
+                .setDescription("Execute inserts and updates as cached prepared statements with bound values, and send runs of them which differ only in their values as JDBC batches, also across the changes of a change set. String values are bound as strings, so drivers which do not convert them to the column type, like the PostgreSQL driver, need them to match the column types")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(STATEMENT_CACHE_SIZE, Integer.class)
+                .setDescription("Number of prepared statements kept open per connection if usePreparedStatements is set")
+                .setDefaultValue(20);
+
+        getContainer().addProperty(BATCH_SIZE, Integer.class)
+                .setDescription("Maximum number of statements sent with one JDBC batch if usePreparedStatements is set")
+                .setDefaultValue(1000);
+    }
+
+    public boolean getUsePreparedStatements() {
+        return getContainer().getValue(USE_PREPARED_STATEMENTS, Boolean.class);
+    }
+
+    public JdbcExecutorConfiguration setUsePreparedStatements(boolean usePreparedStatements) {
+        getContainer().setValue(USE_PREPARED_STATEMENTS, usePreparedStatements);
+        return this;
+    }
+
+    public int getStatementCacheSize() {
+        Integer value = getContainer().getValue(STATEMENT_CACHE_SIZE, Integer.class);
+        return value == null || value < 1 ? 1 : value;
+    }
+
+    public JdbcExecutorConfiguration setStatementCacheSize(int statementCacheSize) {
+        getContainer().setValue(STATEMENT_CACHE_SIZE, statementCacheSize);
+        return this;
+    }
+
+    public int getBatchSize() {
+        Integer value = getContainer().getValue(BATCH_SIZE, Integer.class);
+        return value == null || value < 1 ? 1 : value;
+    }
+
+    public JdbcExecutorConfiguration setBatchSize(int batchSize) {
+        getContainer().setValue(BATCH_SIZE, batchSize);
+        return this;
+    }
+}
@@ -0,0 +1,163 @@
+package liquibase.executor.jvm;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import liquibase.database.Database;
+import liquibase.datatype.DataTypeFactory;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGenerator;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.AbstractSqlGenerator;
+import liquibase.sqlgenerator.core.InsertGenerator;
+import liquibase.sqlgenerator.core.UpdateGenerator;
+import liquibase.statement.SqlStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.statement.core.UpdateStatement;
+import liquibase.structure.core.Column;
+
+/**
+ * The SQL of an insert or update with parameter markers in place of its plain values, and the values to bind to them. Statements which
+ * differ only in these values have the same SQL, so they can share one prepared statement. The SQL is generated by the standard
+ * generators with a placeholder for the values, so it matches the SQL which would be executed otherwise.
+ */
+final class ParameterizedSql {
+
+    private static final Pattern WHERE_PARAMETER = Pattern.compile("\\?|:value");
+
+    /**
+     * Rendered as the parameter marker by the generators, which write values of unknown types with toString().
+     */
+    private static final Object PARAMETER = new Object() {
+        @Override
+        public String toString() {
+            return "?";
+        }
+    };
+
+    private final String sql;
+    private final List<Object> parameters;
+
+    private ParameterizedSql(String sql, List<Object> parameters) {
+        this.sql = sql;
+        this.parameters = parameters;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public List<Object> getParameters() {
+        return parameters;
+    }
+
+    /**
+     * Returns the parameterized SQL of the statement, or null if the statement is neither an insert nor an update, or its SQL is
+     * generated by a database specific generator.
+     */
+    public static ParameterizedSql create(SqlStatement statement, Database database) {
+        SqlGenerator generator = SqlGeneratorFactory.getInstance().getGenerator(statement, database);
+        if (generator == null) {
+            return null;
+        }
+        if (statement instanceof InsertStatement && generator.getClass() == InsertGenerator.class) {
+            return createInsert((InsertStatement) statement, (AbstractSqlGenerator) generator, database);
+        }
+        if (statement instanceof UpdateStatement && generator.getClass() == UpdateGenerator.class) {
+            return createUpdate((UpdateStatement) statement, (AbstractSqlGenerator) generator, database);
+        }
+        return null;
+    }
+
+    private static ParameterizedSql createInsert(InsertStatement statement, AbstractSqlGenerator generator, Database database) {
+        List<Object> parameters = new ArrayList<Object>();
+        InsertStatement parameterized = new InsertStatement(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+        for (Map.Entry<String, Object> entry : statement.getColumnValues().entrySet()) {
+            parameterized.addColumnValue(entry.getKey(), parameterize(entry.getValue(), parameters, generator, database));
+        }
+        String sql = generateSql(parameterized, database);
+        return sql == null ? null : new ParameterizedSql(sql, parameters);
+    }
+
+    private static ParameterizedSql createUpdate(UpdateStatement statement, AbstractSqlGenerator generator, Database database) {
+        List<Object> parameters = new ArrayList<Object>();
+        UpdateStatement parameterized = new UpdateStatement(statement.getCatalogName(), statement.getSchemaName(), statement.getTableName());
+        for (Map.Entry<String, Object> entry : statement.getNewColumnValues().entrySet()) {
+            parameterized.addNewColumnValue(entry.getKey(), parameterize(entry.getValue(), parameters, generator, database));
+        }
+        String sql = generateSql(parameterized, database);
+        if (sql == null) {
+            return null;
+        }
+
+        if (statement.getWhereClause() != null) {
+            String fixedWhereClause = "WHERE " + statement.getWhereClause().trim();
+            for (String columnName : statement.getWhereColumnNames()) {
+                if (columnName == null) {
+                    continue;
+                }
+                fixedWhereClause = fixedWhereClause.replaceFirst(":name", database.escapeObjectName(columnName, Column.class));
+            }
+            StringBuffer where = new StringBuffer();
+            Matcher matcher = WHERE_PARAMETER.matcher(fixedWhereClause);
+            Iterator<Object> whereParameters = statement.getWhereParameters().iterator();
+            while (whereParameters.hasNext() && matcher.find()) {
+                Object param = whereParameters.next();
+                String replacement;
+                if (isBindable(param, generator, database)) {
+                    parameters.add(toBindValue(param));
+                    replacement = "?";
+                } else {
+                    replacement = DataTypeFactory.getInstance().fromObject(param, database).objectToSql(param, database);
+                }
+                matcher.appendReplacement(where, Matcher.quoteReplacement(replacement));
+            }
+            matcher.appendTail(where);
+            sql = sql + " " + where;
+        }
+        return new ParameterizedSql(sql, parameters);
+    }
+
+    private static String generateSql(SqlStatement statement, Database database) {
+        Sql[] sql = SqlGeneratorFactory.getInstance().generateSql(statement, database);
+        if (sql == null || sql.length != 1) {
+            return null;
+        }
+        return sql[0].toSql();
+    }
+
+    private static Object parameterize(Object value, List<Object> parameters, AbstractSqlGenerator generator, Database database) {
+        if (!isBindable(value, generator, database)) {
+            return value;
+        }
+        parameters.add(toBindValue(value));
+        return PARAMETER;
+    }
+
+    /**
+     * Only values which the generators write as plain literals are bound. Nulls, booleans, functions and java.util.Dates are written
+     * into the SQL the same way as the generators do.
+     */
+    private static boolean isBindable(Object value, AbstractSqlGenerator generator, Database database) {
+        if (value instanceof String) {
+            String string = (String) value;
+            return !string.equalsIgnoreCase("NULL") && !generator.looksLikeFunctionCall(string, database);
+        }
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte
+                || value instanceof BigDecimal || value instanceof BigInteger || value instanceof Double || value instanceof Float
+                || value instanceof java.sql.Timestamp || value instanceof java.sql.Date || value instanceof java.sql.Time;
+    }
+
+    private static Object toBindValue(Object value) {
+        if (value instanceof BigInteger) {
+            return new BigDecimal((BigInteger) value);
+        }
+        return value;
+    }
+}
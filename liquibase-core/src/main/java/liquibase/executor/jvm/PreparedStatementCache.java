@@ -0,0 +1,61 @@
+package liquibase.executor.jvm;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import liquibase.util.JdbcUtils;
+
+/**
+ * The most recently used prepared statements of one connection, keyed by their SQL. Statements dropping out of the cache are closed.
+ */
+class PreparedStatementCache {
+
+    private final int maxSize;
+    private Connection connection;
+    private final LinkedHashMap<String, PreparedStatement> statements;
+
+    PreparedStatementCache(final int maxSize) {
+        this.maxSize = maxSize;
+        this.statements = new LinkedHashMap<String, PreparedStatement>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > PreparedStatementCache.this.maxSize) {
+                    JdbcUtils.closeStatement(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached statement for the SQL, preparing it if needed. All cached statements are closed first if the connection is not
+     * the one they were prepared on.
+     */
+    public PreparedStatement get(Connection connection, String sql) throws SQLException {
+        if (this.connection != connection) {
+            clear();
+            this.connection = connection;
+        }
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        }
+        return statement;
+    }
+
+    public void remove(String sql) {
+        JdbcUtils.closeStatement(statements.remove(sql));
+    }
+
+    public void clear() {
+        for (PreparedStatement statement : statements.values()) {
+            JdbcUtils.closeStatement(statement);
+        }
+        statements.clear();
+    }
+}
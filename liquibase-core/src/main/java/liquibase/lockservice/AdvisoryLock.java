@@ -0,0 +1,208 @@
+package liquibase.lockservice;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+
+import liquibase.database.Database;
+import liquibase.database.core.MSSQLDatabase;
+import liquibase.database.core.MySQLDatabase;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.core.PostgresDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.util.JdbcUtils;
+
+/**
+ * A session level lock of the database, used by {@link StandardLockService} to queue the waiters for the DATABASECHANGELOGLOCK table
+ * in the database. A waiter blocks in the database until the holder releases the lock, rather than polling the table. The lock is named
+ * after the lock table, so all processes using the same lock table use the same lock.
+ */
+abstract class AdvisoryLock {
+
+    private static final int MAX_NAME_LENGTH = 64;
+
+    protected final String name;
+
+    protected AdvisoryLock(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the advisory lock for the database, or null if the database has none or is not reached through JDBC.
+     */
+    public static AdvisoryLock forDatabase(Database database) {
+        if (!(database.getConnection() instanceof JdbcConnection)) {
+            return null;
+        }
+        String name = "liquibase:" + database.escapeTableName(database.getLiquibaseCatalogName(), database.getLiquibaseSchemaName(), database.getDatabaseChangeLogLockTableName());
+        if (name.length() > MAX_NAME_LENGTH) {
+            name = "liquibase:" + Integer.toHexString(name.hashCode());
+        }
+
+        if (database instanceof PostgresDatabase) {
+            return new PostgresAdvisoryLock(name);
+        } else if (database instanceof MySQLDatabase) {
+            return new MySQLAdvisoryLock(name);
+        } else if (database instanceof OracleDatabase) {
+            return new OracleAdvisoryLock(name);
+        } else if (database instanceof MSSQLDatabase) {
+            return new MSSQLAdvisoryLock(name);
+        }
+        return null;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Waits up to timeoutMillis for the lock and returns true if it was acquired.
+     */
+    public abstract boolean acquire(Connection connection, long timeoutMillis) throws SQLException;
+
+    public abstract void release(Connection connection) throws SQLException;
+
+    protected int getKey() {
+        return name.hashCode();
+    }
+
+    protected static Object queryForObject(Connection connection, String sql, Object... parameters) throws SQLException {
+        PreparedStatement statement = connection.prepareStatement(sql);
+        ResultSet resultSet = null;
+        try {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getObject(1) : null;
+        } finally {
+            JdbcUtils.closeResultSet(resultSet);
+            JdbcUtils.closeStatement(statement);
+        }
+    }
+
+    protected static int call(Connection connection, String sql, Object... parameters) throws SQLException {
+        CallableStatement statement = connection.prepareCall(sql);
+        try {
+            statement.registerOutParameter(1, Types.INTEGER);
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 2, parameters[i]);
+            }
+            statement.execute();
+            return statement.getInt(1);
+        } finally {
+            JdbcUtils.closeStatement(statement);
+        }
+    }
+
+    /**
+     * pg_advisory_lock waits until the lock_timeout of the session, which is set for the call.
+     */
+    static class PostgresAdvisoryLock extends AdvisoryLock {
+
+        PostgresAdvisoryLock(String name) {
+            super(name);
+        }
+
+        @Override
+        public boolean acquire(Connection connection, long timeoutMillis) throws SQLException {
+            Statement statement = connection.createStatement();
+            try {
+                statement.execute("SET lock_timeout = " + Math.max(1, timeoutMillis));
+                try {
+                    queryForObject(connection, "SELECT pg_advisory_lock(?)", getKey());
+                    return true;
+                } catch (SQLException e) {
+                    // the failed statement aborted the transaction
+                    connection.rollback();
+                    if ("55P03".equals(e.getSQLState())) { // lock_not_available
+                        return false;
+                    }
+                    throw e;
+                } finally {
+                    statement.execute("RESET lock_timeout");
+                }
+            } finally {
+                JdbcUtils.closeStatement(statement);
+            }
+        }
+
+        @Override
+        public void release(Connection connection) throws SQLException {
+            queryForObject(connection, "SELECT pg_advisory_unlock(?)", getKey());
+        }
+    }
+
+    /**
+     * GET_LOCK waits whole seconds and returns 1 if the lock was acquired.
+     */
+    static class MySQLAdvisoryLock extends AdvisoryLock {
+
+        MySQLAdvisoryLock(String name) {
+            super(name);
+        }
+
+        @Override
+        public boolean acquire(Connection connection, long timeoutMillis) throws SQLException {
+            Object result = queryForObject(connection, "SELECT GET_LOCK(?, ?)", name, Math.max(1, (timeoutMillis + 999) / 1000));
+            return result instanceof Number && ((Number) result).intValue() == 1;
+        }
+
+        @Override
+        public void release(Connection connection) throws SQLException {
+            queryForObject(connection, "SELECT RELEASE_LOCK(?)", name);
+        }
+    }
+
+    /**
+     * DBMS_LOCK.REQUEST in exclusive mode, held until released rather than until commit. Needs EXECUTE on DBMS_LOCK.
+     */
+    static class OracleAdvisoryLock extends AdvisoryLock {
+
+        OracleAdvisoryLock(String name) {
+            super(name);
+        }
+
+        @Override
+        protected int getKey() {
+            return name.hashCode() & 0x3FFFFFFF;
+        }
+
+        @Override
+        public boolean acquire(Connection connection, long timeoutMillis) throws SQLException {
+            long timeoutSeconds = Math.min(32767, Math.max(1, (timeoutMillis + 999) / 1000));
+            int result = call(connection, "{? = call DBMS_LOCK.REQUEST(id => ?, lockmode => 6, timeout => ?, release_on_commit => FALSE)}", getKey(), timeoutSeconds);
+            return result == 0 || result == 4; // success or already owned
+        }
+
+        @Override
+        public void release(Connection connection) throws SQLException {
+            call(connection, "{? = call DBMS_LOCK.RELEASE(id => ?)}", getKey());
+        }
+    }
+
+    /**
+     * sp_getapplock owned by the session, which returns 0 or 1 if the lock was granted.
+     */
+    static class MSSQLAdvisoryLock extends AdvisoryLock {
+
+        MSSQLAdvisoryLock(String name) {
+            super(name);
+        }
+
+        @Override
+        public boolean acquire(Connection connection, long timeoutMillis) throws SQLException {
+            int result = call(connection, "{? = call sp_getapplock(?, 'Exclusive', 'Session', ?)}", name, (int) Math.min(Integer.MAX_VALUE, timeoutMillis));
+            return result >= 0;
+        }
+
+        @Override
+        public void release(Connection connection) throws SQLException {
+            call(connection, "{? = call sp_releaseapplock(?, 'Session')}", name);
+        }
+    }
+}
@@ -91,6 +91,16 @@ public class LockServiceFactory {
 
 	}
 
+	/**
+	 * Resets and forgets the LockService of the given database only, leaving the services of other databases untouched.
+	 */
+	public void resetLockService(Database database) {
+		LockService lockService = openLockServices.remove(database);
+		if (lockService != null) {
+			lockService.reset();
+		}
+	}
+
 	public void resetAll() {
 		for (LockService lockService : registry) {
 			lockService.reset();
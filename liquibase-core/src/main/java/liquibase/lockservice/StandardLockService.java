@@ -5,11 +5,13 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import liquibase.configuration.GlobalConfiguration;
 import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.Database;
 import liquibase.database.core.DerbyDatabase;
+import liquibase.database.jvm.JdbcConnection;
 import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.LockException;
@@ -39,7 +41,11 @@ public class StandardLockService implements LockService {
     private boolean hasChangeLogLock = false;
 
     private Long changeLogLockPollRate;
-    private long changeLogLocRecheckTime;
+    private Long changeLogLocRecheckTime;
+
+    private AdvisoryLock advisoryLock;
+    private boolean advisoryLockFailed = false;
+    private Random random = new Random();
 
     private boolean hasDatabaseChangeLogLockTable = false;
     private boolean isDatabaseChangeLogLockTableInitialized = false;
@@ -80,8 +86,8 @@ public class StandardLockService implements LockService {
     }
 
     public Long getChangeLogLockRecheckTime() {
-        if (changeLogLockPollRate != null) {
-            return changeLogLockPollRate;
+        if (changeLogLocRecheckTime != null) {
+            return changeLogLocRecheckTime;
         }
         return LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogLockPollRate();
     }
@@ -153,21 +159,45 @@ public class StandardLockService implements LockService {
     }
 
 
+    public Long getChangeLogLockMinBackoff() {
+        return LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogLockMinBackoff();
+    }
+
+    /**
+     * Waits for the lock table, rechecking it after a randomized wait which starts at {@link #getChangeLogLockMinBackoff()} milliseconds
+     * and doubles up to {@link #getChangeLogLockRecheckTime()} seconds, so processes starting together do not recheck together. Where
+     * the database has a native lock, waiters first queue on it and continue as soon as the holder released the lock table, see
+     * {@link AdvisoryLock}.
+     */
     @Override
     public void waitForLock() throws LockException {
 
         boolean locked = false;
         long timeToGiveUp = new Date().getTime() + (getChangeLogLockWaitTime() * 1000 * 60);
-        while (!locked && new Date().getTime() < timeToGiveUp) {
-            locked = acquireLock();
-            if (!locked) {
-                LogFactory.getLogger().info("Waiting for changelog lock....");
-                try {
-                    Thread.sleep(getChangeLogLockRecheckTime() * 1000);
-                } catch (InterruptedException e) {
-                    ;
+        acquireAdvisoryLock(timeToGiveUp);
+
+        long backoff = Math.max(1, getChangeLogLockMinBackoff());
+        long maxBackoff = Math.max(backoff, getChangeLogLockRecheckTime() * 1000);
+        try {
+            while (!locked && new Date().getTime() < timeToGiveUp) {
+                locked = acquireLock();
+                if (!locked) {
+                    LogFactory.getLogger().info("Waiting for changelog lock....");
+                    long wait = backoff / 2 + (long) (random.nextDouble() * (backoff - backoff / 2));
+                    try {
+                        Thread.sleep(Math.max(0, Math.min(wait, timeToGiveUp - new Date().getTime())));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    backoff = Math.min(backoff * 2, maxBackoff);
                 }
             }
+        } finally {
+            //the advisory lock is held by the connection, so it has to be released even if the caller never calls releaseLock()
+            if (!locked) {
+                releaseAdvisoryLock();
+            }
         }
 
         if (!locked) {
@@ -183,6 +213,50 @@ public class StandardLockService implements LockService {
         }
     }
 
+    private void acquireAdvisoryLock(long timeToGiveUp) {
+        if (advisoryLock != null || advisoryLockFailed
+                || !LiquibaseConfiguration.getInstance().getConfiguration(GlobalConfiguration.class).getDatabaseChangeLogLockUseAdvisoryLock()
+                || !ExecutorService.getInstance().getExecutor(database).updatesDatabase()) {
+            return;
+        }
+        AdvisoryLock lock = createAdvisoryLock();
+        if (lock == null) {
+            return;
+        }
+        try {
+            database.rollback();
+            if (lock.acquire(((JdbcConnection) database.getConnection()).getUnderlyingConnection(), Math.max(0, timeToGiveUp - new Date().getTime()))) {
+                advisoryLock = lock;
+                LogFactory.getLogger().debug("Acquired advisory lock " + lock.getName());
+            }
+        } catch (Exception e) {
+            advisoryLockFailed = true;
+            LogFactory.getLogger().warning("Cannot use advisory lock " + lock.getName() + ", polling the lock table instead: " + e.getMessage());
+            try {
+                database.rollback();
+            } catch (DatabaseException e1) {
+                ;
+            }
+        }
+    }
+
+    AdvisoryLock createAdvisoryLock() {
+        return AdvisoryLock.forDatabase(database);
+    }
+
+    private void releaseAdvisoryLock() {
+        if (advisoryLock == null) {
+            return;
+        }
+        try {
+            advisoryLock.release(((JdbcConnection) database.getConnection()).getUnderlyingConnection());
+        } catch (Exception e) {
+            LogFactory.getLogger().warning("Could not release advisory lock " + advisoryLock.getName() + ": " + e.getMessage());
+        } finally {
+            advisoryLock = null;
+        }
+    }
+
     @Override
     public boolean acquireLock() throws LockException {
         if (hasChangeLogLock) {
@@ -257,6 +331,7 @@ public class StandardLockService implements LockService {
             } catch (DatabaseException e) {
                 ;
             }
+            releaseAdvisoryLock();
         }
     }
 
@@ -303,6 +378,8 @@ public class StandardLockService implements LockService {
     @Override
     public void reset() {
         hasChangeLogLock = false;
+        releaseAdvisoryLock();
+        advisoryLockFailed = false;
         hasDatabaseChangeLogLockTable = false;
         isDatabaseChangeLogLockTableInitialized = false;
     }
@@ -3,6 +3,8 @@ package liquibase.parser.core.formattedsql;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,6 +30,51 @@ import org.kohsuke.MetaInfServices;
 @MetaInfServices
 public class FormattedSqlChangeLogParser implements ChangeLogParser {
 
+    private static final String STRIP_COMMENTS = "stripComments";
+    private static final String SPLIT_STATEMENTS = "splitStatements";
+    private static final String END_DELIMITER = "endDelimiter";
+    private static final String RUN_ON_CHANGE = "runOnChange";
+    private static final String RUN_ALWAYS = "runAlways";
+    private static final String CONTEXT = "context";
+    private static final String LOGICAL_FILE_PATH = "logicalFilePath";
+    private static final String LABELS = "labels";
+    private static final String RUN_IN_TRANSACTION = "runInTransaction";
+    private static final String DBMS = "dbms";
+    private static final String FAIL_ON_ERROR = "failOnError";
+    private static final String ON_FAIL = "onFail";
+    private static final String ON_ERROR = "onError";
+    private static final String ON_UPDATE_SQL = "onUpdateSQL";
+
+    private static final Map<String, FormattedSqlLine.ValueType> CHANGELOG_ATTRIBUTES = new HashMap<String, FormattedSqlLine.ValueType>();
+    private static final Map<String, FormattedSqlLine.ValueType> CHANGESET_ATTRIBUTES = new HashMap<String, FormattedSqlLine.ValueType>();
+    private static final Map<String, FormattedSqlLine.ValueType> PRECONDITIONS_ATTRIBUTES = new HashMap<String, FormattedSqlLine.ValueType>();
+
+    private static final Pattern[] SQL_CHECK_PATTERNS = new Pattern[] {
+        Pattern.compile("^(?:expectedResult:)?(\\w+) (.*)", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("^(?:expectedResult:)?'([^']+)' (.*)", Pattern.CASE_INSENSITIVE),
+        Pattern.compile("^(?:expectedResult:)?\"([^\"]+)\" (.*)", Pattern.CASE_INSENSITIVE)
+    };
+
+    static {
+        CHANGELOG_ATTRIBUTES.put(LOGICAL_FILE_PATH, FormattedSqlLine.ValueType.NON_WHITESPACE);
+
+        CHANGESET_ATTRIBUTES.put(STRIP_COMMENTS, FormattedSqlLine.ValueType.WORD);
+        CHANGESET_ATTRIBUTES.put(SPLIT_STATEMENTS, FormattedSqlLine.ValueType.WORD);
+        CHANGESET_ATTRIBUTES.put(END_DELIMITER, FormattedSqlLine.ValueType.NON_WHITESPACE);
+        CHANGESET_ATTRIBUTES.put(RUN_ON_CHANGE, FormattedSqlLine.ValueType.WORD);
+        CHANGESET_ATTRIBUTES.put(RUN_ALWAYS, FormattedSqlLine.ValueType.WORD);
+        CHANGESET_ATTRIBUTES.put(CONTEXT, FormattedSqlLine.ValueType.NON_WHITESPACE);
+        CHANGESET_ATTRIBUTES.put(LOGICAL_FILE_PATH, FormattedSqlLine.ValueType.NON_WHITESPACE);
+        CHANGESET_ATTRIBUTES.put(LABELS, FormattedSqlLine.ValueType.NON_WHITESPACE);
+        CHANGESET_ATTRIBUTES.put(RUN_IN_TRANSACTION, FormattedSqlLine.ValueType.WORD);
+        CHANGESET_ATTRIBUTES.put(DBMS, FormattedSqlLine.ValueType.DBMS);
+        CHANGESET_ATTRIBUTES.put(FAIL_ON_ERROR, FormattedSqlLine.ValueType.WORD);
+
+        PRECONDITIONS_ATTRIBUTES.put(ON_FAIL, FormattedSqlLine.ValueType.WORD);
+        PRECONDITIONS_ATTRIBUTES.put(ON_ERROR, FormattedSqlLine.ValueType.WORD);
+        PRECONDITIONS_ATTRIBUTES.put(ON_UPDATE_SQL, FormattedSqlLine.ValueType.WORD);
+    }
+
     @Override
     public boolean supports(String changeLogFile, ResourceAccessor resourceAccessor) {
         BufferedReader reader = null;
@@ -75,44 +122,22 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
 
         try {
             reader = new BufferedReader(new UtfBomAwareReader(openChangeLogFile(physicalChangeLogLocation, resourceAccessor)));
-            StringBuffer currentSql = new StringBuffer();
-            StringBuffer currentRollbackSql = new StringBuffer();
+            StringBuilder currentSql = new StringBuilder();
+            StringBuilder currentRollbackSql = new StringBuilder();
 
             ChangeSetImpl changeSet = null;
             RawSQLChange change = null;
-            Pattern changeLogPattern = Pattern.compile("\\-\\-\\s*liquibase formatted.*", Pattern.CASE_INSENSITIVE);
-            Pattern changeSetPattern = Pattern.compile("\\-\\-[\\s]*changeset\\s+([^:]+):(\\S+).*", Pattern.CASE_INSENSITIVE);
-            Pattern rollbackPattern = Pattern.compile("\\s*\\-\\-[\\s]*rollback (.*)", Pattern.CASE_INSENSITIVE);
-            Pattern preconditionsPattern = Pattern.compile("\\s*\\-\\-[\\s]*preconditions(.*)", Pattern.CASE_INSENSITIVE);
-            Pattern preconditionPattern = Pattern.compile("\\s*\\-\\-[\\s]*precondition\\-([a-zA-Z0-9-]+) (.*)", Pattern.CASE_INSENSITIVE);
-            Pattern stripCommentsPattern = Pattern.compile(".*stripComments:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern splitStatementsPattern = Pattern.compile(".*splitStatements:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern endDelimiterPattern = Pattern.compile(".*endDelimiter:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern commentPattern = Pattern.compile("\\-\\-[\\s]*comment: (.*)", Pattern.CASE_INSENSITIVE);
-
-            Pattern runOnChangePattern = Pattern.compile(".*runOnChange:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern runAlwaysPattern = Pattern.compile(".*runAlways:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern contextPattern = Pattern.compile(".*context:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern logicalFilePathPattern = Pattern.compile(".*logicalFilePath:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern labelsPattern = Pattern.compile(".*labels:(\\S*).*", Pattern.CASE_INSENSITIVE);
-            Pattern runInTransactionPattern = Pattern.compile(".*runInTransaction:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern dbmsPattern = Pattern.compile(".*dbms:([^,][\\w!,]+).*", Pattern.CASE_INSENSITIVE);
-            Pattern failOnErrorPattern = Pattern.compile(".*failOnError:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern onFailPattern = Pattern.compile(".*onFail:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern onErrorPattern = Pattern.compile(".*onError:(\\w+).*", Pattern.CASE_INSENSITIVE);
-            Pattern onUpdateSqlPattern = Pattern.compile(".*onUpdateSQL:(\\w+).*", Pattern.CASE_INSENSITIVE);
 
             String line;
             while ((line = reader.readLine()) != null) {
+                FormattedSqlLine parsedLine = FormattedSqlLine.parse(line);
+                FormattedSqlLine.Type type = parsedLine.getType();
 
-                Matcher changeLogPatterMatcher = changeLogPattern.matcher (line);
-                if (changeLogPatterMatcher.matches ()) {
-                   Matcher logicalFilePathMatcher = logicalFilePathPattern.matcher (line);
-                   changeLog.setLogicalFilePath (parseString(logicalFilePathMatcher));
+                if (type == FormattedSqlLine.Type.CHANGELOG) {
+                    changeLog.setLogicalFilePath(FormattedSqlLine.parseAttributes(line, CHANGELOG_ATTRIBUTES).get(LOGICAL_FILE_PATH));
                 }
 
-                Matcher changeSetPatternMatcher = changeSetPattern.matcher(line);
-                if (changeSetPatternMatcher.matches()) {
+                if (type == FormattedSqlLine.Type.CHANGESET) {
                     String finalCurrentSql = changeLogParameters.expandExpressions(StringUtils.trimToNull(currentSql.toString()));
                     if (changeSet != null) {
 
@@ -121,49 +146,29 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                         }
 
                         change.setSql(finalCurrentSql);
-
-                        if (StringUtils.trimToNull(currentRollbackSql.toString()) != null) {
-                            if (currentRollbackSql.toString().trim().toLowerCase().matches("^not required.*")) {
-                                changeSet.addRollbackChange(new EmptyChange());
-                            } else {
-                                RawSQLChange rollbackChange = new RawSQLChange();
-                                rollbackChange.setSql(changeLogParameters.expandExpressions(currentRollbackSql.toString()));
-                                changeSet.addRollbackChange(rollbackChange);
-                            }
-                        }
+                        addRollback(changeSet, currentRollbackSql, changeLogParameters);
                     }
 
-                    Matcher stripCommentsPatternMatcher = stripCommentsPattern.matcher(line);
-                    Matcher splitStatementsPatternMatcher = splitStatementsPattern.matcher(line);
-                    Matcher endDelimiterPatternMatcher = endDelimiterPattern.matcher(line);
-
-                    Matcher logicalFilePathMatcher = logicalFilePathPattern.matcher (line);
-                    Matcher runOnChangePatternMatcher = runOnChangePattern.matcher(line);
-                    Matcher runAlwaysPatternMatcher = runAlwaysPattern.matcher(line);
-                    Matcher contextPatternMatcher = contextPattern.matcher(line);
-                    Matcher labelsPatternMatcher = labelsPattern.matcher(line);
-                    Matcher runInTransactionPatternMatcher = runInTransactionPattern.matcher(line);
-                    Matcher dbmsPatternMatcher = dbmsPattern.matcher(line);
-                    Matcher failOnErrorPatternMatcher = failOnErrorPattern.matcher(line);
-
-                    boolean stripComments = parseBoolean(stripCommentsPatternMatcher, changeSet, true);
-                    boolean splitStatements = parseBoolean(splitStatementsPatternMatcher, changeSet, true);
-                    boolean runOnChange = parseBoolean(runOnChangePatternMatcher, changeSet, false);
-                    boolean runAlways = parseBoolean(runAlwaysPatternMatcher, changeSet, false);
-                    boolean runInTransaction = parseBoolean(runInTransactionPatternMatcher, changeSet, true);
-                    boolean failOnError = parseBoolean(failOnErrorPatternMatcher, changeSet, true);
-
-                    String endDelimiter = parseString(endDelimiterPatternMatcher);
-                    String context = parseString(contextPatternMatcher);
-                    String labels = parseString(labelsPatternMatcher);
-                    String logicalFilePath = parseString(logicalFilePathMatcher);
+                    Map<String, String> attributes = FormattedSqlLine.parseAttributes(line, CHANGESET_ATTRIBUTES);
+
+                    boolean stripComments = parseBoolean(attributes.get(STRIP_COMMENTS), true);
+                    boolean splitStatements = parseBoolean(attributes.get(SPLIT_STATEMENTS), true);
+                    boolean runOnChange = parseBoolean(attributes.get(RUN_ON_CHANGE), false);
+                    boolean runAlways = parseBoolean(attributes.get(RUN_ALWAYS), false);
+                    boolean runInTransaction = parseBoolean(attributes.get(RUN_IN_TRANSACTION), true);
+                    boolean failOnError = parseBoolean(attributes.get(FAIL_ON_ERROR), true);
+
+                    String endDelimiter = attributes.get(END_DELIMITER);
+                    String context = attributes.get(CONTEXT);
+                    String labels = attributes.get(LABELS);
+                    String logicalFilePath = attributes.get(LOGICAL_FILE_PATH);
                     if (logicalFilePath == null || "".equals (logicalFilePath)) {
                        logicalFilePath = changeLog.getLogicalFilePath ();
                     }
-                    String dbms = parseString(dbmsPatternMatcher);
+                    String dbms = attributes.get(DBMS);
 
 
-                    changeSet = new ChangeSetImpl(changeSetPatternMatcher.group(2), changeSetPatternMatcher.group(1), runAlways, runOnChange, logicalFilePath, context, dbms, runInTransaction, changeLog.getObjectQuotingStrategy(), changeLog);
+                    changeSet = new ChangeSetImpl(parsedLine.getSecond(), parsedLine.getFirst(), runAlways, runOnChange, logicalFilePath, context, dbms, runInTransaction, changeLog.getObjectQuotingStrategy(), changeLog);
                     changeSet.setLabels(new Labels(labels));
                     changeSet.setFailOnError(failOnError);
                     changeLog.addChangeSet(changeSet);
@@ -176,72 +181,49 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
                     change.setEndDelimiter(endDelimiter);
                     changeSet.addChange(change);
 
-                    currentSql = new StringBuffer();
-                    currentRollbackSql = new StringBuffer();
-                } else {
-                    if (changeSet != null) {
-                        Matcher commentMatcher = commentPattern.matcher(line);
-                        Matcher rollbackMatcher = rollbackPattern.matcher(line);
-                        Matcher preconditionsMatcher = preconditionsPattern.matcher(line);
-                        Matcher preconditionMatcher = preconditionPattern.matcher(line);
-
-                        if (commentMatcher.matches()) {
-                            if (commentMatcher.groupCount() == 1) {
-                                changeSet.setComments(commentMatcher.group(1));
-                            }
-                        } else if (rollbackMatcher.matches()) {
-                            if (rollbackMatcher.groupCount() == 1) {
-                                currentRollbackSql.append(rollbackMatcher.group(1)).append("\n");
-                            }
-                        } else if (preconditionsMatcher.matches()) {
-                            if (preconditionsMatcher.groupCount() == 1) {
-                                String body = preconditionsMatcher.group(1);
-                                Matcher onFailMatcher = onFailPattern.matcher(body);
-                                Matcher onErrorMatcher = onErrorPattern.matcher(body);
-                                Matcher onUpdateSqlMatcher = onUpdateSqlPattern.matcher(body);
-
-                                PreconditionContainer pc = new PreconditionContainer();
-                                pc.setOnFail(StringUtils.trimToNull(parseString(onFailMatcher)));
-                                pc.setOnError(StringUtils.trimToNull(parseString(onErrorMatcher)));
-                                pc.setOnSqlOutput(StringUtils.trimToNull(parseString(onUpdateSqlMatcher)));
-                                changeSet.setPreconditions(pc);
-                            }
-                        } else if (preconditionMatcher.matches()) {
+                    currentSql = new StringBuilder();
+                    currentRollbackSql = new StringBuilder();
+                } else if (changeSet != null) {
+                    switch (type) {
+                        case COMMENT:
+                            changeSet.setComments(parsedLine.getFirst());
+                            break;
+                        case ROLLBACK:
+                            currentRollbackSql.append(parsedLine.getFirst()).append("\n");
+                            break;
+                        case PRECONDITIONS:
+                            Map<String, String> preconditionAttributes = FormattedSqlLine.parseAttributes(parsedLine.getFirst(), PRECONDITIONS_ATTRIBUTES);
+                            PreconditionContainer pc = new PreconditionContainer();
+                            pc.setOnFail(StringUtils.trimToNull(preconditionAttributes.get(ON_FAIL)));
+                            pc.setOnError(StringUtils.trimToNull(preconditionAttributes.get(ON_ERROR)));
+                            pc.setOnSqlOutput(StringUtils.trimToNull(preconditionAttributes.get(ON_UPDATE_SQL)));
+                            changeSet.setPreconditions(pc);
+                            break;
+                        case PRECONDITION:
                             if (changeSet.getPreconditions() == null) {
                                 // create the defaults
                                 changeSet.setPreconditions(new PreconditionContainer());
                             }
-                            if (preconditionMatcher.groupCount() == 2) {
-                                String name = StringUtils.trimToNull(preconditionMatcher.group(1));
-                                if (name != null) {
-                                    String body = preconditionMatcher.group(2).trim();
-                                    if ("sql-check".equals(name)) {
-                                        PreconditionContainer container = changeSet.getPreconditions();
-                                        container.addNestedPrecondition(parseSqlCheckCondition(body));
-                                    } else {
-                                        throw new ChangeLogParseException("The '" + name + "' precondition type is not supported.");
-                                    }
+                            String name = StringUtils.trimToNull(parsedLine.getFirst());
+                            if (name != null) {
+                                String body = parsedLine.getSecond().trim();
+                                if ("sql-check".equals(name)) {
+                                    PreconditionContainer container = changeSet.getPreconditions();
+                                    container.addNestedPrecondition(parseSqlCheckCondition(body));
+                                } else {
+                                    throw new ChangeLogParseException("The '" + name + "' precondition type is not supported.");
                                 }
                             }
-                        } else {
+                            break;
+                        default:
                             currentSql.append(line).append("\n");
-                        }
                     }
                 }
             }
 
             if (changeSet != null) {
                 change.setSql(changeLogParameters.expandExpressions(StringUtils.trimToNull(currentSql.toString())));
-
-                if (StringUtils.trimToNull(currentRollbackSql.toString()) != null) {
-                    if (currentRollbackSql.toString().trim().toLowerCase().matches("^not required.*")) {
-                        changeSet.addRollbackChange(new EmptyChange());
-                    } else {
-                        RawSQLChange rollbackChange = new RawSQLChange();
-                        rollbackChange.setSql(changeLogParameters.expandExpressions(currentRollbackSql.toString()));
-                        changeSet.addRollbackChange(rollbackChange);
-                    }
-                }
+                addRollback(changeSet, currentRollbackSql, changeLogParameters);
             }
 
         } catch (IOException e) {
@@ -260,12 +242,7 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
 
 
     private SqlPrecondition parseSqlCheckCondition(String body) throws ChangeLogParseException{
-        Pattern[] patterns = new Pattern[] {
-            Pattern.compile("^(?:expectedResult:)?(\\w+) (.*)", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("^(?:expectedResult:)?'([^']+)' (.*)", Pattern.CASE_INSENSITIVE),
-            Pattern.compile("^(?:expectedResult:)?\"([^\"]+)\" (.*)", Pattern.CASE_INSENSITIVE)
-        };
-        for (Pattern pattern : patterns) {
+        for (Pattern pattern : SQL_CHECK_PATTERNS) {
             Matcher matcher = pattern.matcher(body);
             if (matcher.matches() && matcher.groupCount() == 2) {
                 SqlPrecondition p = new SqlPrecondition();
@@ -279,24 +256,23 @@ public class FormattedSqlChangeLogParser implements ChangeLogParser {
 
 
 
-    private String parseString(Matcher matcher) {
-        String endDelimiter = null;
-        if (matcher.matches()) {
-            endDelimiter = matcher.group(1);
+    private void addRollback(ChangeSetImpl changeSet, StringBuilder rollbackSql, ChangeLogParameters changeLogParameters) {
+        if (StringUtils.trimToNull(rollbackSql.toString()) != null) {
+            if (FormattedSqlLine.isNotRequired(rollbackSql.toString())) {
+                changeSet.addRollbackChange(new EmptyChange());
+            } else {
+                RawSQLChange rollbackChange = new RawSQLChange();
+                rollbackChange.setSql(changeLogParameters.expandExpressions(rollbackSql.toString()));
+                changeSet.addRollbackChange(rollbackChange);
+            }
         }
-        return endDelimiter;
     }
 
-    private boolean parseBoolean(Matcher matcher, ChangeSet changeSet, boolean defaultValue) throws ChangeLogParseException {
-        boolean stripComments = defaultValue;
-        if (matcher.matches()) {
-            try {
-                stripComments = Boolean.parseBoolean(matcher.group(1));
-            } catch (Exception e) {
-                throw new ChangeLogParseException("Cannot parse "+changeSet+" "+matcher.toString().replaceAll("\\.*","")+" as a boolean");
-            }
+    private boolean parseBoolean(String value, boolean defaultValue) {
+        if (value == null) {
+            return defaultValue;
         }
-        return stripComments;
+        return Boolean.parseBoolean(value);
     }
 
     protected InputStream openChangeLogFile(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws IOException {
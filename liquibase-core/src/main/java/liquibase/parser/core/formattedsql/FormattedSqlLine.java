@@ -0,0 +1,247 @@
+package liquibase.parser.core.formattedsql;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * One line of a formatted SQL changelog, classified by the token following its leading <code>--</code>.
+ * <p>
+ * Lines which do not start with <code>--</code> after optional whitespace are SQL and are classified by looking at their first
+ * characters only. The <code>--liquibase formatted</code>, <code>--changeset</code> and <code>--comment:</code> tokens must start
+ * the line, <code>--rollback</code>, <code>--preconditions</code> and <code>--precondition-</code> may be indented.
+ * Tokens and attribute names are case insensitive.
+ */
+class FormattedSqlLine {
+
+    enum Type {
+        SQL,
+        CHANGELOG,
+        CHANGESET,
+        COMMENT,
+        ROLLBACK,
+        PRECONDITIONS,
+        PRECONDITION
+    }
+
+    /**
+     * Grammar of an attribute value: a word, a run of non whitespace characters, or a dbms list.
+     */
+    enum ValueType {
+        WORD,
+        NON_WHITESPACE,
+        DBMS
+    }
+
+    private static final FormattedSqlLine SQL_LINE = new FormattedSqlLine(Type.SQL, null, null);
+
+    private final Type type;
+    private final String first;
+    private final String second;
+
+    private FormattedSqlLine(Type type, String first, String second) {
+        this.type = type;
+        this.first = first;
+        this.second = second;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * The author of a changeset, the name of a precondition or the text following the token of the other types.
+     */
+    public String getFirst() {
+        return first;
+    }
+
+    /**
+     * The id of a changeset or the body of a precondition.
+     */
+    public String getSecond() {
+        return second;
+    }
+
+    public static FormattedSqlLine parse(String line) {
+        int length = line.length();
+        int start = skipWhitespace(line, 0);
+        if (start + 1 >= length || line.charAt(start) != '-' || line.charAt(start + 1) != '-') {
+            return SQL_LINE;
+        }
+        boolean indented = start > 0;
+        int token = skipWhitespace(line, start + 2);
+
+        if (!indented) {
+            if (startsWithIgnoreCase(line, token, "liquibase formatted")) {
+                return new FormattedSqlLine(Type.CHANGELOG, null, null);
+            }
+            if (startsWithIgnoreCase(line, token, "changeset")) {
+                FormattedSqlLine changeSet = parseChangeSet(line, token + "changeset".length());
+                if (changeSet != null) {
+                    return changeSet;
+                }
+            }
+            if (startsWithIgnoreCase(line, token, "comment: ")) {
+                return new FormattedSqlLine(Type.COMMENT, line.substring(token + "comment: ".length()), null);
+            }
+        }
+        if (startsWithIgnoreCase(line, token, "rollback ")) {
+            return new FormattedSqlLine(Type.ROLLBACK, line.substring(token + "rollback ".length()), null);
+        }
+        if (startsWithIgnoreCase(line, token, "preconditions")) {
+            return new FormattedSqlLine(Type.PRECONDITIONS, line.substring(token + "preconditions".length()), null);
+        }
+        if (startsWithIgnoreCase(line, token, "precondition-")) {
+            int nameStart = token + "precondition-".length();
+            int nameEnd = nameStart;
+            while (nameEnd < length && isPreconditionNameChar(line.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            if (nameEnd > nameStart && nameEnd < length && line.charAt(nameEnd) == ' ') {
+                return new FormattedSqlLine(Type.PRECONDITION, line.substring(nameStart, nameEnd), line.substring(nameEnd + 1));
+            }
+        }
+        return SQL_LINE;
+    }
+
+    /**
+     * Parses "author:id" following at least one whitespace character after the changeset token. Returns null if the line is not a valid changeset line.
+     */
+    private static FormattedSqlLine parseChangeSet(String line, int position) {
+        int length = line.length();
+        int authorStart = skipWhitespace(line, position);
+        if (authorStart == position || authorStart >= length) {
+            return null;
+        }
+        if (line.charAt(authorStart) == ':') {
+            //the author is the last whitespace character if there is more than one
+            if (authorStart - position < 2) {
+                return null;
+            }
+            authorStart--;
+        }
+        int colon = line.indexOf(':', authorStart + 1);
+        if (colon < 0) {
+            return null;
+        }
+        int idEnd = colon + 1;
+        while (idEnd < length && !isWhitespace(line.charAt(idEnd))) {
+            idEnd++;
+        }
+        if (idEnd == colon + 1) {
+            return null;
+        }
+        return new FormattedSqlLine(Type.CHANGESET, line.substring(authorStart, colon), line.substring(colon + 1, idEnd));
+    }
+
+    /**
+     * Finds the values of the given attributes in one pass over the text. An attribute is written as "name:value" anywhere in the text.
+     * If an attribute is given more than once, the last valid value is used. Attributes which are not found are not in the returned map.
+     */
+    public static Map<String, String> parseAttributes(String text, Map<String, ValueType> attributes) {
+        Map<String, String> values = new HashMap<String, String>();
+        int colon = text.indexOf(':');
+        while (colon >= 0) {
+            for (Map.Entry<String, ValueType> attribute : attributes.entrySet()) {
+                String name = attribute.getKey();
+                int nameStart = colon - name.length();
+                if (nameStart >= 0 && isAsciiIgnoreCase(text, nameStart, name)) {
+                    String value = parseValue(text, colon + 1, attribute.getValue());
+                    if (value != null) {
+                        values.put(name, value);
+                    }
+                }
+            }
+            colon = text.indexOf(':', colon + 1);
+        }
+        return values;
+    }
+
+    private static String parseValue(String text, int start, ValueType type) {
+        int length = text.length();
+        int end = start;
+        switch (type) {
+            case WORD:
+                while (end < length && isWordChar(text.charAt(end))) {
+                    end++;
+                }
+                return end == start ? null : text.substring(start, end);
+            case NON_WHITESPACE:
+                while (end < length && !isWhitespace(text.charAt(end))) {
+                    end++;
+                }
+                return text.substring(start, end);
+            case DBMS:
+                if (start >= length || text.charAt(start) == ',') {
+                    return null;
+                }
+                end = start + 1;
+                while (end < length && (isWordChar(text.charAt(end)) || text.charAt(end) == '!' || text.charAt(end) == ',')) {
+                    end++;
+                }
+                return end == start + 1 ? null : text.substring(start, end);
+            default:
+                throw new IllegalArgumentException("Unknown value type " + type);
+        }
+    }
+
+    /**
+     * True if the text starts with "not required" and is a single line, ignoring case and surrounding whitespace.
+     */
+    public static boolean isNotRequired(String text) {
+        String trimmed = text.trim();
+        if (!startsWithIgnoreCase(trimmed, 0, "not required")) {
+            return false;
+        }
+        for (int i = "not required".length(); i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWithIgnoreCase(String line, int offset, String token) {
+        return line.length() - offset >= token.length() && isAsciiIgnoreCase(line, offset, token);
+    }
+
+    /**
+     * Compares the region of the line to the token, ignoring the case of ASCII letters only.
+     */
+    private static boolean isAsciiIgnoreCase(String line, int offset, String token) {
+        for (int i = 0; i < token.length(); i++) {
+            char c = line.charAt(offset + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            char t = token.charAt(i);
+            if (t >= 'A' && t <= 'Z') {
+                t = (char) (t + ('a' - 'A'));
+            }
+            if (c != t) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int skipWhitespace(String line, int position) {
+        while (position < line.length() && isWhitespace(line.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    private static boolean isPreconditionNameChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '-';
+    }
+}
@@ -1,21 +1,32 @@
 package liquibase.parser.core.xml;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 import liquibase.changelog.ChangeLogParameters;
 import liquibase.changelog.DatabaseChangeLogImpl;
 import liquibase.exception.ChangeLogParseException;
-import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ParsedNodeCache;
+import liquibase.parser.ParsedNodeChangeLogParser;
 import liquibase.parser.core.ParsedNode;
 import liquibase.resource.ResourceAccessor;
+import liquibase.util.MD5Util;
+import liquibase.util.StreamUtil;
 
-public abstract class AbstractChangeLogParser implements ChangeLogParser {
+public abstract class AbstractChangeLogParser implements ParsedNodeChangeLogParser {
 
     @Override
     public DatabaseChangeLogImpl parse(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
-        ParsedNode parsedNode = parseToNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+        ParsedNode parsedNode = readNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
         if (parsedNode == null) {
             return null;
         }
 
+        return parse(physicalChangeLogLocation, parsedNode, changeLogParameters, resourceAccessor);
+    }
+
+    @Override
+    public DatabaseChangeLogImpl parse(String physicalChangeLogLocation, ParsedNode parsedNode, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
         DatabaseChangeLogImpl changeLog = new DatabaseChangeLogImpl(physicalChangeLogLocation);
         changeLog.setChangeLogParameters(changeLogParameters);
         try {
@@ -27,5 +38,56 @@ public abstract class AbstractChangeLogParser implements ChangeLogParser {
         return changeLog;
     }
 
+    @Override
+    public ParsedNode parseToNode(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        return readNode(physicalChangeLogLocation, null, resourceAccessor);
+    }
+
+    /**
+     * Returns the node from the {@link ParsedNodeCache} if the content of the file did not change since it was cached, otherwise parses it.
+     */
+    protected ParsedNode readNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        ParsedNodeCache cache = ParsedNodeCache.getInstance();
+        if (!cache.isEnabled()) {
+            return parseToNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+        }
+
+        String contentHash = computeContentHash(physicalChangeLogLocation, resourceAccessor);
+        ParsedNode parsedNode = cache.get(physicalChangeLogLocation, contentHash);
+        if (parsedNode == null) {
+            parsedNode = parseToNode(physicalChangeLogLocation, changeLogParameters, resourceAccessor);
+            cache.put(physicalChangeLogLocation, contentHash, parsedNode);
+        }
+        return parsedNode;
+    }
+
+    /**
+     * Returns the MD5 of the file content, or null if the file does not exist.
+     */
+    protected String computeContentHash(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
+        InputStream inputStream = null;
+        try {
+            inputStream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
+            if (inputStream == null) {
+                return null;
+            }
+            return MD5Util.computeMD5(inputStream);
+        } catch (IOException e) {
+            throw new ChangeLogParseException("Error Reading Migration File: " + e.getMessage(), e);
+        } finally {
+            if (inputStream != null) {
+                try {
+                    inputStream.close();
+                } catch (IOException e) {
+                    // probably ok
+                }
+            }
+        }
+    }
+
+    /**
+     * Parses the given file. The returned node must not depend on the changelog parameters, because it may be reused from the
+     * {@link ParsedNodeCache}. They are null when the file is read ahead for an includeAll.
+     */
     protected abstract ParsedNode parseToNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException;
 }
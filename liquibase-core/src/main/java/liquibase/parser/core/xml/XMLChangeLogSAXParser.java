@@ -1,27 +1,37 @@
 package liquibase.parser.core.xml;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 
+import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.validation.Schema;
+import javax.xml.validation.ValidatorHandler;
 
 import liquibase.changelog.ChangeLogParameters;
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.exception.ChangeLogParseException;
 import liquibase.logging.LogFactory;
 import liquibase.parser.ChangeLogParser;
 import liquibase.parser.core.ParsedNode;
 import liquibase.resource.ResourceAccessor;
 import liquibase.resource.UtfBomStripperInputStream;
+import liquibase.util.MD5Util;
 import liquibase.util.StreamUtil;
 import liquibase.util.file.FilenameUtils;
 
 import org.kohsuke.MetaInfServices;
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
-import org.xml.sax.SAXNotRecognizedException;
-import org.xml.sax.SAXNotSupportedException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
 
@@ -30,9 +40,10 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
 
     private SAXParserFactory saxParserFactory;
 
+    private ThreadLocal<SAXParser> parsers = new ThreadLocal<SAXParser>();
+
     public XMLChangeLogSAXParser() {
         saxParserFactory = SAXParserFactory.newInstance();
-        saxParserFactory.setValidating(true);
         saxParserFactory.setNamespaceAware(true);
     }
 
@@ -50,28 +61,48 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
         return changeLogFile.toLowerCase().endsWith("xml");
     }
 
+    /**
+     * Factory for the SAX parsers. Validation against the changelog schema is done with a {@link XMLValidationCache} schema, so the parsers do not need to validate.
+     */
     protected SAXParserFactory getSaxParserFactory() {
         return saxParserFactory;
     }
 
+    /**
+     * Returns the SAX parser of the current thread, or a new one if it is in use or was not created yet. Return it with {@link #releaseParser(SAXParser)}.
+     */
+    protected SAXParser acquireParser() throws ParserConfigurationException, SAXException {
+        SAXParser parser = parsers.get();
+        if (parser != null) {
+            parsers.remove();
+            return parser;
+        }
+        synchronized (saxParserFactory) {
+            return saxParserFactory.newSAXParser();
+        }
+    }
+
+    protected void releaseParser(SAXParser parser) {
+        try {
+            parser.reset();
+            parsers.set(parser);
+        } catch (UnsupportedOperationException e) {
+            //parser cannot be reused
+        }
+    }
+
     @Override
     protected ParsedNode parseToNode(String physicalChangeLogLocation, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException {
         InputStream inputStream = null;
+        SAXParser parser = null;
         try {
-            SAXParser parser = saxParserFactory.newSAXParser();
-            try {
-                parser.setProperty("http://java.sun.com/xml/jaxp/properties/schemaLanguage", "http://www.w3.org/2001/XMLSchema");
-            } catch (SAXNotRecognizedException e) {
-                //ok, parser must not support it
-            } catch (SAXNotSupportedException e) {
-                //ok, parser must not support it
-            }
+            parser = acquireParser();
 
             XMLReader xmlReader = parser.getXMLReader();
             LiquibaseEntityResolver resolver=new LiquibaseEntityResolver(this);
             resolver.useResoureAccessor(resourceAccessor,FilenameUtils.getFullPath(physicalChangeLogLocation));
             xmlReader.setEntityResolver(resolver);
-            xmlReader.setErrorHandler(new ErrorHandler() {
+            ErrorHandler errorHandler = new ErrorHandler() {
                 @Override
                 public void warning(SAXParseException exception) throws SAXException {
                     LogFactory.getLogger().warning(exception.getMessage());
@@ -89,17 +120,36 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
                     LogFactory.getLogger().severe(exception.getMessage());
                     throw exception;
                 }
-            });
+            };
+            xmlReader.setErrorHandler(errorHandler);
 
             inputStream = StreamUtil.singleInputStream(physicalChangeLogLocation, resourceAccessor);
             if (inputStream == null) {
                 throw new ChangeLogParseException(physicalChangeLogLocation + " does not exist");
             }
 
+            String checkSum = null;
+            boolean validate = true;
+            if (LiquibaseConfiguration.getInstance().getConfiguration(XMLParserConfiguration.class).getSkipKnownChangeLogValidation()) {
+                ByteArrayOutputStream content = new ByteArrayOutputStream();
+                StreamUtil.copy(inputStream, content);
+                inputStream.close();
+                inputStream = new ByteArrayInputStream(content.toByteArray());
+                checkSum = MD5Util.computeMD5(new ByteArrayInputStream(content.toByteArray()));
+                validate = !XMLValidationCache.getInstance().isValidated(checkSum);
+            }
+
             XMLChangeLogSAXHandler contentHandler = new XMLChangeLogSAXHandler(physicalChangeLogLocation, resourceAccessor, changeLogParameters);
-            xmlReader.setContentHandler(contentHandler);
+            if (validate) {
+                xmlReader.setContentHandler(new ValidatingContentHandler(contentHandler, resolver, errorHandler));
+            } else {
+                xmlReader.setContentHandler(contentHandler);
+            }
             xmlReader.parse(new InputSource(new UtfBomStripperInputStream(inputStream)));
 
+            if (validate && checkSum != null) {
+                XMLValidationCache.getInstance().addValidated(checkSum);
+            }
             return contentHandler.getDatabaseChangeLogTree();
         } catch (ChangeLogParseException e) {
             throw e;
@@ -136,6 +186,9 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
         } catch (Exception e) {
             throw new ChangeLogParseException(e);
         } finally {
+            if (parser != null) {
+                releaseParser(parser);
+            }
             if (inputStream != null) {
                 try {
                     inputStream.close();
@@ -145,4 +198,109 @@ public class XMLChangeLogSAXParser extends AbstractChangeLogParser {
             }
         }
     }
+
+    /**
+     * Validates the document against the {@link XMLValidationCache} schema for the schema locations of its root element and passes it on.
+     */
+    private static class ValidatingContentHandler implements ContentHandler {
+
+        private static final String XSI_NAMESPACE = "http://www.w3.org/2001/XMLSchema-instance";
+
+        private final ContentHandler target;
+        private final LiquibaseEntityResolver resolver;
+        private final ErrorHandler errorHandler;
+
+        private ContentHandler delegate;
+        private Locator locator;
+        private List<String[]> prefixMappings = new ArrayList<String[]>();
+
+        private ValidatingContentHandler(ContentHandler target, LiquibaseEntityResolver resolver, ErrorHandler errorHandler) {
+            this.target = target;
+            this.resolver = resolver;
+            this.errorHandler = errorHandler;
+        }
+
+        @Override
+        public void setDocumentLocator(Locator locator) {
+            this.locator = locator;
+        }
+
+        @Override
+        public void startDocument() throws SAXException {
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) throws SAXException {
+            if (delegate == null) {
+                prefixMappings.add(new String[] {prefix, uri});
+            } else {
+                delegate.startPrefixMapping(prefix, uri);
+            }
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+            if (delegate == null) {
+                Schema schema = XMLValidationCache.getInstance().getSchema(atts.getValue(XSI_NAMESPACE, "schemaLocation"), atts.getValue(XSI_NAMESPACE, "noNamespaceSchemaLocation"), resolver);
+                ValidatorHandler validatorHandler = schema.newValidatorHandler();
+                validatorHandler.setErrorHandler(errorHandler);
+                validatorHandler.setContentHandler(target);
+                delegate = validatorHandler;
+                if (locator != null) {
+                    delegate.setDocumentLocator(locator);
+                }
+                delegate.startDocument();
+                for (String[] mapping : prefixMappings) {
+                    delegate.startPrefixMapping(mapping[0], mapping[1]);
+                }
+                prefixMappings = null;
+            }
+            delegate.startElement(uri, localName, qName, atts);
+        }
+
+        @Override
+        public void endDocument() throws SAXException {
+            if (delegate != null) {
+                delegate.endDocument();
+            }
+        }
+
+        @Override
+        public void endPrefixMapping(String prefix) throws SAXException {
+            delegate.endPrefixMapping(prefix);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            delegate.endElement(uri, localName, qName);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            if (delegate != null) {
+                delegate.characters(ch, start, length);
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+            if (delegate != null) {
+                delegate.ignorableWhitespace(ch, start, length);
+            }
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) throws SAXException {
+            if (delegate != null) {
+                delegate.processingInstruction(target, data);
+            }
+        }
+
+        @Override
+        public void skippedEntity(String name) throws SAXException {
+            if (delegate != null) {
+                delegate.skippedEntity(name);
+            }
+        }
+    }
 }
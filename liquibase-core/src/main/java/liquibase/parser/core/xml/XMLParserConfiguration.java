@@ -0,0 +1,44 @@
+package liquibase.parser.core.xml;
+
+import liquibase.configuration.AbstractConfigurationContainer;
+
+/**
+ * Configuration container for XML schema validation in {@link XMLChangeLogSAXParser}.
+ */
+public class XMLParserConfiguration extends AbstractConfigurationContainer {
+
+    public static final String SKIP_KNOWN_CHANGELOG_VALIDATION = "skipKnownChangeLogValidation";
+    public static final String VALIDATED_CHANGELOGS_FILE = "validatedChangeLogsFile";
+
+    public XMLParserConfiguration() {
+        super("liquibase");
+
+        getContainer().addProperty(SKIP_KNOWN_CHANGELOG_VALIDATION, Boolean.class)
+                .setDescription("Do not validate XML changelogs against their schema if a file with the same checksum was validated before")
+                .setDefaultValue(false);
+
+        getContainer().addProperty(VALIDATED_CHANGELOGS_FILE, String.class)
+                .setDescription("File used to remember the checksums of validated XML changelogs between runs. If not set, they are only remembered in memory");
+    }
+
+    public Boolean getSkipKnownChangeLogValidation() {
+        return getContainer().getValue(SKIP_KNOWN_CHANGELOG_VALIDATION, Boolean.class);
+    }
+
+    public XMLParserConfiguration setSkipKnownChangeLogValidation(Boolean skip) {
+        getContainer().setValue(SKIP_KNOWN_CHANGELOG_VALIDATION, skip);
+        return this;
+    }
+
+    /**
+     * File used to store the checksums of validated changelogs, or null if they are only kept in memory.
+     */
+    public String getValidatedChangeLogsFile() {
+        return getContainer().getValue(VALIDATED_CHANGELOGS_FILE, String.class);
+    }
+
+    public XMLParserConfiguration setValidatedChangeLogsFile(String file) {
+        getContainer().setValue(VALIDATED_CHANGELOGS_FILE, file);
+        return this;
+    }
+}
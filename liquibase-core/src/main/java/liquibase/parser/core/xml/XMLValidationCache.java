@@ -0,0 +1,181 @@
+package liquibase.parser.core.xml;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.transform.Source;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.logging.LogFactory;
+import liquibase.util.StringUtils;
+
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+
+/**
+ * Keeps the state which makes validating XML changelogs cheap: compiled schemas and the checksums of changelogs which were validated before.
+ * <p>
+ * Schemas are compiled for the locations given in the <code>xsi:schemaLocation</code> of a changelog. If all of them are bundled
+ * with Liquibase or one of its extensions, the compiled {@link Schema} is cached, so the grammar is only compiled once per process.
+ * Other schemas may differ between changelogs with the same location and are compiled for every changelog.
+ * <p>
+ * If {@link XMLParserConfiguration#getValidatedChangeLogsFile()} is set, checksums of validated changelogs are loaded from that file
+ * when the cache is created and appended to it as changelogs are validated.
+ */
+public class XMLValidationCache {
+
+    private static XMLValidationCache instance;
+
+    private final SchemaFactory schemaFactory = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
+    private final Map<String, Schema> schemas = new HashMap<String, Schema>();
+    private final Set<String> validatedChangeLogs = new HashSet<String>();
+    private final File validatedChangeLogsFile;
+
+    public XMLValidationCache(File validatedChangeLogsFile) {
+        this.validatedChangeLogsFile = validatedChangeLogsFile;
+        if (validatedChangeLogsFile != null) {
+            load();
+        }
+    }
+
+    /**
+     * Return the singleton XMLValidationCache, configured from {@link XMLParserConfiguration}.
+     */
+    public static synchronized XMLValidationCache getInstance() {
+        if (instance == null) {
+            String file = LiquibaseConfiguration.getInstance().getConfiguration(XMLParserConfiguration.class).getValidatedChangeLogsFile();
+            instance = new XMLValidationCache(StringUtils.trimToNull(file) == null ? null : new File(file));
+        }
+        return instance;
+    }
+
+    /**
+     * Reset the XMLValidationCache so the configuration is re-read on the next call to {@link #getInstance()}. Mainly used in testing
+     */
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    /**
+     * Returns the schema for the given <code>xsi:schemaLocation</code> and <code>xsi:noNamespaceSchemaLocation</code> values, either of which may be null.
+     */
+    public synchronized Schema getSchema(String schemaLocation, String noNamespaceSchemaLocation, LiquibaseEntityResolver resolver) throws SAXException {
+        List<String> locations = new ArrayList<String>();
+        if (schemaLocation != null) {
+            String[] parts = schemaLocation.trim().split("\\s+");
+            for (int i = 1; i < parts.length; i += 2) {
+                locations.add(parts[i]);
+            }
+        }
+        if (StringUtils.trimToNull(noNamespaceSchemaLocation) != null) {
+            locations.add(noNamespaceSchemaLocation.trim());
+        }
+        String key = StringUtils.join(locations, " ");
+
+        Schema schema = schemas.get(key);
+        if (schema != null) {
+            return schema;
+        }
+
+        boolean bundled = true;
+        List<Source> sources = new ArrayList<Source>();
+        try {
+            for (String location : locations) {
+                InputSource inputSource = resolver.resolveLiquibaseSchema(location, null);
+                if (inputSource == null) {
+                    bundled = false;
+                    try {
+                        inputSource = resolver.resolveEntity(null, null, null, location);
+                    } catch (IOException e) {
+                        inputSource = null;
+                    }
+                }
+                if (inputSource == null) {
+                    sources.add(new StreamSource(location));
+                } else {
+                    StreamSource source = new StreamSource(inputSource.getByteStream());
+                    source.setSystemId(location);
+                    sources.add(source);
+                }
+            }
+            schema = schemaFactory.newSchema(sources.toArray(new Source[sources.size()]));
+        } finally {
+            for (Source source : sources) {
+                close(((StreamSource) source).getInputStream());
+            }
+        }
+
+        if (bundled) {
+            LogFactory.getLogger().debug("Compiled schema for " + key);
+            schemas.put(key, schema);
+        }
+        return schema;
+    }
+
+    public synchronized boolean isValidated(String checkSum) {
+        return validatedChangeLogs.contains(checkSum);
+    }
+
+    public synchronized void addValidated(String checkSum) {
+        if (checkSum == null || !validatedChangeLogs.add(checkSum) || validatedChangeLogsFile == null) {
+            return;
+        }
+
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(validatedChangeLogsFile, true), "UTF-8");
+            writer.write(checkSum + "\n");
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot write validated changelogs " + validatedChangeLogsFile.getAbsolutePath(), e);
+        } finally {
+            close(writer);
+        }
+    }
+
+    protected void load() {
+        if (!validatedChangeLogsFile.exists()) {
+            return;
+        }
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(validatedChangeLogsFile), "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.length() > 0) {
+                    validatedChangeLogs.add(line);
+                }
+            }
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot read validated changelogs " + validatedChangeLogsFile.getAbsolutePath(), e);
+        } finally {
+            close(reader);
+        }
+    }
+
+    private void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+}
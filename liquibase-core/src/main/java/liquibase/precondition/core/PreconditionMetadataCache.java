@@ -0,0 +1,124 @@
+package liquibase.precondition.core;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import liquibase.CatalogAndSchema;
+import liquibase.change.Change;
+import liquibase.changelog.visitor.SnapshotRefreshListener;
+import liquibase.database.Database;
+import liquibase.database.OfflineConnection;
+import liquibase.diff.compare.DatabaseObjectComparatorFactory;
+import liquibase.exception.DatabaseException;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.RefreshableDatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotGeneratorFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Index;
+import liquibase.structure.core.PrimaryKey;
+import liquibase.structure.core.Sequence;
+import liquibase.structure.core.Table;
+import liquibase.structure.core.View;
+
+/**
+ * Answers the existence checks of preconditions from one snapshot per schema while a session is open for a database, rather than taking
+ * new snapshots for each check. Objects affected by the changes run during the session are read again on the next check, see
+ * {@link RefreshableDatabaseSnapshot}. Without an open session, checks go to {@link SnapshotGeneratorFactory#has} as before.
+ */
+public class PreconditionMetadataCache {
+
+    private static PreconditionMetadataCache instance = new PreconditionMetadataCache();
+
+    private ConcurrentHashMap<Database, Map<String, RefreshableDatabaseSnapshot>> sessions = new ConcurrentHashMap<Database, Map<String, RefreshableDatabaseSnapshot>>();
+
+    private PreconditionMetadataCache() {
+    }
+
+    public static PreconditionMetadataCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts caching metadata for the database until {@link #close(Database)} or {@link #reset()} is called. Metadata cached by an earlier
+     * session for the database is discarded, since the database may have been changed by others in between.
+     */
+    public void open(Database database) {
+        if (database.getConnection() == null || database.getConnection() instanceof OfflineConnection) {
+            return;
+        }
+        sessions.put(database, new ConcurrentHashMap<String, RefreshableDatabaseSnapshot>());
+    }
+
+    public boolean isOpen(Database database) {
+        return sessions.containsKey(database);
+    }
+
+    public void close(Database database) {
+        sessions.remove(database);
+    }
+
+    public void reset() {
+        sessions.clear();
+    }
+
+    /**
+     * Returns true if the object described by the example exists in the database.
+     */
+    public boolean has(DatabaseObject example, Database database) throws DatabaseException, InvalidExampleException {
+        Map<String, RefreshableDatabaseSnapshot> snapshots = sessions.get(database);
+        if (snapshots == null) {
+            return SnapshotGeneratorFactory.getInstance().has(example, database);
+        }
+
+        CatalogAndSchema schema;
+        if (example.getSchema() == null) {
+            schema = database.getDefaultSchema();
+        } else {
+            schema = CatalogAndSchema.fromSchema(example.getSchema());
+        }
+        schema = schema.customize(database);
+
+        RefreshableDatabaseSnapshot snapshot = snapshots.get(schema.toString());
+        if (snapshot == null) {
+            SnapshotControl snapshotControl = new SnapshotControl(database, Table.class, View.class, Column.class, PrimaryKey.class, ForeignKey.class, Index.class, Sequence.class);
+            snapshot = SnapshotGeneratorFactory.getInstance().createRefreshableSnapshot(new CatalogAndSchema[] {schema}, database, snapshotControl);
+            snapshots.put(schema.toString(), snapshot);
+        }
+        if (!snapshot.getSnapshotControl().shouldInclude(example.getClass())) {
+            return SnapshotGeneratorFactory.getInstance().has(example, database);
+        }
+
+        if (snapshot.get(example) != null) {
+            return true;
+        }
+        for (DatabaseObject obj : snapshot.get(example.getClass())) {
+            if (DatabaseObjectComparatorFactory.getInstance().isSameObject(example, obj, database)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called after the change was run or rolled back against the database, to read the objects it affects again on the next check.
+     * Changes which do not know the objects they affect discard the cached metadata of the database.
+     */
+    public void changed(Change change, Database database) {
+        Map<String, RefreshableDatabaseSnapshot> snapshots = sessions.get(database);
+        if (snapshots == null || snapshots.isEmpty()) {
+            return;
+        }
+        List<DatabaseObject> objects = SnapshotRefreshListener.getAffectedObjects(change, database);
+        if (objects == null) {
+            snapshots.clear();
+            return;
+        }
+        for (RefreshableDatabaseSnapshot snapshot : snapshots.values()) {
+            snapshot.invalidate(objects);
+        }
+    }
+}
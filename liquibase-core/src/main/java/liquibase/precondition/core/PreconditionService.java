@@ -28,7 +28,6 @@ import liquibase.precondition.ErrorPrecondition;
 import liquibase.precondition.FailedPrecondition;
 import liquibase.precondition.Precondition;
 import liquibase.snapshot.DatabaseSnapshot;
-import liquibase.snapshot.SnapshotGeneratorFactory;
 import liquibase.statement.core.RawSqlStatement;
 import liquibase.statement.core.TableRowCountStatement;
 import liquibase.structure.core.Column;
@@ -257,7 +256,7 @@ public class PreconditionService {
         try {
             currentCatalogName = condition.getCatalogName();
             currentSchemaName = condition.getSchemaName();
-            if (!SnapshotGeneratorFactory.getInstance().has(
+            if (!PreconditionMetadataCache.getInstance().has(
                 new View().setName(condition.getViewName()).setSchema(
                     new Schema(currentCatalogName, currentSchemaName)), database)) {
                 throw new PreconditionFailedException("View "
@@ -279,7 +278,7 @@ public class PreconditionService {
         try {
             String correctedTableName = database.correctObjectName(condition.getTableName(),
                 Table.class);
-            if (!SnapshotGeneratorFactory.getInstance().has(
+            if (!PreconditionMetadataCache.getInstance().has(
                 new Table().setName(correctedTableName).setSchema(
                     new Schema(condition.getCatalogName(), condition.getSchemaName())), database)) {
                 throw new PreconditionFailedException("Table "
@@ -332,7 +331,7 @@ public class PreconditionService {
         Schema schema = new Schema(catalogName, schemaName);
         try {
             String sequenceName = condition.getSequenceName();
-            if (!SnapshotGeneratorFactory.getInstance().has(
+            if (!PreconditionMetadataCache.getInstance().has(
                 new Sequence().setName(sequenceName).setSchema(schema), database)) {
                 throw new PreconditionFailedException("Sequence "
                     + database.escapeSequenceName(catalogName, schemaName, sequenceName)
@@ -393,7 +392,7 @@ public class PreconditionService {
             example.setTable(table);
             example.setName(condition.getPrimaryKeyName());
 
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionMetadataCache.getInstance().has(example, database)) {
                 if (tableName != null) {
                     throw new PreconditionFailedException("Primary Key does not exist on "
                         + database.escapeObjectName(tableName, Table.class), changeLog, condition);
@@ -451,7 +450,7 @@ public class PreconditionService {
                     example.addColumn(new Column(database.correctObjectName(column, Column.class)));
                 }
             }
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionMetadataCache.getInstance().has(example, database)) {
                 String name = "";
 
                 if (condition.getIndexName() != null) {
@@ -492,7 +491,7 @@ public class PreconditionService {
             String schemaName = condition.getSchemaName();
             example.getForeignKeyTable().setSchema(new Schema(catalogName, schemaName));
 
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionMetadataCache.getInstance().has(example, database)) {
                 throw new PreconditionFailedException("Foreign Key "
                     + database.escapeIndexName(catalogName, schemaName,
                         condition.getForeignKeyName()) + " does not exist", changeLog, condition);
@@ -537,7 +536,7 @@ public class PreconditionService {
         example.setName(database.correctObjectName(condition.getColumnName(), Column.class));
 
         try {
-            if (!SnapshotGeneratorFactory.getInstance().has(example, database)) {
+            if (!PreconditionMetadataCache.getInstance().has(example, database)) {
                 throw new PreconditionFailedException("Column '"
                     + database.escapeColumnName(condition.getCatalogName(),
                         condition.getSchemaName(), condition.getTableName(),
@@ -0,0 +1,451 @@
+package liquibase.serializer.core.binary;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.OfflineConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.snapshot.InvalidExampleException;
+import liquibase.snapshot.RestoredDatabaseSnapshot;
+import liquibase.snapshot.SnapshotControl;
+import liquibase.snapshot.SnapshotIdService;
+import liquibase.statement.DatabaseFunction;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.DataType;
+
+import static liquibase.serializer.core.binary.BinarySnapshotSerializer.*;
+
+/**
+ * Reads snapshots written by {@link BinarySnapshotSerializer}. The header, which describes the database the snapshot was taken from,
+ * is read first and is available before the objects are read, for example to choose the database to compare the snapshot with.
+ * The objects are read in one pass over the stream by {@link #read()}.
+ * <p>
+ * Snapshot files are not trusted: classes named in the stream are loaded without being initialized and only instantiated if they are
+ * database objects, database functions, collections or maps.
+ */
+public class BinarySnapshotReader {
+
+    /**
+     * Longest string accepted, so a corrupt length cannot allocate an arbitrary amount of memory.
+     */
+    static final int MAX_STRING_LENGTH = 16 * 1024 * 1024;
+
+    /**
+     * Largest capacity allocated up front for a collection or map, the actual size only grows with the items read.
+     */
+    private static final int MAX_INITIAL_CAPACITY = 1024;
+
+    private final DataInputStream in;
+    private final List<String> strings = new ArrayList<String>();
+    private final List<DatabaseObject> objects = new ArrayList<DatabaseObject>();
+    private final List<PendingContent> pending = new ArrayList<PendingContent>();
+
+    private boolean headerRead;
+    private String databaseShortName;
+    private String productName;
+    private String productVersion;
+    private boolean caseSensitive;
+    private String defaultCatalogName;
+    private String defaultSchemaName;
+    private Set<Class<? extends DatabaseObject>> types;
+
+    public BinarySnapshotReader(InputStream in) {
+        this.in = new DataInputStream(new BufferedInputStream(in));
+    }
+
+    public String getDatabaseShortName() throws IOException {
+        readHeader();
+        return databaseShortName;
+    }
+
+    public String getProductName() throws IOException {
+        readHeader();
+        return productName;
+    }
+
+    public String getProductVersion() throws IOException {
+        readHeader();
+        return productVersion;
+    }
+
+    public boolean isCaseSensitive() throws IOException {
+        readHeader();
+        return caseSensitive;
+    }
+
+    public String getDefaultCatalogName() throws IOException {
+        readHeader();
+        return defaultCatalogName;
+    }
+
+    public String getDefaultSchemaName() throws IOException {
+        readHeader();
+        return defaultSchemaName;
+    }
+
+    /**
+     * Returns the types of objects which were included in the snapshot.
+     */
+    public Set<Class<? extends DatabaseObject>> getTypes() throws IOException {
+        readHeader();
+        return Collections.unmodifiableSet(types);
+    }
+
+    /**
+     * Creates an offline database like the one the snapshot was taken from.
+     */
+    public Database createDatabase() throws IOException, DatabaseException {
+        readHeader();
+        StringBuilder url = new StringBuilder("offline:").append(databaseShortName).append("?caseSensitive=").append(caseSensitive);
+        appendParameter(url, "productName", productName);
+        appendParameter(url, "version", productVersion);
+        appendParameter(url, "catalog", defaultCatalogName);
+
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new OfflineConnection(url.toString()));
+        if (defaultSchemaName != null) {
+            database.setDefaultSchemaName(defaultSchemaName);
+        }
+        return database;
+    }
+
+    private void appendParameter(StringBuilder url, String name, String value) {
+        if (value != null && value.indexOf('&') < 0 && value.indexOf('=') < 0) {
+            url.append("&").append(name).append("=").append(value);
+        }
+    }
+
+    /**
+     * Reads the snapshot into a {@link #createDatabase() database like the one it was taken from}.
+     */
+    public RestoredDatabaseSnapshot read() throws IOException, DatabaseException {
+        return read(createDatabase());
+    }
+
+    /**
+     * Reads the snapshot. The given database decides how objects are compared, so it should be of the same type as the one the snapshot
+     * was taken from.
+     */
+    public RestoredDatabaseSnapshot read(Database database) throws IOException, DatabaseException {
+        readHeader();
+        List<DatabaseObject> included = new ArrayList<DatabaseObject>();
+        SnapshotIdService snapshotIdService = SnapshotIdService.getInstance();
+
+        int record;
+        while ((record = in.readByte()) != RECORD_END) {
+            if (record != RECORD_OBJECT) {
+                throw new IOException("Unknown record type " + record);
+            }
+            DatabaseObject object = readObjectReference();
+            if (in.readBoolean()) {
+                included.add(object);
+            }
+            //snapshot ids identify objects within one run, so the restored objects get new ones
+            if (readString() != null) {
+                object.setSnapshotId(snapshotIdService.generateId());
+            }
+            int attributeCount = readInt();
+            for (int i = 0; i < attributeCount; i++) {
+                setAttribute(object, readString(), readValue());
+            }
+        }
+
+        for (PendingContent content : pending) {
+            content.fill();
+        }
+        pending.clear();
+
+        try {
+            return new RestoredDatabaseSnapshot(database, new SnapshotControl(database, types.toArray(new Class[types.size()])), included);
+        } catch (InvalidExampleException e) {
+            throw new UnexpectedLiquibaseException(e);
+        }
+    }
+
+    private void readHeader() throws IOException {
+        if (headerRead) {
+            return;
+        }
+        headerRead = true;
+
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a binary snapshot");
+        }
+        int version = in.readShort();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported binary snapshot version " + version);
+        }
+        databaseShortName = readString();
+        productName = readString();
+        productVersion = readString();
+        caseSensitive = in.readBoolean();
+        defaultCatalogName = readString();
+        defaultSchemaName = readString();
+
+        types = new HashSet<Class<? extends DatabaseObject>>();
+        int typeCount = readInt();
+        for (int i = 0; i < typeCount; i++) {
+            types.add((Class<? extends DatabaseObject>) readClass(DatabaseObject.class));
+        }
+    }
+
+    private DatabaseObject readObjectReference() throws IOException {
+        int id = readInt();
+        if (id < objects.size()) {
+            return objects.get(id);
+        }
+        if (id != objects.size()) {
+            throw new IOException("Unexpected object number " + id);
+        }
+        Class<?> type = readClass(DatabaseObject.class);
+        try {
+            DatabaseObject object = (DatabaseObject) type.newInstance();
+            objects.add(object);
+            return object;
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException("Cannot create " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Sets the attribute through the setters of attributes which objects keep in fields as well.
+     */
+    private void setAttribute(DatabaseObject object, String attribute, Object value) {
+        if (attribute.equals("name")) {
+            object.setName((String) value);
+        } else if (attribute.equals("computed") && object instanceof Column) {
+            ((Column) object).setComputed((Boolean) value);
+        } else {
+            object.setAttribute(attribute, value);
+        }
+    }
+
+    private Object readValue() throws IOException {
+        int type = in.readByte();
+        switch (type) {
+            case NULL:
+                return null;
+            case STRING:
+                return readString();
+            case BOOLEAN:
+                return in.readBoolean();
+            case INTEGER:
+                return in.readInt();
+            case LONG:
+                return in.readLong();
+            case DOUBLE:
+                return in.readDouble();
+            case FLOAT:
+                return in.readFloat();
+            case BIG_INTEGER:
+                return new BigInteger(readString());
+            case BIG_DECIMAL:
+                return new BigDecimal(readString());
+            case OBJECT:
+                return readObjectReference();
+            case LIST:
+            case SET: {
+                String className = readString();
+                int size = readSize();
+                Collection collection = newInstance(className, Collection.class);
+                if (collection == null) {
+                    collection = type == LIST ? new ArrayList(initialCapacity(size)) : new HashSet(initialCapacity(size));
+                }
+                List<Object> items = new ArrayList<Object>(initialCapacity(size));
+                for (int i = 0; i < size; i++) {
+                    items.add(readValue());
+                }
+                if (type == LIST) {
+                    collection.addAll(items);
+                } else {
+                    pending.add(new PendingContent(collection, items));
+                }
+                return collection;
+            }
+            case MAP: {
+                String className = readString();
+                int size = readSize();
+                Map map = newInstance(className, Map.class);
+                if (map == null) {
+                    map = new HashMap(initialCapacity(size));
+                }
+                List<Object> items = new ArrayList<Object>(initialCapacity(size));
+                for (int i = 0; i < size; i++) {
+                    items.add(readValue());
+                    items.add(readValue());
+                }
+                pending.add(new PendingContent(map, items));
+                return map;
+            }
+            case CLASS:
+                return readClass(Object.class);
+            case ENUM: {
+                Class enumType = readClass(Enum.class);
+                return Enum.valueOf(enumType, readString());
+            }
+            case DATE: {
+                String className = readString();
+                long time = in.readLong();
+                int nanos = in.readInt();
+                if (className.equals(java.sql.Date.class.getName())) {
+                    return new java.sql.Date(time);
+                } else if (className.equals(java.sql.Time.class.getName())) {
+                    return new java.sql.Time(time);
+                } else if (className.equals(Timestamp.class.getName())) {
+                    Timestamp timestamp = new Timestamp(time);
+                    timestamp.setNanos(nanos);
+                    return timestamp;
+                }
+                return new Date(time);
+            }
+            case DATA_TYPE: {
+                DataType dataType = new DataType(readString());
+                dataType.setDataTypeId((Integer) readValue());
+                dataType.setColumnSize((Integer) readValue());
+                dataType.setColumnSizeUnit((DataType.ColumnSizeUnit) readValue());
+                dataType.setDecimalDigits((Integer) readValue());
+                dataType.setRadix((Integer) readValue());
+                dataType.setCharacterOctetLength((Integer) readValue());
+                return dataType;
+            }
+            case AUTO_INCREMENT: {
+                BigInteger startWith = (BigInteger) readValue();
+                BigInteger incrementBy = (BigInteger) readValue();
+                return new Column.AutoIncrementInformation(startWith, incrementBy);
+            }
+            case FUNCTION: {
+                Class<?> functionType = readClass(DatabaseFunction.class);
+                String value = readString();
+                try {
+                    return functionType.getConstructor(String.class).newInstance(value);
+                } catch (Exception e) {
+                    return new DatabaseFunction(value);
+                }
+            }
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    /**
+     * Creates the collection or map which was written, or returns null if it cannot be created, like unmodifiable collections.
+     */
+    private <T> T newInstance(String className, Class<T> type) throws IOException {
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(className, false, getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        checkType(clazz, type);
+        try {
+            return (T) clazz.newInstance();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * Loads the class without initializing it and rejects it unless it is of the expected type.
+     */
+    private Class<?> readClass(Class<?> expectedType) throws IOException {
+        String className = readString();
+        Class<?> clazz;
+        try {
+            clazz = Class.forName(className, false, getClass().getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new UnexpectedLiquibaseException("Unknown class " + className + " in binary snapshot", e);
+        }
+        checkType(clazz, expectedType);
+        return clazz;
+    }
+
+    private void checkType(Class<?> clazz, Class<?> expectedType) throws IOException {
+        if (!expectedType.isAssignableFrom(clazz)) {
+            throw new IOException("Class " + clazz.getName() + " in binary snapshot is not a " + expectedType.getName());
+        }
+    }
+
+    private int readSize() throws IOException {
+        int size = readInt();
+        if (size < 0) {
+            throw new IOException("Invalid size " + size + " in binary snapshot");
+        }
+        return size;
+    }
+
+    private int initialCapacity(int size) {
+        return Math.min(size, MAX_INITIAL_CAPACITY);
+    }
+
+    private String readString() throws IOException {
+        int index = readInt();
+        if (index == 0) {
+            return null;
+        }
+        if (index > 1) {
+            return strings.get(index - 2);
+        }
+        int length = readSize();
+        if (length > MAX_STRING_LENGTH) {
+            throw new IOException("String of " + length + " bytes in binary snapshot is longer than " + MAX_STRING_LENGTH);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        String value = new String(bytes, "UTF-8");
+        strings.add(value);
+        return value;
+    }
+
+    private int readInt() throws IOException {
+        int value = 0;
+        int shift = 0;
+        int b;
+        do {
+            b = in.readUnsignedByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    /**
+     * The content of a set or map, which is only added once all objects are read because the hash codes of objects depend on their attributes.
+     */
+    private static class PendingContent {
+        private final Object target;
+        private final List<Object> items;
+
+        private PendingContent(Object target, List<Object> items) {
+            this.target = target;
+            this.items = items;
+        }
+
+        public void fill() {
+            if (target instanceof Map) {
+                for (int i = 0; i < items.size(); i += 2) {
+                    ((Map) target).put(items.get(i), items.get(i + 1));
+                }
+            } else {
+                ((Collection) target).addAll(items);
+            }
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package liquibase.serializer.core.binary;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.serializer.LiquibaseSerializable;
+import liquibase.serializer.SnapshotSerializer;
+import liquibase.snapshot.DatabaseSnapshot;
+import liquibase.statement.DatabaseFunction;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.DatabaseObjectCollection;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.DataType;
+
+import org.kohsuke.MetaInfServices;
+
+/**
+ * Writes snapshots in a compact binary format which {@link BinarySnapshotReader} restores without a database connection,
+ * so a snapshot can be taken once and compared later.
+ * <p>
+ * The format is written in a single pass. After a header with the magic number, the format version, the database the snapshot was
+ * taken from and the snapshotted types, each object is written as a record with its attributes. Strings are written once and referred to
+ * by number afterwards. Objects are referred to by number too, and the class of an object is written where the object is first referred to,
+ * so references to objects which are written later can be resolved while reading.
+ */
+@MetaInfServices
+public class BinarySnapshotSerializer implements SnapshotSerializer {
+
+    static final int MAGIC = 0x4C42534E; //"LBSN"
+    static final int FORMAT_VERSION = 1;
+
+    static final int RECORD_OBJECT = 1;
+    static final int RECORD_END = 0;
+
+    static final int NULL = 0;
+    static final int STRING = 1;
+    static final int BOOLEAN = 2;
+    static final int INTEGER = 3;
+    static final int LONG = 4;
+    static final int DOUBLE = 5;
+    static final int FLOAT = 6;
+    static final int BIG_INTEGER = 7;
+    static final int BIG_DECIMAL = 8;
+    static final int OBJECT = 9;
+    static final int LIST = 10;
+    static final int SET = 11;
+    static final int MAP = 12;
+    static final int CLASS = 13;
+    static final int ENUM = 14;
+    static final int DATE = 15;
+    static final int DATA_TYPE = 16;
+    static final int AUTO_INCREMENT = 17;
+    static final int FUNCTION = 18;
+
+    @Override
+    public String[] getValidFileExtensions() {
+        return new String[]{"lbsnap"};
+    }
+
+    @Override
+    public String serialize(LiquibaseSerializable object, boolean pretty) {
+        throw new UnexpectedLiquibaseException("Binary snapshots can only be written to a stream");
+    }
+
+    @Override
+    public void write(DatabaseSnapshot snapshot, OutputStream out) throws IOException {
+        DataOutputStream dataOut = new DataOutputStream(new BufferedOutputStream(out));
+        new Writer(dataOut).write(snapshot);
+        dataOut.flush();
+    }
+
+    private static class Writer {
+        private final DataOutputStream out;
+        private final Map<String, Integer> strings = new HashMap<String, Integer>();
+        private final Map<DatabaseObject, Integer> objectIds = new IdentityHashMap<DatabaseObject, Integer>();
+        private final Map<DatabaseObject, Boolean> included = new IdentityHashMap<DatabaseObject, Boolean>();
+        private final Map<DatabaseObject, Boolean> written = new IdentityHashMap<DatabaseObject, Boolean>();
+        private final List<DatabaseObject> referenced = new ArrayList<DatabaseObject>();
+        private final Set<Class> unknownTypes = new HashSet<Class>();
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        public void write(DatabaseSnapshot snapshot) throws IOException {
+            Database database = snapshot.getDatabase();
+            out.writeInt(MAGIC);
+            out.writeShort(FORMAT_VERSION);
+            writeString(database.getShortName());
+            writeString(database.getDatabaseProductName());
+            try {
+                writeString(database.getDatabaseProductVersion());
+            } catch (DatabaseException e) {
+                writeString(null);
+            }
+            out.writeBoolean(database.isCaseSensitive());
+            writeString(database.getDefaultCatalogName());
+            writeString(database.getDefaultSchemaName());
+
+            SortedSet<String> typeNames = new TreeSet<String>();
+            for (Class<? extends DatabaseObject> type : snapshot.getSnapshotControl().getTypesToInclude()) {
+                typeNames.add(type.getName());
+            }
+            writeInt(typeNames.size());
+            for (String typeName : typeNames) {
+                writeString(typeName);
+            }
+
+            DatabaseObjectCollection allFound = (DatabaseObjectCollection) snapshot.getSerializableFieldValue("objects");
+            List<DatabaseObject> found = new ArrayList<DatabaseObject>();
+            for (String typeName : allFound.getSerializableFields()) {
+                try {
+                    found.addAll(allFound.get((Class<? extends DatabaseObject>) Class.forName(typeName)));
+                } catch (ClassNotFoundException e) {
+                    throw new UnexpectedLiquibaseException(e);
+                }
+            }
+            for (DatabaseObject object : found) {
+                included.put(object, Boolean.TRUE);
+            }
+
+            for (DatabaseObject object : found) {
+                writeRecord(object);
+                //objects which are only referenced, like tables of other schemas, are written as well
+                while (!referenced.isEmpty()) {
+                    writeRecord(referenced.remove(referenced.size() - 1));
+                }
+            }
+            out.writeByte(RECORD_END);
+        }
+
+        private void writeRecord(DatabaseObject object) throws IOException {
+            if (written.put(object, Boolean.TRUE) != null) {
+                return;
+            }
+
+            out.writeByte(RECORD_OBJECT);
+            writeObjectReference(object);
+            out.writeBoolean(included.containsKey(object));
+            writeString(object.getSnapshotId());
+            SortedSet<String> attributes = new TreeSet<String>(object.getAttributes());
+            writeInt(attributes.size());
+            for (String attribute : attributes) {
+                writeString(attribute);
+                writeValue(object.getAttribute(attribute, Object.class));
+            }
+        }
+
+        /**
+         * Writes the number of the object, followed by its class if the object is referred to for the first time.
+         */
+        private void writeObjectReference(DatabaseObject object) throws IOException {
+            Integer id = objectIds.get(object);
+            if (id == null) {
+                id = objectIds.size();
+                objectIds.put(object, id);
+                writeInt(id);
+                writeString(object.getClass().getName());
+                if (!written.containsKey(object)) {
+                    referenced.add(object);
+                }
+            } else {
+                writeInt(id);
+            }
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof String) {
+                out.writeByte(STRING);
+                writeString((String) value);
+            } else if (value instanceof Boolean) {
+                out.writeByte(BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof Integer) {
+                out.writeByte(INTEGER);
+                out.writeInt((Integer) value);
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof Float) {
+                out.writeByte(FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof BigInteger) {
+                out.writeByte(BIG_INTEGER);
+                writeString(value.toString());
+            } else if (value instanceof BigDecimal) {
+                out.writeByte(BIG_DECIMAL);
+                writeString(value.toString());
+            } else if (value instanceof DatabaseObject) {
+                out.writeByte(OBJECT);
+                writeObjectReference((DatabaseObject) value);
+            } else if (value instanceof Collection) {
+                out.writeByte(value instanceof Set ? SET : LIST);
+                writeString(value.getClass().getName());
+                writeInt(((Collection) value).size());
+                for (Object item : (Collection) value) {
+                    writeValue(item);
+                }
+            } else if (value instanceof Map) {
+                out.writeByte(MAP);
+                writeString(value.getClass().getName());
+                writeInt(((Map) value).size());
+                for (Map.Entry entry : ((Map<?, ?>) value).entrySet()) {
+                    writeValue(entry.getKey());
+                    writeValue(entry.getValue());
+                }
+            } else if (value instanceof Class) {
+                out.writeByte(CLASS);
+                writeString(((Class) value).getName());
+            } else if (value instanceof Enum) {
+                out.writeByte(ENUM);
+                writeString(((Enum) value).getDeclaringClass().getName());
+                writeString(((Enum) value).name());
+            } else if (value instanceof Date) {
+                out.writeByte(DATE);
+                writeString(value.getClass().getName());
+                out.writeLong(((Date) value).getTime());
+                out.writeInt(value instanceof Timestamp ? ((Timestamp) value).getNanos() : 0);
+            } else if (value instanceof DataType) {
+                DataType dataType = (DataType) value;
+                out.writeByte(DATA_TYPE);
+                writeString(dataType.getTypeName());
+                writeValue(dataType.getDataTypeId());
+                writeValue(dataType.getColumnSize());
+                writeValue(dataType.getColumnSizeUnit());
+                writeValue(dataType.getDecimalDigits());
+                writeValue(dataType.getRadix());
+                writeValue(dataType.getCharacterOctetLength());
+            } else if (value instanceof Column.AutoIncrementInformation) {
+                out.writeByte(AUTO_INCREMENT);
+                writeValue(((Column.AutoIncrementInformation) value).getStartWith());
+                writeValue(((Column.AutoIncrementInformation) value).getIncrementBy());
+            } else if (value instanceof DatabaseFunction) {
+                out.writeByte(FUNCTION);
+                writeString(value.getClass().getName());
+                writeString(((DatabaseFunction) value).getValue());
+            } else {
+                if (unknownTypes.add(value.getClass())) {
+                    LogFactory.getLogger().warning("Writing values of type " + value.getClass().getName() + " to the binary snapshot as strings");
+                }
+                out.writeByte(STRING);
+                writeString(value.toString());
+            }
+        }
+
+        /**
+         * Writes 0 for null, 1 followed by the UTF-8 bytes for the first occurrence of a string, and the number of the string plus 2 afterwards.
+         */
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeInt(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeInt(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            writeInt(1);
+            byte[] bytes = value.getBytes("UTF-8");
+            writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        /**
+         * Writes a non-negative int in 7 bit groups, so small numbers take a single byte.
+         */
+        private void writeInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+}
@@ -124,7 +124,7 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable{
         return database;
     }
 
-    public ResultSetCache getResultSetCache(String key) {
+    public synchronized ResultSetCache getResultSetCache(String key) {
         if (!resultSetCaches.containsKey(key)) {
             resultSetCaches.put(key, new ResultSetCache());
         }
@@ -306,6 +306,29 @@ public abstract class DatabaseSnapshot implements LiquibaseSerializable{
         return true;
     }
 
+    /**
+     * Adds an object which was snapshotted before, see {@link RestoredDatabaseSnapshot}.
+     */
+    void addRestored(DatabaseObject object) {
+        allFound.add(object);
+    }
+
+    /**
+     * Removes the given objects, and forgets the cached metadata and the objects known not to exist, so objects are read from the database
+     * again when they are included. See {@link RefreshableDatabaseSnapshot}.
+     */
+    void forget(Collection<? extends DatabaseObject> objects) {
+        allFound.remove(objects);
+        knownNull.clear();
+        synchronized (this) {
+            resultSetCaches.clear();
+        }
+    }
+
+    DatabaseObject[] getOriginalExamples() {
+        return originalExamples;
+    }
+
     /**
      * Returns the object described by the passed example if it is already included in this snapshot.
      */
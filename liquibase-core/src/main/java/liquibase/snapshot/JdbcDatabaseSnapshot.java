@@ -12,10 +12,17 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.logging.LogFactory;
 import liquibase.structure.DatabaseObject;
 import liquibase.structure.core.*;
+import liquibase.util.JdbcUtils;
 import liquibase.util.StringUtils;
 
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
 
@@ -41,22 +48,237 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         return cachingDatabaseMetaData;
     }
 
+    /**
+     * Fetches the metadata of the example schemas first if {@link SnapshotControl#isPrefetch()} is set or {@link SnapshotControl#getThreads()}
+     * is more than one.
+     */
+    @Override
+    protected void init(DatabaseObject[] examples) throws DatabaseException, InvalidExampleException {
+        SnapshotControl snapshotControl = getSnapshotControl();
+        if (examples != null && (snapshotControl.isPrefetch() || snapshotControl.getThreads() > 1) && getDatabase() instanceof AbstractJdbcDatabase) {
+            boolean parallel = snapshotControl.getThreads() > 1;
+            if (parallel && snapshotControl.getDataSource() == null) {
+                LogFactory.getLogger().warning("Snapshot threads set to " + snapshotControl.getThreads() + " without a data source, fetching metadata on one connection");
+                parallel = false;
+            }
+            prefetch(examples, parallel);
+        }
+        super.init(examples);
+    }
+
+    /**
+     * Fills the metadata caches with the tables, views, columns, keys, constraints and indexes of all schemas in the examples, using one
+     * schema wide query per type and schema. If parallel, every type of every schema is fetched on its own connection from
+     * {@link SnapshotControl#getDataSource()}, otherwise on the connection of the database. Tables and views are fetched first because
+     * the other types may need them. The snapshot is then put together from the caches as usual.
+     * Failures are logged and leave the failed type to be fetched on demand.
+     */
+    protected void prefetch(DatabaseObject[] examples, boolean parallel) {
+        final AbstractJdbcDatabase database = (AbstractJdbcDatabase) getDatabase();
+        SnapshotControl snapshotControl = getSnapshotControl();
+
+        List<Schema> schemas = new ArrayList<Schema>();
+        for (DatabaseObject example : examples) {
+            if (example instanceof Schema && !database.isSystemObject(example)) {
+                CatalogAndSchema catalogAndSchema = CatalogAndSchema.fromSchema((Schema) example).customize(database);
+                schemas.add(new Schema(catalogAndSchema.getCatalogName(), catalogAndSchema.getSchemaName()));
+            }
+        }
+        if (schemas.isEmpty()) {
+            return;
+        }
+
+        long start = System.currentTimeMillis();
+        java.util.concurrent.ExecutorService pool = null;
+        if (parallel) {
+            pool = Executors.newFixedThreadPool(snapshotControl.getThreads(), new PrefetchThreadFactory());
+        }
+        try {
+            List<PrefetchTask> tasks = new ArrayList<PrefetchTask>();
+            for (final Schema schema : schemas) {
+                final String catalogName = database.getJdbcCatalogName(schema);
+                final String schemaName = database.getJdbcSchemaName(schema);
+                if (snapshotControl.shouldInclude(Table.class)) {
+                    tasks.add(new PrefetchTask("getTables", catalogName, schemaName, parallel) {
+                        @Override
+                        protected void fetch(CachingDatabaseMetaData metaData) throws Exception {
+                            metaData.getTables(catalogName, schemaName, null);
+                        }
+                    });
+                }
+                if (snapshotControl.shouldInclude(View.class)) {
+                    tasks.add(new PrefetchTask("getViews", catalogName, schemaName, parallel) {
+                        @Override
+                        protected void fetch(CachingDatabaseMetaData metaData) throws Exception {
+                            metaData.getViews(catalogName, schemaName, null);
+                        }
+                    });
+                }
+            }
+            run(tasks, pool);
+
+            for (final Schema schema : schemas) {
+                final String catalogName = database.getJdbcCatalogName(schema);
+                final String schemaName = database.getJdbcSchemaName(schema);
+                if (snapshotControl.shouldInclude(Column.class)) {
+                    tasks.add(new PrefetchTask("getColumns", catalogName, schemaName, parallel) {
+                        @Override
+                        protected void fetch(CachingDatabaseMetaData metaData) throws Exception {
+                            metaData.getColumns(catalogName, schemaName, null, null);
+                        }
+                    });
+                }
+                if (snapshotControl.shouldInclude(PrimaryKey.class)) {
+                    tasks.add(new PrefetchTask("getPrimaryKeys", catalogName, schemaName, parallel) {
+                        @Override
+                        protected void fetch(CachingDatabaseMetaData metaData) throws Exception {
+                            metaData.getPrimaryKeys(catalogName, schemaName, null);
+                        }
+                    });
+                }
+                if (snapshotControl.shouldInclude(UniqueConstraint.class)) {
+                    //the unique constraint generator passes the schema names rather than the jdbc names
+                    tasks.add(new PrefetchTask("getUniqueConstraints", schema.getCatalogName(), schema.getName(), parallel) {
+                        @Override
+                        protected void fetch(CachingDatabaseMetaData metaData) throws Exception {
+                            metaData.getUniqueConstraints(schema.getCatalogName(), schema.getName(), null);
+                        }
+                    });
+                }
+                if (snapshotControl.shouldInclude(Index.class)) {
+                    tasks.add(new PrefetchTask("getIndexInfo", catalogName, schemaName, parallel) {
+                        @Override
+                        protected void fetch(CachingDatabaseMetaData metaData) throws Exception {
+                            metaData.getIndexInfo(catalogName, schemaName, null, null);
+                        }
+                    });
+                }
+                if (snapshotControl.shouldInclude(ForeignKey.class)) {
+                    tasks.add(new PrefetchTask("getImportedKeys", catalogName, schemaName, parallel) {
+                        @Override
+                        protected void fetch(CachingDatabaseMetaData metaData) throws Exception {
+                            metaData.getForeignKeys(catalogName, schemaName, null, null);
+                        }
+                    });
+                }
+            }
+            run(tasks, pool);
+        } finally {
+            if (pool != null) {
+                pool.shutdownNow();
+            }
+        }
+        LogFactory.getLogger().debug("Fetched metadata of " + schemas.size() + " schema(s)" + (parallel ? " on " + snapshotControl.getThreads() + " threads" : "") + " in " + (System.currentTimeMillis() - start) + "ms");
+    }
+
+    /**
+     * Runs the tasks on the pool and waits for them, or runs them in this thread if the pool is null. Clears the list of tasks.
+     */
+    private void run(List<PrefetchTask> tasks, java.util.concurrent.ExecutorService pool) {
+        try {
+            if (pool == null) {
+                for (PrefetchTask task : tasks) {
+                    task.call();
+                }
+            } else {
+                for (Future<Void> future : pool.invokeAll(tasks)) {
+                    future.get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UnexpectedLiquibaseException("Interrupted while fetching metadata", e);
+        } catch (ExecutionException e) {
+            throw new UnexpectedLiquibaseException(e.getCause());
+        }
+        tasks.clear();
+    }
+
+    /**
+     * Fetches all rows of one metadata cache for one schema, then marks the schema as complete in the cache.
+     */
+    private abstract class PrefetchTask implements Callable<Void> {
+        private final String cacheName;
+        private final String catalogName;
+        private final String schemaName;
+        private final boolean ownConnection;
+
+        private PrefetchTask(String cacheName, String catalogName, String schemaName, boolean ownConnection) {
+            this.cacheName = cacheName;
+            this.catalogName = catalogName;
+            this.schemaName = schemaName;
+            this.ownConnection = ownConnection;
+        }
+
+        protected abstract void fetch(CachingDatabaseMetaData metaData) throws Exception;
+
+        @Override
+        public Void call() {
+            Database database = getDatabase();
+            Connection connection = null;
+            try {
+                if (ownConnection) {
+                    connection = getSnapshotControl().getDataSource().getConnection();
+                    fetch(new CachingDatabaseMetaData(database, new JdbcConnection(connection)));
+                } else {
+                    fetch(getMetaData());
+                }
+                getResultSetCache(cacheName).setComplete(new ResultSetCache.RowData(catalogName, schemaName, database).createSchemaKey(database));
+            } catch (Exception e) {
+                LogFactory.getLogger().warning("Cannot fetch " + cacheName + " of " + catalogName + "." + schemaName + " up front: " + e.getMessage(), e);
+            } finally {
+                if (connection != null) {
+                    try {
+                        connection.close();
+                    } catch (SQLException ignore) {
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    private static class PrefetchThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "liquibase-snapshot-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
     public class CachingDatabaseMetaData {
 
         private DatabaseMetaData databaseMetaData;
         private Database database;
+        private JdbcConnection connection;
 
         public CachingDatabaseMetaData(Database database, DatabaseMetaData metaData) {
             this.databaseMetaData = metaData;
             this.database = database;
         }
 
+        /**
+         * Creates metadata which queries the given connection rather than the connection of the database, but shares the caches of this snapshot.
+         */
+        public CachingDatabaseMetaData(Database database, JdbcConnection connection) throws SQLException {
+            this(database, connection.getUnderlyingConnection().getMetaData());
+            this.connection = connection;
+        }
+
+        private List<CachedRow> get(String cacheName, ResultSetCache.ResultSetExtractor resultSetExtractor) throws DatabaseException {
+            resultSetExtractor.setConnection(connection);
+            return getResultSetCache(cacheName).get(resultSetExtractor);
+        }
+
         public DatabaseMetaData getDatabaseMetaData() {
             return databaseMetaData;
         }
 
         public List<CachedRow> getForeignKeys(final String catalogName, final String schemaName, final String tableName, final String fkName) throws DatabaseException {
-            return getResultSetCache("getImportedKeys").get(new ResultSetCache.UnionResultSetExtractor(database) {
+            return get("getImportedKeys", new ResultSetCache.UnionResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -150,7 +372,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         public List<CachedRow> getIndexInfo(final String catalogName, final String schemaName, final String tableName, final String indexName) throws DatabaseException {
-            return getResultSetCache("getIndexInfo").get(new ResultSetCache.UnionResultSetExtractor(database) {
+            return get("getIndexInfo", new ResultSetCache.UnionResultSetExtractor(database) {
 
                 public boolean bulkFetch = false;
 
@@ -228,7 +450,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
          * Return the columns for the given catalog, schema, table, and column.
          */
         public List<CachedRow> getColumns(final String catalogName, final String schemaName, final String tableName, final String columnName) throws SQLException, DatabaseException {
-            return getResultSetCache("getColumns").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return get("getColumns", new ResultSetCache.SingleResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -323,8 +545,94 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
             });
         }
 
+        /**
+         * Returns rows with TABLE_NAME, COLUMN_NAME and IS_AUTOINCREMENT for drivers which do not return IS_AUTOINCREMENT from getColumns.
+         * Databases with a catalog view listing identity columns are queried once per schema, and only return the auto increment columns.
+         * Other databases are probed with one query selecting all columns of the table, returning a row for each column.
+         */
+        public List<CachedRow> getAutoIncrementColumns(final String catalogName, final String schemaName, final String tableName, final String columnName) throws DatabaseException {
+            return get("getAutoIncrementColumns", new ResultSetCache.SingleResultSetExtractor(database) {
+
+                @Override
+                public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+                    return new ResultSetCache.RowData(row.getString("TABLE_CAT"), row.getString("TABLE_SCHEM"), database, row.getString("TABLE_NAME"), row.getString("COLUMN_NAME"));
+                }
+
+                @Override
+                public ResultSetCache.RowData wantedKeyParameters() {
+                    return new ResultSetCache.RowData(catalogName, schemaName, database, tableName, columnName);
+                }
+
+                @Override
+                boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+                    return createBulkSql() != null;
+                }
+
+                @Override
+                public List<CachedRow> fastFetchQuery() throws SQLException, DatabaseException {
+                    String selectStatement;
+                    if (database.getDatabaseProductName().startsWith("DB2 UDB for AS/400")) {
+                        selectStatement = "select * from " + schemaName + "." + tableName + " where 0=1";
+                    } else {
+                        selectStatement = "select * from " + database.escapeTableName(catalogName, schemaName, tableName) + " where 0=1";
+                    }
+                    LogFactory.getLogger().debug("Checking " + tableName + " for auto-increment columns with SQL: '" + selectStatement + "'");
+
+                    List<CachedRow> returnList = new ArrayList<CachedRow>();
+                    Statement statement = null;
+                    ResultSet resultSet = null;
+                    try {
+                        statement = getConnection().getUnderlyingConnection().createStatement();
+                        resultSet = statement.executeQuery(selectStatement);
+                        ResultSetMetaData metaData = resultSet.getMetaData();
+                        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                            Map<String, Object> row = new HashMap<String, Object>();
+                            row.put("TABLE_CAT", catalogName);
+                            row.put("TABLE_SCHEM", schemaName);
+                            row.put("TABLE_NAME", tableName);
+                            row.put("COLUMN_NAME", metaData.getColumnName(i));
+                            row.put("IS_AUTOINCREMENT", metaData.isAutoIncrement(i) ? "YES" : "NO");
+                            returnList.add(new CachedRow(row));
+                        }
+                    } finally {
+                        JdbcUtils.close(resultSet, statement);
+                    }
+                    return returnList;
+                }
+
+                @Override
+                public List<CachedRow> bulkFetchQuery() throws SQLException, DatabaseException {
+                    return executeAndExtract(createBulkSql(), database);
+                }
+
+                private String createBulkSql() {
+                    if (database instanceof MSSQLDatabase && schemaName != null) {
+                        String prefix = catalogName == null ? "" : database.escapeObjectName(catalogName, Catalog.class) + ".";
+                        return "SELECT NULL AS TABLE_CAT, s.name AS TABLE_SCHEM, t.name AS TABLE_NAME, c.name AS COLUMN_NAME, 'YES' AS IS_AUTOINCREMENT "
+                                + "FROM " + prefix + "sys.columns c "
+                                + "JOIN " + prefix + "sys.tables t ON t.object_id = c.object_id "
+                                + "JOIN " + prefix + "sys.schemas s ON s.schema_id = t.schema_id "
+                                + "WHERE c.is_identity = 1 AND s.name = '" + escapeLiteral(schemaName) + "'";
+                    } else if (database instanceof MySQLDatabase && catalogName != null) {
+                        return "SELECT TABLE_SCHEMA AS TABLE_CAT, NULL AS TABLE_SCHEM, TABLE_NAME, COLUMN_NAME, 'YES' AS IS_AUTOINCREMENT "
+                                + "FROM information_schema.COLUMNS "
+                                + "WHERE TABLE_SCHEMA = '" + escapeLiteral(catalogName) + "' AND EXTRA LIKE '%auto_increment%'";
+                    } else if (database instanceof PostgresDatabase && schemaName != null) {
+                        return "SELECT table_catalog AS TABLE_CAT, table_schema AS TABLE_SCHEM, table_name AS TABLE_NAME, column_name AS COLUMN_NAME, 'YES' AS IS_AUTOINCREMENT "
+                                + "FROM information_schema.columns "
+                                + "WHERE table_schema = '" + escapeLiteral(schemaName) + "' AND column_default LIKE 'nextval(%'";
+                    }
+                    return null;
+                }
+
+                private String escapeLiteral(String value) {
+                    return value.replace("'", "''");
+                }
+            });
+        }
+
         public List<CachedRow> getTables(final String catalogName, final String schemaName, final String table) throws SQLException, DatabaseException {
-            return getResultSetCache("getTables").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return get("getTables", new ResultSetCache.SingleResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -379,7 +687,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 		
         public List<CachedRow> getViews(final String catalogName, final String schemaName, final String view) throws SQLException, DatabaseException {
-            return getResultSetCache("getViews").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return get("getViews", new ResultSetCache.SingleResultSetExtractor(database) {
 
 
                 @Override
@@ -439,7 +747,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         public List<CachedRow> getPrimaryKeys(final String catalogName, final String schemaName, final String table) throws SQLException, DatabaseException {
-            return getResultSetCache("getPrimaryKeys").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return get("getPrimaryKeys", new ResultSetCache.SingleResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
@@ -487,7 +795,7 @@ public class JdbcDatabaseSnapshot extends DatabaseSnapshot {
         }
 
         public List<CachedRow> getUniqueConstraints(final String catalogName, final String schemaName, final String tableName) throws SQLException, DatabaseException {
-            return getResultSetCache("getUniqueConstraints").get(new ResultSetCache.SingleResultSetExtractor(database) {
+            return get("getUniqueConstraints", new ResultSetCache.SingleResultSetExtractor(database) {
 
                 @Override
                 public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
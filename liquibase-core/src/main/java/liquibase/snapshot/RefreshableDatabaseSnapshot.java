@@ -0,0 +1,353 @@
+package liquibase.snapshot;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import liquibase.CatalogAndSchema;
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.structure.DatabaseObject;
+import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Column;
+import liquibase.structure.core.ForeignKey;
+import liquibase.structure.core.Relation;
+import liquibase.structure.core.Schema;
+
+/**
+ * A snapshot which can be kept up to date while the database changes, rather than being taken again. Objects which were changed are
+ * {@link #invalidate(Collection) invalidated} and read again on the next access to the snapshot, see
+ * {@link liquibase.changelog.visitor.SnapshotRefreshListener} to invalidate the objects affected by the changes of an update.
+ * <p>
+ * Tables and views are read again with their columns, keys, constraints and indexes when any of them was invalidated, other objects are
+ * read again on their own, so a refresh queries the database in proportion to what changed. References of the other objects of the snapshot,
+ * like foreign keys referencing a changed table, are replaced by the objects read again, or removed from collections if the object no
+ * longer exists. Objects which were invalidated but were not part of the snapshot are read as well, so created objects are added.
+ */
+public class RefreshableDatabaseSnapshot extends JdbcDatabaseSnapshot {
+
+    private final Object refreshLock = new Object();
+    private final List<DatabaseObject> invalidated = new ArrayList<DatabaseObject>();
+    private volatile boolean stale;
+    private boolean allInvalidated;
+    private boolean refreshing;
+
+    public RefreshableDatabaseSnapshot(DatabaseObject[] examples, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
+        super(examples, database, snapshotControl);
+    }
+
+    /**
+     * Marks the given objects as changed. Containing schemas and catalogs are ignored.
+     */
+    public void invalidate(Collection<? extends DatabaseObject> objects) {
+        synchronized (refreshLock) {
+            invalidated.addAll(objects);
+            stale = true;
+        }
+    }
+
+    /**
+     * Marks the whole snapshot as changed, for changes which do not know which objects they affect.
+     */
+    public void invalidateAll() {
+        synchronized (refreshLock) {
+            invalidated.clear();
+            allInvalidated = true;
+            stale = true;
+        }
+    }
+
+    /**
+     * True if objects were invalidated and not read again yet.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Reads the invalidated objects again now rather than on the next access.
+     */
+    public void refresh() throws DatabaseException {
+        synchronized (refreshLock) {
+            if (!stale || refreshing) {
+                return;
+            }
+            refreshing = true;
+            try {
+                long start = System.currentTimeMillis();
+                if (allInvalidated) {
+                    refreshAll();
+                } else {
+                    refreshInvalidated();
+                }
+                LogFactory.getLogger().debug("Refreshed snapshot in " + (System.currentTimeMillis() - start) + "ms");
+                invalidated.clear();
+                allInvalidated = false;
+                stale = false;
+            } catch (InvalidExampleException e) {
+                throw new UnexpectedLiquibaseException(e);
+            } finally {
+                refreshing = false;
+            }
+        }
+    }
+
+    @Override
+    public <DatabaseObjectType extends DatabaseObject> DatabaseObjectType get(DatabaseObjectType example) {
+        refreshIfStale();
+        return super.get(example);
+    }
+
+    @Override
+    public <DatabaseObjectType extends DatabaseObject> Set<DatabaseObjectType> get(Class<DatabaseObjectType> type) {
+        refreshIfStale();
+        return super.get(type);
+    }
+
+    private void refreshIfStale() {
+        if (stale) {
+            try {
+                refresh();
+            } catch (DatabaseException e) {
+                throw new UnexpectedLiquibaseException(e);
+            }
+        }
+    }
+
+    protected void refreshAll() throws DatabaseException, InvalidExampleException {
+        forget(getAllObjects());
+        init(getOriginalExamples());
+    }
+
+    protected void refreshInvalidated() throws DatabaseException, InvalidExampleException {
+        Map<String, DatabaseObject> examples = new LinkedHashMap<String, DatabaseObject>();
+        for (DatabaseObject object : invalidated) {
+            DatabaseObject example = createRefreshExample(object);
+            if (example != null) {
+                String key = example.getClass().getName() + ":" + example.getSchema().toString() + ":" + getDatabase().correctObjectName(example.getName(), example.getClass());
+                if (!examples.containsKey(key)) {
+                    examples.put(key, example);
+                }
+            }
+        }
+        if (examples.isEmpty()) {
+            return;
+        }
+
+        List<DatabaseObject> removed = new ArrayList<DatabaseObject>();
+        for (DatabaseObject example : examples.values()) {
+            DatabaseObject existing = super.get(example);
+            if (existing != null) {
+                removed.add(existing);
+                if (existing instanceof Relation) {
+                    removed.addAll(getContainedObjects(existing));
+                }
+            }
+        }
+        forget(removed);
+
+        List<DatabaseObject> refreshed = new ArrayList<DatabaseObject>();
+        for (DatabaseObject example : examples.values()) {
+            DatabaseObject object = include(example);
+            if (object != null) {
+                refreshed.add(object);
+            }
+        }
+
+        Map<DatabaseObject, DatabaseObject> replacements = new IdentityHashMap<DatabaseObject, DatabaseObject>();
+        for (DatabaseObject object : removed) {
+            replacements.put(object, super.get(object));
+        }
+        for (DatabaseObject object : getAllObjects()) {
+            for (String attribute : new ArrayList<String>(object.getAttributes())) {
+                Object value = object.getAttribute(attribute, Object.class);
+                Object newValue = replaceReferences(value, replacements);
+                if (newValue != value) {
+                    object.setAttribute(attribute, newValue);
+                }
+            }
+        }
+
+        //objects which did not exist before are not in their schema yet
+        for (DatabaseObject object : refreshed) {
+            Schema schema = object.getSchema();
+            if (schema != null && !(object instanceof Schema) && !containsInstance(schema.getDatabaseObjects(object.getClass()), object)) {
+                schema.addDatabaseObject(object);
+            }
+        }
+    }
+
+    /**
+     * Returns an example of the object to read again for the invalidated object, which is the table or view for the objects of a table or
+     * view, or null if the object is not part of this snapshot.
+     */
+    protected DatabaseObject createRefreshExample(DatabaseObject object) {
+        if (object == null || object instanceof Schema || object instanceof Catalog) {
+            return null;
+        }
+        DatabaseObject target = getRelation(object);
+        if (target == null) {
+            target = object;
+        }
+        if (target.getName() == null || !getSnapshotControl().shouldInclude(target.getClass())) {
+            return null;
+        }
+        Schema schema = findSchema(target.getSchema());
+        if (schema == null) {
+            return null;
+        }
+
+        try {
+            DatabaseObject example = target.getClass().newInstance();
+            example.setName(target.getName());
+            example.setAttribute("schema", schema);
+            return example;
+        } catch (Exception e) {
+            throw new UnexpectedLiquibaseException("Cannot create " + target.getClass().getName(), e);
+        }
+    }
+
+    /**
+     * Returns the table or view the object belongs to, the object itself if it is a table or view, or null if it belongs to none.
+     */
+    protected DatabaseObject getRelation(DatabaseObject object) {
+        if (object instanceof Relation) {
+            return object;
+        }
+        if (object instanceof Column) {
+            return ((Column) object).getRelation();
+        }
+        if (object instanceof ForeignKey) {
+            return ((ForeignKey) object).getForeignKeyTable();
+        }
+        Object table = object.getAttribute("table", Object.class);
+        if (table instanceof Relation) {
+            return (Relation) table;
+        }
+        return null;
+    }
+
+    private Schema findSchema(Schema schema) {
+        CatalogAndSchema catalogAndSchema;
+        if (schema == null) {
+            catalogAndSchema = new CatalogAndSchema(null, null);
+        } else {
+            catalogAndSchema = CatalogAndSchema.fromSchema(schema);
+        }
+        catalogAndSchema = catalogAndSchema.customize(getDatabase());
+        return super.get(new Schema(catalogAndSchema.getCatalogName(), catalogAndSchema.getSchemaName()));
+    }
+
+    private List<DatabaseObject> getContainedObjects(DatabaseObject relation) {
+        List<DatabaseObject> contained = new ArrayList<DatabaseObject>();
+        for (DatabaseObject object : getAllObjects()) {
+            if (object != relation && getRelation(object) == relation) {
+                contained.add(object);
+            }
+        }
+        return contained;
+    }
+
+    private List<DatabaseObject> getAllObjects() {
+        List<DatabaseObject> objects = new ArrayList<DatabaseObject>();
+        for (Class<? extends DatabaseObject> type : getSnapshotControl().getTypesToInclude()) {
+            objects.addAll(super.get(type));
+        }
+        return objects;
+    }
+
+    /**
+     * Returns the value with removed objects replaced by the objects read again, or the value itself if it contains no removed objects.
+     * Removed objects without a replacement are left out of collections and maps.
+     */
+    private Object replaceReferences(Object value, Map<DatabaseObject, DatabaseObject> replacements) {
+        if (value instanceof DatabaseObject) {
+            if (replacements.containsKey(value) && replacements.get(value) != null) {
+                return replacements.get(value);
+            }
+            return value;
+        }
+        if (value instanceof Collection) {
+            List<Object> newValues = new ArrayList<Object>();
+            boolean changed = false;
+            for (Object item : (Collection) value) {
+                Object newItem = replaceItem(item, replacements);
+                changed |= newItem != item;
+                if (newItem != null) {
+                    newValues.add(newItem);
+                }
+            }
+            if (!changed) {
+                return value;
+            }
+            Collection newCollection;
+            if (value instanceof List) {
+                newCollection = new ArrayList();
+            } else {
+                newCollection = newInstance(value, Collection.class);
+                if (newCollection == null) {
+                    newCollection = new HashSet();
+                }
+            }
+            newCollection.addAll(newValues);
+            return newCollection;
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> newMap = new LinkedHashMap<Object, Object>();
+            boolean changed = false;
+            for (Map.Entry entry : ((Map<?, ?>) value).entrySet()) {
+                Object newKey = replaceItem(entry.getKey(), replacements);
+                Object newValue = replaceItem(entry.getValue(), replacements);
+                changed |= newKey != entry.getKey() || newValue != entry.getValue();
+                if (newKey != null && (newValue != null || entry.getValue() == null)) {
+                    newMap.put(newKey, newValue);
+                }
+            }
+            if (!changed) {
+                return value;
+            }
+            Map map = newInstance(value, Map.class);
+            if (map == null) {
+                map = new HashMap();
+            }
+            map.putAll(newMap);
+            return map;
+        }
+        return value;
+    }
+
+    /**
+     * Like {@link #replaceReferences(Object, Map)}, but returns null for removed objects without a replacement.
+     */
+    private Object replaceItem(Object item, Map<DatabaseObject, DatabaseObject> replacements) {
+        if (item instanceof DatabaseObject && replacements.containsKey(item)) {
+            return replacements.get(item);
+        }
+        return replaceReferences(item, replacements);
+    }
+
+    private <T> T newInstance(Object value, Class<T> type) {
+        try {
+            return type.cast(value.getClass().newInstance());
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private boolean containsInstance(Collection<? extends DatabaseObject> objects, DatabaseObject object) {
+        for (DatabaseObject existing : objects) {
+            if (existing == object) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,31 @@
+package liquibase.snapshot;
+
+import java.util.Collection;
+
+import liquibase.database.Database;
+import liquibase.exception.DatabaseException;
+import liquibase.structure.DatabaseObject;
+
+/**
+ * A snapshot of objects which were read from a saved snapshot rather than from a database, so it can be compared without a connection.
+ * Including an object only looks it up among the restored objects.
+ *
+ * @see liquibase.serializer.core.binary.BinarySnapshotReader
+ */
+public class RestoredDatabaseSnapshot extends DatabaseSnapshot {
+
+    public RestoredDatabaseSnapshot(Database database, SnapshotControl snapshotControl, Collection<? extends DatabaseObject> objects) throws DatabaseException, InvalidExampleException {
+        super(new DatabaseObject[0], database, snapshotControl);
+        for (DatabaseObject object : objects) {
+            addRestored(object);
+        }
+    }
+
+    @Override
+    protected <T extends DatabaseObject> T include(T example) throws DatabaseException, InvalidExampleException {
+        if (example == null) {
+            return null;
+        }
+        return get(example);
+    }
+}
@@ -7,7 +7,6 @@ import liquibase.exception.DatabaseException;
 import liquibase.executor.jvm.ColumnMapRowMapper;
 import liquibase.executor.jvm.RowMapperResultSetExtractor;
 import liquibase.util.JdbcUtils;
-import liquibase.util.StringUtils;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -18,72 +17,180 @@ class ResultSetCache {
     private Map<String, Integer> timesSingleQueried = new HashMap<String, Integer>();
     private Map<String, Boolean> didBulkQuery = new HashMap<String, Boolean>();
 
-    private Map<String, Map<String, List<CachedRow>>> cacheBySchema = new HashMap<String, Map<String, List<CachedRow>>>();
+    private Map<String, SchemaRows> cacheBySchema = new HashMap<String, SchemaRows>();
 
     private Map<String, Object> info = new HashMap<String, Object>();
 
+    /**
+     * Returns the rows wanted by the extractor, fetching them if they are not cached. Can be called from several threads at once, the
+     * fetch itself is done without holding the lock, so different schemas can be fetched concurrently.
+     */
     public List<CachedRow> get(ResultSetExtractor resultSetExtractor) throws DatabaseException {
         try {
-            String wantedKey = resultSetExtractor.wantedKeyParameters().createParamsKey(resultSetExtractor.database);
+            String[] wantedKey = resultSetExtractor.wantedKeyParameters().createParamsKey(resultSetExtractor.database);
 
             String schemaKey = resultSetExtractor.wantedKeyParameters().createSchemaKey(resultSetExtractor.database);
 
-            Map<String, List<CachedRow>> cache = cacheBySchema.get(schemaKey);
-            if (cache == null ) {
-                cache = new HashMap<String, List<CachedRow>>();
-                cacheBySchema.put(schemaKey, cache);
-            }
+            boolean bulk;
+            synchronized (this) {
+                List<CachedRow> cached = getSchemaCache(schemaKey).get(wantedKey);
+                if (cached != null) {
+                    return cached;
+                }
 
-            if (cache.containsKey(wantedKey)) {
-                return cache.get(wantedKey);
-            }
+                if (didBulkQuery.containsKey(schemaKey) && didBulkQuery.get(schemaKey)) {
+                    return new ArrayList<CachedRow>();
+                }
 
-            if (didBulkQuery.containsKey(schemaKey) && didBulkQuery.get(schemaKey)) {
-                return new ArrayList<CachedRow>();
+                bulk = resultSetExtractor.shouldBulkSelect(schemaKey, this);
+                if (!bulk) {
+                    Integer previousCount = timesSingleQueried.get(schemaKey);
+                    if (previousCount == null) {
+                        previousCount = 0;
+                    }
+                    timesSingleQueried.put(schemaKey, previousCount+1);
+                }
             }
 
             List<CachedRow> results;
-            if (resultSetExtractor.shouldBulkSelect(schemaKey, this)) {
-                cache.clear(); //remove any existing single fetches that may be duplicated
+            if (bulk) {
                 results = resultSetExtractor.bulkFetch();
-                didBulkQuery.put(schemaKey, true);
             } else {
-                Integer previousCount = timesSingleQueried.get(schemaKey);
-                if (previousCount == null) {
-                    previousCount = 0;
-                }
-                timesSingleQueried.put(schemaKey, previousCount+1);
                 results = resultSetExtractor.fastFetch();
             }
 
-            for (CachedRow row : results) {
-                for (String rowKey : resultSetExtractor.rowKeyParameters(row).getKeyPermutations()) {
-                    if (!cache.containsKey(rowKey)) {
-                        cache.put(rowKey, new ArrayList<CachedRow>());
-                    }
-                    cache.get(rowKey).add(row);
+            synchronized (this) {
+                SchemaRows cache = getSchemaCache(schemaKey);
+                if (bulk) {
+                    cache.clear(); //remove any existing single fetches that may be duplicated
+                    didBulkQuery.put(schemaKey, true);
                 }
+
+                for (CachedRow row : results) {
+                    cache.add(row, resultSetExtractor.rowKeyParameters(row).createParamsKey(resultSetExtractor.database));
+                }
+
+                List<CachedRow> returnList = cache.get(wantedKey);
+                if (returnList == null) {
+                    returnList = new ArrayList<CachedRow>();
+                }
+                return returnList;
             }
+        } catch (SQLException e) {
+            throw new DatabaseException(e);
+        }
+    }
 
-            List<CachedRow> returnList = cache.get(wantedKey);
-            if (returnList == null) {
-                returnList = new ArrayList<CachedRow>();
+    /**
+     * Marks all rows of the given schema as cached, so rows which are not in the cache are known not to exist.
+     * Used after the rows of the whole schema were fetched.
+     */
+    public synchronized void setComplete(String schemaKey) {
+        didBulkQuery.put(schemaKey, true);
+    }
+
+    private SchemaRows getSchemaCache(String schemaKey) {
+        SchemaRows cache = cacheBySchema.get(schemaKey);
+        if (cache == null ) {
+            cache = new SchemaRows();
+            cacheBySchema.put(schemaKey, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * The cached rows of one schema. A lookup matches the rows whose key parameters equal the non-null wanted parameters, null parameters
+     * match any value. Rows are indexed by the combination of parameters a lookup uses, and each index is only built when such a lookup
+     * happens, so every row is stored once per used combination rather than once per possible combination.
+     */
+    private static class SchemaRows {
+        private final List<CachedRow> rows = new ArrayList<CachedRow>();
+        private final List<String[]> rowKeys = new ArrayList<String[]>();
+        private final Map<Integer, Map<RowKey, List<CachedRow>>> indexes = new HashMap<Integer, Map<RowKey, List<CachedRow>>>();
+
+        public void add(CachedRow row, String[] rowKey) {
+            rows.add(row);
+            rowKeys.add(rowKey);
+            for (Map.Entry<Integer, Map<RowKey, List<CachedRow>>> index : indexes.entrySet()) {
+                addToIndex(index.getValue(), index.getKey(), row, rowKey);
             }
-            return returnList;
+        }
 
+        /**
+         * Returns the matching rows, or null if no row matches.
+         */
+        public List<CachedRow> get(String[] wantedKey) {
+            int mask = 0;
+            for (int i = 0; i < wantedKey.length; i++) {
+                if (wantedKey[i] != null) {
+                    mask |= 1 << i;
+                }
+            }
+            if (mask == 0) {
+                return rows.isEmpty() ? null : rows;
+            }
 
+            Map<RowKey, List<CachedRow>> index = indexes.get(mask);
+            if (index == null) {
+                index = new HashMap<RowKey, List<CachedRow>>();
+                for (int i = 0; i < rows.size(); i++) {
+                    addToIndex(index, mask, rows.get(i), rowKeys.get(i));
+                }
+                indexes.put(mask, index);
+            }
+            return index.get(new RowKey(wantedKey, mask));
+        }
 
+        public void clear() {
+            rows.clear();
+            rowKeys.clear();
+            indexes.clear();
+        }
 
-        } catch (SQLException e) {
-            throw new DatabaseException(e);
+        private void addToIndex(Map<RowKey, List<CachedRow>> index, int mask, CachedRow row, String[] rowKey) {
+            RowKey key = new RowKey(rowKey, mask);
+            List<CachedRow> indexed = index.get(key);
+            if (indexed == null) {
+                indexed = new ArrayList<CachedRow>();
+                index.put(key, indexed);
+            }
+            indexed.add(row);
+        }
+    }
+
+    /**
+     * The key parameters selected by a mask, compared by value.
+     */
+    private static class RowKey {
+        private final String[] values;
+        private final int hashCode;
+
+        private RowKey(String[] key, int mask) {
+            values = new String[key.length];
+            for (int i = 0; i < key.length; i++) {
+                if ((mask & (1 << i)) != 0) {
+                    values[i] = key[i];
+                }
+            }
+            hashCode = Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof RowKey && Arrays.equals(values, ((RowKey) obj).values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
     }
 
-    public <T> T getInfo(String key, Class<T> type) {
+    public synchronized <T> T getInfo(String key, Class<T> type) {
         return (T) info.get(key);
     }
 
-    public void putInfo(String key, Object value) {
+    public synchronized void putInfo(String key, Object value) {
         info.put(key, value);
     }
 
@@ -93,8 +200,6 @@ class ResultSetCache {
         private String catalog;
         private String schema;
 
-        private String[] keyPermutations;
-
         protected RowData(String catalog, String schema, Database database, String... parameters) {
             this.database = database;
             this.catalog = catalog;
@@ -103,36 +208,6 @@ class ResultSetCache {
             this.parameters = parameters;
         }
 
-        public String[] getKeyPermutations() {
-            if (keyPermutations == null) {
-                this.keyPermutations = permutations(parameters);
-
-            }
-            return keyPermutations;
-        }
-
-        protected String[] permutations(String[] params) {
-            return permute(params, 0);
-        }
-
-        private String[] permute(String[] params, int fromIndex) {
-            String[] nullVersion = Arrays.copyOf(params, params.length);
-            nullVersion[fromIndex] = null;
-            if (params.length == fromIndex + 1) {
-                return new String[] {
-                        createKey(database, params),
-                        createKey(database, nullVersion)
-                };
-            } else {
-                List<String> permutations = new ArrayList<String>();
-
-                Collections.addAll(permutations, permute(params, fromIndex + 1));
-                Collections.addAll(permutations, permute(nullVersion, fromIndex + 1));
-
-                return permutations.toArray(new String[permutations.size()]);
-            }
-        }
-
         public String createSchemaKey(Database database) {
             if (!database.supportsCatalogs() && ! database.supportsSchemas()) {
                 return "all";
@@ -150,27 +225,44 @@ class ResultSetCache {
             }
         }
 
-        public String createKey(Database database, String... params) {
-            String key = StringUtils.join(params, ":");
-            if (!database.isCaseSensitive()) {
-                return key.toLowerCase();
+        /**
+         * Returns the parameters, lower case if the database is not case sensitive.
+         */
+        public String[] createParamsKey(Database database) {
+            if (database.isCaseSensitive()) {
+                return parameters;
+            }
+            String[] key = new String[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                key[i] = parameters[i] == null ? null : parameters[i].toLowerCase();
             }
             return key;
         }
-
-        public String createParamsKey(Database database) {
-            return createKey(database, parameters);
-        }
     }
 
     public abstract static class ResultSetExtractor {
 
         private final Database database;
+        private JdbcConnection connection;
 
         public ResultSetExtractor(Database database) {
             this.database = database;
         }
 
+        /**
+         * Connection used by {@link #executeAndExtract(String, Database)} instead of the connection of the database, if not null.
+         */
+        void setConnection(JdbcConnection connection) {
+            this.connection = connection;
+        }
+
+        /**
+         * The connection set by {@link #setConnection(JdbcConnection)}, or the connection of the database.
+         */
+        JdbcConnection getConnection() {
+            return connection == null ? (JdbcConnection) database.getConnection() : connection;
+        }
+
         boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
             return resultSetCache.getTimesSingleQueried(schemaKey) >= 3;
         }
@@ -182,7 +274,8 @@ class ResultSetCache {
             Statement statement = null;
             ResultSet resultSet = null;
             try {
-                statement = ((JdbcConnection) database.getConnection()).createStatement();
+                JdbcConnection jdbcConnection = connection == null ? (JdbcConnection) database.getConnection() : connection;
+                statement = jdbcConnection.createStatement();
                 resultSet = statement.executeQuery(sql);
                 return extract(resultSet);
             } finally {
@@ -260,7 +353,7 @@ class ResultSetCache {
         }
     }
 
-    private int getTimesSingleQueried(String schemaKey) {
+    private synchronized int getTimesSingleQueried(String schemaKey) {
         Integer integer = timesSingleQueried.get(schemaKey);
         if (integer == null) {
             return 0;
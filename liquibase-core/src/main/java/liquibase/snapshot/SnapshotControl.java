@@ -11,10 +11,15 @@ import liquibase.structure.core.DatabaseObjectFactory;
 
 import java.util.*;
 
+import javax.sql.DataSource;
+
 public class SnapshotControl implements LiquibaseSerializable {
 
     private Set<Class<? extends DatabaseObject>> types;
     private SnapshotListener snapshotListener;
+    private boolean prefetch;
+    private int threads = 1;
+    private DataSource dataSource;
 
     public SnapshotControl(Database database) {
         setTypes(DatabaseObjectFactory.getInstance().getStandardTypes(), database);
@@ -40,6 +45,49 @@ public class SnapshotControl implements LiquibaseSerializable {
         this.snapshotListener = snapshotListener;
     }
 
+    public boolean isPrefetch() {
+        return prefetch;
+    }
+
+    /**
+     * If true, the metadata of the snapshot schemas is fetched with one schema wide query per type before the snapshot is put together,
+     * rather than starting with queries per object. Use when most of the objects of the schemas will be included anyway. Defaults to false.
+     */
+    public SnapshotControl setPrefetch(boolean prefetch) {
+        this.prefetch = prefetch;
+        return this;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Number of threads fetching the metadata of tables, columns, keys and indexes of the snapshot schemas at the same time before
+     * the snapshot is put together, like {@link #setPrefetch(boolean)} does. Each thread uses its own connection from {@link #getDataSource()}.
+     * Defaults to 1.
+     */
+    public SnapshotControl setThreads(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("threads must be at least 1");
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    /**
+     * Source of the connections used to fetch metadata in parallel, see {@link #setThreads(int)}. The connections must be to the same database
+     * as the connection of the snapshot database.
+     */
+    public SnapshotControl setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+        return this;
+    }
+
     @Override
     public String getSerializedObjectName() {
         return "snapshotControl";
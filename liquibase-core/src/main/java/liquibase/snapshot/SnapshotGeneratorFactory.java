@@ -130,6 +130,21 @@ public class SnapshotGeneratorFactory {
         return new JdbcDatabaseSnapshot(examples, database, snapshotControl);
     }
 
+    /**
+     * Creates a snapshot of the given schemas which can be kept up to date as the database changes, see {@link RefreshableDatabaseSnapshot}.
+     */
+    public RefreshableDatabaseSnapshot createRefreshableSnapshot(CatalogAndSchema[] examples, Database database, SnapshotControl snapshotControl) throws DatabaseException, InvalidExampleException {
+        if (database.getConnection() instanceof OfflineConnection) {
+            throw new DatabaseException("Cannot snapshot offline database");
+        }
+        Schema[] schemas = new Schema[examples.length];
+        for (int i = 0; i< schemas.length; i++) {
+            examples[i] = examples[i].customize(database);
+            schemas[i] = new Schema(examples[i].getCatalogName(), examples[i].getSchemaName());
+        }
+        return new RefreshableDatabaseSnapshot(schemas, database, snapshotControl);
+    }
+
     public <T extends DatabaseObject> T createSnapshot(T example, Database database) throws DatabaseException, InvalidExampleException {
         return createSnapshot(example, database, new SnapshotControl(database));
     }
@@ -62,7 +62,7 @@ public class ColumnSnapshotGenerator extends JdbcSnapshotGenerator {
 
             if (columnMetadataRs.size() > 0) {
                 CachedRow data = columnMetadataRs.get(0);
-                Column column = readColumn(data, relation, database);
+                Column column = readColumn(data, relation, database, snapshot);
 
                 if (column != null && database instanceof MSSQLDatabase) {
                     List<String> remarks = ExecutorService.getInstance().getExecutor(snapshot.getDatabase()).queryForList(new RawSqlStatement("SELECT\n" +
@@ -120,6 +120,15 @@ public class ColumnSnapshotGenerator extends JdbcSnapshotGenerator {
     }
 
     protected Column readColumn(CachedRow columnMetadataResultSet, Relation table, Database database) throws SQLException, DatabaseException {
+        return readColumn(columnMetadataResultSet, table, database, null);
+    }
+
+    /**
+     * Reads the column from its metadata row. If the driver does not return IS_AUTOINCREMENT, auto increment columns are looked up
+     * through the metadata cache of the snapshot, which needs at most one query per table. Without a {@link JdbcDatabaseSnapshot}
+     * the column is probed by itself.
+     */
+    protected Column readColumn(CachedRow columnMetadataResultSet, Relation table, Database database, DatabaseSnapshot snapshot) throws SQLException, DatabaseException {
         String rawTableName = (String) columnMetadataResultSet.get("TABLE_NAME");
         String rawColumnName = (String) columnMetadataResultSet.get("COLUMN_NAME");
         String rawSchemaName = StringUtils.trimToNull((String) columnMetadataResultSet.get("TABLE_SCHEM"));
@@ -171,44 +180,19 @@ public class ColumnSnapshotGenerator extends JdbcSnapshotGenerator {
                     } else {
                         throw new UnexpectedLiquibaseException("Unknown is_autoincrement value: '" + isAutoincrement+"'");
                     }
-                } else {
-                    //probably older version of java, need to select from the column to find out if it is auto-increment
-                    String selectStatement;
-                    if (database.getDatabaseProductName().startsWith("DB2 UDB for AS/400")) {
-                        selectStatement = "select " + database.escapeColumnName(rawCatalogName, rawSchemaName, rawTableName, rawColumnName) + " from " + rawSchemaName + "." + rawTableName + " where 0=1";
-                        LogFactory.getLogger().debug("rawCatalogName : <" + rawCatalogName + ">");
-                        LogFactory.getLogger().debug("rawSchemaName : <" + rawSchemaName + ">");
-                        LogFactory.getLogger().debug("rawTableName : <" + rawTableName + ">");
-                        LogFactory.getLogger().debug("raw selectStatement : <" + selectStatement + ">");
-
-
-                    }
-                    else{
-                        selectStatement = "select " + database.escapeColumnName(rawCatalogName, rawSchemaName, rawTableName, rawColumnName) + " from " + database.escapeTableName(rawCatalogName, rawSchemaName, rawTableName) + " where 0=1";
+                } else if (snapshot instanceof JdbcDatabaseSnapshot) {
+                    //probably older version of java, need to select from the table to find out if it is auto-increment
+                    List<CachedRow> autoIncrementRows = ((JdbcDatabaseSnapshot) snapshot).getMetaData().getAutoIncrementColumns(rawCatalogName, rawSchemaName, rawTableName, rawColumnName);
+                    if (autoIncrementRows.size() > 0 && "YES".equals(autoIncrementRows.get(0).getString("IS_AUTOINCREMENT"))) {
+                        column.setAutoIncrementInformation(new Column.AutoIncrementInformation());
+                    } else {
+                        column.setAutoIncrementInformation(null);
                     }
-                    LogFactory.getLogger().debug("Checking "+rawTableName+"."+rawCatalogName+" for auto-increment with SQL: '"+selectStatement+"'");
-                    Connection underlyingConnection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
-                    Statement statement = null;
-                    ResultSet columnSelectRS = null;
-
-                    try {
-                        statement = underlyingConnection.createStatement();
-                        columnSelectRS = statement.executeQuery(selectStatement);
-                        if (columnSelectRS.getMetaData().isAutoIncrement(1)) {
-                            column.setAutoIncrementInformation(new Column.AutoIncrementInformation());
-                        } else {
-                            column.setAutoIncrementInformation(null);
-                        }
-                    } finally {
-                        try {
-                            if (statement != null) {
-                                statement.close();
-                            }
-                        } catch (SQLException ignore) {
-                        }
-                        if (columnSelectRS != null) {
-                            columnSelectRS.close();
-                        }
+                } else {
+                    if (isAutoIncrement(rawCatalogName, rawSchemaName, rawTableName, rawColumnName, database)) {
+                        column.setAutoIncrementInformation(new Column.AutoIncrementInformation());
+                    } else {
+                        column.setAutoIncrementInformation(null);
                     }
                 }
             }
@@ -222,6 +206,38 @@ public class ColumnSnapshotGenerator extends JdbcSnapshotGenerator {
         return column;
     }
 
+    /**
+     * Selects the column to find out if it is auto-increment.
+     */
+    protected boolean isAutoIncrement(String rawCatalogName, String rawSchemaName, String rawTableName, String rawColumnName, Database database) throws SQLException, DatabaseException {
+        String selectStatement;
+        if (database.getDatabaseProductName().startsWith("DB2 UDB for AS/400")) {
+            selectStatement = "select " + database.escapeColumnName(rawCatalogName, rawSchemaName, rawTableName, rawColumnName) + " from " + rawSchemaName + "." + rawTableName + " where 0=1";
+        } else {
+            selectStatement = "select " + database.escapeColumnName(rawCatalogName, rawSchemaName, rawTableName, rawColumnName) + " from " + database.escapeTableName(rawCatalogName, rawSchemaName, rawTableName) + " where 0=1";
+        }
+        LogFactory.getLogger().debug("Checking "+rawTableName+"."+rawColumnName+" for auto-increment with SQL: '"+selectStatement+"'");
+        Connection underlyingConnection = ((JdbcConnection) database.getConnection()).getUnderlyingConnection();
+        Statement statement = null;
+        ResultSet columnSelectRS = null;
+
+        try {
+            statement = underlyingConnection.createStatement();
+            columnSelectRS = statement.executeQuery(selectStatement);
+            return columnSelectRS.getMetaData().isAutoIncrement(1);
+        } finally {
+            try {
+                if (statement != null) {
+                    statement.close();
+                }
+            } catch (SQLException ignore) {
+            }
+            if (columnSelectRS != null) {
+                columnSelectRS.close();
+            }
+        }
+    }
+
     protected DataType readDataType(CachedRow columnMetadataResultSet, Column column, Database database) throws SQLException {
 
         if (database instanceof OracleDatabase) {
@@ -0,0 +1,11 @@
+package liquibase.sqlgenerator;
+
+/**
+ * Marker for SqlGenerators whose {@link SqlGenerator#supports(liquibase.statement.SqlStatement, liquibase.database.Database)} result depends on
+ * the content of the statement or on the state of the database (such as its version), not only on their classes.
+ * <p>
+ * {@link SqlGeneratorFactory} remembers which generators support a given statement class and database class. Generators implementing this interface
+ * are instead asked again for every statement.
+ */
+public interface DynamicSqlGenerator {
+}
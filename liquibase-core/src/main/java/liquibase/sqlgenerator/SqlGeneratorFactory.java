@@ -14,6 +14,9 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * SqlGeneratorFactory is a singleton registry of SqlGenerators.
@@ -24,12 +27,16 @@ public class SqlGeneratorFactory {
 
     private static SqlGeneratorFactory instance;
 
-    private List<SqlGenerator> generators = new ArrayList<SqlGenerator>();
+    private List<SqlGenerator> generators = new CopyOnWriteArrayList<SqlGenerator>();
 
     //caches for expensive reflection based calls that slow down Liquibase initialization: CORE-1207
-    private final Map<Class<?>, Type[]> genericInterfacesCache = new HashMap<Class<?>, Type[]>();
-    private final Map<Class<?>, Type> genericSuperClassCache = new HashMap<Class<?>, Type>();
-    private Map<String, SortedSet<SqlGenerator>> generatorsByKey = new HashMap<String, SortedSet<SqlGenerator>>();
+    private final Map<Class<?>, Type[]> genericInterfacesCache = Collections.synchronizedMap(new HashMap<Class<?>, Type[]>());
+    private final Map<Class<?>, Type> genericSuperClassCache = Collections.synchronizedMap(new HashMap<Class<?>, Type>());
+
+    /**
+     * Generators for each statement class and database class, so the generic types of all generators only need to be inspected once.
+     */
+    private final ConcurrentMap<DispatchKey, Dispatch> dispatchTable = new ConcurrentHashMap<DispatchKey, Dispatch>();
 
     private SqlGeneratorFactory() {
         Class[] classes;
@@ -49,24 +56,26 @@ public class SqlGeneratorFactory {
     /**
      * Return singleton SqlGeneratorFactory
      */
-    public static SqlGeneratorFactory getInstance() {
+    public static synchronized SqlGeneratorFactory getInstance() {
         if (instance == null) {
             instance = new SqlGeneratorFactory();
         }
         return instance;
     }
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = new SqlGeneratorFactory();
     }
 
 
     public void register(SqlGenerator generator) {
         generators.add(generator);
+        dispatchTable.clear();
     }
 
     public void unregister(SqlGenerator generator) {
         generators.remove(generator);
+        dispatchTable.clear();
     }
 
     public void unregister(Class generatorClass) {
@@ -86,36 +95,56 @@ public class SqlGeneratorFactory {
     }
 
     protected SortedSet<SqlGenerator> getGenerators(SqlStatement statement, Database database) {
-        String databaseName = null;
-        if (database == null) {
-            databaseName = "NULL";
-        } else {
-            databaseName = database.getShortName();
+        Dispatch dispatch = getDispatch(statement, database);
+        if (dispatch.dynamicGenerators.isEmpty()) {
+            return dispatch.generators;
         }
-        String key = statement.getClass().getName()+":"+ databaseName;
 
-        if (generatorsByKey.containsKey(key)) {
-            return generatorsByKey.get(key);
+        SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
+        validGenerators.addAll(dispatch.generators);
+        for (SqlGenerator generator : dispatch.dynamicGenerators) {
+            //noinspection unchecked
+            if (generator.supports(statement, database)) {
+                validGenerators.add(generator);
+            }
         }
+        return validGenerators;
+    }
 
+    private Dispatch getDispatch(SqlStatement statement, Database database) {
+        DispatchKey key = new DispatchKey(statement.getClass(), database == null ? null : database.getClass());
+        Dispatch dispatch = dispatchTable.get(key);
+        if (dispatch == null) {
+            dispatch = createDispatch(statement, database);
+            Dispatch existing = dispatchTable.putIfAbsent(key, dispatch);
+            if (existing != null) {
+                dispatch = existing;
+            }
+        }
+        return dispatch;
+    }
+
+    /**
+     * Finds the generators whose statement type matches the statement. The supports() result of a {@link DynamicSqlGenerator} depends on more than the
+     * statement and database classes, so those generators are kept aside and asked again for every statement.
+     */
+    private Dispatch createDispatch(SqlStatement statement, Database database) {
         SortedSet<SqlGenerator> validGenerators = new TreeSet<SqlGenerator>(new SqlGeneratorComparator());
+        List<SqlGenerator> dynamicGenerators = new ArrayList<SqlGenerator>();
 
         for (SqlGenerator generator : getGenerators()) {
             Class clazz = generator.getClass();
             Type classType = null;
             while (clazz != null) {
                 if (classType instanceof ParameterizedType) {
-                    checkType(classType, statement, generator, database, validGenerators);
+                    checkType(classType, statement, generator, database, validGenerators, dynamicGenerators);
                 }
 
                 for (Type type : getGenericInterfaces(clazz)) {
                     if (type instanceof ParameterizedType) {
-                        checkType(type, statement, generator, database, validGenerators);
+                        checkType(type, statement, generator, database, validGenerators, dynamicGenerators);
                     } else if (isTypeEqual(type, SqlGenerator.class)) {
-                        //noinspection unchecked
-                        if (generator.supports(statement, database)) {
-                            validGenerators.add(generator);
-                        }
+                        addIfSupported(generator, statement, database, validGenerators, dynamicGenerators);
                     }
                 }
                 classType = getGenericSuperclass(clazz);
@@ -123,8 +152,7 @@ public class SqlGeneratorFactory {
             }
         }
 
-        generatorsByKey.put(key, validGenerators);
-        return validGenerators;
+        return new Dispatch(Collections.unmodifiableSortedSet(validGenerators), dynamicGenerators);
     }
 
     private Type[] getGenericInterfaces(Class<?> clazz) {
@@ -154,7 +182,7 @@ public class SqlGeneratorFactory {
         return aType.equals(aClass);
     }
 
-    private void checkType(Type type, SqlStatement statement, SqlGenerator generator, Database database, SortedSet<SqlGenerator> validGenerators) {
+    private void checkType(Type type, SqlStatement statement, SqlGenerator generator, Database database, SortedSet<SqlGenerator> validGenerators, List<SqlGenerator> dynamicGenerators) {
         for (Type typeClass : ((ParameterizedType) type).getActualTypeArguments()) {
             if (typeClass instanceof TypeVariable) {
                 typeClass = ((TypeVariable) typeClass).getBounds()[0];
@@ -165,14 +193,25 @@ public class SqlGeneratorFactory {
             }
 
             if (((Class) typeClass).isAssignableFrom(statement.getClass())) {
-                if (generator.supports(statement, database)) {
-                    validGenerators.add(generator);
-                }
+                addIfSupported(generator, statement, database, validGenerators, dynamicGenerators);
             }
         }
 
     }
 
+    private void addIfSupported(SqlGenerator generator, SqlStatement statement, Database database, SortedSet<SqlGenerator> validGenerators, List<SqlGenerator> dynamicGenerators) {
+        if (generator instanceof DynamicSqlGenerator) {
+            if (!dynamicGenerators.contains(generator)) {
+                dynamicGenerators.add(generator);
+            }
+        } else {
+            //noinspection unchecked
+            if (generator.supports(statement, database)) {
+                validGenerators.add(generator);
+            }
+        }
+    }
+
     private SqlGeneratorChain createGeneratorChain(SqlStatement statement, Database database) {
         SortedSet<SqlGenerator> sqlGenerators = getGenerators(statement, database);
         if (sqlGenerators == null || sqlGenerators.size() == 0) {
@@ -230,6 +269,18 @@ public class SqlGeneratorFactory {
         return false;
     }
 
+    /**
+     * Returns the generator with the highest priority for the statement, which is the first one asked to generate its SQL, or null if no
+     * generator supports the statement.
+     */
+    public SqlGenerator getGenerator(SqlStatement statement, Database database) {
+        SortedSet<SqlGenerator> generators = getGenerators(statement, database);
+        if (generators.isEmpty()) {
+            return null;
+        }
+        return generators.first();
+    }
+
     public boolean supports(SqlStatement statement, Database database) {
         return getGenerators(statement, database).size() > 0;
     }
@@ -266,4 +317,38 @@ public class SqlGeneratorFactory {
 
     }
 
+    private static class DispatchKey {
+        private final Class statementClass;
+        private final Class databaseClass;
+
+        private DispatchKey(Class statementClass, Class databaseClass) {
+            this.statementClass = statementClass;
+            this.databaseClass = databaseClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DispatchKey)) {
+                return false;
+            }
+            DispatchKey other = (DispatchKey) o;
+            return statementClass.equals(other.statementClass)
+                    && (databaseClass == null ? other.databaseClass == null : databaseClass.equals(other.databaseClass));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * statementClass.hashCode() + (databaseClass == null ? 0 : databaseClass.hashCode());
+        }
+    }
+
+    private static class Dispatch {
+        private final SortedSet<SqlGenerator> generators;
+        private final List<SqlGenerator> dynamicGenerators;
+
+        private Dispatch(SortedSet<SqlGenerator> generators, List<SqlGenerator> dynamicGenerators) {
+            this.generators = generators;
+            this.dynamicGenerators = dynamicGenerators;
+        }
+    }
 }
@@ -6,6 +6,7 @@ import liquibase.exception.DatabaseException;
 import liquibase.exception.LiquibaseException;
 import liquibase.sql.Sql;
 import liquibase.sql.UnparsedSql;
+import liquibase.sqlgenerator.DynamicSqlGenerator;
 import liquibase.sqlgenerator.SqlGenerator;
 import liquibase.sqlgenerator.SqlGeneratorChain;
 import liquibase.statement.core.InsertOrUpdateStatement;
@@ -13,7 +14,7 @@ import liquibase.statement.core.InsertOrUpdateStatement;
 import org.kohsuke.MetaInfServices;
 
 @MetaInfServices(SqlGenerator.class)
-public class InsertOrUpdateGeneratorPostgres extends InsertOrUpdateGenerator {
+public class InsertOrUpdateGeneratorPostgres extends InsertOrUpdateGenerator implements DynamicSqlGenerator {
 	@Override
     public boolean supports(InsertOrUpdateStatement statement, Database database) {
 		if (database instanceof PostgresDatabase) {
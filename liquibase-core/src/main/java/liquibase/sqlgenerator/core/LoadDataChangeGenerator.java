@@ -0,0 +1,26 @@
+package liquibase.sqlgenerator.core;
+
+import liquibase.database.Database;
+import liquibase.exception.ValidationErrors;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGenerator;
+import liquibase.sqlgenerator.SqlGeneratorChain;
+import liquibase.statement.LoadDataExecutablePreparedStatement;
+
+import org.kohsuke.MetaInfServices;
+
+/**
+ * Dummy SQL generator for <code>LoadDataExecutablePreparedStatement</code><br>
+ */
+@MetaInfServices(SqlGenerator.class)
+public class LoadDataChangeGenerator extends AbstractSqlGenerator<LoadDataExecutablePreparedStatement> {
+    @Override
+    public ValidationErrors validate(LoadDataExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new ValidationErrors();
+    }
+
+    @Override
+    public Sql[] generateSql(LoadDataExecutablePreparedStatement statement, Database database, SqlGeneratorChain sqlGeneratorChain) {
+        return new Sql[0];
+    }
+}
@@ -0,0 +1,322 @@
+package liquibase.statement;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import liquibase.action.LoadDataAction;
+import liquibase.change.ColumnConfig;
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.core.OracleDatabase;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.exception.UnexpectedLiquibaseException;
+import liquibase.logging.LogFactory;
+import liquibase.logging.Logger;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.sqlgenerator.core.InsertGenerator;
+import liquibase.statement.core.InsertOrUpdateStatement;
+import liquibase.statement.core.InsertStatement;
+import liquibase.util.JdbcUtils;
+import liquibase.util.csv.CSVReader;
+
+/**
+ * Handles loadData and loadUpdateData execution by streaming the CSV file row by row and sending the rows to the database in JDBC batches,
+ * so memory use does not depend on the size of the file.
+ * <p>
+ * Plain inserts are bound to one reused <code>PreparedStatement</code>. Values which cannot be bound, such as computed values, are
+ * inlined into the SQL the same way {@link InsertGenerator} does, and the statement is only prepared again when that SQL changes.
+ * Values without a type in the CSV file are bound with the parameter types the driver reports, so databases which do not convert
+ * character parameters, like PostgreSQL, accept them for numeric and date columns as they accepted the literals of plain INSERTs.
+ * loadUpdateData generates database specific upserts, so its rows are added to a plain <code>Statement</code> batch as SQL.
+ */
+public class LoadDataExecutablePreparedStatement implements ExecutablePreparedStatement {
+
+    private Logger log = LogFactory.getLogger();
+
+    private final Database database;
+    private final LoadDataAction action;
+    private final int batchSize;
+    private final int commitInterval;
+
+    private final InsertGenerator insertGenerator = new InsertGenerator();
+
+    private PreparedStatement preparedStatement;
+    private String preparedSql;
+    private int[] parameterTypes;
+    private Statement statement;
+
+    private int batchRows;
+    private int uncommittedRows;
+    private int firstBatchLine;
+
+    public LoadDataExecutablePreparedStatement(Database database, LoadDataAction action, int batchSize, int commitInterval) {
+        this.database = database;
+        this.action = action;
+        this.batchSize = batchSize;
+        this.commitInterval = commitInterval;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        CSVReader reader = null;
+        int rows = 0;
+        try {
+            reader = action.getChange().getCSVReader();
+            if (reader == null) {
+                throw new UnexpectedLiquibaseException("Unable to read file " + action.getFile());
+            }
+
+            String[] headers = reader.readNext();
+            if (headers == null) {
+                throw new UnexpectedLiquibaseException("Data file " + action.getFile() + " was empty");
+            }
+
+            String[] line;
+            int lineNumber = 0;
+            while ((line = reader.readNext()) != null) {
+                lineNumber++;
+
+                InsertStatement row = action.createRowStatement(headers, line, lineNumber, database);
+                if (row == null) {
+                    continue;
+                }
+                if (batchRows == 0) {
+                    firstBatchLine = lineNumber;
+                }
+                if (row instanceof InsertOrUpdateStatement) {
+                    addSql(row);
+                } else {
+                    addParameters(factory, row, lineNumber);
+                }
+                rows++;
+                batchRows++;
+                if (batchRows >= batchSize) {
+                    executeBatch(lineNumber);
+                }
+            }
+            executeBatch(lineNumber);
+            log.debug("Loaded " + rows + " rows from " + action.getFile() + " in batches of " + batchSize);
+        } catch (IOException e) {
+            throw new DatabaseException("Error reading " + action.getFile() + ": " + e.getMessage(), e);
+        } catch (SQLException e) {
+            throw new DatabaseException("Error loading " + action.getFile() + ": " + e.getMessage(), e);
+        } finally {
+            JdbcUtils.closeStatement(preparedStatement);
+            JdbcUtils.closeStatement(statement);
+            preparedStatement = null;
+            preparedSql = null;
+            parameterTypes = null;
+            statement = null;
+            batchRows = 0;
+            uncommittedRows = 0;
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (IOException ignore) {
+                }
+            }
+        }
+    }
+
+    private void addSql(InsertStatement row) throws SQLException, DatabaseException {
+        if (statement == null) {
+            statement = ((JdbcConnection) database.getConnection()).createStatement();
+        }
+        Sql[] sqls = SqlGeneratorFactory.getInstance().generateSql(row, database);
+        for (Sql sql : sqls) {
+            if (sql == null) {
+                continue;
+            }
+            String sqlString = sql.toSql();
+            if (database instanceof OracleDatabase) {
+                sqlString = sqlString.replaceFirst("/\\s*/\\s*$", ""); //remove duplicated /'s
+            }
+            if (sqlString.contains("?")) {
+                statement.setEscapeProcessing(false);
+            }
+            statement.addBatch(sqlString);
+        }
+    }
+
+    private void addParameters(PreparedStatementFactory factory, InsertStatement row, int lineNumber) throws SQLException, DatabaseException {
+        List<Object> parameters = new ArrayList<Object>();
+        String sql = generateSql(row, parameters);
+        if (!sql.equals(preparedSql)) {
+            if (preparedStatement != null) {
+                executeBatch(lineNumber - 1);
+                firstBatchLine = lineNumber;
+                JdbcUtils.closeStatement(preparedStatement);
+            }
+            log.debug("Prepared statement: " + sql);
+            preparedStatement = factory.create(sql);
+            preparedSql = sql;
+            parameterTypes = null;
+        }
+        int i = 1;
+        for (Object parameter : parameters) {
+            applyParameter(preparedStatement, i++, parameter);
+        }
+        preparedStatement.addBatch();
+    }
+
+    private void executeBatch(int lastLine) throws DatabaseException {
+        if (batchRows == 0) {
+            return;
+        }
+        try {
+            if (preparedStatement != null) {
+                preparedStatement.executeBatch();
+            }
+            if (statement != null) {
+                statement.executeBatch();
+            }
+        } catch (SQLException e) {
+            SQLException cause = e.getNextException() == null ? e : e.getNextException();
+            throw new DatabaseException("Error loading lines " + firstBatchLine + " to " + lastLine + " of " + action.getFile() + ": " + cause.getMessage(), e);
+        }
+        uncommittedRows += batchRows;
+        batchRows = 0;
+        if (commitInterval > 0 && uncommittedRows >= commitInterval) {
+            database.commit();
+            uncommittedRows = 0;
+        }
+    }
+
+    /**
+     * Generates the INSERT for the given row with a placeholder for every value which can be bound and adds those values to parameters.
+     */
+    protected String generateSql(InsertStatement row, List<Object> parameters) {
+        StringBuilder sql = new StringBuilder("INSERT INTO ");
+        StringBuilder values = new StringBuilder(" VALUES (");
+        sql.append(database.escapeTableName(row.getCatalogName(), row.getSchemaName(), row.getTableName())).append(" (");
+        boolean first = true;
+        for (Map.Entry<String, Object> column : row.getColumnValues().entrySet()) {
+            if (!first) {
+                sql.append(", ");
+                values.append(", ");
+            }
+            first = false;
+            sql.append(database.escapeColumnName(row.getCatalogName(), row.getSchemaName(), row.getTableName(), column.getKey()));
+
+            Object value = column.getValue();
+            if (value instanceof DatabaseFunction) {
+                values.append(database.generateDatabaseFunctionValue((DatabaseFunction) value));
+            } else if (value instanceof String && !value.toString().equalsIgnoreCase("NULL") && insertGenerator.looksLikeFunctionCall((String) value, database)) {
+                values.append(value);
+            } else {
+                values.append("?");
+                parameters.add(value);
+            }
+        }
+        sql.append(")");
+        values.append(")");
+        return sql.append(values).toString();
+    }
+
+    private void applyParameter(PreparedStatement stmt, int i, Object value) throws SQLException {
+        if (value == null || value.toString().equalsIgnoreCase("NULL")) {
+            stmt.setNull(i, getParameterType(stmt, i));
+        } else if (value instanceof String) {
+            int type = getParameterType(stmt, i);
+            if (isCharacterType(type)) {
+                stmt.setString(i, (String) value);
+            } else {
+                stmt.setObject(i, value, type);
+            }
+        } else if (value instanceof Boolean) {
+            stmt.setBoolean(i, (Boolean) value);
+        } else if (value instanceof java.sql.Date) {
+            stmt.setDate(i, (java.sql.Date) value);
+        } else if (value instanceof java.sql.Time) {
+            stmt.setTime(i, (java.sql.Time) value);
+        } else if (value instanceof Date) {
+            stmt.setTimestamp(i, value instanceof Timestamp ? (Timestamp) value : new Timestamp(((Date) value).getTime()));
+        } else if (value instanceof Number) {
+            Number number = (Number) value;
+            if (number instanceof ColumnConfig.ValueNumeric) {
+                number = ((ColumnConfig.ValueNumeric) number).getDelegate();
+            }
+            if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+                stmt.setLong(i, number.longValue());
+            } else if (number instanceof BigDecimal) {
+                stmt.setBigDecimal(i, (BigDecimal) number);
+            } else {
+                stmt.setBigDecimal(i, new BigDecimal(number.toString()));
+            }
+        } else {
+            stmt.setObject(i, value);
+        }
+    }
+
+    /**
+     * Returns the SQL type of the parameter as reported by the driver, or VARCHAR if the driver cannot tell.
+     */
+    private int getParameterType(PreparedStatement stmt, int i) {
+        if (parameterTypes == null) {
+            parameterTypes = new int[0];
+            try {
+                ParameterMetaData metaData = stmt.getParameterMetaData();
+                if (metaData != null) {
+                    int[] types = new int[metaData.getParameterCount()];
+                    for (int j = 0; j < types.length; j++) {
+                        types[j] = metaData.getParameterType(j + 1);
+                    }
+                    parameterTypes = types;
+                }
+            } catch (SQLException e) {
+                log.debug("Parameter types of " + preparedSql + " are not available: " + e.getMessage());
+            } catch (RuntimeException e) {
+                log.debug("Parameter types of " + preparedSql + " are not available: " + e.getMessage());
+            }
+        }
+        if (i > parameterTypes.length || parameterTypes[i - 1] == Types.NULL) {
+            return Types.VARCHAR;
+        }
+        return parameterTypes[i - 1];
+    }
+
+    private boolean isCharacterType(int type) {
+        switch (type) {
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+            case Types.CLOB:
+            case Types.NCLOB:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Override
+    public boolean skipOnUnsupported() {
+        return false;
+    }
+
+    public LoadDataAction getAction() {
+        return action;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public int getCommitInterval() {
+        return commitInterval;
+    }
+}
@@ -0,0 +1,58 @@
+package liquibase.statement;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import liquibase.database.Database;
+import liquibase.database.PreparedStatementFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.DatabaseException;
+import liquibase.sql.Sql;
+import liquibase.sqlgenerator.SqlGeneratorFactory;
+import liquibase.util.JdbcUtils;
+
+/**
+ * Executes the SQL generated for the given statements as one JDBC batch, rather than with one round trip per statement.
+ * Only usable with a {@link JdbcConnection}, other executors should execute the statements one by one.
+ */
+public class SqlBatchStatement implements ExecutablePreparedStatement {
+
+    private final Database database;
+    private final List<? extends SqlStatement> statements;
+
+    public SqlBatchStatement(Database database, List<? extends SqlStatement> statements) {
+        this.database = database;
+        this.statements = statements;
+    }
+
+    public List<? extends SqlStatement> getStatements() {
+        return statements;
+    }
+
+    @Override
+    public void execute(PreparedStatementFactory factory) throws DatabaseException {
+        Statement statement = null;
+        try {
+            statement = ((JdbcConnection) database.getConnection()).createStatement();
+            for (SqlStatement sqlStatement : statements) {
+                for (Sql sql : SqlGeneratorFactory.getInstance().generateSql(sqlStatement, database)) {
+                    if (sql != null) {
+                        statement.addBatch(sql.toSql());
+                    }
+                }
+            }
+            statement.executeBatch();
+        } catch (SQLException e) {
+            SQLException cause = e.getNextException() == null ? e : e.getNextException();
+            throw new DatabaseException("Error executing batch of " + statements.size() + " statements: " + cause.getMessage(), e);
+        } finally {
+            JdbcUtils.closeStatement(statement);
+        }
+    }
+
+    @Override
+    public boolean skipOnUnsupported() {
+        return false;
+    }
+}
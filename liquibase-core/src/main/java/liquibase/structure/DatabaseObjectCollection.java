@@ -8,12 +8,19 @@ import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
 import liquibase.resource.ResourceAccessor;
 import liquibase.serializer.LiquibaseSerializable;
+import liquibase.structure.core.Catalog;
+import liquibase.structure.core.Schema;
 
 import java.util.*;
 
+/**
+ * The objects of a snapshot. Objects are indexed by type, and within a type by their container and name as the database compares them,
+ * so looking up an object by an example is a hash lookup in the common case. Examples which do not match by name, like indexes and
+ * foreign keys identified by their columns, are matched against the objects sharing a {@link DatabaseObjectComparatorFactory#hash} value.
+ */
 public class DatabaseObjectCollection implements LiquibaseSerializable {
 
-    private Map<Class<? extends DatabaseObject>, Map<String, Set<DatabaseObject>>> cache = new HashMap<Class<? extends DatabaseObject>, Map<String, Set<DatabaseObject>>>();
+    private Map<Class<? extends DatabaseObject>, TypeIndex> cache = new HashMap<Class<? extends DatabaseObject>, TypeIndex>();
     private Database database;
 
     public DatabaseObjectCollection(Database database) {
@@ -50,13 +57,11 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
     public Object getSerializableFieldValue(String field) {
         SortedSet<DatabaseObject> objects = new TreeSet<DatabaseObject>(new DatabaseObjectComparator());
         try {
-            Map<String, Set<DatabaseObject>> map = cache.get(Class.forName(field));
-            if (map == null) {
+            TypeIndex index = cache.get(Class.forName(field));
+            if (index == null) {
                 return null;
             }
-            for (Set<DatabaseObject> set : map.values()) {
-                objects.addAll(set);
-            }
+            objects.addAll(index.objects);
             return objects;
         } catch (ClassNotFoundException e) {
             throw new UnexpectedLiquibaseException(e);
@@ -72,21 +77,59 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
         if (databaseObject == null) {
             return;
         }
-        Map<String, Set<DatabaseObject>> collectionMap = cache.get(databaseObject.getClass());
-        if (collectionMap == null) {
-            collectionMap = new HashMap<String, Set<DatabaseObject>>();
-            cache.put(databaseObject.getClass(), collectionMap);
+        TypeIndex index = cache.get(databaseObject.getClass());
+        if (index == null) {
+            index = new TypeIndex();
+            cache.put(databaseObject.getClass(), index);
+        }
+
+        if (!index.objects.add(databaseObject)) {
+            return;
+        }
+        index.view = null;
+
+        ObjectKey key = createKey(databaseObject);
+        if (key != null) {
+            addTo(index.byName, key, databaseObject);
+        }
+        for (String hash : DatabaseObjectComparatorFactory.getInstance().hash(databaseObject, database)) {
+            addTo(index.byHash, hash, databaseObject);
         }
+    }
 
-        String[] hashes = DatabaseObjectComparatorFactory.getInstance().hash(databaseObject, database);
+    /**
+     * Removes the given object instances. Objects are matched by identity and the remaining objects are hashed again, as hash codes may
+     * have changed since the objects were added, so removing through the hash set could miss them.
+     */
+    public void remove(Collection<? extends DatabaseObject> databaseObjects) {
+        Map<DatabaseObject, Boolean> toRemove = new IdentityHashMap<DatabaseObject, Boolean>();
+        Set<Class<? extends DatabaseObject>> types = new HashSet<Class<? extends DatabaseObject>>();
+        for (DatabaseObject databaseObject : databaseObjects) {
+            toRemove.put(databaseObject, Boolean.TRUE);
+            types.add(databaseObject.getClass());
+        }
 
-        for (String hash : hashes) {
-            Set<DatabaseObject> collection = collectionMap.get(hash);
-            if (collection == null) {
-                collection = new HashSet<DatabaseObject>();
-                collectionMap.put(hash, collection);
+        for (Class<? extends DatabaseObject> type : types) {
+            TypeIndex index = cache.get(type);
+            if (index == null) {
+                continue;
+            }
+            Set<DatabaseObject> remaining = new HashSet<DatabaseObject>();
+            boolean removed = false;
+            for (DatabaseObject databaseObject : index.objects) {
+                if (toRemove.containsKey(databaseObject)) {
+                    removed = true;
+                } else {
+                    remaining.add(databaseObject);
+                }
+            }
+            if (!removed) {
+                continue;
             }
-            collection.add(databaseObject);
+            index.objects = remaining;
+            index.view = null;
+            removeFrom(index.byName, toRemove);
+            removeFrom(index.byHash, toRemove);
         }
     }
 
@@ -94,35 +137,51 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
      * Returns the object described by the passed example if it is already included in this snapshot.
      */
     public <DatabaseObjectType extends DatabaseObject> DatabaseObjectType get(DatabaseObjectType example) {
-        Map<String, Set<DatabaseObject>> databaseObjectsByHash = cache.get(example.getClass());
+        TypeIndex index = cache.get(example.getClass());
 
-        if (databaseObjectsByHash == null) {
+        if (index == null) {
             return null;
         }
 
-        String[] hashes = DatabaseObjectComparatorFactory.getInstance().hash(example, database);
-
-        SortedSet<Set<DatabaseObject>> objectSets = new TreeSet<Set<DatabaseObject>>(new Comparator<Set<DatabaseObject>>() {
-            @Override
-            public int compare(Set<DatabaseObject> o1, Set<DatabaseObject> o2) {
-                int sizeComparison = Integer.valueOf(o1.size()).compareTo(o2.size());
-                if (sizeComparison == 0) {
-                    return o1.toString().compareTo(o2.toString());
+        DatabaseObjectComparatorFactory comparatorFactory = DatabaseObjectComparatorFactory.getInstance();
+
+        List<DatabaseObject> sameName = null;
+        ObjectKey key = createKey(example);
+        if (key != null) {
+            sameName = index.byName.get(key);
+            if (sameName != null) {
+                for (DatabaseObject obj : sameName) {
+                    if (comparatorFactory.isSameObject(obj, example, database)) {
+                        //noinspection unchecked
+                        return (DatabaseObjectType) obj;
+                    }
                 }
-                return sizeComparison;
             }
-        } );
+        }
 
-        for (String hash : hashes) {
-            Set<DatabaseObject> databaseObjects = databaseObjectsByHash.get(hash);
-            if (databaseObjects != null) {
-                objectSets.add(databaseObjects);
+        List<List<DatabaseObject>> candidates = new ArrayList<List<DatabaseObject>>();
+        for (String hash : comparatorFactory.hash(example, database)) {
+            List<DatabaseObject> databaseObjects = index.byHash.get(hash);
+            if (databaseObjects != null && !candidates.contains(databaseObjects)) {
+                candidates.add(databaseObjects);
             }
         }
+        if (candidates.size() > 1) {
+            //check the most specific hash first
+            Collections.sort(candidates, new Comparator<List<DatabaseObject>>() {
+                @Override
+                public int compare(List<DatabaseObject> o1, List<DatabaseObject> o2) {
+                    return Integer.valueOf(o1.size()).compareTo(o2.size());
+                }
+            });
+        }
 
-        for (Set<DatabaseObject> databaseObjects : objectSets) {
+        for (List<DatabaseObject> databaseObjects : candidates) {
             for (DatabaseObject obj : databaseObjects) {
-                if (DatabaseObjectComparatorFactory.getInstance().isSameObject(obj, example, database)) {
+                if (sameName != null && sameName.contains(obj)) {
+                    continue;
+                }
+                if (comparatorFactory.isSameObject(obj, example, database)) {
                     //noinspection unchecked
                     return (DatabaseObjectType) obj;
                 }
@@ -134,24 +193,108 @@ public class DatabaseObjectCollection implements LiquibaseSerializable {
 
     /**
      * Returns all objects of the given type that are already included in this snapshot.
+     * The returned set is shared between calls until another object of the type is added.
      */
     public <DatabaseObjectType extends  DatabaseObject> Set<DatabaseObjectType> get(Class<DatabaseObjectType> type) {
+        TypeIndex index = cache.get(type);
+        if (index == null) {
+            return Collections.emptySet();
+        }
+        if (index.view == null) {
+            index.view = Collections.unmodifiableSet(new HashSet<DatabaseObject>(index.objects));
+        }
+
+        return (Set<DatabaseObjectType>) index.view;
+    }
+
+
+    public boolean contains(DatabaseObject wantedObject) {
+        return get(wantedObject) != null;
+    }
+
+    /**
+     * Returns the name key of the object, or null if it has no name. The name is corrected and compared the way
+     * {@link liquibase.diff.compare.core.DefaultDatabaseObjectComparator#nameMatches} does. The container is only part of the key if it
+     * is a single object other than a schema or catalog, because examples often leave the schema unset.
+     */
+    private ObjectKey createKey(DatabaseObject databaseObject) {
+        String name = normalize(databaseObject.getName(), databaseObject.getClass());
+        if (name == null) {
+            return null;
+        }
+
+        String container = null;
+        DatabaseObject[] containingObjects = databaseObject.getContainingObjects();
+        if (containingObjects != null && containingObjects.length == 1 && containingObjects[0] != null
+                && !(containingObjects[0] instanceof Schema) && !(containingObjects[0] instanceof Catalog)) {
+            container = normalize(containingObjects[0].getName(), containingObjects[0].getClass());
+        }
+        return new ObjectKey(container, name);
+    }
 
-        Set<DatabaseObject> returnSet = new HashSet<DatabaseObject>();
+    private String normalize(String name, Class<? extends DatabaseObject> type) {
+        name = database.correctObjectName(name, type);
+        if (name == null || database.isCaseSensitive()) {
+            return name;
+        }
+        return name.toLowerCase();
+    }
+
+    private static <K> void addTo(Map<K, List<DatabaseObject>> map, K key, DatabaseObject databaseObject) {
+        List<DatabaseObject> objects = map.get(key);
+        if (objects == null) {
+            objects = new ArrayList<DatabaseObject>(1);
+            map.put(key, objects);
+        }
+        objects.add(databaseObject);
+    }
 
-        Map<String, Set<DatabaseObject>> allFound = cache.get(type);
-        if (allFound != null) {
-            for (Set<DatabaseObject> objects : allFound.values()) {
-                returnSet.addAll(objects);
+    private static <K> void removeFrom(Map<K, List<DatabaseObject>> map, Map<DatabaseObject, Boolean> toRemove) {
+        for (Iterator<List<DatabaseObject>> lists = map.values().iterator(); lists.hasNext(); ) {
+            List<DatabaseObject> objects = lists.next();
+            for (Iterator<DatabaseObject> iterator = objects.iterator(); iterator.hasNext(); ) {
+                if (toRemove.containsKey(iterator.next())) {
+                    iterator.remove();
+                }
+            }
+            if (objects.isEmpty()) {
+                lists.remove();
             }
         }
+    }
 
-        return (Set<DatabaseObjectType>) Collections.unmodifiableSet(returnSet);
+    /**
+     * The objects of one type.
+     */
+    private static class TypeIndex {
+        private Set<DatabaseObject> objects = new HashSet<DatabaseObject>();
+        private final Map<ObjectKey, List<DatabaseObject>> byName = new HashMap<ObjectKey, List<DatabaseObject>>();
+        private final Map<String, List<DatabaseObject>> byHash = new HashMap<String, List<DatabaseObject>>();
+        private Set<DatabaseObject> view;
     }
 
+    private static class ObjectKey {
+        private final String container;
+        private final String name;
 
-    public boolean contains(DatabaseObject wantedObject) {
-        return get(wantedObject) != null;
+        private ObjectKey(String container, String name) {
+            this.container = container;
+            this.name = name;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof ObjectKey)) {
+                return false;
+            }
+            ObjectKey other = (ObjectKey) obj;
+            return name.equals(other.name) && (container == null ? other.container == null : container.equals(other.container));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * name.hashCode() + (container == null ? 0 : container.hashCode());
+        }
     }
 
     @Override
@@ -1,21 +1,30 @@
 package liquibase.change.core
 
 import liquibase.action.LoadDataAction
+import liquibase.action.LoadDataConfiguration
 import liquibase.action.LoadUpdateDataAction
 import liquibase.change.ChangeStatus
 import liquibase.change.StandardChangeTest
 import liquibase.changelog.ChangeSet
 import liquibase.changelog.ChangeSetImpl
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.ExecutorService
 import liquibase.parser.core.ParsedNodeException
 import liquibase.resource.ClassLoaderResourceAccessor
 import liquibase.sdk.database.MockDatabase
 import liquibase.snapshot.MockSnapshotGeneratorFactory
 import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.statement.LoadDataExecutablePreparedStatement
 import liquibase.statement.SqlStatement
 import liquibase.statement.core.InsertStatement
+import liquibase.statement.core.RawSqlStatement
 import liquibase.test.JUnitResourceAccessor
 import spock.lang.Unroll
 
+import java.sql.DriverManager
+
 public class LoadDataChangeTest extends StandardChangeTest {
 
 
@@ -216,4 +225,62 @@ public class LoadDataChangeTest extends StandardChangeTest {
         assert nonRelativeStatements != null
         assert relativeStatements.size() == nonRelativeStatements.size()
     }
+
+    def "batched loadData streams rows into the database"() throws Exception {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(LoadDataConfiguration.class).setBatchSize(1)
+        def connection = new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:loadDataBatch", "sa", ""))
+        def database = new H2Database()
+        database.setConnection(connection)
+        database.execute([new RawSqlStatement("create table table_name (name varchar(50), username varchar(50))")] as SqlStatement[], null)
+
+        LoadDataAction change = new LoadDataAction()
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data1.csv")
+        change.setResourceAccessor(new ClassLoaderResourceAccessor())
+
+        def mockStatements = change.generateStatements(new MockDatabase())
+        def statements = change.generateStatements(database)
+        database.executeStatements(change, null, null)
+        def names = ExecutorService.getInstance().getExecutor(database).queryForList(new RawSqlStatement("select name from table_name order by name"), String.class)
+
+        then:
+        mockStatements.length == 2
+        mockStatements[0] instanceof InsertStatement
+        statements.length == 1
+        statements[0] instanceof LoadDataExecutablePreparedStatement
+        names == ["Bob Johnson", "John Doe"]
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().reset()
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+    }
+
+    def "batched loadData binds untyped values and nulls by column type"() throws Exception {
+        when:
+        def connection = new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:loadDataTypes", "sa", ""))
+        def database = new H2Database()
+        database.setConnection(connection)
+        database.execute([new RawSqlStatement("create table table_name (name varchar(50), security_level int, last_login date)")] as SqlStatement[], null)
+
+        LoadDataAction change = new LoadDataAction()
+        change.setTableName("TABLE_NAME")
+        change.setFile("liquibase/change/core/sample.data3.csv")
+        change.setResourceAccessor(new ClassLoaderResourceAccessor())
+
+        database.executeStatements(change, null, null)
+        def rows = ExecutorService.getInstance().getExecutor(database).queryForList(new RawSqlStatement("select name, security_level, last_login from table_name order by name"))
+
+        then:
+        rows.size() == 2
+        rows[0].SECURITY_LEVEL == 2
+        rows[0].LAST_LOGIN.toString() == "2008-03-02"
+        rows[1].SECURITY_LEVEL == null
+        rows[1].LAST_LOGIN == null
+
+        cleanup:
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+    }
 }
@@ -3,11 +3,15 @@ package liquibase.change.core
 import liquibase.action.RawSQLAction
 import liquibase.change.ChangeStatus
 import liquibase.change.StandardChangeTest
+import liquibase.database.core.H2Database
+import liquibase.database.core.MySQLDatabase
+import liquibase.database.core.PostgresDatabase
 import liquibase.exception.SetupException
 import liquibase.parser.core.ParsedNodeException
 import liquibase.sdk.database.MockDatabase
 import liquibase.snapshot.MockSnapshotGeneratorFactory
 import liquibase.snapshot.SnapshotGeneratorFactory
+import spock.lang.Unroll
 
 public class RawSQLChangeTest extends StandardChangeTest {
 
@@ -68,4 +72,19 @@ public class RawSQLChangeTest extends StandardChangeTest {
 
     }
 
-}
\ No newline at end of file
+    @Unroll
+    def "backslash escapes are only recognized by databases using them"() {
+        when:
+        def change = new RawSQLAction(sql)
+
+        then:
+        change.generateStatements(database)*.sql == expected
+
+        where:
+        database               | sql                                       | expected
+        new MySQLDatabase()    | "insert into t values ('it\\'s;\n');\nselect 2" | ["insert into t values ('it\\'s;\n')", "select 2"]
+        new PostgresDatabase() | "insert into t values (E'it\\'s;\n');\nselect 2" | ["insert into t values (E'it\\'s;\n')", "select 2"]
+        new PostgresDatabase() | "insert into t values ('c:\\');\nselect 2" | ["insert into t values ('c:\\')", "select 2"]
+        new H2Database()       | "insert into t values ('c:\\');\nselect 2" | ["insert into t values ('c:\\')", "select 2"]
+    }
+}
@@ -0,0 +1,139 @@
+package liquibase.changelog
+
+import liquibase.Contexts
+import liquibase.LabelExpression
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.ExecutorService
+import liquibase.resource.FileSystemResourceAccessor
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class ChangeLogFingerprintTest extends Specification {
+
+    Connection connection
+    Database database
+    File dir
+    File changeLogFile
+    FileSystemResourceAccessor resourceAccessor
+
+    def setup() {
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogFingerprintConfiguration.class).setEnabled(true)
+        connection = DriverManager.getConnection("jdbc:h2:mem:fingerprint;DB_CLOSE_DELAY=-1", "sa", "")
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+        dir = File.createTempFile("fingerprint", "")
+        dir.delete()
+        dir.mkdirs()
+        changeLogFile = new File(dir, "changelog.sql")
+        changeLogFile.text = "--liquibase formatted sql\n\n--changeset test:1\ncreate table t1 (id int);\n"
+        resourceAccessor = new FileSystemResourceAccessor(dir.absolutePath)
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init()
+    }
+
+    def cleanup() {
+        LiquibaseConfiguration.getInstance().reset()
+        ChangeLogHistoryServiceFactory.getInstance().resetAll()
+        ExecutorService.getInstance().clearExecutor(database)
+        connection.createStatement().execute("drop all objects")
+        connection.close()
+        dir.deleteDir()
+    }
+
+    def "database is up to date until a changelog file or the history changes"() {
+        when:
+        def changeLog = changeLog(false)
+        save(changeLog, true)
+        def afterSave = isUpToDate()
+        new File(dir, "included.sql").append("\n--changeset test:3\ncreate table t3 (id int);\n")
+        def afterChange = isUpToDate()
+        save(changeLog, true)
+        def afterSecondSave = isUpToDate()
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).setExecType(changeLog.changeSets[0], ChangeSet.ExecType.EXECUTED)
+        def afterHistoryChange = isUpToDate()
+
+        then:
+        afterSave
+        !afterChange
+        afterSecondSave
+        !afterHistoryChange
+        rows() == ["#history", "changelog.sql", "included.sql"]
+    }
+
+    def "changelogs with runAlways change sets or pending change sets are not saved as up to date"() {
+        when:
+        save(changeLog(false), true)
+        def afterSave = isUpToDate()
+        save(changeLog(true), true)
+        def afterRunAlways = isUpToDate()
+        save(changeLog(false), true)
+        save(changeLog(false), false)
+
+        then:
+        afterSave
+        !afterRunAlways
+        !isUpToDate()
+        rows() == []
+    }
+
+    def "changelogs with files which cannot be read are not saved as up to date"() {
+        when:
+        save(changeLog(false), true)
+        def afterSave = isUpToDate()
+        def changeLog = changeLog(false)
+        changeLog.addIncludedChangeLog(new DatabaseChangeLogImpl("classpath:missing.sql"))
+        save(changeLog, true)
+
+        then:
+        afterSave
+        !isUpToDate()
+        rows() == []
+    }
+
+    def "failures to save the fingerprint do not fail the update"() {
+        when:
+        connection.createStatement().execute("create table DATABASECHANGELOGSTATE (ID varchar(32), FILENAME varchar(5), MD5SUM varchar(35))")
+        connection.commit()
+        save(changeLog(false), true)
+
+        then:
+        notThrown(Exception)
+        !isUpToDate()
+        rows() == []
+    }
+
+    def "up to date check fails without the state table"() {
+        expect:
+        !isUpToDate()
+    }
+
+    private DatabaseChangeLogImpl changeLog(boolean alwaysRun) {
+        def changeLog = new DatabaseChangeLogImpl("changelog.sql")
+        changeLog.addChangeSet(new ChangeSetImpl("1", "test", alwaysRun, false, "changelog.sql", null, null, changeLog))
+        new File(dir, "included.sql").with { if (!exists()) text = "--liquibase formatted sql\n\n--changeset test:2\ncreate table t2 (id int);\n" }
+        def included = new DatabaseChangeLogImpl("included.sql")
+        included.addChangeSet(new ChangeSetImpl("2", "test", false, false, "included.sql", null, null, included))
+        changeLog.addIncludedChangeLog(included)
+        return changeLog
+    }
+
+    private void save(DatabaseChangeLogImpl changeLog, boolean upToDate) {
+        new ChangeLogFingerprint(database, resourceAccessor).save("changelog.sql", changeLog, new Contexts(), new LabelExpression(), upToDate)
+    }
+
+    private boolean isUpToDate() {
+        return new ChangeLogFingerprint(database, resourceAccessor).isUpToDate("changelog.sql", new Contexts(), new LabelExpression())
+    }
+
+    private List<String> rows() {
+        def resultSet = connection.createStatement().executeQuery("select FILENAME from DATABASECHANGELOGSTATE order by FILENAME")
+        def rows = []
+        while (resultSet.next()) {
+            rows.add(resultSet.getString(1))
+        }
+        return rows
+    }
+}
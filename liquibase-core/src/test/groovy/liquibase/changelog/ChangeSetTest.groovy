@@ -72,6 +72,32 @@ public class ChangeSetTest extends Specification {
         assert !md5Sum1.equals(md5Sum2);
     }
 
+    def "generateCheckSum is remembered until the changeSet changes"() {
+        when:
+        def changeSet = new ChangeSetImpl("testId", "testAuthor", false, false, null, null, null, null);
+        def change = new AddDefaultValueChange();
+        change.setTableName("TABLE_NAME");
+        change.setColumnName("COLUMN_NAME");
+        change.setDefaultValue("DEF STRING");
+        changeSet.addChange(change);
+
+        CheckSum original = changeSet.generateCheckSum();
+
+        change.setTableName("TABLE_NAME2");
+        CheckSum remembered = changeSet.generateCheckSum();
+
+        changeSet.resetCheckSum();
+        CheckSum afterReset = changeSet.generateCheckSum();
+
+        changeSet.addSqlVisitor(new ReplaceSqlVisitor(replace: "a", with: "b"));
+        CheckSum afterAddingVisitor = changeSet.generateCheckSum();
+
+        then:
+        remembered.is(original)
+        afterReset != original
+        afterAddingVisitor != afterReset
+    }
+
     def isCheckSumValid_validCheckSum() {
         when:
         def changeSet = new ChangeSetImpl("1", "2", false, false, "/test.xml", null, null, null);
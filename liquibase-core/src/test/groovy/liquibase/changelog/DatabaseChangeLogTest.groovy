@@ -1,6 +1,10 @@
 package liquibase.changelog
 
 import liquibase.change.core.RawSQLChange
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.parser.ChangeLogParserConfiguration
+import liquibase.parser.ParsedNodeCache
+import liquibase.parser.core.xml.XMLChangeLogSAXParser
 import liquibase.parser.core.ParsedNode
 import liquibase.precondition.core.OrPrecondition
 import liquibase.precondition.core.RunningAsPrecondition
@@ -204,4 +208,42 @@ create view sql_view as select * from sql_table;'''
                                                               "com/example/children/file3.sql" ]
     }
 
+    def "includeAll with several threads loads files in order"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserConfiguration.class).setIncludeAllThreads(4)
+        def files = [:]
+        for (int i = 0; i < 10; i++) {
+            files["com/example/children/file" + i + ".xml"] = test1Xml.replace("person", "table_\${prefix}" + i)
+        }
+        files["com/example/children/file0.xml"] = files["com/example/children/file0.xml"].replace("<preConditions>", "<property name=\"prefix\" value=\"x\"/><preConditions>")
+        files["com/example/children/file5.sql"] = "file 5"
+        def resourceAccessor = new MockResourceAccessor(files)
+        def changeLogFile = new DatabaseChangeLogImpl("com/example/root.xml")
+        changeLogFile.setChangeLogParameters(new ChangeLogParametersImpl())
+        changeLogFile.includeAll("com/example/children", false, null, changeLogFile.getStandardChangeLogComparator(), resourceAccessor)
+
+        then:
+        def expectedPaths = (0..9).collect { "com/example/children/file" + it + ".xml" }
+        expectedPaths.add(5, "com/example/children/file5.sql")
+        changeLogFile.changeSets.collect { it.filePath } == expectedPaths
+        changeLogFile.changeSets.findAll { it.filePath.endsWith(".xml") }.collect { it.changes[0].tableName } == (0..9).collect { "table_x" + it }
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().reset()
+    }
+
+    def "parsed changelog cache reuses unchanged files"() {
+        when:
+        def cache = new ParsedNodeCache(true)
+        def node = new XMLChangeLogSAXParser().parseToNode("com/example/test1.xml", new MockResourceAccessor(["com/example/test1.xml": test1Xml]))
+        cache.put("com/example/test1.xml", "hash1", node)
+        def cached = cache.get("com/example/test1.xml", "hash1")
+        cached.getChild(null, "changeSet").removeChild(null, "createTable")
+
+        then:
+        cached == node.copy().with { getChild(null, "changeSet").removeChild(null, "createTable"); it }
+        cache.get("com/example/test1.xml", "hash1") == node
+        cache.get("com/example/test1.xml", "hash2") == null
+        new ParsedNodeCache(false).with { put("com/example/test1.xml", "hash1", node); get("com/example/test1.xml", "hash1") } == null
+    }
 }
@@ -0,0 +1,99 @@
+package liquibase.changelog
+
+import liquibase.action.InsertDataAction
+import liquibase.action.RawSQLAction
+import liquibase.change.ColumnConfig
+import liquibase.changelog.visitor.UpdateVisitor
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.exception.MigrationFailedException
+import liquibase.executor.ExecutorService
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class GroupCommitServiceTest extends Specification {
+
+    Connection connection
+    Database database
+    DatabaseChangeLog changeLog = new DatabaseChangeLogImpl("changelog.xml")
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:groupcommit;DB_CLOSE_DELAY=-1", "sa", "")
+        connection.createStatement().execute("create table ref (id int primary key)")
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init()
+    }
+
+    def cleanup() {
+        GroupCommitService.getInstance().reset()
+        ChangeLogHistoryServiceFactory.getInstance().resetAll()
+        ExecutorService.getInstance().clearExecutor(database)
+        connection.rollback()
+        connection.createStatement().execute("drop all objects")
+        connection.close()
+    }
+
+    def "a failing change set rolls back only the change sets of its group"() {
+        when:
+        def visitor = new UpdateVisitor(database).setGroupCommit(2, Long.MAX_VALUE)
+        visitor.visit(insert("1", 1), changeLog, database, null)
+        def openAfterFirst = GroupCommitService.getInstance().isOpen(database)
+        visitor.visit(insert("2", 2), changeLog, database, null)
+        def openAfterSecond = GroupCommitService.getInstance().isOpen(database)
+        visitor.visit(insert("3", 3), changeLog, database, null)
+        visitor.visit(insert("4", 1), changeLog, database, null)
+
+        then:
+        thrown(MigrationFailedException)
+        openAfterFirst
+        !openAfterSecond
+        !GroupCommitService.getInstance().isOpen(database)
+        ids("select id from ref order by id") == ["1", "2"]
+        ids("select id from databasechangelog order by orderexecuted") == ["1", "2"]
+    }
+
+    def "change sets which are not data changes commit the current group and run on their own"() {
+        when:
+        def visitor = new UpdateVisitor(database).setGroupCommit(10, Long.MAX_VALUE)
+        visitor.visit(insert("1", 1), changeLog, database, null)
+        def ddl = changeSet("2")
+        ddl.addChange(new RawSQLAction("create table other (id int)"))
+        visitor.visit(ddl, changeLog, database, null)
+        def openAfterDdl = GroupCommitService.getInstance().isOpen(database)
+        visitor.visit(insert("3", 3), changeLog, database, null)
+        def openAfterThird = GroupCommitService.getInstance().isOpen(database)
+        visitor.commitGroup()
+        connection.rollback()
+
+        then:
+        !openAfterDdl
+        openAfterThird
+        ids("select id from ref order by id") == ["1", "3"]
+        ids("select id from databasechangelog order by orderexecuted") == ["1", "2", "3"]
+    }
+
+    private ExecutableChangeSet insert(String id, int value) {
+        def changeSet = changeSet(id)
+        def change = new InsertDataAction()
+        change.tableName = "ref"
+        change.addColumn(new ColumnConfig().setName("id").setValueNumeric(value))
+        changeSet.addChange(change)
+        return changeSet
+    }
+
+    private ExecutableChangeSet changeSet(String id) {
+        return new ExecutableChangeSetImpl(id, "test", false, false, "changelog.xml", null, null, changeLog)
+    }
+
+    private List<String> ids(String sql) {
+        def resultSet = connection.createStatement().executeQuery(sql)
+        def ids = []
+        while (resultSet.next()) {
+            ids.add(resultSet.getString(1))
+        }
+        return ids
+    }
+}
@@ -0,0 +1,70 @@
+package liquibase.changelog
+
+import liquibase.changelog.visitor.ChangeLogSyncListener
+import liquibase.changelog.visitor.ChangeLogSyncVisitor
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.ExecutorService
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class StandardChangeLogHistoryServiceTest extends Specification {
+
+    Connection connection
+    Database database
+    DatabaseChangeLog changeLog = new DatabaseChangeLogImpl()
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:changeloghistory;DB_CLOSE_DELAY=-1", "sa", "")
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+        ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database).init()
+    }
+
+    def cleanup() {
+        ChangeLogHistoryServiceFactory.getInstance().resetAll()
+        ExecutorService.getInstance().clearExecutor(database)
+        connection.createStatement().execute("drop all objects")
+        connection.close()
+    }
+
+    def "setExecTypes marks all change sets ran with one batch"() {
+        when:
+        def service = ChangeLogHistoryServiceFactory.getInstance().getChangeLogService(database)
+        service.setExecTypes((1..3).collect { changeSet(it as String) }, ChangeSet.ExecType.EXECUTED)
+
+        then:
+        rowCount() == 3
+        service.getRanChangeSets()*.id == ["1", "2", "3"]
+    }
+
+    def "changeLogSync marks change sets ran in batches of the configured size"() {
+        when:
+        def marked = []
+        def listener = [markedRan: { changeSet, databaseChangeLog, db -> marked.add(changeSet.id) }] as ChangeLogSyncListener
+        def visitor = new ChangeLogSyncVisitor(database, listener).setBatchSize(2)
+        def countsAfterVisit = []
+        for (String id : ["1", "2", "3", "4", "5"]) {
+            visitor.visit(changeSet(id), changeLog, database, null)
+            countsAfterVisit.add(rowCount())
+        }
+        visitor.flush()
+
+        then:
+        countsAfterVisit == [0, 2, 2, 4, 4]
+        rowCount() == 5
+        marked == ["1", "2", "3", "4", "5"]
+    }
+
+    private ExecutableChangeSet changeSet(String id) {
+        return new ExecutableChangeSetImpl(id, "test", false, false, "changelog.xml", null, null, changeLog)
+    }
+
+    private int rowCount() {
+        def resultSet = connection.createStatement().executeQuery("select count(*) from databasechangelog")
+        resultSet.next()
+        return resultSet.getInt(1)
+    }
+}
@@ -0,0 +1,75 @@
+package liquibase.dbdoc
+
+import liquibase.database.core.H2Database
+import liquibase.structure.core.Column
+import liquibase.structure.core.DataType
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+class PageChecksumsTest extends Specification {
+
+    File rootOutputDir
+
+    def setup() {
+        rootOutputDir = File.createTempFile("dbdoc", "")
+        rootOutputDir.delete()
+        rootOutputDir.mkdirs()
+    }
+
+    def cleanup() {
+        rootOutputDir.deleteDir()
+    }
+
+    def "unchanged pages are not written again and pages of dropped tables are deleted"() {
+        when:
+        def parent = table("parent", "id", "name")
+        def child = table("child", "id")
+        write(parent, child)
+        def parentPage = new File(rootOutputDir, "tables/parent.html")
+        def childPage = new File(rootOutputDir, "tables/child.html")
+        parentPage.text = "kept"
+        childPage.text = "kept"
+
+        write(parent, table("child", "id", "parent_id"))
+        def childText = childPage.text
+        def parentText = parentPage.text
+
+        write(parent)
+
+        then:
+        parentText == "kept"
+        childText.contains("PARENT_ID")
+        parentPage.text == "kept"
+        !childPage.exists()
+        new File(rootOutputDir, PageChecksums.FILE_NAME).readLines()*.replaceAll("=.*", "") == ["tables/parent.html"]
+    }
+
+    def "pages are written when there are no checksums of an earlier run"() {
+        when:
+        write(table("parent", "id"))
+
+        then:
+        new File(rootOutputDir, "tables/parent.html").text.contains("Current Columns")
+    }
+
+    private void write(Table... tables) {
+        def checksums = new PageChecksums(rootOutputDir)
+        checksums.load()
+        def writer = new TableWriter(rootOutputDir, new H2Database())
+        writer.setPageChecksums(checksums)
+        for (Table table : tables) {
+            writer.writeHTML(table, null, null, "changelog.xml")
+        }
+        checksums.save()
+    }
+
+    private Table table(String name, String... columns) {
+        def table = new Table().setName(name.toUpperCase())
+        def list = []
+        for (String column : columns) {
+            list.add(new Column(column.toUpperCase()).setType(new DataType("int")).setRelation(table))
+        }
+        table.setAttribute("columns", list)
+        return table
+    }
+}
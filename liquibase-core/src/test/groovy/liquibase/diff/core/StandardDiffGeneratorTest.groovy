@@ -0,0 +1,81 @@
+package liquibase.diff.core
+
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.diff.DiffResult
+import liquibase.diff.compare.CompareControl
+import liquibase.snapshot.DatabaseSnapshot
+import liquibase.snapshot.SnapshotControl
+import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.structure.core.Column
+import liquibase.structure.core.Index
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class StandardDiffGeneratorTest extends Specification {
+
+    List<Connection> connections = []
+
+    def cleanup() {
+        for (def connection : connections) {
+            connection.close()
+        }
+    }
+
+    def "parallel comparison finds the same differences as a sequential comparison"() {
+        when:
+        def reference = snapshot("diffreference",
+                "create table person (id int primary key, name varchar(50), email varchar(100))",
+                "create table address (id int primary key, street varchar(50))",
+                "create index idx_person_name on person(name)")
+        def comparison = snapshot("diffcomparison",
+                "create table person (id int primary key, name varchar(80), phone varchar(20))",
+                "create table invoice (id int primary key)")
+
+        def sequential = new StandardDiffGenerator().compare(reference, comparison, new CompareControl())
+        def parallel = new StandardDiffGenerator().compare(reference, comparison, new CompareControl().setThreads(4))
+
+        then:
+        names(parallel.getMissingObjects()) == names(sequential.getMissingObjects())
+        names(parallel.getUnexpectedObjects()) == names(sequential.getUnexpectedObjects())
+        names(parallel.getChangedObjects().keySet()) == names(sequential.getChangedObjects().keySet())
+        parallel.getMissingObjects(Table)*.name == ["ADDRESS"]
+        parallel.getUnexpectedObjects(Table)*.name == ["INVOICE"]
+        parallel.getMissingObjects(Index)*.name.contains("IDX_PERSON_NAME")
+        names(parallel.getMissingObjects(Column)).contains("Column PERSON.EMAIL")
+        names(parallel.getUnexpectedObjects(Column)).contains("Column PERSON.PHONE")
+        names(parallel.getChangedObjects(Column).keySet()) == ["Column PERSON.NAME"] as SortedSet
+    }
+
+    def "threads must be positive"() {
+        when:
+        new CompareControl().setThreads(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private DatabaseSnapshot snapshot(String name, String... sql) {
+        def connection = DriverManager.getConnection("jdbc:h2:mem:" + name, "sa", "")
+        connections.add(connection)
+        def statement = connection.createStatement()
+        for (def line : sql) {
+            statement.execute(line)
+        }
+        statement.close()
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+        return SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database))
+    }
+
+    private SortedSet<String> names(Collection objects) {
+        def names = new TreeSet<String>()
+        for (def object : objects) {
+            names.add(object.class.simpleName + " " + (object instanceof Column ? object.relation.name + "." + object.name : object.name))
+        }
+        return names
+    }
+}
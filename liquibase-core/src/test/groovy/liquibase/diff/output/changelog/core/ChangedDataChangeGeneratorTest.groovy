@@ -0,0 +1,175 @@
+package liquibase.diff.output.changelog.core
+
+import liquibase.action.DeleteDataAction
+import liquibase.action.InsertDataAction
+import liquibase.action.UpdateDataAction
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.change.ExecutableChange
+import liquibase.diff.compare.CompareControl
+import liquibase.diff.compare.core.DataComparator
+import liquibase.diff.core.StandardDiffGenerator
+import liquibase.diff.output.DiffOutputControl
+import liquibase.diff.output.changelog.ChangeGeneratorFactory
+import liquibase.diff.output.changelog.DiffToChangeLog
+import liquibase.exception.UnexpectedLiquibaseException
+import liquibase.snapshot.DatabaseSnapshot
+import liquibase.snapshot.SnapshotControl
+import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.structure.core.Column
+import liquibase.structure.core.Data
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.PrimaryKey
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class ChangedDataChangeGeneratorTest extends Specification {
+
+    List<Connection> connections = []
+
+    def cleanup() {
+        for (def connection : connections) {
+            connection.close()
+        }
+    }
+
+    def "only rows which differ are inserted, updated or deleted"() {
+        when:
+        def reference = snapshot("datareference",
+                "create table lookup (id int primary key, code varchar(10), amount decimal(10,2))",
+                "insert into lookup values (1, 'a', 1.00), (2, 'b', 2.00), (3, 'c', 3.00), (5, 'e', 5.00)")
+        def comparison = snapshot("datacomparison",
+                "create table lookup (id int primary key, code varchar(10), amount decimal(10,2))",
+                "insert into lookup values (1, 'a', 1.0), (2, 'x', 2.00), (4, 'd', 4.00), (5, 'e', 5.00)")
+
+        def diffResult = new StandardDiffGenerator().compare(reference, comparison, new CompareControl([Table, Column, PrimaryKey, Data] as Set))
+        def changes = new DiffToChangeLog(diffResult, new DiffOutputControl(false, false, false)).generateChangeSets()*.changes.flatten()
+
+        then:
+        diffResult.getChangedObjects(Data).isEmpty()
+        changes.size() == 3
+
+        changes[0] instanceof UpdateDataAction
+        changes[0].columns*.name == ["CODE"]
+        changes[0].columns*.value == ["b"]
+        changes[0].where == ":name = :value"
+        changes[0].whereParams*.valueNumeric == [2]
+
+        changes[1] instanceof InsertDataAction
+        changes[1].columns*.name == ["ID", "CODE", "AMOUNT"]
+        changes[1].columns[0].valueNumeric == 3
+
+        changes[2] instanceof DeleteDataAction
+        changes[2].whereParams*.name == ["ID"]
+        changes[2].whereParams*.valueNumeric == [4]
+    }
+
+    def "equal tables need no changes"() {
+        when:
+        def reference = snapshot("dataequalreference",
+                "create table lookup (id int, part int, code varchar(10), primary key (id, part))",
+                "insert into lookup values (1, 1, 'a'), (1, 2, 'b'), (2, 1, 'c')")
+        def comparison = snapshot("dataequalcomparison",
+                "create table lookup (id int, part int, code varchar(10), primary key (id, part))",
+                "insert into lookup values (2, 1, 'c'), (1, 2, 'b'), (1, 1, 'a')")
+
+        def diffResult = new StandardDiffGenerator().compare(reference, comparison, new CompareControl([Table, Column, PrimaryKey, Data] as Set))
+
+        then:
+        diffResult.areEqual()
+        changes(reference, comparison, new DiffOutputControl()) == null
+        new DiffToChangeLog(diffResult, new DiffOutputControl()).generateChangeSets().isEmpty()
+    }
+
+    def "character keys are ordered independently of the collation of the database"() {
+        when:
+        def reference = snapshot("datacollationreference",
+                "create table lookup (code varchar_ignorecase(10) primary key, amount int)",
+                "insert into lookup values ('a', 1), ('B', 2), ('c', 3)")
+        def comparison = snapshot("datacollationcomparison",
+                "create table lookup (code varchar_ignorecase(10) primary key, amount int)",
+                "insert into lookup values ('a', 1), ('B', 5), ('d', 4)")
+
+        def changes = changes(reference, comparison, new DiffOutputControl(false, false, false))
+
+        then:
+        changes*.class == [UpdateDataAction, InsertDataAction, DeleteDataAction]
+        changes[0].whereParams*.value == ["B"]
+        changes[1].columns[0].value == "c"
+        changes[2].whereParams*.value == ["d"]
+    }
+
+    def "infinite and NaN floating point values are compared"() {
+        when:
+        def reference = snapshot("datafloatreference",
+                "create table lookup (id double primary key, amount double)",
+                "insert into lookup values (1, cast('Infinity' as double)), (cast('Infinity' as double), 1), (2, cast('NaN' as double))")
+        def comparison = snapshot("datafloatcomparison",
+                "create table lookup (id double primary key, amount double)",
+                "insert into lookup values (1, cast('Infinity' as double)), (cast('Infinity' as double), 2), (2, 1)")
+
+        def changes = changes(reference, comparison, new DiffOutputControl(false, false, false))
+
+        then:
+        changes*.class == [UpdateDataAction, UpdateDataAction]
+        changes*.whereParams*.valueNumeric*.get(0)*.doubleValue() == [2d, Double.POSITIVE_INFINITY]
+    }
+
+    def "rows which the database does not return in key order are not compared"() {
+        when:
+        def reference = snapshot("dataorderreference",
+                "create table lookup (code varchar_ignorecase(10) primary key, amount int)",
+                "insert into lookup values ('a', 1), ('B', 2), ('c', 3)")
+        def comparison = snapshot("dataordercomparison",
+                "create table lookup (code varchar_ignorecase(10) primary key, amount int)",
+                "insert into lookup values ('a', 1), ('B', 5)")
+        def data = reference.get(Data).iterator().next()
+        def generator = new ChangedDataChangeGenerator() {
+            @Override
+            protected String getKeyOrderExpression(Database database, Table table, String keyColumn) {
+                return keyColumn
+            }
+        }
+        generator.fixChanged(data, DataComparator.rowDifferences(data, comparison.get(data), new CompareControl()), new DiffOutputControl(), reference.database, comparison.database, null)
+
+        then:
+        def e = thrown(UnexpectedLiquibaseException)
+        e.message.startsWith("Cannot compare the rows of LOOKUP")
+    }
+
+    def "key values with backslashes are not escaped in where clauses"() {
+        when:
+        def reference = snapshot("databackslashreference",
+                "create table lookup (code varchar(10) primary key, amount int)",
+                "insert into lookup values ('a\\b', 1)")
+        def comparison = snapshot("databackslashcomparison",
+                "create table lookup (code varchar(10) primary key, amount int)",
+                "insert into lookup values ('a\\b', 2)")
+        def changes = changes(reference, comparison, new DiffOutputControl(false, false, false))
+
+        then:
+        changes[0].whereParams*.value == ["a\\b"]
+    }
+
+    private ExecutableChange[] changes(DatabaseSnapshot reference, DatabaseSnapshot comparison, DiffOutputControl control) {
+        def data = reference.get(Data).iterator().next()
+        def differences = DataComparator.rowDifferences(data, comparison.get(data), new CompareControl())
+        return ChangeGeneratorFactory.instance.fixChanged(data, differences, control, reference.database, comparison.database)
+    }
+
+    private DatabaseSnapshot snapshot(String name, String... sql) {
+        def connection = DriverManager.getConnection("jdbc:h2:mem:" + name, "sa", "")
+        connections.add(connection)
+        def statement = connection.createStatement()
+        for (def line : sql) {
+            statement.execute(line)
+        }
+        statement.close()
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+        return SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database, Table, Column, PrimaryKey, ForeignKey, Data))
+    }
+}
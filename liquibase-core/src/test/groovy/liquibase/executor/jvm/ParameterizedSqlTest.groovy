@@ -0,0 +1,143 @@
+package liquibase.executor.jvm
+
+import liquibase.action.InsertDataAction
+import liquibase.action.RawSQLAction
+import liquibase.change.ColumnConfig
+import liquibase.changelog.ChangeSetImpl
+import liquibase.changelog.DatabaseChangeLogImpl
+import liquibase.changelog.ExecutableChangeSetImpl
+import liquibase.configuration.LiquibaseConfiguration
+import liquibase.database.core.H2Database
+import liquibase.database.jvm.JdbcConnection
+import liquibase.executor.ExecutorService
+import liquibase.statement.DatabaseFunction
+import liquibase.statement.SqlStatement
+import liquibase.statement.core.InsertStatement
+import liquibase.statement.core.RawSqlStatement
+import liquibase.statement.core.UpdateStatement
+import spock.lang.Specification
+
+import java.lang.reflect.InvocationHandler
+import java.lang.reflect.InvocationTargetException
+import java.lang.reflect.Proxy
+import java.sql.Connection
+import java.sql.DriverManager
+import java.sql.PreparedStatement
+
+class ParameterizedSqlTest extends Specification {
+
+    def "plain values are replaced by parameters"() {
+        when:
+        def database = new H2Database()
+        def insert = ParameterizedSql.create(new InsertStatement(null, null, "ref")
+                .addColumnValue("id", 1)
+                .addColumnValue("name", "it's")
+                .addColumnValue("description", null)
+                .addColumnValue("created", new DatabaseFunction("NOW()")), database)
+        def update = ParameterizedSql.create(new UpdateStatement(null, null, "ref")
+                .addNewColumnValue("name", "new")
+                .setWhereClause(":name = :value and name = ?")
+                .addWhereColumnName("id")
+                .addWhereParameters(2, "old"), database)
+
+        then:
+        insert.sql == "INSERT INTO ref (id, name, description, created) VALUES (?, ?, NULL, NOW())"
+        insert.parameters == [1, "it's"]
+        update.sql == "UPDATE ref SET name = ? WHERE id = ? and name = ?"
+        update.parameters == ["new", 2, "old"]
+        ParameterizedSql.create(new RawSqlStatement("delete from ref"), database) == null
+    }
+
+    def "runs of inserts are executed as batches of one prepared statement"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(JdbcExecutorConfiguration.class).setUsePreparedStatements(true).setBatchSize(2)
+        def connection = new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:preparedStatements", "sa", ""))
+        def database = new H2Database()
+        database.setConnection(connection)
+        database.execute([new RawSqlStatement("create table ref (id int primary key, name varchar(50))")] as SqlStatement[], null)
+
+        def statements = []
+        for (int i = 1; i <= 5; i++) {
+            statements.add(new InsertStatement(null, null, "ref").addColumnValue("id", i).addColumnValue("name", "name " + i))
+        }
+        statements.add(new UpdateStatement(null, null, "ref").addNewColumnValue("name", "changed").setWhereClause("id = ?").addWhereParameter(3))
+        database.execute(statements as SqlStatement[], null)
+        def names = ExecutorService.getInstance().getExecutor(database).queryForList(new RawSqlStatement("select name from ref order by id"), String.class)
+
+        then:
+        names == ["name 1", "name 2", "changed", "name 4", "name 5"]
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().reset()
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+    }
+
+    def "inserts of consecutive changes in a change set are executed as one batch"() {
+        when:
+        LiquibaseConfiguration.getInstance().getConfiguration(JdbcExecutorConfiguration.class).setUsePreparedStatements(true)
+        def batchSizes = []
+        def connection = new JdbcConnection(countingBatches(DriverManager.getConnection("jdbc:h2:mem:changeSetBatch", "sa", ""), batchSizes))
+        def database = new H2Database()
+        database.setConnection(connection)
+        database.execute([new RawSqlStatement("create table ref (id int primary key, name varchar(50))")] as SqlStatement[], null)
+
+        def changeLog = new DatabaseChangeLogImpl()
+        def changeSet = new ChangeSetImpl("1", "test", false, false, "batch.xml", null, null, changeLog)
+        for (int i = 1; i <= 4; i++) {
+            def insert = new InsertDataAction()
+            insert.setTableName("ref")
+            insert.addColumn(new ColumnConfig().setName("id").setValueNumeric(i))
+            insert.addColumn(new ColumnConfig().setName("name").setValue("name " + i))
+            changeSet.addChange(insert)
+        }
+        changeSet.addChange(new RawSQLAction("update ref set name = 'changed' where id = 2"))
+        def insert = new InsertDataAction()
+        insert.setTableName("ref")
+        insert.addColumn(new ColumnConfig().setName("id").setValueNumeric(5))
+        insert.addColumn(new ColumnConfig().setName("name").setValue("name 5"))
+        changeSet.addChange(insert)
+        new ExecutableChangeSetImpl(changeSet).execute(changeLog, null, database)
+        def names = ExecutorService.getInstance().getExecutor(database).queryForList(new RawSqlStatement("select name from ref order by id"), String.class)
+
+        then:
+        batchSizes == [4]
+        names == ["name 1", "changed", "name 3", "name 4", "name 5"]
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().reset()
+        ExecutorService.getInstance().clearExecutor(database)
+        connection?.close()
+    }
+
+    /**
+     * Records the number of statements of every JDBC batch executed through prepared statements of the connection.
+     */
+    private Connection countingBatches(Connection connection, List<Integer> batchSizes) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), [Connection] as Class[], { proxy, method, args ->
+            def result = invoke(connection, method, args)
+            if (result instanceof PreparedStatement) {
+                def statement = result
+                def added = 0
+                result = Proxy.newProxyInstance(getClass().getClassLoader(), [PreparedStatement] as Class[], { p, m, a ->
+                    if (m.name == "addBatch" && a == null) {
+                        added++
+                    } else if (m.name == "executeBatch") {
+                        batchSizes.add(added)
+                        added = 0
+                    }
+                    return invoke(statement, m, a)
+                } as InvocationHandler)
+            }
+            return result
+        } as InvocationHandler)
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) {
+        try {
+            return method.invoke(target, args)
+        } catch (InvocationTargetException e) {
+            throw e.getCause()
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package liquibase.parser.core.formattedsql
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class FormattedSqlLineTest extends Specification {
+
+    @Unroll
+    def "parse '#line'"() {
+        when:
+        def parsed = FormattedSqlLine.parse(line)
+
+        then:
+        parsed.type == type
+        parsed.first == first
+        parsed.second == second
+
+        where:
+        line                                             | type                                  | first             | second
+        "select * from table1;"                          | FormattedSqlLine.Type.SQL             | null              | null
+        "-"                                              | FormattedSqlLine.Type.SQL             | null              | null
+        "-- just a comment"                              | FormattedSqlLine.Type.SQL             | null              | null
+        "--liquibase formatted sql"                      | FormattedSqlLine.Type.CHANGELOG       | null              | null
+        " --liquibase formatted sql"                     | FormattedSqlLine.Type.SQL             | null              | null
+        "--changeset nvoxland:1"                         | FormattedSqlLine.Type.CHANGESET       | "nvoxland"        | "1"
+        "-- ChangeSet John Doe:a-b context:x"            | FormattedSqlLine.Type.CHANGESET       | "John Doe"        | "a-b"
+        "--changeset  :1"                                | FormattedSqlLine.Type.CHANGESET       | " "               | "1"
+        "--changeset :1"                                 | FormattedSqlLine.Type.SQL             | null              | null
+        "--changeset nvoxland: 1"                        | FormattedSqlLine.Type.SQL             | null              | null
+        "--changesetnvoxland:1"                          | FormattedSqlLine.Type.SQL             | null              | null
+        "--comment: a comment"                           | FormattedSqlLine.Type.COMMENT         | "a comment"       | null
+        "--comment:no space"                             | FormattedSqlLine.Type.SQL             | null              | null
+        "  --rollback drop table x;"                     | FormattedSqlLine.Type.ROLLBACK        | "drop table x;"   | null
+        "--preconditions onFail:MARK_RAN"                | FormattedSqlLine.Type.PRECONDITIONS   | " onFail:MARK_RAN" | null
+        "--precondition-sql-check expectedResult:0 x"    | FormattedSqlLine.Type.PRECONDITION    | "sql-check"       | "expectedResult:0 x"
+        "--precondition-sql-check"                       | FormattedSqlLine.Type.SQL             | null              | null
+    }
+
+    @Unroll
+    def "parseAttributes of '#text'"() {
+        expect:
+        FormattedSqlLine.parseAttributes(text, [runAlways: FormattedSqlLine.ValueType.WORD,
+                                                context  : FormattedSqlLine.ValueType.NON_WHITESPACE,
+                                                dbms     : FormattedSqlLine.ValueType.DBMS]) == expected
+
+        where:
+        text                                               | expected
+        "--changeset a:1"                                  | [:]
+        "--changeset a:1 RUNALWAYS:true context:x,y"       | [runAlways: "true", context: "x,y"]
+        "runAlways:false runAlways:true runAlways:"        | [runAlways: "true"]
+        "context: dbms:!h2,mysql"                          | [context: "", dbms: "!h2,mysql"]
+        "dbms:x dbms:,h2"                                  | [:]
+        "dbms:h2 dbms:,h2"                                 | [dbms: "h2"]
+    }
+
+    def "isNotRequired"() {
+        expect:
+        FormattedSqlLine.isNotRequired(" Not Required\n")
+        FormattedSqlLine.isNotRequired("not required because of x\n")
+        !FormattedSqlLine.isNotRequired("not required\nselect 1\n")
+        !FormattedSqlLine.isNotRequired("drop table x\n")
+    }
+}
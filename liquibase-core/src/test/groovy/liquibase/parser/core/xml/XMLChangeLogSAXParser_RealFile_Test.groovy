@@ -24,6 +24,8 @@ import liquibase.sdk.supplier.resource.ResourceSupplier
 import liquibase.sql.visitor.AppendSqlVisitor
 import liquibase.sql.visitor.ReplaceSqlVisitor
 import liquibase.test.JUnitResourceAccessor
+import liquibase.util.MD5Util
+import liquibase.util.StreamUtil
 import spock.lang.FailsWith
 import spock.lang.Shared
 import spock.lang.Specification
@@ -40,7 +42,29 @@ public class XMLChangeLogSAXParser_RealFile_Test extends Specification {
     def "namespace configured correctly"() {
         expect:
         assert new XMLChangeLogSAXParser().saxParserFactory.isNamespaceAware()
-        assert new XMLChangeLogSAXParser().saxParserFactory.isValidating()
+        assert !new XMLChangeLogSAXParser().saxParserFactory.isValidating()
+    }
+
+    def "schema is compiled once and known changelogs are not validated again"() throws Exception {
+        when:
+        XMLValidationCache.reset()
+        LiquibaseConfiguration.getInstance().getConfiguration(XMLParserConfiguration.class).setSkipKnownChangeLogValidation(true)
+        def resourceAccessor = new JUnitResourceAccessor()
+        def path = "liquibase/parser/core/xml/malformedChangeLog.xml"
+        def checkSum = MD5Util.computeMD5(StreamUtil.singleInputStream(path, resourceAccessor))
+        def location = "http://www.liquibase.org/xml/ns/dbchangelog http://www.liquibase.org/xml/ns/dbchangelog/dbchangelog-3.2.xsd"
+        def resolver = new LiquibaseEntityResolver(new XMLChangeLogSAXParser())
+        def schema = XMLValidationCache.getInstance().getSchema(location, null, resolver)
+        XMLValidationCache.getInstance().addValidated(checkSum)
+        def parsedNode = new XMLChangeLogSAXParser().parseToNode(path, resourceAccessor)
+
+        then:
+        XMLValidationCache.getInstance().getSchema(location, null, resolver).is(schema)
+        parsedNode.getChild(null, "changeSet").getChild(null, "unknownTag") != null
+
+        cleanup:
+        LiquibaseConfiguration.getInstance().reset()
+        XMLValidationCache.reset()
     }
 
     def "supports method identifies xml files correctly"() {
@@ -0,0 +1,109 @@
+package liquibase.precondition.core
+
+import liquibase.action.AddColumnAction
+import liquibase.action.DropTableAction
+import liquibase.change.AddColumnConfig
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.structure.core.Column
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class PreconditionMetadataCacheTest extends Specification {
+
+    Connection connection
+    Database database
+    PreconditionMetadataCache cache = PreconditionMetadataCache.getInstance()
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:preconditioncache;DB_CLOSE_DELAY=-1", "sa", "")
+        connection.createStatement().execute("create table parent (id int primary key, name varchar(50))")
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+    }
+
+    def cleanup() {
+        cache.reset()
+        connection.createStatement().execute("drop all objects")
+        connection.close()
+    }
+
+    def "checks are answered from the database without an open session"() {
+        when:
+        def existed = cache.has(new Table().setName("PARENT"), database)
+        connection.createStatement().execute("drop table parent")
+
+        then:
+        existed
+        !cache.isOpen(database)
+        !cache.has(new Table().setName("PARENT"), database)
+    }
+
+    def "checks are answered from the cached snapshot until a change affects the object"() {
+        when:
+        cache.open(database)
+        def existed = cache.has(new Table().setName("PARENT"), database)
+        connection.createStatement().execute("drop table parent")
+        def cached = cache.has(new Table().setName("PARENT"), database)
+
+        def change = new DropTableAction()
+        change.tableName = "parent"
+        cache.changed(change, database)
+
+        then:
+        existed
+        cached
+        !cache.has(new Table().setName("PARENT"), database)
+    }
+
+    def "columns added by a change are found"() {
+        when:
+        cache.open(database)
+        def column = new Column().setRelation(new Table().setName("PARENT")).setName("ADDED")
+        def existed = cache.has(column, database)
+
+        def change = new AddColumnAction()
+        change.tableName = "parent"
+        def config = new AddColumnConfig()
+        config.name = "added"
+        config.type = "int"
+        change.addColumn(config)
+        connection.createStatement().execute("alter table parent add column added int")
+        cache.changed(change, database)
+
+        then:
+        !existed
+        cache.has(column, database)
+        cache.has(new Column().setRelation(new Table().setName("PARENT")).setName("NAME"), database)
+    }
+
+    def "opening a session again discards the metadata of the earlier session"() {
+        when:
+        cache.open(database)
+        def existed = cache.has(new Table().setName("PARENT"), database)
+        connection.createStatement().execute("drop table parent")
+        cache.open(database)
+
+        then:
+        existed
+        !cache.has(new Table().setName("PARENT"), database)
+    }
+
+    def "closing the session of one database keeps the sessions of others"() {
+        when:
+        def other = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:preconditioncacheother", "sa", "")))
+        cache.open(database)
+        cache.open(other)
+        cache.close(database)
+
+        then:
+        !cache.isOpen(database)
+        cache.isOpen(other)
+
+        cleanup:
+        other.close()
+    }
+}
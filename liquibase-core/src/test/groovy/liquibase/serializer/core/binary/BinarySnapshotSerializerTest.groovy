@@ -0,0 +1,139 @@
+package liquibase.serializer.core.binary
+
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.OfflineConnection
+import liquibase.database.jvm.JdbcConnection
+import liquibase.diff.compare.CompareControl
+import liquibase.diff.core.StandardDiffGenerator
+import liquibase.serializer.SnapshotSerializerFactory
+import liquibase.snapshot.SnapshotControl
+import liquibase.snapshot.SnapshotGeneratorFactory
+import liquibase.structure.core.Column
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class BinarySnapshotSerializerTest extends Specification {
+
+    Connection connection
+    Database database
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:binarysnapshot", "sa", "")
+        def statement = connection.createStatement()
+        statement.execute("create table parent (id int auto_increment primary key, name varchar(50) default 'none' not null)")
+        statement.execute("create table child (id int primary key, parent_id int, constraint fk_child_parent foreign key (parent_id) references parent(id))")
+        statement.execute("create index idx_parent_name on parent(name)")
+        statement.close()
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+    }
+
+    def cleanup() {
+        connection.close()
+    }
+
+    def "serializer is found by extension"() {
+        expect:
+        SnapshotSerializerFactory.instance.getSerializer("prod.lbsnap") instanceof BinarySnapshotSerializer
+    }
+
+    def "restored snapshot has no differences to the database"() {
+        when:
+        def restored = new BinarySnapshotReader(new ByteArrayInputStream(write())).read(database)
+        def current = SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database))
+        def diff = new StandardDiffGenerator().compare(restored, current, new CompareControl())
+
+        then:
+        restored.get(Table)*.name as SortedSet == ["CHILD", "PARENT"] as SortedSet
+        restored.get(ForeignKey)*.name == ["FK_CHILD_PARENT"]
+        restored.get(new Column(Table, null, null, "PARENT", "NAME")).getDefaultValue() == "none"
+        restored.get(new Column(Table, null, null, "PARENT", "ID")).getAutoIncrementInformation() != null
+        diff.getMissingObjects().isEmpty()
+        diff.getUnexpectedObjects().isEmpty()
+        diff.getChangedObjects().isEmpty()
+    }
+
+    def "restored snapshot is compared with a changed database"() {
+        when:
+        def reader = new BinarySnapshotReader(new ByteArrayInputStream(write()))
+        def restored = reader.read()
+        connection.createStatement().execute("create table added (id int)")
+        connection.createStatement().execute("drop table child")
+        def current = SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database))
+        def diff = new StandardDiffGenerator().compare(restored, current, new CompareControl())
+
+        then:
+        reader.getDatabaseShortName() == "h2"
+        restored.getDatabase().getConnection() instanceof OfflineConnection
+        diff.getMissingObjects(Table)*.name == ["CHILD"]
+        diff.getUnexpectedObjects(Table)*.name == ["ADDED"]
+    }
+
+    def "other streams are rejected"() {
+        when:
+        new BinarySnapshotReader(new ByteArrayInputStream("not a snapshot".getBytes())).read(database)
+
+        then:
+        thrown(IOException)
+    }
+
+    def "classes which are not database objects are rejected"() {
+        when:
+        new BinarySnapshotReader(new ByteArrayInputStream(header(["java.io.FileOutputStream"]))).getTypes()
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("java.io.FileOutputStream")
+    }
+
+    def "corrupt string lengths are rejected before allocating"() {
+        when:
+        def bytes = new ByteArrayOutputStream()
+        def out = new DataOutputStream(bytes)
+        out.writeInt(BinarySnapshotSerializer.MAGIC)
+        out.writeShort(BinarySnapshotSerializer.FORMAT_VERSION)
+        out.write([0x01, 0xFF, 0xFF, 0xFF, 0xFF, 0x07] as byte[])
+        out.flush()
+        new BinarySnapshotReader(new ByteArrayInputStream(bytes.toByteArray())).getDatabaseShortName()
+
+        then:
+        def e = thrown(IOException)
+        e.message.contains("longer than")
+    }
+
+    private byte[] header(List<String> typeNames) {
+        def bytes = new ByteArrayOutputStream()
+        def out = new DataOutputStream(bytes)
+        out.writeInt(BinarySnapshotSerializer.MAGIC)
+        out.writeShort(BinarySnapshotSerializer.FORMAT_VERSION)
+        ["h2", null, null].each { writeString(out, it) }
+        out.writeBoolean(false)
+        [null, null].each { writeString(out, it) }
+        out.writeByte(typeNames.size())
+        typeNames.each { writeString(out, it) }
+        out.flush()
+        return bytes.toByteArray()
+    }
+
+    private void writeString(DataOutputStream out, String value) {
+        if (value == null) {
+            out.writeByte(0)
+        } else {
+            def bytes = value.getBytes("UTF-8")
+            out.writeByte(1)
+            out.writeByte(bytes.length)
+            out.write(bytes)
+        }
+    }
+
+    private byte[] write() {
+        def snapshot = SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database))
+        def out = new ByteArrayOutputStream()
+        new BinarySnapshotSerializer().write(snapshot, out)
+        return out.toByteArray()
+    }
+}
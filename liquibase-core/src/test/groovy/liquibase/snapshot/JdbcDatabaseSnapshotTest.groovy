@@ -0,0 +1,118 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.structure.core.Column
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.Index
+import liquibase.structure.core.PrimaryKey
+import liquibase.structure.core.Table
+import org.h2.jdbcx.JdbcDataSource
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.SQLException
+import java.sql.SQLFeatureNotSupportedException
+import java.util.concurrent.atomic.AtomicInteger
+
+class JdbcDatabaseSnapshotTest extends Specification {
+
+    Connection connection
+    Database database
+
+    def setup() {
+        connection = createDataSource(new AtomicInteger()).getConnection()
+        def statement = connection.createStatement()
+        statement.execute("create table parent (id int primary key, name varchar(50))")
+        statement.execute("create table child (id int primary key, parent_id int, constraint fk_child_parent foreign key (parent_id) references parent(id))")
+        statement.execute("create index idx_parent_name on parent(name)")
+        statement.close()
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+    }
+
+    def cleanup() {
+        connection.createStatement().execute("drop all objects")
+        connection.close()
+    }
+
+    def "parallel snapshot finds the same objects as a sequential snapshot"() {
+        when:
+        def connections = new AtomicInteger()
+        def sequential = SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database))
+        def parallelControl = new SnapshotControl(database).setThreads(4).setDataSource(createDataSource(connections))
+        def parallel = SnapshotGeneratorFactory.instance.createSnapshot([database.getDefaultSchema()] as CatalogAndSchema[], database, parallelControl)
+
+        then:
+        connections.get() > 0
+        names(parallel, Table) == names(sequential, Table)
+        names(parallel, Column) == names(sequential, Column)
+        names(parallel, PrimaryKey) == names(sequential, PrimaryKey)
+        names(parallel, ForeignKey) == names(sequential, ForeignKey)
+        names(parallel, Index) == names(sequential, Index)
+        names(parallel, Table) == ["CHILD", "PARENT"] as SortedSet
+        names(parallel, ForeignKey) == ["FK_CHILD_PARENT"] as SortedSet
+    }
+
+    def "prefetching snapshot finds the same objects as an on demand snapshot"() {
+        when:
+        def sequential = SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database))
+        def prefetched = SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database).setPrefetch(true))
+
+        then:
+        names(prefetched, Table) == names(sequential, Table)
+        names(prefetched, Column) == names(sequential, Column)
+        names(prefetched, PrimaryKey) == names(sequential, PrimaryKey)
+        names(prefetched, ForeignKey) == names(sequential, ForeignKey)
+        names(prefetched, Index) == names(sequential, Index)
+    }
+
+    def "auto increment columns are read once per table"() {
+        when:
+        connection.createStatement().execute("create table counted (id int auto_increment primary key, name varchar(50))")
+        def snapshot = (JdbcDatabaseSnapshot) SnapshotGeneratorFactory.instance.createSnapshot(database.getDefaultSchema(), database, new SnapshotControl(database))
+        def schema = database.getDefaultSchemaName()
+        def metaData = snapshot.getMetaData()
+        def id = metaData.getAutoIncrementColumns(null, schema, "COUNTED", "ID")
+        connection.createStatement().execute("drop table counted")
+
+        then:
+        id*.getString("IS_AUTOINCREMENT") == ["YES"]
+        metaData.getAutoIncrementColumns(null, schema, "COUNTED", "NAME")*.getString("IS_AUTOINCREMENT") == ["NO"]
+    }
+
+    def "threads must be positive"() {
+        when:
+        new SnapshotControl(database).setThreads(0)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    private SortedSet<String> names(DatabaseSnapshot snapshot, Class type) {
+        def names = new TreeSet<String>()
+        for (def object : snapshot.get(type)) {
+            names.add(object instanceof Column ? object.relation.name + "." + object.name : object.name)
+        }
+        return names
+    }
+
+    private static JdbcDataSource createDataSource(AtomicInteger connections) {
+        def dataSource = new JdbcDataSource() {
+            @Override
+            Connection getConnection() throws SQLException {
+                connections.incrementAndGet()
+                return super.getConnection()
+            }
+
+            java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+                throw new SQLFeatureNotSupportedException()
+            }
+        }
+        dataSource.setURL("jdbc:h2:mem:parallelsnapshot;DB_CLOSE_DELAY=-1")
+        dataSource.setUser("sa")
+        dataSource.setPassword("")
+        return dataSource
+    }
+}
@@ -0,0 +1,109 @@
+package liquibase.snapshot
+
+import liquibase.CatalogAndSchema
+import liquibase.action.AddColumnAction
+import liquibase.change.AddColumnConfig
+import liquibase.changelog.visitor.SnapshotRefreshListener
+import liquibase.database.Database
+import liquibase.database.DatabaseFactory
+import liquibase.database.jvm.JdbcConnection
+import liquibase.structure.core.Column
+import liquibase.structure.core.ForeignKey
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+import java.sql.Connection
+import java.sql.DriverManager
+
+class RefreshableDatabaseSnapshotTest extends Specification {
+
+    Connection connection
+    Database database
+    RefreshableDatabaseSnapshot snapshot
+
+    def setup() {
+        connection = DriverManager.getConnection("jdbc:h2:mem:refreshablesnapshot;DB_CLOSE_DELAY=-1", "sa", "")
+        def statement = connection.createStatement()
+        statement.execute("create table parent (id int primary key, name varchar(50))")
+        statement.execute("create table child (id int primary key, parent_id int, constraint fk_child_parent foreign key (parent_id) references parent(id))")
+        statement.execute("create table other (id int primary key)")
+        statement.close()
+        database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection))
+        snapshot = SnapshotGeneratorFactory.instance.createRefreshableSnapshot([database.getDefaultSchema()] as CatalogAndSchema[], database, new SnapshotControl(database))
+    }
+
+    def cleanup() {
+        connection.createStatement().execute("drop all objects")
+        connection.close()
+    }
+
+    def "invalidated table is read again on the next access"() {
+        when:
+        def other = table("OTHER")
+        def child = table("CHILD")
+        connection.createStatement().execute("alter table parent add column description varchar(100)")
+        snapshot.invalidate([new Table(null, null, "parent")])
+
+        then:
+        snapshot.isStale()
+        columns("PARENT") == ["DESCRIPTION", "ID", "NAME"] as SortedSet
+        !snapshot.isStale()
+        table("OTHER").is(other)
+        table("CHILD").is(child)
+        snapshot.get(ForeignKey).find { it.name == "FK_CHILD_PARENT" }.primaryKeyTable.is(table("PARENT"))
+        table("PARENT").schema.getDatabaseObjects(Table).findAll { it.name == "PARENT" }.every { it.is(table("PARENT")) }
+    }
+
+    def "created and dropped tables are added and removed"() {
+        when:
+        connection.createStatement().execute("drop table child")
+        connection.createStatement().execute("create table created (id int)")
+        snapshot.invalidate([new Table(null, null, "child"), new Table(null, null, "created")])
+
+        then:
+        snapshot.get(Table)*.name as SortedSet == ["CREATED", "OTHER", "PARENT"] as SortedSet
+        snapshot.get(ForeignKey).isEmpty()
+        table("CREATED").schema.getDatabaseObjects(Table)*.name.contains("CREATED")
+    }
+
+    def "listener invalidates the objects affected by a change"() {
+        when:
+        def change = new AddColumnAction()
+        change.tableName = "parent"
+        def column = new AddColumnConfig()
+        column.name = "added"
+        column.type = "int"
+        change.addColumn(column)
+        connection.createStatement().execute("alter table parent add column added int")
+        def other = table("OTHER")
+        new SnapshotRefreshListener(snapshot).ran(change, null, null, database)
+
+        then:
+        snapshot.isStale()
+        columns("PARENT") == ["ADDED", "ID", "NAME"] as SortedSet
+        table("OTHER").is(other)
+    }
+
+    def "invalidating everything takes the snapshot again"() {
+        when:
+        connection.createStatement().execute("create table created (id int)")
+        snapshot.invalidateAll()
+
+        then:
+        snapshot.get(Table)*.name as SortedSet == ["CHILD", "CREATED", "OTHER", "PARENT"] as SortedSet
+    }
+
+    private Table table(String name) {
+        return snapshot.get(Table).find { it.name == name }
+    }
+
+    private SortedSet<String> columns(String table) {
+        def names = new TreeSet<String>()
+        for (Column column : snapshot.get(Column)) {
+            if (column.relation.name == table) {
+                names.add(column.name)
+            }
+        }
+        return names
+    }
+}
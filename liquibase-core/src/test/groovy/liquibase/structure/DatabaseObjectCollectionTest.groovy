@@ -0,0 +1,82 @@
+package liquibase.structure
+
+import liquibase.sdk.database.MockDatabase
+import liquibase.structure.core.Column
+import liquibase.structure.core.Index
+import liquibase.structure.core.Schema
+import liquibase.structure.core.Table
+import spock.lang.Specification
+
+class DatabaseObjectCollectionTest extends Specification {
+
+    def "objects are found by name according to the case rules of the database"() {
+        when:
+        def database = new MockDatabase() {
+            @Override
+            String correctObjectName(String name, Class<? extends DatabaseObject> objectType) {
+                return name
+            }
+        }
+        database.setCaseSensitive(caseSensitive)
+        def collection = new DatabaseObjectCollection(database)
+        def table = new Table(null, null, "Person")
+        collection.add(table)
+        collection.add(new Column(Table, null, null, "Person", "Name"))
+
+        then:
+        collection.get(new Table(null, null, lookup)).is(table) == found
+        (collection.get(new Column(Table, null, null, lookup, "Name")) != null) == found
+
+        where:
+        caseSensitive | lookup   | found
+        false         | "PERSON" | true
+        false         | "person" | true
+        true          | "Person" | true
+        true          | "PERSON" | false
+        false         | "other"  | false
+    }
+
+    def "objects which do not match by name are found by their hash"() {
+        when:
+        def collection = new DatabaseObjectCollection(new MockDatabase())
+        def table = new Table(null, null, "person")
+        def index = new Index("idx_person_name", null, null, "person", new Column("name"))
+        collection.add(table)
+        collection.add(index)
+
+        then:
+        collection.get(new Index(null, null, null, "person", new Column("name"))).is(index)
+        collection.get(new Index(null, null, null, "person", new Column("other"))) == null
+    }
+
+    def "objects are returned by type"() {
+        when:
+        def collection = new DatabaseObjectCollection(new MockDatabase())
+        def person = new Table(null, null, "person")
+        collection.add(person)
+        def first = collection.get(Table)
+        def address = new Table(null, null, "address")
+        collection.add(address)
+
+        then:
+        first == [person] as Set
+        collection.get(Table) == [person, address] as Set
+        collection.get(Table).is(collection.get(Table))
+        collection.get(Schema).isEmpty()
+    }
+
+    def "objects are removed even if their hash codes changed"() {
+        when:
+        def collection = new DatabaseObjectCollection(new MockDatabase())
+        def person = new Table(null, null, "person")
+        def address = new Table(null, null, "address")
+        collection.add(person)
+        collection.add(address)
+        person.setName("renamed")
+        collection.remove([person])
+
+        then:
+        collection.get(Table) == [address] as Set
+        collection.get(new Table(null, null, "person")) == null
+    }
+}
@@ -0,0 +1,119 @@
+package liquibase;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import liquibase.action.RawSQLAction;
+import liquibase.changelog.ChangeSetImpl;
+import liquibase.changelog.DatabaseChangeLogImpl;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.sdk.database.MockDatabase;
+import liquibase.sdk.resource.MockResourceAccessor;
+
+import org.junit.Test;
+
+public class MultiTargetUpdateTest {
+
+    @Test
+    public void update_reportsEachTargetAndLimitsThreads() {
+        List<Database> targets = new ArrayList<Database>();
+        for (int i = 0; i < 6; i++) {
+            targets.add(new MockDatabase());
+        }
+        final Database failing = targets.get(3);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+
+        MultiTargetUpdate update = new MultiTargetUpdate(new DatabaseChangeLogImpl(), new MockResourceAccessor()) {
+            @Override
+            protected Liquibase createLiquibase(final Database target) {
+                return new Liquibase(getDatabaseChangeLog(), new MockResourceAccessor(), target) {
+                    @Override
+                    public void update(Contexts contexts, LabelExpression labelExpression) {
+                        int now = running.incrementAndGet();
+                        synchronized (maxRunning) {
+                            maxRunning.set(Math.max(maxRunning.get(), now));
+                        }
+                        try {
+                            Thread.sleep(20);
+                        } catch (InterruptedException ignore) {
+                        } finally {
+                            running.decrementAndGet();
+                        }
+                        if (target == failing) {
+                            throw new IllegalStateException("failed");
+                        }
+                    }
+                };
+            }
+        }.setThreads(2);
+
+        List<MultiTargetUpdate.Result> results = update.update(targets, new Contexts(), new LabelExpression());
+
+        assertEquals(6, results.size());
+        for (int i = 0; i < 6; i++) {
+            assertSame(targets.get(i), results.get(i).getDatabase());
+            assertEquals(i != 3, results.get(i).isSuccessful());
+        }
+        assertEquals("failed", results.get(3).getError().getMessage());
+        assertTrue(maxRunning.get() <= 2);
+        assertFalse(maxRunning.get() == 0);
+    }
+
+    @Test
+    public void update_appliesSharedChangeLogToEachDatabase() throws Exception {
+        DatabaseChangeLogImpl changeLog = new DatabaseChangeLogImpl();
+        changeLog.setPhysicalFilePath("multi-target.xml");
+        for (int i = 1; i <= 3; i++) {
+            ChangeSetImpl changeSet = new ChangeSetImpl(String.valueOf(i), "test", false, false, "multi-target.xml", null, null, changeLog);
+            changeSet.addChange(new RawSQLAction("create table table_" + i + " (id int)"));
+            changeLog.addChangeSet(changeSet);
+        }
+
+        List<Database> targets = new ArrayList<Database>();
+        List<Connection> connections = new ArrayList<Connection>();
+        try {
+            for (int i = 0; i < 2; i++) {
+                Connection connection = DriverManager.getConnection("jdbc:h2:mem:multitarget" + i, "sa", "");
+                connections.add(connection);
+                targets.add(DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(connection)));
+            }
+
+            List<MultiTargetUpdate.Result> results = new MultiTargetUpdate(changeLog, new MockResourceAccessor()).setThreads(2)
+                    .update(targets, new Contexts(), new LabelExpression());
+
+            assertEquals(2, results.size());
+            for (int i = 0; i < 2; i++) {
+                MultiTargetUpdate.Result result = results.get(i);
+                assertTrue(String.valueOf(result.getError()), result.isSuccessful());
+                assertEquals(3, count(connections.get(i), "select count(*) from databasechangelog"));
+                assertEquals(0, count(connections.get(i), "select count(*) from table_3"));
+            }
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    private int count(Connection connection, String sql) throws Exception {
+        ResultSet resultSet = connection.createStatement().executeQuery(sql);
+        try {
+            resultSet.next();
+            return resultSet.getInt(1);
+        } finally {
+            resultSet.close();
+        }
+    }
+}
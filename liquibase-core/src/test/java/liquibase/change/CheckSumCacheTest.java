@@ -0,0 +1,72 @@
+package liquibase.change;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CheckSumCacheTest {
+
+    private File cacheFile;
+    private File dataFile;
+
+    @Before
+    public void createFiles() throws IOException {
+        cacheFile = File.createTempFile("liquibase-checksums", ".txt");
+        cacheFile.delete();
+        dataFile = File.createTempFile("liquibase-data", ".csv");
+        write(dataFile, "id,name\n1,test\n");
+    }
+
+    @After
+    public void deleteFiles() {
+        cacheFile.delete();
+        dataFile.delete();
+    }
+
+    @Test
+    public void disabledWithoutCacheFile() {
+        CheckSumCache cache = new CheckSumCache(null);
+        cache.put(dataFile, "loadData", CheckSum.compute("x"));
+
+        assertFalse(cache.isEnabled());
+        assertNull(cache.get(dataFile, "loadData"));
+    }
+
+    @Test
+    public void survivesRestart() {
+        CheckSum checkSum = CheckSum.compute("x");
+        new CheckSumCache(cacheFile).put(dataFile, "loadData", checkSum);
+
+        CheckSumCache reloaded = new CheckSumCache(cacheFile);
+        assertEquals(checkSum, reloaded.get(dataFile, "loadData"));
+        assertNull(reloaded.get(dataFile, "sqlFile"));
+    }
+
+    @Test
+    public void ignoresChangedFile() throws IOException {
+        CheckSumCache cache = new CheckSumCache(cacheFile);
+        cache.put(dataFile, "loadData", CheckSum.compute("x"));
+
+        write(dataFile, "id,name\n1,test\n2,other\n");
+
+        assertNull(cache.get(dataFile, "loadData"));
+        assertNull(new CheckSumCache(cacheFile).get(dataFile, "loadData"));
+    }
+
+    private void write(File file, String content) throws IOException {
+        FileOutputStream stream = new FileOutputStream(file);
+        try {
+            stream.write(content.getBytes("UTF-8"));
+        } finally {
+            stream.close();
+        }
+    }
+}
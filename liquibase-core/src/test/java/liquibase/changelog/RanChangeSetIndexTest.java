@@ -0,0 +1,68 @@
+package liquibase.changelog;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import liquibase.change.CheckSum;
+
+import org.junit.Test;
+
+public class RanChangeSetIndexTest {
+
+    @Test
+    public void find() {
+        RanChangeSetIndex index = new RanChangeSetIndex(getRanChangeSets());
+
+        assertEquals("2", index.find(new ChangeSetImpl("2", "testAuthor", false, false, "path/changelog", null, null, null)).getId());
+        assertEquals("1", index.find(new ChangeSetImpl("1", "TESTAUTHOR", false, false, "path\\CHANGELOG", null, null, null)).getId());
+        assertNull(index.find(new ChangeSetImpl("3", "testAuthor", false, false, "path/changelog", null, null, null)));
+        assertNull(index.find(new ChangeSetImpl("1", "otherAuthor", false, false, "path/changelog", null, null, null)));
+    }
+
+    @Test
+    public void getCandidates_ignoresClasspathPrefix() {
+        RanChangeSetIndex index = new RanChangeSetIndex(getRanChangeSets());
+
+        List<RanChangeSet> candidates = index.getCandidates(new ChangeSetImpl("3", "testAuthor", false, false, "path/changelog", null, null, null));
+        assertEquals(1, candidates.size());
+        assertEquals("classpath:path/changelog", candidates.get(0).getChangeLog());
+    }
+
+    @Test
+    public void addAndRemove() {
+        RanChangeSetIndex index = new RanChangeSetIndex(getRanChangeSets());
+        List<RanChangeSet> view = index.getRanChangeSets();
+
+        ChangeSet changeSet = new ChangeSetImpl("4", "testAuthor", false, false, "path/changelog", null, null, null);
+        index.add(new RanChangeSet("path/changelog", "4", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+        assertEquals(4, view.size());
+        assertEquals("4", index.find(changeSet).getId());
+
+        index.remove(changeSet);
+        assertEquals(3, view.size());
+        assertNull(index.find(changeSet));
+    }
+
+    @Test
+    public void forList_sharesIndex() {
+        RanChangeSetIndex index = new RanChangeSetIndex(getRanChangeSets());
+
+        assertSame(index, RanChangeSetIndex.forList(index.getRanChangeSets()));
+        assertEquals(3, RanChangeSetIndex.forList(getRanChangeSets()).size());
+        assertTrue(RanChangeSetIndex.forList(null).getRanChangeSets().isEmpty());
+    }
+
+    private List<RanChangeSet> getRanChangeSets() {
+        List<RanChangeSet> ranChanges = new ArrayList<RanChangeSet>();
+        ranChanges.add(new RanChangeSet("path/changelog", "1", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+        ranChanges.add(new RanChangeSet("path/changelog", "2", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+        ranChanges.add(new RanChangeSet("classpath:path/changelog", "3", "testAuthor", CheckSum.parse("12345"), new Date(), null, null, null, null));
+        return ranChanges;
+    }
+}
@@ -1,6 +1,10 @@
 package liquibase.lockservice;
 
 import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.exception.LockException;
+import liquibase.executor.ExecutorService;
 
 import static org.easymock.classextension.EasyMock.*;
 import org.junit.After;
@@ -9,6 +13,9 @@ import org.junit.Test;
 import org.junit.Before;
 
 import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
 
 @SuppressWarnings({"EqualsWhichDoesntCheckParameterClass"})
 public class StandardLockServiceTest {
@@ -43,6 +50,122 @@ public class StandardLockServiceTest {
         assertTrue(lockService.acquireLock());
     }
 
+    @Test
+    public void waitForLock_lockedThenReleased() throws Exception {
+        final Connection other = DriverManager.getConnection("jdbc:h2:mem:lockservice;DB_CLOSE_DELAY=-1", "sa", "");
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:lockservice;DB_CLOSE_DELAY=-1", "sa", "")));
+        try {
+            lockService.setDatabase(database);
+            lockService.init();
+            other.createStatement().executeUpdate("UPDATE DATABASECHANGELOGLOCK SET LOCKED = TRUE, LOCKEDBY = 'other' WHERE ID = 1");
+            other.commit();
+
+            Thread releaser = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        Thread.sleep(300);
+                        other.createStatement().executeUpdate("UPDATE DATABASECHANGELOGLOCK SET LOCKED = FALSE, LOCKEDBY = NULL WHERE ID = 1");
+                        other.commit();
+                    } catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            };
+            long started = System.currentTimeMillis();
+            releaser.start();
+            lockService.waitForLock();
+            releaser.join();
+
+            assertTrue(lockService.hasChangeLogLock());
+            assertTrue("waited " + (System.currentTimeMillis() - started) + "ms", System.currentTimeMillis() - started < 5000);
+            lockService.releaseLock();
+        } finally {
+            ExecutorService.getInstance().clearExecutor(database);
+            other.createStatement().execute("DROP ALL OBJECTS");
+            other.close();
+            database.close();
+        }
+    }
+
+    @Test
+    public void waitForLock_failureReleasesAdvisoryLock() throws Exception {
+        final CountingAdvisoryLock advisoryLock = new CountingAdvisoryLock();
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:lockservicefailure", "sa", "")));
+        lockService = new StandardLockService() {
+            @Override
+            AdvisoryLock createAdvisoryLock() {
+                return advisoryLock;
+            }
+
+            @Override
+            public boolean acquireLock() throws LockException {
+                throw new LockException("lock table not readable");
+            }
+        };
+        try {
+            lockService.setDatabase(database);
+            try {
+                lockService.waitForLock();
+                fail("LockException expected");
+            } catch (LockException e) {
+                assertEquals("lock table not readable", e.getMessage());
+            }
+            assertEquals(1, advisoryLock.acquired);
+            assertEquals(1, advisoryLock.released);
+
+            lockService.reset();
+            assertEquals(1, advisoryLock.released);
+        } finally {
+            ExecutorService.getInstance().clearExecutor(database);
+            database.close();
+        }
+    }
+
+    @Test
+    public void reset_releasesAdvisoryLock() throws Exception {
+        final CountingAdvisoryLock advisoryLock = new CountingAdvisoryLock();
+        Database database = DatabaseFactory.getInstance().findCorrectDatabaseImplementation(new JdbcConnection(DriverManager.getConnection("jdbc:h2:mem:lockservicereset;DB_CLOSE_DELAY=-1", "sa", "")));
+        lockService = new StandardLockService() {
+            @Override
+            AdvisoryLock createAdvisoryLock() {
+                return advisoryLock;
+            }
+        };
+        try {
+            lockService.setDatabase(database);
+            lockService.waitForLock();
+            assertEquals(1, advisoryLock.acquired);
+            assertEquals(0, advisoryLock.released);
+
+            lockService.reset();
+            assertEquals(1, advisoryLock.released);
+        } finally {
+            ExecutorService.getInstance().clearExecutor(database);
+            ((JdbcConnection) database.getConnection()).getUnderlyingConnection().createStatement().execute("DROP ALL OBJECTS");
+            database.close();
+        }
+    }
+
+    private static class CountingAdvisoryLock extends AdvisoryLock {
+        private int acquired;
+        private int released;
+
+        private CountingAdvisoryLock() {
+            super("liquibase:test");
+        }
+
+        @Override
+        public boolean acquire(Connection connection, long timeoutMillis) throws SQLException {
+            acquired++;
+            return true;
+        }
+
+        @Override
+        public void release(Connection connection) throws SQLException {
+            released++;
+        }
+    }
 
 //    @Test
 //    public void acquireLock_tableExistsNotLocked() throws Exception {
@@ -1,9 +1,15 @@
 package liquibase.snapshot;
 
+import liquibase.database.Database;
+import liquibase.sdk.database.MockDatabase;
 import org.hamcrest.Matcher;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsInAnyOrder;
@@ -39,4 +45,80 @@ public class ResultSetCacheTest {
 //                new String[]{null, null, null}
 //        ));
 //    }
+
+    @Test
+    public void nullParametersMatchAnyValue() throws Exception {
+        MockDatabase database = new MockDatabase();
+        ResultSetCache cache = new ResultSetCache();
+        List<CachedRow> rows = Arrays.asList(row("T1", "A"), row("T1", "B"), row("T2", "A"));
+        int[] fetches = new int[1];
+
+        assertEquals(3, cache.get(new BulkExtractor(database, rows, fetches, null, null)).size());
+        assertEquals(2, cache.get(new BulkExtractor(database, rows, fetches, "T1", null)).size());
+        assertEquals(2, cache.get(new BulkExtractor(database, rows, fetches, null, "A")).size());
+        assertEquals(1, cache.get(new BulkExtractor(database, rows, fetches, "t2", "a")).size());
+        assertEquals(0, cache.get(new BulkExtractor(database, rows, fetches, "T3", null)).size());
+        assertEquals("only the first lookup fetches, the schema is complete after a bulk fetch", 1, fetches[0]);
+    }
+
+    @Test
+    public void completeSchemaIsNotFetchedAgain() throws Exception {
+        MockDatabase database = new MockDatabase();
+        ResultSetCache cache = new ResultSetCache();
+        int[] fetches = new int[1];
+
+        cache.setComplete(new ResultSetCache.RowData("CAT", "SCHEMA", database).createSchemaKey(database));
+        assertEquals(0, cache.get(new BulkExtractor(database, Arrays.asList(row("T1", "A")), fetches, "T1", null)).size());
+        assertEquals(0, fetches[0]);
+    }
+
+    private static CachedRow row(String table, String column) {
+        Map<String, Object> row = new HashMap<String, Object>();
+        row.put("TABLE_NAME", table);
+        row.put("COLUMN_NAME", column);
+        return new CachedRow(row);
+    }
+
+    private static class BulkExtractor extends ResultSetCache.SingleResultSetExtractor {
+        private final Database database;
+        private final List<CachedRow> rows;
+        private final int[] fetches;
+        private final String table;
+        private final String column;
+
+        private BulkExtractor(Database database, List<CachedRow> rows, int[] fetches, String table, String column) {
+            super(database);
+            this.database = database;
+            this.rows = rows;
+            this.fetches = fetches;
+            this.table = table;
+            this.column = column;
+        }
+
+        @Override
+        boolean shouldBulkSelect(String schemaKey, ResultSetCache resultSetCache) {
+            return true;
+        }
+
+        @Override
+        public ResultSetCache.RowData rowKeyParameters(CachedRow row) {
+            return new ResultSetCache.RowData("CAT", "SCHEMA", database, row.getString("TABLE_NAME"), row.getString("COLUMN_NAME"));
+        }
+
+        @Override
+        public ResultSetCache.RowData wantedKeyParameters() {
+            return new ResultSetCache.RowData("CAT", "SCHEMA", database, table, column);
+        }
+
+        @Override
+        public List<CachedRow> fastFetchQuery() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CachedRow> bulkFetchQuery() {
+            fetches[0]++;
+            return new ArrayList<CachedRow>(rows);
+        }
+    }
 }
@@ -125,6 +125,26 @@ public class SqlGeneratorFactoryTest {
         assertEquals(1, allGenerators.size());        
     }
 
+    @Test
+    public void getGenerators_dynamicGeneratorIsAskedForEveryStatement() {
+        SqlGeneratorFactory factory = SqlGeneratorFactory.getInstance();
+        factory.getGenerators().clear();
+        factory.register(new AddAutoIncrementGenerator());
+        assertEquals(0, factory.getGenerators(new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null), new H2Database()).size());
+
+        factory.register(new DynamicAddAutoIncrementGenerator());
+
+        assertEquals(1, factory.getGenerators(new AddAutoIncrementStatement(null, null, "person", "name", "varchar(255)", null, null), new H2Database()).size());
+        assertEquals(0, factory.getGenerators(new AddAutoIncrementStatement(null, null, "other", "name", "varchar(255)", null, null), new H2Database()).size());
+    }
+
+    private static class DynamicAddAutoIncrementGenerator extends AddAutoIncrementGenerator implements DynamicSqlGenerator {
+        @Override
+        public boolean supports(AddAutoIncrementStatement statement, Database database) {
+            return "person".equals(statement.getTableName());
+        }
+    }
+
     private SqlGenerator addGenerator(final Class<? extends SqlStatement> sqlStatementClass, final Class<? extends Database> sqlDatabaseClass, final int level) {
     	
         SqlGenerator generator = new SqlGenerator() {
@@ -0,0 +1,218 @@
+package liquibase.change;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.logging.LogFactory;
+import liquibase.util.MD5Util;
+import liquibase.util.StringUtils;
+
+/**
+ * Remembers checksums computed from the contents of files referenced by changes such as loadData and sqlFile so they do not need to
+ * be re-read on every run. Entries are keyed on the canonical file path plus a caller supplied "variant" describing how the file was
+ * hashed, and are only used while the file's modification time and size are unchanged.
+ * <p>
+ * The cache is only active if {@link CheckSumCacheConfiguration#getCacheFile()} is set. Entries are loaded from that file when the cache
+ * is created and appended to it as they are computed. The file is rewritten without stale entries when it is loaded.
+ * Because the modification time and size are used to detect changes, a file rewritten with the same size within the file system's
+ * timestamp resolution is not detected.
+ */
+public class CheckSumCache {
+
+    private static CheckSumCache instance;
+
+    private final File cacheFile;
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    public CheckSumCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+        if (cacheFile != null) {
+            load();
+        }
+    }
+
+    /**
+     * Return the singleton CheckSumCache, configured from {@link CheckSumCacheConfiguration}.
+     */
+    public static synchronized CheckSumCache getInstance() {
+        if (instance == null) {
+            String cacheFile = LiquibaseConfiguration.getInstance().getConfiguration(CheckSumCacheConfiguration.class).getCacheFile();
+            instance = new CheckSumCache(StringUtils.trimToNull(cacheFile) == null ? null : new File(cacheFile));
+        }
+        return instance;
+    }
+
+    /**
+     * Reset the CheckSumCache so the configuration is re-read on the next call to {@link #getInstance()}. Mainly used in testing
+     */
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    public boolean isEnabled() {
+        return cacheFile != null;
+    }
+
+    /**
+     * Returns the cached checksum for the given file and variant, or null if there is none, the file changed since it was stored or the cache is disabled.
+     */
+    public synchronized CheckSum get(File file, String variant) {
+        if (!isEnabled()) {
+            return null;
+        }
+        String path = getPath(file);
+        if (path == null) {
+            return null;
+        }
+        Entry entry = entries.get(createKey(path, variant));
+        if (entry == null || entry.lastModified != file.lastModified() || entry.length != file.length()
+                || entry.checkSum.getVersion() != CheckSum.getCurrentVersion()) {
+            return null;
+        }
+        return entry.checkSum;
+    }
+
+    public synchronized void put(File file, String variant, CheckSum checkSum) {
+        if (!isEnabled()) {
+            return;
+        }
+        String path = getPath(file);
+        if (path == null || checkSum == null) {
+            return;
+        }
+        Entry entry = new Entry(path, variantHash(variant), file.lastModified(), file.length(), checkSum);
+        entries.put(createKey(path, variant), entry);
+
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(cacheFile, true), "UTF-8");
+            writer.write(entry.toLine());
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot write checksum cache " + cacheFile.getAbsolutePath(), e);
+        } finally {
+            close(writer);
+        }
+    }
+
+    protected void load() {
+        if (!cacheFile.exists()) {
+            return;
+        }
+        int lines = 0;
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(cacheFile), "UTF-8"));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines++;
+                Entry entry = Entry.parse(line);
+                if (entry != null) {
+                    entries.put(entry.variantHash + "|" + entry.path, entry);
+                }
+            }
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot read checksum cache " + cacheFile.getAbsolutePath(), e);
+            return;
+        } finally {
+            close(reader);
+        }
+
+        if (lines > entries.size()) {
+            compact();
+        }
+    }
+
+    /**
+     * Rewrites the cache file with only the latest entry for each file that still exists.
+     */
+    protected void compact() {
+        Writer writer = null;
+        try {
+            writer = new OutputStreamWriter(new FileOutputStream(cacheFile, false), "UTF-8");
+            for (Entry entry : entries.values()) {
+                File file = new File(entry.path);
+                if (file.lastModified() == entry.lastModified && file.length() == entry.length) {
+                    writer.write(entry.toLine());
+                }
+            }
+        } catch (IOException e) {
+            LogFactory.getLogger().debug("Cannot compact checksum cache " + cacheFile.getAbsolutePath(), e);
+        } finally {
+            close(writer);
+        }
+    }
+
+    protected String createKey(String path, String variant) {
+        return variantHash(variant) + "|" + path;
+    }
+
+    private String variantHash(String variant) {
+        return MD5Util.computeMD5(String.valueOf(variant));
+    }
+
+    private String getPath(File file) {
+        if (file == null || !file.isFile()) {
+            return null;
+        }
+        try {
+            String path = file.getCanonicalPath();
+            if (path.indexOf('\n') >= 0 || path.indexOf('\r') >= 0) {
+                return null;
+            }
+            return path;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void close(Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignore) {
+            }
+        }
+    }
+
+    private static class Entry {
+        private final String path;
+        private final String variantHash;
+        private final long lastModified;
+        private final long length;
+        private final CheckSum checkSum;
+
+        private Entry(String path, String variantHash, long lastModified, long length, CheckSum checkSum) {
+            this.path = path;
+            this.variantHash = variantHash;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.checkSum = checkSum;
+        }
+
+        private static Entry parse(String line) {
+            String[] parts = line.split("\t", 5);
+            if (parts.length != 5) {
+                return null;
+            }
+            try {
+                return new Entry(parts[4], parts[3], Long.parseLong(parts[0]), Long.parseLong(parts[1]), CheckSum.parse(parts[2]));
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private String toLine() {
+            return lastModified + "\t" + length + "\t" + checkSum.toString() + "\t" + variantHash + "\t" + path + "\n";
+        }
+    }
+}
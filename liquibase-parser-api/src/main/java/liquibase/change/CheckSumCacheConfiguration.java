@@ -0,0 +1,30 @@
+package liquibase.change;
+
+import liquibase.configuration.AbstractConfigurationContainer;
+
+/**
+ * Configuration container for the optional on-disk {@link CheckSumCache}.
+ */
+public class CheckSumCacheConfiguration extends AbstractConfigurationContainer {
+
+    public static final String CACHE_FILE = "checkSumCacheFile";
+
+    public CheckSumCacheConfiguration() {
+        super("liquibase");
+
+        getContainer().addProperty(CACHE_FILE, String.class)
+                .setDescription("File used to remember checksums of files referenced by loadData and sqlFile between runs. Caching is disabled if not set");
+    }
+
+    /**
+     * File used to store cached checksums, or null if the on-disk cache is disabled.
+     */
+    public String getCacheFile() {
+        return getContainer().getValue(CACHE_FILE, String.class);
+    }
+
+    public CheckSumCacheConfiguration setCacheFile(String cacheFile) {
+        getContainer().setValue(CACHE_FILE, cacheFile);
+        return this;
+    }
+}
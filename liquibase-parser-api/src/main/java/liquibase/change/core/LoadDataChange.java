@@ -1,6 +1,7 @@
 package liquibase.change.core;
 
 import java.io.BufferedInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -12,6 +13,7 @@ import liquibase.change.Change;
 import liquibase.change.ChangeMetaData;
 import liquibase.change.ChangeWithColumns;
 import liquibase.change.CheckSum;
+import liquibase.change.CheckSumCache;
 import liquibase.change.ColumnConfig;
 import liquibase.change.DatabaseChange;
 import liquibase.change.DatabaseChangeProperty;
@@ -34,6 +36,8 @@ import org.kohsuke.MetaInfServices;
 @MetaInfServices(Change.class)
 public class LoadDataChange extends BaseChange implements ChangeWithColumns<LoadDataColumnConfig> {
 
+    private static final String FILE_CHECKSUM_VARIANT = "loadData";
+
     private String catalogName;
     private String schemaName;
     private String tableName;
@@ -151,8 +155,20 @@ public class LoadDataChange extends BaseChange implements ChangeWithColumns<Load
         return null;
     }
 
+    /**
+     * Checksum is based on the table name and the contents of the data file. The file checksum is looked up in the {@link CheckSumCache}
+     * first so unchanged files are not re-read.
+     */
     @Override
     public CheckSum generateCheckSum() {
+        File cacheableFile = StreamUtil.getResourceFile(file, isRelativeToChangelogFile(), getChangeSet(), getResourceAccessor());
+        if (cacheableFile != null) {
+            CheckSum fileCheckSum = CheckSumCache.getInstance().get(cacheableFile, FILE_CHECKSUM_VARIANT);
+            if (fileCheckSum != null) {
+                return CheckSum.compute(getTableName() + ":" + fileCheckSum);
+            }
+        }
+
         InputStream stream = null;
         try {
             stream = StreamUtil.openStream(file, isRelativeToChangelogFile(), getChangeSet(),
@@ -161,7 +177,11 @@ public class LoadDataChange extends BaseChange implements ChangeWithColumns<Load
                 throw new UnexpectedLiquibaseException(getFile() + " could not be found");
             }
             stream = new BufferedInputStream(stream);
-            return CheckSum.compute(getTableName() + ":" + CheckSum.compute(stream, true));
+            CheckSum fileCheckSum = CheckSum.compute(stream, true);
+            if (cacheableFile != null) {
+                CheckSumCache.getInstance().put(cacheableFile, FILE_CHECKSUM_VARIANT, fileCheckSum);
+            }
+            return CheckSum.compute(getTableName() + ":" + fileCheckSum);
         }
         catch (IOException e) {
             throw new UnexpectedLiquibaseException(e);
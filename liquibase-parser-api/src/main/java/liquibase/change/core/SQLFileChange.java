@@ -1,11 +1,14 @@
 package liquibase.change.core;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
 import liquibase.change.BaseSQLChange;
 import liquibase.change.Change;
 import liquibase.change.ChangeMetaData;
+import liquibase.change.CheckSum;
+import liquibase.change.CheckSumCache;
 import liquibase.change.DatabaseChange;
 import liquibase.change.DatabaseChangeProperty;
 import liquibase.changelog.ChangeLogParameters;
@@ -109,6 +112,28 @@ public class SQLFileChange extends BaseSQLChange {
         return inputStream;
     }
 
+    /**
+     * Uses the {@link CheckSumCache} to avoid re-reading an unchanged file. The checksum itself is computed as in {@link BaseSQLChange}.
+     */
+    @Override
+    public CheckSum generateCheckSum() {
+        if (super.getSql() != null) {
+            return super.generateCheckSum();
+        }
+        File cacheableFile = StreamUtil.getResourceFile(path, isRelativeToChangelogFile(), getChangeSet(), getResourceAccessor());
+        if (cacheableFile == null) {
+            return super.generateCheckSum();
+        }
+
+        String variant = "sqlFile:" + getEndDelimiter() + ":" + isSplitStatements() + ":" + isStripComments();
+        CheckSum checkSum = CheckSumCache.getInstance().get(cacheableFile, variant);
+        if (checkSum == null) {
+            checkSum = super.generateCheckSum();
+            CheckSumCache.getInstance().put(cacheableFile, variant, checkSum);
+        }
+        return checkSum;
+    }
+
     @Override
     @DatabaseChangeProperty(isChangeProperty = false)
     public String getSql() {
@@ -133,6 +133,12 @@ public class ChangeSetImpl implements Conditional, ChangeSet {
 
     private DatabaseChangeLog changeLog;
 
+    /**
+     * Checksum computed by the last call to {@link #generateCheckSum()}. It is published through a single volatile field so a parsed
+     * change set can be shared by several threads, e.g. by {@code MultiTargetUpdate}.
+     */
+    private volatile ComputedCheckSum checkSum;
+
     /* (non-Javadoc)
      * @see liquibase.changelog.IChangeSet#shouldAlwaysRun()
      */
@@ -204,6 +210,25 @@ public class ChangeSetImpl implements Conditional, ChangeSet {
      */
     @Override
     public CheckSum generateCheckSum() {
+        ComputedCheckSum computed = this.checkSum;
+        if (computed != null && computed.changeCount == changes.size() && computed.sqlVisitorCount == sqlVisitors.size()) {
+            return computed.checkSum;
+        }
+
+        CheckSum checkSum = computeCheckSum();
+        this.checkSum = new ComputedCheckSum(checkSum, changes.size(), sqlVisitors.size());
+        return checkSum;
+    }
+
+    /**
+     * Discards the checksum remembered by {@link #generateCheckSum()}. Adding changes or sql visitors does this automatically,
+     * but it must be called if a contained Change is modified after the checksum has been generated.
+     */
+    public void resetCheckSum() {
+        this.checkSum = null;
+    }
+
+    protected CheckSum computeCheckSum() {
         StringBuffer stringToMD5 = new StringBuffer();
         for (Change change : getChanges()) {
             stringToMD5.append(change.generateCheckSum()).append(":");
@@ -222,6 +247,7 @@ public class ChangeSetImpl implements Conditional, ChangeSet {
      */
     @Override
     public void load(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException {
+        resetCheckSum();
         this.id = node.getChildValue(null, "id", String.class);
         this.author = node.getChildValue(null, "author", String.class);
         this.alwaysRun  = node.getChildValue(null, "runAlways", node.getChildValue(null, "alwaysRun", false));
@@ -427,6 +453,7 @@ public class ChangeSetImpl implements Conditional, ChangeSet {
         }
         changes.add(change);
         change.setChangeSet(this);
+        resetCheckSum();
     }
 
     /* (non-Javadoc)
@@ -723,6 +750,7 @@ public class ChangeSetImpl implements Conditional, ChangeSet {
     @Override
     public void addSqlVisitor(SqlVisitor sqlVisitor) {
         sqlVisitors.add(sqlVisitor);
+        resetCheckSum();
     }
 
     /* (non-Javadoc)
@@ -925,4 +953,19 @@ public class ChangeSetImpl implements Conditional, ChangeSet {
     public int hashCode() {
         return toString(false).hashCode();
     }
+
+    /**
+     * Immutable pair of a checksum and the number of changes and sql visitors it covered.
+     */
+    private static class ComputedCheckSum {
+        private final CheckSum checkSum;
+        private final int changeCount;
+        private final int sqlVisitorCount;
+
+        private ComputedCheckSum(CheckSum checkSum, int changeCount, int sqlVisitorCount) {
+            this.checkSum = checkSum;
+            this.changeCount = changeCount;
+            this.sqlVisitorCount = sqlVisitorCount;
+        }
+    }
 }
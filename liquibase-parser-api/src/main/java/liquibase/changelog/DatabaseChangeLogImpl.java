@@ -4,14 +4,24 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import liquibase.configuration.LiquibaseConfiguration;
 import liquibase.database.ObjectQuotingStrategy;
 import liquibase.exception.LiquibaseException;
 import liquibase.exception.SetupException;
@@ -19,7 +29,10 @@ import liquibase.exception.UnexpectedLiquibaseException;
 import liquibase.exception.UnknownChangelogFormatException;
 import liquibase.logging.LogFactory;
 import liquibase.logging.Logger;
+import liquibase.parser.ChangeLogParser;
+import liquibase.parser.ChangeLogParserConfiguration;
 import liquibase.parser.ChangeLogParserFactory;
+import liquibase.parser.ParsedNodeChangeLogParser;
 import liquibase.parser.core.ParsedNode;
 import liquibase.parser.core.ParsedNodeException;
 import liquibase.precondition.Conditional;
@@ -40,6 +53,9 @@ public class DatabaseChangeLogImpl implements Conditional, DatabaseChangeLog {
     private List<ChangeSet> changeSets = new ArrayList<ChangeSet>();
     private ChangeLogParameters changeLogParameters;
 
+    private List<String> includedFilePaths = new ArrayList<String>();
+    private List<IncludedDirectory> includedDirectories = new ArrayList<IncludedDirectory>();
+
     private boolean ignoreClasspathPrefix = false;
 
     public DatabaseChangeLogImpl() {
@@ -328,6 +344,7 @@ public class DatabaseChangeLogImpl implements Conditional, DatabaseChangeLog {
             }
 
             Set<String> unsortedResources = resourceAccessor.list(relativeTo, pathName, true, false, true);
+            includedDirectories.add(new IncludedDirectory(relativeTo, pathName));
             SortedSet<String> resources = new TreeSet<String>(resourceComparator);
             if (unsortedResources != null) {
                 for (String resourcePath : unsortedResources) {
@@ -341,14 +358,93 @@ public class DatabaseChangeLogImpl implements Conditional, DatabaseChangeLog {
                 throw new SetupException("Could not find directory or directory was empty for includeAll '" + pathName + "'");
             }
 
-            for (String path : resources) {
-                include(path, false, resourceAccessor);
+            int threads = getIncludeAllThreads();
+            if (threads > 1 && resources.size() > 1) {
+                includeConcurrently(resources, threads, resourceAccessor);
+            } else {
+                for (String path : resources) {
+                    include(path, false, resourceAccessor);
+                }
             }
         } catch (Exception e) {
             throw new SetupException(e);
         }
     }
 
+    protected int getIncludeAllThreads() {
+        Integer threads = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserConfiguration.class).getIncludeAllThreads();
+        return threads == null ? 1 : threads;
+    }
+
+    /**
+     * Reads the given files on a pool of threads, but loads them in the iteration order of the set. Loading sets properties and expands
+     * parameters, so the result is the same as including the files one after the other. Files whose parser is not a
+     * {@link ParsedNodeChangeLogParser} are included without reading ahead.
+     */
+    protected void includeConcurrently(SortedSet<String> paths, int threads, final ResourceAccessor resourceAccessor) throws LiquibaseException {
+        Map<String, Future<ParsedNode>> parsedNodes = new HashMap<String, Future<ParsedNode>>();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(threads, paths.size()), new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "liquibase-include-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            for (final String path : paths) {
+                final ChangeLogParser parser = getIncludeParser(path, resourceAccessor);
+                if (parser instanceof ParsedNodeChangeLogParser) {
+                    parsedNodes.put(path, pool.submit(new Callable<ParsedNode>() {
+                        @Override
+                        public ParsedNode call() throws Exception {
+                            return ((ParsedNodeChangeLogParser) parser).parseToNode(path, resourceAccessor);
+                        }
+                    }));
+                }
+            }
+
+            for (String path : paths) {
+                Future<ParsedNode> parsedNode = parsedNodes.get(path);
+                if (parsedNode == null) {
+                    include(path, false, resourceAccessor);
+                    continue;
+                }
+                ParsedNode node;
+                try {
+                    node = parsedNode.get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SetupException("Interrupted while reading " + path);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof LiquibaseException) {
+                        throw (LiquibaseException) e.getCause();
+                    }
+                    throw new SetupException(e.getCause());
+                }
+                if (node != null) {
+                    ParsedNodeChangeLogParser parser = (ParsedNodeChangeLogParser) ChangeLogParserFactory.getInstance().getParser(path, resourceAccessor);
+                    addIncludedChangeLog(parser.parse(path, node, changeLogParameters, resourceAccessor));
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private ChangeLogParser getIncludeParser(String path, ResourceAccessor resourceAccessor) throws LiquibaseException {
+        if (path.equalsIgnoreCase(".svn") || path.equalsIgnoreCase("cvs")) {
+            return null;
+        }
+        try {
+            return ChangeLogParserFactory.getInstance().getParser(path, resourceAccessor);
+        } catch (UnknownChangelogFormatException e) {
+            return null;
+        }
+    }
+
     protected boolean include(String fileName, boolean isRelativePath, ResourceAccessor resourceAccessor) throws LiquibaseException {
 
         if (fileName.equalsIgnoreCase(".svn") || fileName.equalsIgnoreCase("cvs")) {
@@ -372,6 +468,18 @@ public class DatabaseChangeLogImpl implements Conditional, DatabaseChangeLog {
             LogFactory.getInstance().getLog().warning("included file " + relativeBaseFileName + "/" + fileName + " is not a recognized file type");
             return false;
         }
+        addIncludedChangeLog(changeLog);
+
+        return true;
+    }
+
+    /**
+     * Adds the preconditions and change sets of an included changelog to this changelog.
+     */
+    protected void addIncludedChangeLog(DatabaseChangeLogImpl changeLog) {
+        includedFilePaths.add(changeLog.getPhysicalFilePath());
+        includedFilePaths.addAll(changeLog.getIncludedFilePaths());
+        includedDirectories.addAll(changeLog.getIncludedDirectories());
         PreconditionContainer preconditions = changeLog.getPreconditions();
         if (preconditions != null) {
             if (null == this.getPreconditions()) {
@@ -382,8 +490,21 @@ public class DatabaseChangeLogImpl implements Conditional, DatabaseChangeLog {
         for (ChangeSet changeSet : changeLog.getChangeSets()) {
             this.changeSets.add(changeSet);
         }
+    }
 
-        return true;
+    /**
+     * Returns the physical paths of the changelog files included by this changelog, directly or through included changelogs, in the order
+     * they were included.
+     */
+    public List<String> getIncludedFilePaths() {
+        return Collections.unmodifiableList(includedFilePaths);
+    }
+
+    /**
+     * Returns the directories listed by includeAll in this changelog and in included changelogs.
+     */
+    public List<IncludedDirectory> getIncludedDirectories() {
+        return Collections.unmodifiableList(includedDirectories);
     }
 
     protected ChangeSet createChangeSet(ParsedNode node, ResourceAccessor resourceAccessor) throws ParsedNodeException, SetupException {
@@ -428,4 +549,25 @@ public class DatabaseChangeLogImpl implements Conditional, DatabaseChangeLog {
         }
         return filePath;
     }
+
+    /**
+     * A directory listed by includeAll, with the arguments to list it again through a {@link ResourceAccessor}.
+     */
+    public static class IncludedDirectory {
+        private final String relativeTo;
+        private final String path;
+
+        public IncludedDirectory(String relativeTo, String path) {
+            this.relativeTo = relativeTo;
+            this.path = path;
+        }
+
+        public String getRelativeTo() {
+            return relativeTo;
+        }
+
+        public String getPath() {
+            return path;
+        }
+    }
 }
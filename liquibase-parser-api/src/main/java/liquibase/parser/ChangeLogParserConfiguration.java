@@ -0,0 +1,45 @@
+package liquibase.parser;
+
+import liquibase.configuration.AbstractConfigurationContainer;
+
+/**
+ * Configuration container for parsing included changelogs.
+ */
+public class ChangeLogParserConfiguration extends AbstractConfigurationContainer {
+
+    public static final String INCLUDE_ALL_THREADS = "includeAllThreads";
+    public static final String PARSED_CHANGELOG_CACHE = "parsedChangeLogCache";
+
+    public ChangeLogParserConfiguration() {
+        super("liquibase");
+
+        getContainer().addProperty(INCLUDE_ALL_THREADS, Integer.class)
+                .setDescription("Number of threads used to read the files of an includeAll. The files are still loaded in the order of the includeAll")
+                .setDefaultValue(1);
+
+        getContainer().addProperty(PARSED_CHANGELOG_CACHE, Boolean.class)
+                .setDescription("Keep parsed changelog files in memory and reuse them while their content is unchanged")
+                .setDefaultValue(false);
+    }
+
+    /**
+     * Number of threads used to read the files of an includeAll. 1 reads them one after the other.
+     */
+    public Integer getIncludeAllThreads() {
+        return getContainer().getValue(INCLUDE_ALL_THREADS, Integer.class);
+    }
+
+    public ChangeLogParserConfiguration setIncludeAllThreads(Integer threads) {
+        getContainer().setValue(INCLUDE_ALL_THREADS, threads);
+        return this;
+    }
+
+    public Boolean getParsedChangeLogCache() {
+        return getContainer().getValue(PARSED_CHANGELOG_CACHE, Boolean.class);
+    }
+
+    public ChangeLogParserConfiguration setParsedChangeLogCache(Boolean enabled) {
+        getContainer().setValue(PARSED_CHANGELOG_CACHE, enabled);
+        return this;
+    }
+}
@@ -0,0 +1,87 @@
+package liquibase.parser;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import liquibase.configuration.LiquibaseConfiguration;
+import liquibase.parser.core.ParsedNode;
+
+/**
+ * Keeps the {@link ParsedNode} trees of parsed changelog files in memory, keyed on the resource path and a hash of the file content,
+ * so a file which did not change is not parsed again when it is included by several changelogs or the same changelog is parsed
+ * several times in one JVM.
+ * <p>
+ * Loading a ParsedNode into a changelog expands changelog parameters in place, so the cache stores and returns copies.
+ * The cache is only active if {@link ChangeLogParserConfiguration#getParsedChangeLogCache()} is true.
+ */
+public class ParsedNodeCache {
+
+    private static ParsedNodeCache instance;
+
+    private final boolean enabled;
+    private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+    public ParsedNodeCache(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Return the singleton ParsedNodeCache, configured from {@link ChangeLogParserConfiguration}.
+     */
+    public static synchronized ParsedNodeCache getInstance() {
+        if (instance == null) {
+            Boolean enabled = LiquibaseConfiguration.getInstance().getConfiguration(ChangeLogParserConfiguration.class).getParsedChangeLogCache();
+            instance = new ParsedNodeCache(enabled != null && enabled);
+        }
+        return instance;
+    }
+
+    /**
+     * Reset the ParsedNodeCache so the configuration is re-read on the next call to {@link #getInstance()}. Mainly used in testing
+     */
+    public static synchronized void reset() {
+        instance = null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns a copy of the node cached for the given path and content hash, or null if there is none or the cache is disabled.
+     */
+    public synchronized ParsedNode get(String path, String contentHash) {
+        if (!enabled || contentHash == null) {
+            return null;
+        }
+        Entry entry = entries.get(path);
+        if (entry == null || !entry.contentHash.equals(contentHash)) {
+            return null;
+        }
+        return entry.node.copy();
+    }
+
+    /**
+     * Stores a copy of the given node, replacing the node cached for an older content of the same path.
+     */
+    public synchronized void put(String path, String contentHash, ParsedNode node) {
+        if (!enabled || contentHash == null || node == null) {
+            return;
+        }
+        entries.put(path, new Entry(contentHash, node.copy()));
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private static class Entry {
+        private final String contentHash;
+        private final ParsedNode node;
+
+        private Entry(String contentHash, ParsedNode node) {
+            this.contentHash = contentHash;
+            this.node = node;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package liquibase.parser;
+
+import liquibase.changelog.ChangeLogParameters;
+import liquibase.changelog.DatabaseChangeLogImpl;
+import liquibase.exception.ChangeLogParseException;
+import liquibase.parser.core.ParsedNode;
+import liquibase.resource.ResourceAccessor;
+
+/**
+ * {@link ChangeLogParser} which parses in two steps: reading the file into a {@link ParsedNode} and loading that node into a changelog.
+ * Only the second step uses the {@link ChangeLogParameters}, so the files of an includeAll can be read concurrently while they are
+ * still loaded, and their properties set, in order.
+ */
+public interface ParsedNodeChangeLogParser extends ChangeLogParser {
+
+    /**
+     * Reads the given file. The returned node must not depend on the changelog parameters. This method may be called from several threads at once.
+     */
+    ParsedNode parseToNode(String physicalChangeLogLocation, ResourceAccessor resourceAccessor) throws ChangeLogParseException;
+
+    /**
+     * Creates the changelog for a node returned by {@link #parseToNode(String, ResourceAccessor)}.
+     */
+    DatabaseChangeLogImpl parse(String physicalChangeLogLocation, ParsedNode parsedNode, ChangeLogParameters changeLogParameters, ResourceAccessor resourceAccessor) throws ChangeLogParseException;
+}
@@ -187,6 +187,18 @@ public class ParsedNode {
         return this;
     }
 
+    /**
+     * Returns a copy of this node and all its children. Values are shared with this node, except that lists of values are copied.
+     */
+    public ParsedNode copy() {
+        ParsedNode copy = createNode(namespace, name);
+        copy.value = value instanceof List ? new ArrayList((List) value) : value;
+        for (ParsedNode child : children) {
+            copy.children.add(child.copy());
+        }
+        return copy;
+    }
+
     protected boolean nodeMatches(ParsedNode node, String namespace, String nodename) {
         return namespaceMatches(node, namespace) && node.getName().equals(nodename);
     }
@@ -1,6 +1,8 @@
 package liquibase.util;
 
 import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.nio.charset.Charset;
 import java.util.Set;
 
@@ -151,6 +153,48 @@ public class StreamUtil {
         return stream;
     }
 
+    /**
+     * Returns the local file that {@link #openStream(String, Boolean, ChangeSet, ResourceAccessor)} reads for the given path,
+     * or null if the resource is not a plain file on the local file system (for example an entry in a jar).
+     */
+    public static File getResourceFile(String path, Boolean relativeToChangelogFile, ChangeSet changeSet, ResourceAccessor resourceAccessor) {
+        if (path == null || resourceAccessor == null) {
+            return null;
+        }
+        if (relativeToChangelogFile != null && relativeToChangelogFile) {
+            String base;
+            if (changeSet.getChangeLog() == null) {
+                base = changeSet.getFilePath();
+            } else {
+                base = changeSet.getChangeLog().getPhysicalFilePath().replaceAll("\\\\","/");
+            }
+            if (base == null || !base.contains("/")) {
+                base = ".";
+            }
+            path = base.replaceFirst("/[^/]*$", "") + "/" + path;
+        }
+
+        File file = new File(path);
+        if (file.isAbsolute()) {
+            return file.isFile() ? file : null;
+        }
+
+        ClassLoader classLoader = resourceAccessor.toClassLoader();
+        if (classLoader == null) {
+            return null;
+        }
+        URL url = classLoader.getResource(path);
+        if (url == null || !"file".equals(url.getProtocol())) {
+            return null;
+        }
+        try {
+            file = new File(url.toURI());
+        } catch (URISyntaxException e) {
+            file = new File(url.getPath());
+        }
+        return file.isFile() ? file : null;
+    }
+
     /**
      * Tries to load the file from the file system.
      *
@@ -52,10 +52,7 @@ public class LiquibaseEntityResolver implements EntityResolver2 {
        log.debug("Resolving XML entity name='" + name + "', publicId='" + publicId + "', baseURI='" + baseURI + "', systemId='" + systemId + "'");
        InputSource resolved=null;
        if(systemId!=null && systemId.toLowerCase().endsWith(".xsd")) {
-           if (systemId.startsWith("http://www.liquibase.org/xml/ns/migrator/")) {
-               systemId = systemId.replace("http://www.liquibase.org/xml/ns/migrator/", "http://www.liquibase.org/xml/ns/dbchangelog/");
-           }
-            resolved=tryResolveLiquibaseSchema(systemId, publicId);
+            resolved=resolveLiquibaseSchema(systemId, publicId);
        }
        if(resolved==null && resourceAccessor!=null && basePath!=null && systemId!=null) {
             resolved=tryResolveFromResourceAccessor(systemId);
@@ -67,6 +64,16 @@ public class LiquibaseEntityResolver implements EntityResolver2 {
        return resolved;
     }
 
+    /**
+     * Returns the schema bundled with Liquibase or one of its extensions for the given system id, or null if it is not bundled.
+     */
+    public InputSource resolveLiquibaseSchema(String systemId, String publicId) {
+        if (systemId != null && systemId.startsWith("http://www.liquibase.org/xml/ns/migrator/")) {
+            systemId = systemId.replace("http://www.liquibase.org/xml/ns/migrator/", "http://www.liquibase.org/xml/ns/dbchangelog/");
+        }
+        return tryResolveLiquibaseSchema(systemId, publicId);
+    }
+
     private InputSource tryResolveLiquibaseSchema(String systemId, String publicId) {
         if (systemId != null) {
             NamespaceDetails namespaceDetails;
@@ -76,7 +83,7 @@ public class LiquibaseEntityResolver implements EntityResolver2 {
                 namespaceDetails = NamespaceDetailsFactory.getInstance().getNamespaceDetails(parser, systemId);
             }
             if (namespaceDetails == null) {
-                log.debug("Found no namespace details class "+namespaceDetails.getClass().getName()+" for "+systemId);
+                log.debug("Found no namespace details class for "+systemId);
                 return null;
             }
             log.debug("Found namespace details class "+namespaceDetails.getClass().getName()+" for "+systemId);
@@ -87,7 +94,7 @@ public class LiquibaseEntityResolver implements EntityResolver2 {
                 return null;
             }
             try {
-                InputStream resourceAsStream = StreamUtil.singleInputStream(xsdFile, resourceAccessor);
+                InputStream resourceAsStream = resourceAccessor == null ? null : StreamUtil.singleInputStream(xsdFile, resourceAccessor);
 
                 if (resourceAsStream == null) {
                     log.debug("Could not load "+xsdFile+" with the standard resource accessor. Trying context classloader...");
@@ -15,6 +15,8 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
     public static final String OUTPUT_ENCODING = "outputFileEncoding";
     public static final String CHANGELOGLOCK_WAIT_TIME = "changeLogLockWaitTimeInMinutes";
     public static final String CHANGELOGLOCK_POLL_RATE = "changeLogLockPollRate";
+    public static final String CHANGELOGLOCK_MIN_BACKOFF = "changeLogLockMinBackoffMillis";
+    public static final String CHANGELOGLOCK_USE_ADVISORY_LOCK = "changeLogLockUseAdvisoryLock";
 
     public GlobalConfiguration() {
         super("liquibase");
@@ -40,6 +42,14 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
                 .setDescription("Number of seconds wait between checks to the changelog lock when it is locked")
                 .setDefaultValue(10);
 
+        getContainer().addProperty(CHANGELOGLOCK_MIN_BACKOFF, Long.class)
+                .setDescription("Number of milliseconds to wait before the first recheck of the changelog lock. The wait doubles with every check up to changeLogLockPollRate, with random jitter")
+                .setDefaultValue(100);
+
+        getContainer().addProperty(CHANGELOGLOCK_USE_ADVISORY_LOCK, Boolean.class)
+                .setDescription("Wait for the changelog lock with a native lock of the database where one exists (PostgreSQL, MySQL, Oracle, SQL Server), so waiting processes continue as soon as the lock is released")
+                .setDefaultValue(true);
+
         getContainer().addProperty(LIQUIBASE_TABLESPACE_NAME, String.class)
                 .setDescription("Tablespace to use for liquibase objects");
 
@@ -119,6 +129,30 @@ public class GlobalConfiguration extends AbstractConfigurationContainer {
         return this;
     }
 
+    /**
+     * Wait time (in milliseconds) before the first recheck of the changelog lock.
+     */
+    public Long getDatabaseChangeLogLockMinBackoff() {
+        return getContainer().getValue(CHANGELOGLOCK_MIN_BACKOFF, Long.class);
+    }
+
+    public GlobalConfiguration setDatabaseChangeLogLockMinBackoff(Long millis) {
+        getContainer().setValue(CHANGELOGLOCK_MIN_BACKOFF, millis);
+        return this;
+    }
+
+    /**
+     * Should the changelog lock be waited for with a native lock of the database
+     */
+    public Boolean getDatabaseChangeLogLockUseAdvisoryLock() {
+        return getContainer().getValue(CHANGELOGLOCK_USE_ADVISORY_LOCK, Boolean.class);
+    }
+
+    public GlobalConfiguration setDatabaseChangeLogLockUseAdvisoryLock(Boolean useAdvisoryLock) {
+        getContainer().setValue(CHANGELOGLOCK_USE_ADVISORY_LOCK, useAdvisoryLock);
+        return this;
+    }
+
     /**
      * Name of the tablespace to use for liquibase database objects
      */
@@ -28,10 +28,11 @@ public class LiquibaseConfiguration {
     /**
      * Returns the singleton instance, creating it if necessary. On creation, the configuration is initialized with {@link liquibase.configuration.SystemPropertyProvider}
      */
-    public static LiquibaseConfiguration getInstance() {
+    public static synchronized LiquibaseConfiguration getInstance() {
         if (instance == null) {
-            instance = new LiquibaseConfiguration();
-            instance.init(new SystemPropertyProvider());
+            LiquibaseConfiguration configuration = new LiquibaseConfiguration();
+            configuration.init(new SystemPropertyProvider());
+            instance = configuration;
         }
 
         return instance;
@@ -41,7 +42,7 @@ public class LiquibaseConfiguration {
      * Overrides the standard singleton instance created by getInstance().
      * Useful for alternate implementations with more complex AbstractConfigurationContainer lookup logic such as different configurations per thread.
      */
-    public static void setInstance(LiquibaseConfiguration instance) {
+    public static synchronized void setInstance(LiquibaseConfiguration instance) {
         LiquibaseConfiguration.instance = instance;
     }
 
@@ -57,7 +58,7 @@ public class LiquibaseConfiguration {
      * Re-initialize the configuration with the given ConfigurationProviders. Any existing AbstractConfigurationContainer instances are reset to
      * defaults.
      */
-    public void init(ConfigurationValueProvider... configurationValueProviders) {
+    public synchronized void init(ConfigurationValueProvider... configurationValueProviders) {
         if (configurationValueProviders == null) {
             configurationValueProviders = new ConfigurationValueProvider[0];
         }
@@ -69,16 +70,16 @@ public class LiquibaseConfiguration {
     /**
      * Resets existing AbstractConfigurationContainer instances to their default values.
      */
-    public void reset() {
+    public synchronized void reset() {
         this.configurations = new HashMap<Class, ConfigurationContainer>();
     }
 
 
     /**
      * Return an instance of the passed AbstractConfigurationContainer type.
-     * The same instance is returned from every call to getConfiguration()
+     * The same instance is returned from every call to getConfiguration(), also when called from several threads.
      */
-    public <T extends ConfigurationContainer> T getConfiguration(Class<T> type) {
+    public synchronized <T extends ConfigurationContainer> T getConfiguration(Class<T> type) {
         if (!configurations.containsKey(type)) {
             configurations.put(type, createConfiguration(type));
         }
@@ -12,11 +12,11 @@ public class LogFactory {
 
     private static LogFactory instance;
 
-    public static void reset() {
+    public static synchronized void reset() {
         instance = new LogFactory();
     }
 
-    public static LogFactory getInstance() {
+    public static synchronized LogFactory getInstance() {
         if (instance == null) {
             instance = new LogFactory();
         }
@@ -38,21 +38,23 @@ public class LogFactory {
     }
 
     public Logger getLog(String name) {
-        if (!loggers.containsKey(name)) {
-            Logger value;
-            try {
-                value = (Logger) ServiceLocator.getInstance().newInstance(Logger.class);
-            } catch (Exception e) {
-                throw new ServiceNotFoundException(e);
+        synchronized (loggers) {
+            if (!loggers.containsKey(name)) {
+                Logger value;
+                try {
+                    value = (Logger) ServiceLocator.getInstance().newInstance(Logger.class);
+                } catch (Exception e) {
+                    throw new ServiceNotFoundException(e);
+                }
+                value.setName(name);
+                if (defaultLoggingLevel != null) {
+                    value.setLogLevel(defaultLoggingLevel);
+                }
+                loggers.put(name, value);
             }
-            value.setName(name);
-            if (defaultLoggingLevel != null) {
-                value.setLogLevel(defaultLoggingLevel);
-            }
-            loggers.put(name, value);
-        }
 
-        return loggers.get(name);
+            return loggers.get(name);
+        }
     }
 
     /**
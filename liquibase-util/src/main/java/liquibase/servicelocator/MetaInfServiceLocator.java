@@ -1,48 +1,68 @@
 package liquibase.servicelocator;
 
+import java.io.IOException;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import liquibase.exception.ServiceNotFoundException;
 import liquibase.util.PrioritizedService;
 
+/**
+ * Finds services listed in <code>META-INF/services</code> of the thread context class loader.
+ * <p>
+ * The implementation classes and their priorities are looked up once per class loader and interface and cached, so later lookups neither
+ * rescan the classpath nor instantiate every provider. If a {@link ServiceIndex} is available, the providers it lists are not instantiated
+ * to find their priorities. Providers in <code>META-INF/services</code> files which the index does not list, e.g. of jars added after the
+ * index was built, are still found.
+ * <p>
+ * The cache holds class loaders and classes through weak references only, so it does not keep the class loaders of redeployed
+ * applications or plugins from being garbage collected.
+ */
 public class MetaInfServiceLocator extends ServiceLocator {
 
+    private final Map<ClassLoader, Map<String, ServiceEntry>> cache = new WeakHashMap<ClassLoader, Map<String, ServiceEntry>>();
+    private final Map<ClassLoader, ServiceIndex> indexes = new WeakHashMap<ClassLoader, ServiceIndex>();
+    private final boolean useIndex;
+
+    public MetaInfServiceLocator() {
+        this(true);
+    }
+
+    /**
+     * @param useIndex if false, {@link ServiceIndex#RESOURCE} files are ignored and <code>META-INF/services</code> is always scanned
+     */
+    public MetaInfServiceLocator(boolean useIndex) {
+        this.useIndex = useIndex;
+    }
+
     @Override
     public Object newInstance(Class requiredInterface) throws ServiceNotFoundException {
-            ServiceLoader<Object> loader = ServiceLoader.load(requiredInterface);
-
-            if (PrioritizedService.class.isAssignableFrom(requiredInterface)) {
-                PrioritizedService returnObject = null;
-                for (Object service : loader) {
-                    PrioritizedService newInstance = (PrioritizedService) service;
-                    if (returnObject == null
-                        || newInstance.getPriority() > returnObject.getPriority()) {
-                        returnObject = newInstance;
-                    }
-                }
+        ServiceEntry entry = getEntry(requiredInterface);
 
-                if (returnObject == null) {
-                    throw new ServiceNotFoundException("Could not find implementation of "
-                        + requiredInterface.getName());
-                }
-                return returnObject;
+        if (PrioritizedService.class.isAssignableFrom(requiredInterface)) {
+            if (entry.getPreferred() == null) {
+                throw new ServiceNotFoundException("Could not find implementation of "
+                    + requiredInterface.getName());
             }
+            return instantiate(entry.getPreferred());
+        }
 
-            Iterator<Object> it = loader.iterator();
-            if (it.hasNext()) {
-                Object result = it.next();
-                if (it.hasNext()) {
-                    throw new ServiceNotFoundException("Could not find unique implementation of "
-                        + requiredInterface.getName());
-                }
-                return result;
-            }
+        Class[] classes = entry.getClasses();
+        if (classes.length == 1) {
+            return instantiate(classes[0]);
+        } else if (classes.length > 1) {
+            throw new ServiceNotFoundException("Could not find unique implementation of "
+                + requiredInterface.getName());
+        }
         throw new ServiceNotFoundException("Could not find any implementation of "
             + requiredInterface.getName());
-
     }
 
     @Override
@@ -54,12 +74,212 @@ public class MetaInfServiceLocator extends ServiceLocator {
     @Override
     public <T> Class<? extends T>[] findClasses(Class<T> requiredInterface)
         throws ServiceNotFoundException {
+        Class[] classes = getEntry(requiredInterface).getClasses();
+        return (Class<? extends T>[]) classes;
+    }
+
+    /**
+     * Forgets all cached lookups, e.g. after new service providers were added to the class loader.
+     */
+    public void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+            indexes.clear();
+        }
+    }
+
+    /**
+     * Returns the cached entry for the interface, or looks it up if there is none, the cached entry is for another interface of the same
+     * name, or its classes were garbage collected.
+     */
+    protected ServiceEntry getEntry(Class requiredInterface) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        Map<String, ServiceEntry> entries;
+        synchronized (cache) {
+            entries = cache.get(classLoader);
+            if (entries == null) {
+                entries = new ConcurrentHashMap<String, ServiceEntry>();
+                cache.put(classLoader, entries);
+            }
+        }
+
+        ServiceEntry entry = entries.get(requiredInterface.getName());
+        if (entry == null || !entry.isFor(requiredInterface)) {
+            entry = loadFromIndex(requiredInterface, classLoader);
+            if (entry == null) {
+                entry = scan(requiredInterface, classLoader);
+            }
+            entries.put(requiredInterface.getName(), entry);
+        }
+        return entry;
+    }
+
+    protected ServiceEntry scan(Class requiredInterface, ClassLoader classLoader) {
         List<Class> classes = new ArrayList<Class>();
-        ServiceLoader<T> loader = ServiceLoader.load(requiredInterface);
-        for (T service : loader) {
+        PrioritizedService preferred = null;
+        boolean prioritized = PrioritizedService.class.isAssignableFrom(requiredInterface);
+        for (Object service : ServiceLoader.load(requiredInterface, classLoader)) {
             classes.add(service.getClass());
+            if (prioritized) {
+                PrioritizedService newInstance = (PrioritizedService) service;
+                if (preferred == null
+                    || newInstance.getPriority() > preferred.getPriority()) {
+                    preferred = newInstance;
+                }
+            }
         }
-        return classes.toArray(new Class[classes.size()]);
+        return new ServiceEntry(requiredInterface, classes.toArray(new Class[classes.size()]), preferred == null ? null : preferred.getClass());
     }
 
+    /**
+     * Returns the entry for the given interface from the {@link ServiceIndex} of the class loader, merged with the providers in
+     * <code>META-INF/services</code> which are not indexed. Returns null if the interface is not indexed or a class cannot be loaded.
+     */
+    protected ServiceEntry loadFromIndex(Class requiredInterface, ClassLoader classLoader) {
+        ServiceIndex index = getIndex(classLoader);
+        if (index == null) {
+            return null;
+        }
+        List<ServiceIndex.Implementation> implementations = index.getImplementations(requiredInterface);
+        if (implementations == null) {
+            return null;
+        }
+        List<Class> classes = new ArrayList<Class>();
+        Set<String> indexedNames = new HashSet<String>();
+        Class preferred = null;
+        int preferredPriority = 0;
+        for (ServiceIndex.Implementation implementation : implementations) {
+            Class clazz = loadClass(implementation.getClassName(), requiredInterface, classLoader);
+            if (clazz == null) {
+                return null;
+            }
+            classes.add(clazz);
+            indexedNames.add(implementation.getClassName());
+            if (implementation.getPriority() != null && (preferred == null || implementation.getPriority() > preferredPriority)) {
+                preferred = clazz;
+                preferredPriority = implementation.getPriority();
+            }
+        }
+        boolean prioritized = PrioritizedService.class.isAssignableFrom(requiredInterface);
+        if (prioritized && preferred == null && !classes.isEmpty()) {
+            return null;
+        }
+
+        Set<String> providerNames;
+        try {
+            providerNames = ServiceIndex.readProviderNames(requiredInterface, classLoader);
+        } catch (IOException e) {
+            return null;
+        }
+        for (String providerName : providerNames) {
+            if (indexedNames.contains(providerName)) {
+                continue;
+            }
+            Class clazz = loadClass(providerName, requiredInterface, classLoader);
+            if (clazz == null) {
+                return null;
+            }
+            classes.add(clazz);
+            if (prioritized) {
+                int priority;
+                try {
+                    priority = ((PrioritizedService) instantiate(clazz)).getPriority();
+                } catch (ServiceNotFoundException e) {
+                    return null;
+                }
+                if (preferred == null || priority > preferredPriority) {
+                    preferred = clazz;
+                    preferredPriority = priority;
+                }
+            }
+        }
+        return new ServiceEntry(requiredInterface, classes.toArray(new Class[classes.size()]), preferred);
+    }
+
+    /**
+     * Loads an implementation class without initializing it, or returns null if it is missing or does not implement the interface.
+     */
+    private Class loadClass(String className, Class requiredInterface, ClassLoader classLoader) {
+        Class clazz;
+        try {
+            clazz = Class.forName(className, false, classLoader);
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        return requiredInterface.isAssignableFrom(clazz) ? clazz : null;
+    }
+
+    private ServiceIndex getIndex(ClassLoader classLoader) {
+        if (!useIndex) {
+            return null;
+        }
+        synchronized (cache) {
+            if (indexes.containsKey(classLoader)) {
+                return indexes.get(classLoader);
+            }
+            ServiceIndex index;
+            try {
+                index = ServiceIndex.load(classLoader);
+            } catch (IOException e) {
+                index = null;
+            }
+            indexes.put(classLoader, index);
+            return index;
+        }
+    }
+
+    private Object instantiate(Class clazz) throws ServiceNotFoundException {
+        try {
+            return clazz.newInstance();
+        } catch (Exception e) {
+            throw new ServiceNotFoundException("Could not instantiate " + clazz.getName(), e);
+        }
+    }
+
+    /**
+     * The implementations of an interface. Classes are referenced weakly, as a strong reference would keep their class loader, and
+     * with it the key of the cache, reachable.
+     */
+    protected static class ServiceEntry {
+        private final WeakReference<Class> requiredInterface;
+        private final WeakReference<Class>[] classes;
+        private final WeakReference<Class> preferred;
+
+        @SuppressWarnings("unchecked")
+        protected ServiceEntry(Class requiredInterface, Class[] classes, Class preferred) {
+            this.requiredInterface = new WeakReference<Class>(requiredInterface);
+            this.classes = new WeakReference[classes.length];
+            for (int i = 0; i < classes.length; i++) {
+                this.classes[i] = new WeakReference<Class>(classes[i]);
+            }
+            this.preferred = preferred == null ? null : new WeakReference<Class>(preferred);
+        }
+
+        /**
+         * True if this entry was looked up for the given interface and none of its classes were garbage collected.
+         */
+        protected boolean isFor(Class requiredInterface) {
+            if (this.requiredInterface.get() != requiredInterface) {
+                return false;
+            }
+            for (WeakReference<Class> clazz : classes) {
+                if (clazz.get() == null) {
+                    return false;
+                }
+            }
+            return preferred == null || preferred.get() != null;
+        }
+
+        protected Class[] getClasses() {
+            Class[] result = new Class[classes.length];
+            for (int i = 0; i < classes.length; i++) {
+                result[i] = classes[i].get();
+            }
+            return result;
+        }
+
+        protected Class getPreferred() {
+            return preferred == null ? null : preferred.get();
+        }
+    }
 }
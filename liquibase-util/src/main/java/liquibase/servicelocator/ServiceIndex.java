@@ -0,0 +1,253 @@
+package liquibase.servicelocator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import liquibase.util.PrioritizedService;
+
+/**
+ * Precomputed list of the service implementations found in <code>META-INF/services</code>, so {@link MetaInfServiceLocator} does not
+ * need to scan the classpath and instantiate every provider to find them.
+ * <p>
+ * The index is read from {@link #RESOURCE} if it exists. It has one line per service interface in the form
+ * <code>interface=class[:priority],class[:priority]</code>, where the priority is only given for {@link PrioritizedService} implementations.
+ * It is typically generated at build time by running {@link #main(String[])} with the application's classpath.
+ */
+public class ServiceIndex {
+
+    public static final String RESOURCE = "META-INF/liquibase/services.idx";
+
+    private static final String SERVICES_DIRECTORY = "META-INF/services/";
+
+    private final Map<String, List<Implementation>> services;
+
+    public ServiceIndex(Map<String, List<Implementation>> services) {
+        this.services = services;
+    }
+
+    /**
+     * Reads the index from all {@link #RESOURCE} files visible to the given class loader. Returns null if there are none.
+     *
+     * @throws IOException if an index file cannot be read or is malformed
+     */
+    public static ServiceIndex load(ClassLoader classLoader) throws IOException {
+        Enumeration<URL> resources = classLoader == null ? ClassLoader.getSystemResources(RESOURCE) : classLoader.getResources(RESOURCE);
+        if (!resources.hasMoreElements()) {
+            return null;
+        }
+        Map<String, List<Implementation>> services = new LinkedHashMap<String, List<Implementation>>();
+        while (resources.hasMoreElements()) {
+            InputStream stream = resources.nextElement().openStream();
+            try {
+                read(stream, services);
+            } finally {
+                stream.close();
+            }
+        }
+        return new ServiceIndex(services);
+    }
+
+    private static void read(InputStream stream, Map<String, List<Implementation>> services) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            line = line.trim();
+            if (line.length() == 0 || line.startsWith("#")) {
+                continue;
+            }
+            int equals = line.indexOf('=');
+            if (equals < 0) {
+                continue;
+            }
+            String serviceName = line.substring(0, equals).trim();
+            List<Implementation> implementations = services.get(serviceName);
+            if (implementations == null) {
+                implementations = new ArrayList<Implementation>();
+                services.put(serviceName, implementations);
+            }
+            for (String value : line.substring(equals + 1).split(",")) {
+                value = value.trim();
+                if (value.length() == 0) {
+                    continue;
+                }
+                int colon = value.indexOf(':');
+                if (colon < 0) {
+                    implementations.add(new Implementation(value, null));
+                } else {
+                    Integer priority;
+                    try {
+                        priority = Integer.valueOf(value.substring(colon + 1).trim());
+                    } catch (NumberFormatException e) {
+                        throw new IOException("Invalid priority in service index entry '" + value + "' of " + serviceName);
+                    }
+                    implementations.add(new Implementation(value.substring(0, colon).trim(), priority));
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the implementations of the given interface, or null if the interface is not in the index.
+     */
+    public List<Implementation> getImplementations(Class requiredInterface) {
+        return services.get(requiredInterface.getName());
+    }
+
+    /**
+     * Returns the names of the classes listed for the given interface in the <code>META-INF/services</code> files visible to the class loader,
+     * without loading them.
+     */
+    public static Set<String> readProviderNames(Class requiredInterface, ClassLoader classLoader) throws IOException {
+        String resource = SERVICES_DIRECTORY + requiredInterface.getName();
+        Enumeration<URL> resources = classLoader == null ? ClassLoader.getSystemResources(resource) : classLoader.getResources(resource);
+        Set<String> names = new LinkedHashSet<String>();
+        while (resources.hasMoreElements()) {
+            InputStream stream = resources.nextElement().openStream();
+            try {
+                BufferedReader reader = new BufferedReader(new InputStreamReader(stream, "UTF-8"));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    int comment = line.indexOf('#');
+                    if (comment >= 0) {
+                        line = line.substring(0, comment);
+                    }
+                    line = line.trim();
+                    if (line.length() > 0) {
+                        names.add(line);
+                    }
+                }
+            } finally {
+                stream.close();
+            }
+        }
+        return names;
+    }
+
+    public void write(Writer writer) throws IOException {
+        for (Map.Entry<String, List<Implementation>> entry : services.entrySet()) {
+            writer.write(entry.getKey());
+            writer.write("=");
+            boolean first = true;
+            for (Implementation implementation : entry.getValue()) {
+                if (!first) {
+                    writer.write(",");
+                }
+                first = false;
+                writer.write(implementation.getClassName());
+                if (implementation.getPriority() != null) {
+                    writer.write(":" + implementation.getPriority());
+                }
+            }
+            writer.write("\n");
+        }
+        writer.flush();
+    }
+
+    /**
+     * Builds the index for all service interfaces declared in <code>META-INF/services</code> of the jars and directories on the given classpath,
+     * using the given class loader to load them.
+     */
+    public static ServiceIndex create(String classpath, ClassLoader classLoader) throws IOException {
+        SortedSet<String> serviceNames = new TreeSet<String>();
+        for (String path : classpath.split(File.pathSeparator)) {
+            File file = new File(path);
+            if (file.isDirectory()) {
+                String[] names = new File(file, SERVICES_DIRECTORY).list();
+                if (names != null) {
+                    for (String name : names) {
+                        serviceNames.add(name);
+                    }
+                }
+            } else if (file.isFile()) {
+                JarFile jar = new JarFile(file);
+                try {
+                    Enumeration<JarEntry> entries = jar.entries();
+                    while (entries.hasMoreElements()) {
+                        String name = entries.nextElement().getName();
+                        if (name.startsWith(SERVICES_DIRECTORY) && name.length() > SERVICES_DIRECTORY.length() && !name.endsWith("/")) {
+                            serviceNames.add(name.substring(SERVICES_DIRECTORY.length()));
+                        }
+                    }
+                } finally {
+                    jar.close();
+                }
+            }
+        }
+
+        Map<String, List<Implementation>> services = new TreeMap<String, List<Implementation>>();
+        for (String serviceName : serviceNames) {
+            Class<?> requiredInterface;
+            try {
+                requiredInterface = Class.forName(serviceName, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                continue;
+            }
+            List<Implementation> implementations = new ArrayList<Implementation>();
+            boolean prioritized = PrioritizedService.class.isAssignableFrom(requiredInterface);
+            for (Object service : ServiceLoader.load(requiredInterface, classLoader)) {
+                Integer priority = prioritized ? ((PrioritizedService) service).getPriority() : null;
+                implementations.add(new Implementation(service.getClass().getName(), priority));
+            }
+            services.put(serviceName, implementations);
+        }
+        return new ServiceIndex(services);
+    }
+
+    /**
+     * Writes the index for the current classpath to the file given as first argument, or to {@link #RESOURCE} below the current directory.
+     */
+    public static void main(String[] args) throws IOException {
+        File output = new File(args.length > 0 ? args[0] : RESOURCE);
+        if (output.getParentFile() != null) {
+            output.getParentFile().mkdirs();
+        }
+        ServiceIndex index = create(System.getProperty("java.class.path"), ServiceIndex.class.getClassLoader());
+        Writer writer = new OutputStreamWriter(new FileOutputStream(output), "UTF-8");
+        try {
+            index.write(writer);
+        } finally {
+            writer.close();
+        }
+    }
+
+    public static class Implementation {
+        private final String className;
+        private final Integer priority;
+
+        public Implementation(String className, Integer priority) {
+            this.className = className;
+            this.priority = priority;
+        }
+
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * Priority of a {@link PrioritizedService}, or null for other services.
+         */
+        public Integer getPriority() {
+            return priority;
+        }
+    }
+}
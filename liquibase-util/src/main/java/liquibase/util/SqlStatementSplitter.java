@@ -0,0 +1,453 @@
+package liquibase.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Reads SQL from a {@link Reader} one character at a time and returns one statement per call to {@link #nextStatement()}, so
+ * scripts of any size can be executed without holding them in memory.
+ * <p>
+ * Delimiters and comments are only recognized outside of quoted text. Single and double quoted text with doubled quotes as escapes
+ * is supported, backslash escapes if {@link #setBackslashEscapes(boolean)} or {@link #setEscapeStrings(boolean)} is enabled, and
+ * PostgreSQL dollar quoted text if {@link #setDollarQuoting(boolean)} is enabled. Block comments may be nested if
+ * {@link #setNestedComments(boolean)} is enabled.
+ * <p>
+ * Statements are split like {@link StringUtils#splitSQL(String, String)} does: a null end delimiter splits at a <code>;</code> at the
+ * end of a line and at a <code>go</code> on a line of its own, an end delimiter of <code>go</code> splits at the <code>go</code> lines only,
+ * and any other end delimiter splits wherever it occurs. End delimiters containing regular expression characters are applied as
+ * a regular expression to the complete text, which is read into memory for that purpose.
+ * <p>
+ * Stripped comments are removed like {@link StringUtils#stripComments(String)} does: a line comment and the whitespace before it are
+ * replaced by the end of the line, a block comment is removed without replacement.
+ * <p>
+ * Returned statements are trimmed, empty statements are skipped.
+ */
+public class SqlStatementSplitter {
+
+    private static final int EOF = -1;
+    private static final String REGEX_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final Reader reader;
+    private final boolean stripComments;
+    private final boolean splitStatements;
+    private final String endDelimiter;
+    private final boolean splitAtSemicolon;
+    private final boolean splitAtGo;
+    private final Pattern delimiterPattern;
+
+    private boolean dollarQuoting;
+    private boolean nestedComments;
+    private boolean backslashEscapes;
+    private boolean escapeStrings;
+
+    private char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private boolean endOfInput;
+    private int previous = EOF;
+
+    private StringBuilder current = new StringBuilder();
+    private List<String> regexSplit;
+
+    public SqlStatementSplitter(Reader reader, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        this.reader = reader;
+        this.stripComments = stripComments;
+        this.splitStatements = splitStatements;
+        if (endDelimiter == null) {
+            this.endDelimiter = null;
+            this.splitAtSemicolon = true;
+            this.splitAtGo = true;
+            this.delimiterPattern = null;
+        } else if (endDelimiter.equalsIgnoreCase("go")) {
+            this.endDelimiter = null;
+            this.splitAtSemicolon = false;
+            this.splitAtGo = true;
+            this.delimiterPattern = null;
+        } else {
+            this.splitAtSemicolon = false;
+            this.splitAtGo = false;
+            if (isRegex(endDelimiter)) {
+                this.endDelimiter = null;
+                this.delimiterPattern = Pattern.compile(endDelimiter);
+            } else {
+                this.endDelimiter = endDelimiter;
+                this.delimiterPattern = null;
+            }
+        }
+    }
+
+    public SqlStatementSplitter(String sql, boolean stripComments, boolean splitStatements, String endDelimiter) {
+        this(new StringReader(sql), stripComments, splitStatements, endDelimiter);
+    }
+
+    /**
+     * If true, PostgreSQL style <code>$$text$$</code> and <code>$tag$text$tag$</code> are treated as quoted text. Defaults to false.
+     */
+    public SqlStatementSplitter setDollarQuoting(boolean dollarQuoting) {
+        this.dollarQuoting = dollarQuoting;
+        return this;
+    }
+
+    /**
+     * If true, a backslash within quoted text escapes the next character, so <code>'it\'s'</code> is one quoted text, as in MySQL and
+     * MariaDB unless the NO_BACKSLASH_ESCAPES SQL mode is set. Defaults to false.
+     */
+    public SqlStatementSplitter setBackslashEscapes(boolean backslashEscapes) {
+        this.backslashEscapes = backslashEscapes;
+        return this;
+    }
+
+    /**
+     * If true, PostgreSQL style <code>E'text'</code> is quoted text in which a backslash escapes the next character. Defaults to false.
+     */
+    public SqlStatementSplitter setEscapeStrings(boolean escapeStrings) {
+        this.escapeStrings = escapeStrings;
+        return this;
+    }
+
+    /**
+     * If true, a <code>/*</code> within a block comment starts a nested comment which needs its own end. Defaults to false.
+     */
+    public SqlStatementSplitter setNestedComments(boolean nestedComments) {
+        this.nestedComments = nestedComments;
+        return this;
+    }
+
+    /**
+     * Returns the next statement, or null if there are no more statements.
+     */
+    public String nextStatement() throws IOException {
+        if (delimiterPattern != null && splitStatements) {
+            return nextRegexStatement();
+        }
+
+        while (true) {
+            int c = peek(0);
+            if (c == EOF) {
+                return finishStatement();
+            }
+            if (c == '\'' || c == '"') {
+                copyQuoted((char) c, backslashEscapes);
+            } else if ((c == 'E' || c == 'e') && escapeStrings && !isIdentifierChar(previous) && peek(1) == '\'') {
+                append(read());
+                copyQuoted('\'', true);
+            } else if (c == '-' && peek(1) == '-') {
+                lineComment();
+            } else if (c == '/' && peek(1) == '*') {
+                blockComment();
+            } else if (c == '$' && dollarQuoting && !isIdentifierChar(previous) && dollarTagLength(0) > 0) {
+                copyDollarQuoted(dollarTagLength(0));
+            } else if (splitStatements && isDelimiter(c)) {
+                String statement = finishStatement();
+                if (statement != null) {
+                    return statement;
+                }
+            } else {
+                append(read());
+            }
+        }
+    }
+
+    /**
+     * Returns all remaining statements.
+     */
+    public List<String> readAll() throws IOException {
+        List<String> statements = new ArrayList<String>();
+        String statement;
+        while ((statement = nextStatement()) != null) {
+            statements.add(statement);
+        }
+        return statements;
+    }
+
+    /**
+     * True if the given end delimiter is applied as a regular expression rather than split while reading.
+     */
+    public static boolean isRegex(String endDelimiter) {
+        if (endDelimiter == null || endDelimiter.equalsIgnoreCase("go")) {
+            return false;
+        }
+        for (int i = 0; i < endDelimiter.length(); i++) {
+            if (REGEX_CHARACTERS.indexOf(endDelimiter.charAt(i)) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String nextRegexStatement() throws IOException {
+        if (regexSplit == null) {
+            regexSplit = new ArrayList<String>();
+            SqlStatementSplitter stripper = new SqlStatementSplitter(reader, stripComments, false, null)
+                    .setBackslashEscapes(backslashEscapes)
+                    .setEscapeStrings(escapeStrings)
+                    .setDollarQuoting(dollarQuoting)
+                    .setNestedComments(nestedComments);
+            String text = stripper.nextStatement();
+            if (text != null) {
+                for (String part : delimiterPattern.split(text)) {
+                    part = part.trim();
+                    if (part.length() > 0) {
+                        regexSplit.add(part);
+                    }
+                }
+            }
+        }
+        if (regexSplit.isEmpty()) {
+            return null;
+        }
+        return regexSplit.remove(0);
+    }
+
+    /**
+     * Checks for a delimiter at the current position and consumes it if found.
+     */
+    private boolean isDelimiter(int c) throws IOException {
+        if (endDelimiter != null) {
+            for (int i = 0; i < endDelimiter.length(); i++) {
+                if (peek(i) != endDelimiter.charAt(i)) {
+                    return false;
+                }
+            }
+            skip(endDelimiter.length());
+            return true;
+        }
+        if (c == ';' && splitAtSemicolon && isEndOfLine(1)) {
+            //like the regular expression, consume the whitespace up to the last line end, so a following "go" line is not a delimiter
+            int length = 1;
+            for (int i = 1; isWhitespace(peek(i)); i++) {
+                if (peek(i) == '\n') {
+                    length = i + 1;
+                }
+            }
+            skip(length);
+            return true;
+        }
+        if (c == '\n' && splitAtGo
+                && (peek(1) == 'g' || peek(1) == 'G') && (peek(2) == 'o' || peek(2) == 'O')
+                && isEndOfLine(3)) {
+            skip(3);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * True if only whitespace is between the given offset and the end of the line or input. Comments which are stripped count as whitespace,
+     * a line comment ends the line.
+     */
+    private boolean isEndOfLine(int offset) throws IOException {
+        while (true) {
+            int c = peek(offset);
+            if (c == EOF || c == '\n') {
+                return true;
+            }
+            if (isWhitespace(c)) {
+                offset++;
+            } else if (stripComments && c == '-' && peek(offset + 1) == '-') {
+                return true;
+            } else if (stripComments && c == '/' && peek(offset + 1) == '*') {
+                int end = blockCommentLength(offset);
+                if (end < 0) {
+                    return true;
+                }
+                offset += end;
+            } else {
+                return false;
+            }
+        }
+    }
+
+    private void lineComment() throws IOException {
+        if (stripComments) {
+            int length = current.length();
+            while (length > 0 && isWhitespace(current.charAt(length - 1))) {
+                length--;
+            }
+            current.setLength(length);
+            while (peek(0) != EOF && peek(0) != '\n') {
+                read();
+            }
+            if (peek(0) == EOF) {
+                append('\n');
+            }
+        } else {
+            while (peek(0) != EOF && peek(0) != '\n') {
+                append(read());
+            }
+        }
+    }
+
+    private void blockComment() throws IOException {
+        int length = blockCommentLength(0);
+        if (length < 0) {
+            //unterminated comments are kept
+            append(read());
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            int c = read();
+            if (!stripComments) {
+                append(c);
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the block comment starting at the given offset, or -1 if it does not end.
+     */
+    private int blockCommentLength(int offset) throws IOException {
+        int depth = 1;
+        int i = offset + 2;
+        while (true) {
+            int c = peek(i);
+            if (c == EOF) {
+                return -1;
+            }
+            if (c == '*' && peek(i + 1) == '/') {
+                i += 2;
+                if (--depth == 0) {
+                    return i - offset;
+                }
+            } else if (nestedComments && c == '/' && peek(i + 1) == '*') {
+                depth++;
+                i += 2;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    private void copyQuoted(char quote, boolean backslashEscapes) throws IOException {
+        append(read());
+        while (true) {
+            int c = read();
+            if (c == EOF) {
+                return;
+            }
+            append(c);
+            if (c == '\\' && backslashEscapes) {
+                if (peek(0) != EOF) {
+                    append(read());
+                }
+            } else if (c == quote) {
+                if (peek(0) == quote) {
+                    append(read());
+                } else {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the length of the dollar quote tag at the given offset, including both dollar signs, or 0 if there is none.
+     */
+    private int dollarTagLength(int offset) throws IOException {
+        int i = offset + 1;
+        int c = peek(i);
+        if (c != '$' && !(Character.isLetter(c) || c == '_')) {
+            return 0;
+        }
+        while (c != '$') {
+            if (!isIdentifierChar(c)) {
+                return 0;
+            }
+            c = peek(++i);
+        }
+        return i - offset + 1;
+    }
+
+    private void copyDollarQuoted(int tagLength) throws IOException {
+        char[] tag = new char[tagLength];
+        for (int i = 0; i < tagLength; i++) {
+            tag[i] = (char) read();
+            append(tag[i]);
+        }
+        while (peek(0) != EOF) {
+            boolean end = true;
+            for (int i = 0; i < tagLength; i++) {
+                if (peek(i) != tag[i]) {
+                    end = false;
+                    break;
+                }
+            }
+            if (end) {
+                for (int i = 0; i < tagLength; i++) {
+                    append(read());
+                }
+                return;
+            }
+            append(read());
+        }
+    }
+
+    private String finishStatement() {
+        String statement = current.toString().trim();
+        current.setLength(0);
+        return statement.length() == 0 ? null : statement;
+    }
+
+    private void append(int c) {
+        current.append((char) c);
+    }
+
+    private int read() throws IOException {
+        int c = peek(0);
+        if (c != EOF) {
+            position++;
+            previous = c;
+        }
+        return c;
+    }
+
+    private void skip(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            read();
+        }
+    }
+
+    /**
+     * Returns the character at the given offset from the current position without consuming it, reading more input as needed.
+     */
+    private int peek(int offset) throws IOException {
+        while (position + offset >= limit) {
+            if (endOfInput || !fill()) {
+                return EOF;
+            }
+        }
+        return buffer[position + offset];
+    }
+
+    private boolean fill() throws IOException {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+            limit -= position;
+            position = 0;
+        }
+        if (limit == buffer.length) {
+            char[] larger = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, larger, 0, limit);
+            buffer = larger;
+        }
+        int read = reader.read(buffer, limit, buffer.length - limit);
+        if (read < 0) {
+            endOfInput = true;
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isIdentifierChar(int c) {
+        return c != EOF && (Character.isLetterOrDigit(c) || c == '_' || c == '$');
+    }
+}
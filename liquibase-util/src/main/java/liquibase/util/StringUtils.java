@@ -1,6 +1,7 @@
 package liquibase.util;
 
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -10,6 +11,8 @@ import java.util.Set;
 import java.util.TreeSet;
 import java.util.regex.Pattern;
 
+import liquibase.exception.UnexpectedLiquibaseException;
+
 /**
  * Various utility methods for working with strings.
  */
@@ -51,52 +54,44 @@ public class StringUtils {
      *
      * @param multiLineSQL A String containing all the SQL statements
      * @param stripComments If true then comments will be stripped, if false then they will be left in the code
+     * @see SqlStatementSplitter
      */
     public static String[] processMutliLineSQL(String multiLineSQL,boolean stripComments, boolean splitStatements, String endDelimiter) {
-
-        String stripped = stripComments ? stripComments(multiLineSQL) : multiLineSQL;
-	if (splitStatements) {
-	    return splitSQL(stripped, endDelimiter);
-	} else {
-	    return new String[]{stripped};
-	}
+        if (!splitStatements) {
+            return new String[]{stripComments ? stripComments(multiLineSQL) : multiLineSQL};
+        }
+        return toArray(new SqlStatementSplitter(multiLineSQL, stripComments, true, endDelimiter));
     }
 
     /**
      * Splits a (possible) multi-line SQL statement along ;'s and "go"'s.
+     * Delimiters within quoted text and comments are ignored, see {@link SqlStatementSplitter}.
      */
     public static String[] splitSQL(String multiLineSQL, String endDelimiter) {
-        if (endDelimiter == null) {
-            endDelimiter = ";\\s*\\n|;$|\\n[gG][oO]\\s*\\n|\\n[Gg][oO]\\s*$";
-        } else {
-            if (endDelimiter.equalsIgnoreCase("go")) {
-                endDelimiter = "\\n[gG][oO]\\s*\\n|\\n[Gg][oO]\\s*$";
-            }
-        }
-        String[] initialSplit = multiLineSQL.split(endDelimiter);
-        List<String> strings = new ArrayList<String>();
-        for (String anInitialSplit : initialSplit) {
-            String singleLineSQL = anInitialSplit.trim();
-            if (singleLineSQL.length() > 0) {
-                strings.add(singleLineSQL);
-            }
-        }
-
-        return strings.toArray(new String[strings.size()]);
+        return toArray(new SqlStatementSplitter(multiLineSQL, false, true, endDelimiter));
     }
 
     /**
      * Searches through a String which contains SQL code and strips out
      * any comments that are between \/**\/ or anything that matches
      * SP--SP<text>\n (to support the ANSI standard commenting of --
-     * at the end of a line).
+     * at the end of a line). Comment markers within quoted text are ignored.
      *
      * @return The String without the comments in
      */
     public static String stripComments(String multiLineSQL) {
-        String strippedSingleLines = Pattern.compile("\\s*\\-\\-.*\\n").matcher(multiLineSQL).replaceAll("\n");
-        strippedSingleLines = Pattern.compile("\\s*\\-\\-.*$").matcher(strippedSingleLines).replaceAll("\n");
-        return Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL).matcher(strippedSingleLines).replaceAll("").trim();
+        String[] stripped = toArray(new SqlStatementSplitter(multiLineSQL, true, false, null));
+        return stripped.length == 0 ? "" : stripped[0];
+    }
+
+    private static String[] toArray(SqlStatementSplitter splitter) {
+        try {
+            List<String> statements = splitter.readAll();
+            return statements.toArray(new String[statements.size()]);
+        } catch (IOException e) {
+            //cannot happen when reading from a String
+            throw new UnexpectedLiquibaseException(e);
+        }
     }
 
     public static String join(Object[] array, String delimiter, StringUtilsFormatter formatter) {
@@ -0,0 +1,123 @@
+package liquibase.util
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+class SqlStatementSplitterTest extends Specification {
+
+    @Unroll
+    def "split examples"() {
+        expect:
+        new SqlStatementSplitter(rawString, stripComments, true, endDelimiter).readAll() == expected
+
+        where:
+        stripComments | endDelimiter | rawString                                                      | expected
+        false         | null         | "select 1;\nselect 2;"                                         | ["select 1", "select 2"]
+        false         | null         | "select 1; select 2;\n"                                        | ["select 1; select 2"]
+        false         | null         | "insert into t values ('a;\nb');\nselect 2"                    | ["insert into t values ('a;\nb')", "select 2"]
+        false         | null         | "insert into t values ('it''s;\n');\nselect 2"                 | ["insert into t values ('it''s;\n')", "select 2"]
+        false         | null         | "select \"a;\nb\" from t;\nselect 2"                           | ["select \"a;\nb\" from t", "select 2"]
+        false         | null         | "select 1 /* end;\nof */;\nselect 2"                           | ["select 1 /* end;\nof */", "select 2"]
+        false         | null         | "select 1; -- comment\nselect 2"                               | ["select 1; -- comment\nselect 2"]
+        true          | null         | "select 1; -- comment\nselect 2"                               | ["select 1", "select 2"]
+        true          | null         | "select 1; /* comment */\nselect 2"                            | ["select 1", "select 2"]
+        true          | null         | "select '--not a comment';\nselect '/*nor this*/'"             | ["select '--not a comment'", "select '/*nor this*/'"]
+        false         | null         | "select 1\ngo\nselect 2\nGO  "                                 | ["select 1", "select 2"]
+        false         | "go"         | "select 1;\nselect 2\ngo\nselect 3"                            | ["select 1;\nselect 2", "select 3"]
+        false         | ";"          | "select 1; select ';'; select 3"                               | ["select 1", "select ';'", "select 3"]
+        false         | "/"          | "create procedure p as begin null; end;\n/\nselect 2"          | ["create procedure p as begin null; end;", "select 2"]
+        false         | "\\n/"       | "select 1\n/\nselect 2"                                        | ["select 1", "select 2"]
+        false         | null         | ";\n;\n"                                                       | []
+    }
+
+    def "dollar quoted text is not split"() {
+        when:
+        def sql = "create function f() returns int as \$\$ begin; return 1; end; \$\$ language plpgsql;\n" +
+                "create function g() returns int as \$body\$ begin;\nreturn 1;\nend; \$body\$ language plpgsql;\n" +
+                "select v\$session from t;\nselect 2"
+        def splitter = new SqlStatementSplitter(sql, false, true, null).setDollarQuoting(true)
+
+        then:
+        splitter.readAll() == [
+                "create function f() returns int as \$\$ begin; return 1; end; \$\$ language plpgsql",
+                "create function g() returns int as \$body\$ begin;\nreturn 1;\nend; \$body\$ language plpgsql",
+                "select v\$session from t",
+                "select 2"]
+    }
+
+    @Unroll
+    def "backslash escapes"() {
+        expect:
+        new SqlStatementSplitter(rawString, false, true, null).setBackslashEscapes(backslashEscapes).readAll() == expected
+
+        where:
+        backslashEscapes | rawString                                           | expected
+        true             | "insert into t values ('it\\'s;\n');\nselect 2"     | ["insert into t values ('it\\'s;\n')", "select 2"]
+        true             | "select \"a\\\";\nb\";\nselect 'c\\\\';\nselect 3" | ["select \"a\\\";\nb\"", "select 'c\\\\'", "select 3"]
+        true             | "select 'it''s';\nselect 2"                        | ["select 'it''s'", "select 2"]
+        false            | "select 'c:\\';\nselect 2"                          | ["select 'c:\\'", "select 2"]
+    }
+
+    @Unroll
+    def "escape strings"() {
+        expect:
+        new SqlStatementSplitter(rawString, false, true, null).setEscapeStrings(true).readAll() == expected
+
+        where:
+        rawString                                            | expected
+        "select E'\\';\n';\nselect 2"                        | ["select E'\\';\n'", "select 2"]
+        "select e'a\\';\nb';\nselect 2"                      | ["select e'a\\';\nb'", "select 2"]
+        "select 'c:\\';\nselect 2"                            | ["select 'c:\\'", "select 2"]
+        "select name'a\\';\nselect 2"                         | ["select name'a\\'", "select 2"]
+    }
+
+    @Unroll
+    def "nested comments"() {
+        expect:
+        new SqlStatementSplitter(rawString, true, true, null).setNestedComments(nested).readAll() == expected
+
+        where:
+        nested | rawString                                          | expected
+        true   | "select 1 /* outer /* inner; */\n still; */;\nx;"  | ["select 1", "x"]
+        false  | "select 1 /* outer /* inner */ after;\nx;"         | ["select 1  after", "x"]
+    }
+
+    def "statements are read one at a time from a reader"() {
+        when:
+        def statementCount = 20000
+        def reader = new Reader() {
+            int statement = 0
+            String pending = ""
+
+            @Override
+            int read(char[] chars, int offset, int length) {
+                if (pending.length() == 0) {
+                    if (statement == statementCount) {
+                        return -1
+                    }
+                    pending = "insert into t values (" + statement++ + ", 'a;b');\n"
+                }
+                int count = Math.min(length, pending.length())
+                pending.getChars(0, count, chars, offset)
+                pending = pending.substring(count)
+                return count
+            }
+
+            @Override
+            void close() {
+            }
+        }
+        def splitter = new SqlStatementSplitter(reader, true, true, null)
+        def first = splitter.nextStatement()
+        def read = reader.statement
+        def count = 1
+        while (splitter.nextStatement() != null) {
+            count++
+        }
+
+        then:
+        first == "insert into t values (0, 'a;b')"
+        read < 10
+        count == statementCount
+    }
+}
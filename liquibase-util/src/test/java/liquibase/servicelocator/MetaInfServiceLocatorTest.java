@@ -0,0 +1,170 @@
+package liquibase.servicelocator;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import liquibase.util.PrioritizedService;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetaInfServiceLocatorTest {
+
+    private File directory;
+    private ClassLoader originalClassLoader;
+
+    @Before
+    public void createDirectory() throws IOException {
+        directory = File.createTempFile("liquibase-services", "");
+        directory.delete();
+        new File(directory, "META-INF/services").mkdirs();
+        new File(directory, "META-INF/liquibase").mkdirs();
+        originalClassLoader = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[] { directory.toURI().toURL() }, getClass().getClassLoader()));
+    }
+
+    @After
+    public void deleteDirectory() {
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+        new File(directory, "META-INF/services/" + TestService.class.getName()).delete();
+        new File(directory, ServiceIndex.RESOURCE).delete();
+        new File(directory, "META-INF/services").delete();
+        new File(directory, "META-INF/liquibase").delete();
+        new File(directory, "META-INF").delete();
+        directory.delete();
+    }
+
+    @Test
+    public void newInstance_returnsHighestPriorityAndCachesLookup() throws IOException {
+        write("META-INF/services/" + TestService.class.getName(), LowService.class.getName() + "\n" + HighService.class.getName() + "\n");
+        MetaInfServiceLocator locator = new MetaInfServiceLocator(false);
+
+        Object first = locator.newInstance(TestService.class);
+        assertEquals(HighService.class, first.getClass());
+        assertArrayEquals(new Class[] { LowService.class, HighService.class }, locator.findClasses(TestService.class));
+
+        write("META-INF/services/" + TestService.class.getName(), LowService.class.getName() + "\n");
+        assertNotSame(first, locator.newInstance(TestService.class));
+        assertEquals(2, locator.findClasses(TestService.class).length);
+
+        locator.clearCache();
+        assertEquals(1, locator.findClasses(TestService.class).length);
+    }
+
+    @Test
+    public void newInstance_usesIndex() throws IOException {
+        write(ServiceIndex.RESOURCE, TestService.class.getName() + "=" + HighService.class.getName() + ":1," + LowService.class.getName() + ":3\n");
+
+        MetaInfServiceLocator locator = new MetaInfServiceLocator();
+        assertEquals(LowService.class, locator.newInstance(TestService.class).getClass());
+        assertArrayEquals(new Class[] { HighService.class, LowService.class }, locator.findClasses(TestService.class));
+    }
+
+    @Test
+    public void findClasses_mergesProvidersMissingFromIndex() throws IOException {
+        write("META-INF/services/" + TestService.class.getName(), LowService.class.getName() + "\n" + HighService.class.getName() + "\n");
+        write(ServiceIndex.RESOURCE, TestService.class.getName() + "=" + LowService.class.getName() + ":1\n");
+
+        MetaInfServiceLocator locator = new MetaInfServiceLocator();
+        assertArrayEquals(new Class[] { LowService.class, HighService.class }, locator.findClasses(TestService.class));
+        assertEquals(HighService.class, locator.newInstance(TestService.class).getClass());
+    }
+
+    @Test
+    public void newInstance_ignoresMalformedIndex() throws IOException {
+        write("META-INF/services/" + TestService.class.getName(), HighService.class.getName() + "\n");
+        write(ServiceIndex.RESOURCE, TestService.class.getName() + "=" + LowService.class.getName() + ":high\n");
+
+        assertEquals(HighService.class, new MetaInfServiceLocator().newInstance(TestService.class).getClass());
+    }
+
+    @Test
+    public void newInstance_ignoresStaleIndex() throws IOException {
+        write("META-INF/services/" + TestService.class.getName(), LowService.class.getName() + "\n");
+        write(ServiceIndex.RESOURCE, TestService.class.getName() + "=liquibase.servicelocator.MissingService:1\n");
+
+        assertEquals(LowService.class, new MetaInfServiceLocator().newInstance(TestService.class).getClass());
+    }
+
+    @Test
+    public void cache_doesNotKeepClassLoaderReachable() throws Exception {
+        write("META-INF/services/" + TestService.class.getName(), LowService.class.getName() + "\n");
+        MetaInfServiceLocator locator = new MetaInfServiceLocator(false);
+
+        ClassLoader classLoader = new ChildFirstClassLoader(new URL[] { directory.toURI().toURL(),
+                LowService.class.getProtectionDomain().getCodeSource().getLocation() }, getClass().getClassLoader());
+        Thread.currentThread().setContextClassLoader(classLoader);
+        Class[] classes = locator.findClasses(TestService.class);
+        assertEquals(1, classes.length);
+        assertNotSame(LowService.class, classes[0]);
+        assertSame(classLoader, classes[0].getClassLoader());
+
+        WeakReference<ClassLoader> reference = new WeakReference<ClassLoader>(classLoader);
+        Thread.currentThread().setContextClassLoader(originalClassLoader);
+        classLoader = null;
+        classes = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertNull(reference.get());
+    }
+
+    private void write(String path, String content) throws IOException {
+        FileOutputStream stream = new FileOutputStream(new File(directory, path));
+        try {
+            stream.write(content.getBytes("UTF-8"));
+        } finally {
+            stream.close();
+        }
+    }
+
+    /**
+     * Loads the service implementations itself rather than from its parent, like the class loader of a web application.
+     */
+    private static class ChildFirstClassLoader extends URLClassLoader {
+        private ChildFirstClassLoader(URL[] urls, ClassLoader parent) {
+            super(urls, parent);
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (name.equals(LowService.class.getName()) || name.equals(HighService.class.getName())) {
+                Class<?> clazz = findLoadedClass(name);
+                if (clazz == null) {
+                    clazz = findClass(name);
+                }
+                return clazz;
+            }
+            return super.loadClass(name, resolve);
+        }
+    }
+
+    public interface TestService extends PrioritizedService {
+    }
+
+    public static class LowService implements TestService {
+        @Override
+        public int getPriority() {
+            return 1;
+        }
+    }
+
+    public static class HighService implements TestService {
+        @Override
+        public int getPriority() {
+            return 5;
+        }
+    }
+}